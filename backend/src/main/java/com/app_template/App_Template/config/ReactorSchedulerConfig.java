@@ -0,0 +1,31 @@
+package com.app_template.App_Template.config;
+
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Scheduler for the blocking work (JPA, cache writes) done in reactive chains, e.g. saving a review once
+ * Ollama answered, so it never runs on a Reactor Netty event loop. With spring.threads.virtual.enabled
+ * it runs on virtual threads like request handling, so thousands of reviews waiting for Ollama do not
+ * need as many platform threads; otherwise on a bounded elastic pool.
+ */
+@Configuration
+public class ReactorSchedulerConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingScheduler(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            return Schedulers.fromExecutorService(
+                    Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("codezen-blocking-", 0).factory()),
+                    "codezen-blocking");
+        }
+        return Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "codezen-blocking");
+    }
+}
@@ -0,0 +1,12 @@
+package com.app_template.App_Template.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background tasks (e.g. Ollama backend health probes).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
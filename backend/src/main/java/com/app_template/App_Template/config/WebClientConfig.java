@@ -2,6 +2,7 @@ package com.app_template.App_Template.config;
 
 import java.time.Duration;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -12,6 +13,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+import io.netty.channel.ChannelOption;
 import reactor.netty.http.client.HttpClient;
 
 /**
@@ -21,9 +23,10 @@ import reactor.netty.http.client.HttpClient;
 public class WebClientConfig {
 
     @Bean
-    public WebClient.Builder webClientBuilder() {
+    public WebClient.Builder webClientBuilder(@Value("${ollama.connect-timeout-ms:5000}") int connectTimeoutMillis) {
         // Configure HttpClient with extended timeouts for Ollama (AI can take time)
         HttpClient httpClient = HttpClient.create()
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis) // an unreachable Ollama fails fast
             .responseTimeout(Duration.ofMinutes(5)); // 5 minutes for complex code reviews
         
         return WebClient.builder()
@@ -13,8 +13,12 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.app_template.App_Template.dto.OllamaBackendStatus;
+import com.app_template.App_Template.dto.ReviewCacheStats;
 import com.app_template.App_Template.dto.UserDto;
 import com.app_template.App_Template.service.admin.AdminService;
+import com.app_template.App_Template.service.cache.ReviewCacheService;
+import com.app_template.App_Template.service.ollama.OllamaBackendPool;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +29,8 @@ import lombok.RequiredArgsConstructor;
 public class AdminController {
 
     private final AdminService adminService;
+    private final ReviewCacheService reviewCacheService;
+    private final OllamaBackendPool ollamaBackendPool;
 
     @GetMapping("/users")
     @PreAuthorize("hasRole('ADMIN')")
@@ -79,4 +85,16 @@ public class AdminController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
     }
+
+    @GetMapping("/review-cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReviewCacheStats> getReviewCacheStats() {
+        return ResponseEntity.ok(reviewCacheService.getStats());
+    }
+
+    @GetMapping("/ollama/backends")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<OllamaBackendStatus>> getOllamaBackends() {
+        return ResponseEntity.ok(ollamaBackendPool.getStatus());
+    }
 }
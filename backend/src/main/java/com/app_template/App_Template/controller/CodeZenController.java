@@ -1,32 +1,57 @@
 package com.app_template.App_Template.controller;
 
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
+import com.app_template.App_Template.dto.BatchReviewResponse;
 import com.app_template.App_Template.dto.CommentRequest;
 import com.app_template.App_Template.dto.CommentResponse;
+import com.app_template.App_Template.dto.FindingHotspot;
+import com.app_template.App_Template.dto.FindingTrendPoint;
+import com.app_template.App_Template.dto.FindingTypeCount;
 import com.app_template.App_Template.dto.GuidelineRequest;
 import com.app_template.App_Template.dto.GuidelineResponse;
 import com.app_template.App_Template.dto.ProjectRequest;
 import com.app_template.App_Template.dto.ProjectResponse;
+import com.app_template.App_Template.dto.QueuePositionResponse;
+import com.app_template.App_Template.dto.ReviewPage;
 import com.app_template.App_Template.dto.ReviewRequest;
 import com.app_template.App_Template.dto.ReviewResponse;
+import com.app_template.App_Template.dto.ReviewSummary;
 import com.app_template.App_Template.entity.User;
 import com.app_template.App_Template.repository.UserRepository;
+import com.app_template.App_Template.service.codezen.BatchReviewService;
 import com.app_template.App_Template.service.codezen.CodeZenService;
+import com.app_template.App_Template.service.codezen.ReviewFindingService;
+import com.app_template.App_Template.service.ollama.OllamaUnavailableException;
+import com.app_template.App_Template.service.scheduler.LlmJobCancelledException;
+import com.app_template.App_Template.service.scheduler.LlmQueueFullException;
 
 import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -40,6 +65,10 @@ public class CodeZenController {
 
     private final CodeZenService codeZenService;
     private final UserRepository userRepository;
+    private final ReviewFindingService reviewFindingService;
+    private final BatchReviewService batchReviewService;
+
+    private static final Duration STREAM_HEARTBEAT = Duration.ofSeconds(10);
 
     /**
      * Get the authenticated user from security context.
@@ -84,6 +113,37 @@ public class CodeZenController {
         return ResponseEntity.ok(project);
     }
 
+    /**
+     * GET /api/v1/projects/queue
+     * Get the position of the current user's pending review and chat requests.
+     */
+    @GetMapping("/queue")
+    public ResponseEntity<List<QueuePositionResponse>> getQueuePositions() {
+        User user = getCurrentUser();
+        return ResponseEntity.ok(codeZenService.getQueuedJobs(user));
+    }
+
+    /**
+     * POST /api/v1/projects/queue/{jobId}/cancel
+     * Cancel one of the current user's pending review or chat requests.
+     */
+    @PostMapping("/queue/{jobId}/cancel")
+    public ResponseEntity<Void> cancelJob(@PathVariable String jobId) {
+        User user = getCurrentUser();
+        codeZenService.cancelJob(jobId, user);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * PUT /api/v1/projects/{id}/model-routing
+     * Set the triage and review models of a project (only triageModel and reviewModel are read).
+     */
+    @PutMapping("/{id}/model-routing")
+    public ResponseEntity<ProjectResponse> updateModelRouting(@PathVariable Long id, @RequestBody ProjectRequest request) {
+        User user = getCurrentUser();
+        return ResponseEntity.ok(codeZenService.updateModelRouting(id, request, user));
+    }
+
     /**
      * DELETE /api/v1/projects/{id}
      * Delete a project.
@@ -98,6 +158,9 @@ public class CodeZenController {
     /**
      * POST /api/v1/projects/{id}/reviews
      * Submit code for review.
+     * Nothing is written until the review is done, so a client that goes away is not noticed here; the
+     * generation is only cancelled on request timeout or through the requestId (POST /queue/{jobId}/cancel).
+     * The stream endpoint notices closed connections.
      */
     @PostMapping("/{id}/reviews")
     public Mono<ResponseEntity<ReviewResponse>> createReview(
@@ -109,14 +172,122 @@ public class CodeZenController {
     }
 
     /**
-     * GET /api/v1/projects/{id}/reviews
-     * Get all reviews for a project.
+     * POST /api/v1/projects/{id}/reviews/stream
+     * Submit code for review and receive findings as Server-Sent Events while they are generated.
+     * A comment is sent while nothing else is, so a closed stream is noticed (and the review cancelled)
+     * even while the review is still queued: the failed write cancels the subscription, which aborts the
+     * Ollama request. This is the only review endpoint that cancels on disconnect.
+     */
+    @PostMapping(value = "/{id}/reviews/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamReview(
+            @PathVariable Long id,
+            @RequestBody ReviewRequest request) {
+        User user = getCurrentUser();
+        Flux<ServerSentEvent<Object>> heartbeats = Flux.interval(STREAM_HEARTBEAT)
+                .map(tick -> ServerSentEvent.builder().comment("heartbeat").build());
+        return codeZenService.streamReview(id, request, user)
+                .map(event -> ServerSentEvent.builder(event.getData())
+                        .event(event.getType())
+                        .build())
+                .publish(events -> Flux.merge(events, heartbeats.takeUntilOther(events.ignoreElements())));
+    }
+
+    /**
+     * POST /api/v1/projects/{id}/reviews/jobs
+     * Submit code for review without waiting for it: returns 202 with the QUEUED review.
+     * Poll the review (Location header) or subscribe to its events for the result.
+     */
+    @PostMapping("/{id}/reviews/jobs")
+    public ResponseEntity<ReviewResponse> submitReviewJob(
+            @PathVariable Long id,
+            @RequestBody ReviewRequest request) {
+        User user = getCurrentUser();
+        ReviewResponse review = codeZenService.submitReviewJob(id, request, user);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/projects/" + id + "/reviews/" + review.getId()))
+                .body(review);
+    }
+
+    /**
+     * POST /api/v1/projects/{id}/reviews/batch
+     * Submit several files (multipart "files"; zip archives are expanded) for review: returns 202 with the
+     * batch report. Follow the batch (Location header) or subscribe to its events for progress.
+     */
+    @PostMapping(value = "/{id}/reviews/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> submitBatch(
+            @PathVariable Long id,
+            @RequestParam("files") List<MultipartFile> files) {
+        User user = getCurrentUser();
+        try {
+            BatchReviewResponse batch = batchReviewService.submitBatch(id, files, user);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/projects/" + id + "/reviews/batches/" + batch.getBatchId()))
+                    .body(batch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * GET /api/v1/projects/{id}/reviews/batches/{batchId}
+     * Progress of a batch, and its aggregated report (per-file effort and finding counts).
+     */
+    @GetMapping("/{id}/reviews/batches/{batchId}")
+    public ResponseEntity<BatchReviewResponse> getBatch(
+            @PathVariable Long id,
+            @PathVariable String batchId) {
+        User user = getCurrentUser();
+        return ResponseEntity.ok(batchReviewService.getBatch(id, batchId, user));
+    }
+
+    /**
+     * GET /api/v1/projects/{id}/reviews/batches/{batchId}/events
+     * Subscribe to the progress of a batch as Server-Sent Events; completes once every file is finished.
+     */
+    @GetMapping(value = "/{id}/reviews/batches/{batchId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<BatchReviewResponse>> watchBatch(
+            @PathVariable Long id,
+            @PathVariable String batchId) {
+        User user = getCurrentUser();
+        return batchReviewService.watchBatch(id, batchId, user)
+                .map(batch -> ServerSentEvent.builder(batch)
+                        .event("progress")
+                        .build());
+    }
+
+    /**
+     * GET /api/v1/projects/{id}/reviews/{reviewId}/events
+     * Subscribe to the status of a review as Server-Sent Events; completes once it is DONE, FAILED or CANCELLED.
+     */
+    @GetMapping(value = "/{id}/reviews/{reviewId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ReviewResponse>> watchReview(
+            @PathVariable Long id,
+            @PathVariable Long reviewId) {
+        User user = getCurrentUser();
+        return codeZenService.watchReview(id, reviewId, user)
+                .map(review -> ServerSentEvent.builder(review)
+                        .event("status")
+                        .build());
+    }
+
+    /**
+     * GET /api/v1/projects/{id}/reviews?limit=20&cursor=...&fields=id,timestamp,summary
+     * Get a page of a project's reviews, newest first, without code and responses.
+     * Pass nextCursor as cursor for the next page; fields limits the returned fields.
      */
     @GetMapping("/{id}/reviews")
-    public ResponseEntity<List<ReviewResponse>> getReviews(@PathVariable Long id) {
+    public ResponseEntity<?> getReviews(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) List<String> fields) {
         User user = getCurrentUser();
-        List<ReviewResponse> reviews = codeZenService.getReviews(id, user);
-        return ResponseEntity.ok(reviews);
+        try {
+            ReviewPage page = codeZenService.getReviews(id, cursor, limit, fields == null ? Set.of() : Set.copyOf(fields), user);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     /**
@@ -132,6 +303,73 @@ public class CodeZenController {
         return ResponseEntity.ok(review);
     }
 
+    /**
+     * POST /api/v1/projects/{id}/reviews/{reviewId}/full-review
+     * Review the code of an earlier review again in full, e.g. one derived from a near-duplicate.
+     */
+    @PostMapping("/{id}/reviews/{reviewId}/full-review")
+    public Mono<ResponseEntity<ReviewResponse>> fullReview(
+            @PathVariable Long id,
+            @PathVariable Long reviewId) {
+        User user = getCurrentUser();
+        return codeZenService.fullReview(id, reviewId, user)
+                .map(review -> ResponseEntity.status(HttpStatus.CREATED).body(review));
+    }
+
+    /**
+     * POST /api/v1/projects/{id}/reviews/{reviewId}/cancel
+     * Cancel a review that is queued or being generated; a finished review is returned unchanged.
+     * The reply is the review's summary, without its code and response.
+     */
+    @PostMapping("/{id}/reviews/{reviewId}/cancel")
+    public ResponseEntity<ReviewSummary> cancelReview(
+            @PathVariable Long id,
+            @PathVariable Long reviewId) {
+        User user = getCurrentUser();
+        return ResponseEntity.ok(codeZenService.cancelReview(id, reviewId, user));
+    }
+
+    /**
+     * GET /api/v1/projects/{id}/findings/types?since=
+     * Count the project's findings per type (default: the last 30 days).
+     */
+    @GetMapping("/{id}/findings/types")
+    public ResponseEntity<List<FindingTypeCount>> getFindingTypeCounts(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        User user = getCurrentUser();
+        return ResponseEntity.ok(reviewFindingService.countByType(id, since, user));
+    }
+
+    /**
+     * GET /api/v1/projects/{id}/findings/trend?since=&type=&granularity=day|month
+     * Count the project's findings per type per day or month.
+     */
+    @GetMapping("/{id}/findings/trend")
+    public ResponseEntity<List<FindingTrendPoint>> getFindingTrend(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "day") String granularity) {
+        User user = getCurrentUser();
+        boolean monthly = "month".equalsIgnoreCase(granularity);
+        return ResponseEntity.ok(reviewFindingService.getTrend(id, since, type, monthly, user));
+    }
+
+    /**
+     * GET /api/v1/projects/{id}/findings/hotspots?since=&type=&limit=
+     * Get the lines (per file) with the most findings across the project's reviews, not counting carried findings.
+     */
+    @GetMapping("/{id}/findings/hotspots")
+    public ResponseEntity<List<FindingHotspot>> getFindingHotspots(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "10") int limit) {
+        User user = getCurrentUser();
+        return ResponseEntity.ok(reviewFindingService.getHotspots(id, since, type, limit, user));
+    }
+
     /**
      * POST /api/v1/projects/{id}/guidelines
      * Add a custom guideline to a project.
@@ -156,6 +394,19 @@ public class CodeZenController {
         return ResponseEntity.ok(guidelines);
     }
 
+    /**
+     * PUT /api/v1/projects/{id}/guidelines/{guidelineId}
+     * Change the text of a guideline or pin it (pinned guidelines are in every review prompt).
+     */
+    @PutMapping("/{id}/guidelines/{guidelineId}")
+    public ResponseEntity<GuidelineResponse> updateGuideline(
+            @PathVariable Long id,
+            @PathVariable Long guidelineId,
+            @RequestBody GuidelineRequest request) {
+        User user = getCurrentUser();
+        return ResponseEntity.ok(codeZenService.updateGuideline(id, guidelineId, request, user));
+    }
+
     /**
      * DELETE /api/v1/projects/{id}/guidelines/{guidelineId}
      * Delete a guideline from a project.
@@ -172,6 +423,7 @@ public class CodeZenController {
     /**
      * POST /api/v1/projects/{id}/reviews/{reviewId}/comments
      * Post a question/comment on a review and get AI response.
+     * As with createReview, a client that goes away cancels the answer only through its requestId.
      */
     @PostMapping("/{id}/reviews/{reviewId}/comments")
     public Mono<ResponseEntity<CommentResponse>> postComment(
@@ -195,4 +447,28 @@ public class CodeZenController {
         List<CommentResponse> comments = codeZenService.getComments(id, reviewId, user);
         return ResponseEntity.ok(comments);
     }
-}
\ No newline at end of file
+
+    /**
+     * Reject with 429 when the Ollama job queue is full.
+     */
+    @ExceptionHandler(LlmQueueFullException.class)
+    public ResponseEntity<String> handleQueueFull(LlmQueueFullException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
+
+    @ExceptionHandler(LlmJobCancelledException.class)
+    public ResponseEntity<String> handleJobCancelled(LlmJobCancelledException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+
+    @ExceptionHandler(OllamaUnavailableException.class)
+    public ResponseEntity<String> handleOllamaUnavailable(OllamaUnavailableException e) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE);
+        if (e.getRetryAfterSeconds() > 0) {
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        }
+        return response.body(e.getMessage());
+    }
+}
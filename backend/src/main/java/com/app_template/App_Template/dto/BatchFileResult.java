@@ -0,0 +1,32 @@
+package com.app_template.App_Template.dto;
+
+import com.app_template.App_Template.enums.ReviewStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the outcome of one file of a batch review.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchFileResult {
+    private Long reviewId;
+    private String fileName;
+    private String status;
+    private String effortEstimation;
+    private long findingCount;
+    private String errorMessage;
+
+    /**
+     * Constructor used by the batch query; finding counts are filled in afterwards.
+     */
+    public BatchFileResult(Long reviewId, String fileName, ReviewStatus status, String effortEstimation,
+            String errorMessage) {
+        this(reviewId, fileName, status == null ? null : status.name(), effortEstimation, 0, errorMessage);
+    }
+}
@@ -0,0 +1,40 @@
+package com.app_template.App_Template.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the progress and aggregated report of a batch review.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchReviewResponse {
+    private String batchId;
+    private Long projectId;
+
+    private int totalFiles;
+    private int queued;
+    private int running;
+    private int done;
+    private int failed;
+    private int cancelled;
+    private boolean finished;
+
+    private long totalFindings;
+    private Map<String, Long> findingsByType;
+    private String maxEffort; // highest effort estimation of the finished files, e.g. "7/10"
+    private Double averageEffort;
+
+    private List<BatchFileResult> files;
+    private List<String> skippedFiles; // only on submission: entries that were not reviewed, with the reason
+}
@@ -14,5 +14,8 @@ import lombok.NoArgsConstructor;
 @Builder
 public class CommentRequest {
     private String message;
+
+    // Id chosen by the client for the Ollama job, so it can cancel the answer (POST /queue/{requestId}/cancel) before the reply
+    private String requestId;
 }
 
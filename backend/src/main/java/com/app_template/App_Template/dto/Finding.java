@@ -0,0 +1,27 @@
+package com.app_template.App_Template.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a single issue reported by a review.
+ * Type is one of "bug", "type-error", "security", "performance", "style".
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Finding {
+    private Integer line;
+    private String type;
+    private String message;
+    private String suggestion;
+    private String status; // "new", "carried" or "resolved" for incremental reviews
+}
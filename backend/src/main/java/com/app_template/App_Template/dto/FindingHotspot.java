@@ -0,0 +1,21 @@
+package com.app_template.App_Template.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a line of a file that keeps collecting findings across the reviews of a project.
+ * The file name is null for reviews submitted without one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FindingHotspot {
+    private String fileName;
+    private Integer line;
+    private Long findings;
+    private Long reviews;
+}
@@ -0,0 +1,35 @@
+package com.app_template.App_Template.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the number of findings of one type in one period (a day or a month, starting at period).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FindingTrendPoint {
+    private LocalDate period;
+    private String type;
+    private Long count;
+
+    /**
+     * Daily bucket, as constructed by the aggregate query.
+     */
+    public FindingTrendPoint(Integer year, Integer month, Integer day, String type, Long count) {
+        this(LocalDate.of(year, month, day), type, count);
+    }
+
+    /**
+     * Monthly bucket, as constructed by the aggregate query.
+     */
+    public FindingTrendPoint(Integer year, Integer month, String type, Long count) {
+        this(LocalDate.of(year, month, 1), type, count);
+    }
+}
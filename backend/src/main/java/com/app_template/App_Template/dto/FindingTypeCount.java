@@ -0,0 +1,18 @@
+package com.app_template.App_Template.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the number of findings of one type in a project.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FindingTypeCount {
+    private String type;
+    private Long count;
+}
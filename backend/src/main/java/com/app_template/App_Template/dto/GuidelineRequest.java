@@ -14,4 +14,5 @@ import lombok.NoArgsConstructor;
 @Builder
 public class GuidelineRequest {
     private String ruleText;
+    private Boolean pinned; // optional, always include the rule in review prompts
 }
\ No newline at end of file
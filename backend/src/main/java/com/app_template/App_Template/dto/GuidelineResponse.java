@@ -15,5 +15,6 @@ import lombok.NoArgsConstructor;
 public class GuidelineResponse {
     private Long id;
     private String ruleText;
+    private boolean pinned;
     private Long projectId;
 }
\ No newline at end of file
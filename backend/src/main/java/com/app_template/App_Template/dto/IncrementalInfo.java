@@ -0,0 +1,28 @@
+package com.app_template.App_Template.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for what an incremental review was derived from, stored in its ReviewResult.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class IncrementalInfo {
+
+    @JsonProperty("base_review_id")
+    private Long baseReviewId;
+
+    @JsonProperty("changed_lines")
+    private int changedLines;
+
+    private int hunks;
+}
@@ -0,0 +1,31 @@
+package com.app_template.App_Template.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the health and load of one Ollama backend in the pool.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OllamaBackendStatus {
+    private String baseUrl;
+    private boolean healthy;
+    private int outstanding;
+    private int maxConcurrent;
+    private int outstandingEmbeddings;
+    private int maxConcurrentEmbeddings;
+    private int consecutiveFailures;
+    private String lastError;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime lastCheckedAt;
+}
@@ -0,0 +1,20 @@
+package com.app_template.App_Template.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a model currently loaded on an Ollama backend, as reported by its /api/ps.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OllamaLoadedModel {
+    private String baseUrl;
+    private String model;
+    private long sizeVram;
+    private String expiresAt;
+}
@@ -0,0 +1,31 @@
+package com.app_template.App_Template.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the warm-up and keep-alive state of one Ollama model.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OllamaModelState {
+    private String model;
+    private boolean warmUp; // preloaded at startup
+    private boolean keptWarm; // pinged at the moment, because traffic is expected
+    private Long lastWarmUpLoadMs; // load time reported by the last ping; high when the model was not loaded
+    private String lastWarmUpError;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime lastUsedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime lastWarmedAt;
+}
@@ -0,0 +1,24 @@
+package com.app_template.App_Template.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the ollamamodels actuator endpoint: the keep-alive settings, the state of every known model
+ * and the models each backend has loaded.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OllamaModelsStatus {
+    private String keepAlive;
+    private boolean businessHours;
+    private List<OllamaModelState> models;
+    private List<OllamaLoadedModel> loaded;
+    private List<String> unreachableBackends;
+}
@@ -15,4 +15,6 @@ import lombok.NoArgsConstructor;
 public class ProjectRequest {
     private String name;
     private String language;
+    private String triageModel; // optional, see Project.triageModel
+    private String reviewModel; // optional, see Project.reviewModel
 }
\ No newline at end of file
@@ -19,6 +19,8 @@ public class ProjectResponse {
     private Long id;
     private String name;
     private String language;
+    private String triageModel;
+    private String reviewModel;
     
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime createdAt;
@@ -0,0 +1,23 @@
+package com.app_template.App_Template.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO describing where a user's LLM request currently is in the scheduler.
+ * Position is 1-based for queued requests and 0 once the request is running.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QueuePositionResponse {
+    private String jobId;
+    private String description;
+    private String state; // "QUEUED" or "RUNNING"
+    private int position;
+    private int queueLength;
+    private long estimatedWaitSeconds;
+}
@@ -0,0 +1,25 @@
+package com.app_template.App_Template.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for review cache hit/miss statistics.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReviewCacheStats {
+    private boolean enabled;
+    private long memoryHits;
+    private long databaseHits;
+    private long misses;
+    private long stores;
+    private long invalidations;
+    private int memoryEntries;
+    private int memoryMaxEntries;
+    private double hitRatio;
+}
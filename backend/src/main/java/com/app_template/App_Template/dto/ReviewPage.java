@@ -0,0 +1,21 @@
+package com.app_template.App_Template.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one page of a project's reviews, newest first.
+ * nextCursor asks for the following page and is null on the last one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReviewPage {
+    private List<ReviewSummary> reviews;
+    private String nextCursor;
+}
@@ -14,4 +14,13 @@ import lombok.NoArgsConstructor;
 @Builder
 public class ReviewRequest {
     private String code;
+
+    // Review only what changed since the project's latest review, carrying its findings forward
+    private Boolean incremental;
+
+    // Review the whole file even when it nearly duplicates an earlier review of the project
+    private Boolean fullReview;
+
+    // Id chosen by the client for the Ollama job, so it can cancel the review (POST /queue/{requestId}/cancel) before the reply
+    private String requestId;
 }
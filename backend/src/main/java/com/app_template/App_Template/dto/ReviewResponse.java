@@ -24,6 +24,12 @@ public class ReviewResponse {
     private String codeSnapshot;
     private String llmResponse;
     private String effortEstimation;
+    private Long baseReviewId;
+    private Double nearMatchSimilarity; // set when baseReviewId is a near-duplicate whose findings were reused
+    private String batchId;
+    private String fileName;
+    private String status;
+    private String errorMessage;
     private Long projectId;
     private Long userId;
 }
\ No newline at end of file
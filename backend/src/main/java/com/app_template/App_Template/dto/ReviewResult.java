@@ -0,0 +1,40 @@
+package com.app_template.App_Template.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the structured result of a code review, as generated by Ollama and stored in Review.llmResponse.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ReviewResult {
+
+    private String summary;
+
+    @Builder.Default
+    private List<Finding> findings = new ArrayList<>();
+
+    @JsonProperty("effort_estimation")
+    @JsonAlias("effortEstimation")
+    private String effortEstimation; // e.g., "3/10"
+
+    @JsonProperty("resolved_findings")
+    private List<Finding> resolvedFindings; // incremental reviews: findings of the base review on lines that changed
+
+    private IncrementalInfo incremental; // set on incremental reviews
+}
@@ -0,0 +1,35 @@
+package com.app_template.App_Template.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a single event pushed to the client while a review is streamed.
+ * The type becomes the SSE event name ("queue", "near_match", "finding", "summary",
+ * "effort", "review", "error", "cancelled"). A near_match event carries the earlier review a near-duplicate submission
+ * is based on; a cancelled event carries the review after it was cancelled.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReviewStreamEvent {
+
+    public static final String QUEUE = "queue";
+    public static final String NEAR_MATCH = "near_match";
+    public static final String FINDING = "finding";
+    public static final String SUMMARY = "summary";
+    public static final String EFFORT = "effort";
+    public static final String REVIEW = "review";
+    public static final String ERROR = "error";
+    public static final String CANCELLED = "cancelled";
+
+    private String type;
+    private Object data;
+
+    public static ReviewStreamEvent of(String type, Object data) {
+        return new ReviewStreamEvent(type, data);
+    }
+}
@@ -0,0 +1,47 @@
+package com.app_template.App_Template.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import com.app_template.App_Template.enums.ReviewStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a review in the review listing, without its code and response.
+ * Fields the client did not ask for are left out of the JSON.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReviewSummary {
+    private Long id;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime timestamp;
+
+    private String status;
+    private String effortEstimation;
+    private String summary;
+    private Long findingCount;
+    private Map<String, Long> findingsByType;
+    private String fileName;
+    private String batchId;
+    private Long baseReviewId;
+
+    /**
+     * Constructor used by the listing query; finding counts are filled in afterwards.
+     */
+    public ReviewSummary(Long id, LocalDateTime timestamp, ReviewStatus status, String effortEstimation,
+            String summary, String fileName, String batchId, Long baseReviewId) {
+        this(id, timestamp, status == null ? null : status.name(), effortEstimation, summary, null, null,
+                fileName, batchId, baseReviewId);
+    }
+}
@@ -17,7 +17,8 @@ import lombok.NoArgsConstructor;
 
 /**
  * CustomGuideline entity - Project-specific rules that influence code reviews.
- * These rules are appended to the Ollama prompt for personalized feedback.
+ * These rules are appended to the Ollama prompt for personalized feedback: pinned rules always,
+ * the others when they are among the most relevant to the reviewed code (see GuidelineSelector).
  */
 @Entity
 @Table(name = "custom_guidelines")
@@ -35,6 +36,14 @@ public class CustomGuideline {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String ruleText;
 
+    private Boolean pinned; // always included in review prompts, regardless of relevance
+
+    @Column(length = 32768)
+    private byte[] embedding; // normalized float32 vector of ruleText, little-endian; null until embedded
+
+    @Column(length = 100)
+    private String embeddingModel; // model that produced the embedding
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id", nullable = false)
     private Project project;
@@ -0,0 +1,88 @@
+package com.app_template.App_Template.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * InferenceTelemetry - Where the time of a review or chat answer went.
+ * Model load, prompt evaluation and generation figures are reported by Ollama (summed over all
+ * generations of a review: triage, escalation, chunks, repair); prompt build, queue wait and HTTP
+ * time are measured here. Time to first token is measured for streamed reviews and is the model
+ * load plus prompt evaluation time of the first generation otherwise. All values are null when
+ * the answer did not come from Ollama (e.g. a cache hit).
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InferenceTelemetry {
+
+    @Column(name = "inference_prompt_build_ms")
+    private Long promptBuildMs;
+
+    @Column(name = "inference_queue_wait_ms")
+    private Long queueWaitMs;
+
+    @Column(name = "inference_http_ms")
+    private Long httpMs; // wall time of the calls to Ollama
+
+    @Column(name = "inference_model_load_ms")
+    private Long modelLoadMs;
+
+    @Column(name = "inference_prompt_eval_ms")
+    private Long promptEvalMs;
+
+    @Column(name = "inference_eval_ms")
+    private Long evalMs;
+
+    @Column(name = "inference_ttft_ms")
+    private Long timeToFirstTokenMs;
+
+    @Column(name = "inference_prompt_tokens")
+    private Integer promptTokens;
+
+    @Column(name = "inference_eval_tokens")
+    private Integer evalTokens;
+
+    @Column(name = "inference_tokens_per_second")
+    private Double tokensPerSecond;
+
+    @Column(name = "inference_generations")
+    private Integer generations;
+
+    /**
+     * Add the figures of another generation that contributed to the same answer.
+     * Generations of one review may finish concurrently (chunks), hence synchronized.
+     */
+    public synchronized void add(InferenceTelemetry other) {
+        if (other == null) {
+            return;
+        }
+        synchronized (other) {
+            httpMs = sum(httpMs, other.httpMs);
+            modelLoadMs = sum(modelLoadMs, other.modelLoadMs);
+            promptEvalMs = sum(promptEvalMs, other.promptEvalMs);
+            evalMs = sum(evalMs, other.evalMs);
+            promptTokens = sum(promptTokens, other.promptTokens);
+            evalTokens = sum(evalTokens, other.evalTokens);
+            generations = sum(generations, other.generations);
+            if (timeToFirstTokenMs == null) {
+                timeToFirstTokenMs = other.timeToFirstTokenMs;
+            }
+        }
+        tokensPerSecond = evalTokens == null || evalMs == null || evalMs == 0 ? null : evalTokens * 1000.0 / evalMs;
+    }
+
+    private static Long sum(Long a, Long b) {
+        return a == null ? b : b == null ? a : a + b;
+    }
+
+    private static Integer sum(Integer a, Integer b) {
+        return a == null ? b : b == null ? a : a + b;
+    }
+}
@@ -41,6 +41,12 @@ public class Project {
     @Column(nullable = false)
     private String language; // e.g., "java", "typescript", "python"
 
+    @Column(length = 100)
+    private String triageModel; // overrides the language/global triage model; "none" disables triage
+
+    @Column(length = 100)
+    private String reviewModel; // overrides the language/global review model
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -53,4 +59,7 @@ public class Project {
 
     @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<CustomGuideline> guidelines;
+
+    @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<ReviewCacheEntry> cacheEntries;
 }
\ No newline at end of file
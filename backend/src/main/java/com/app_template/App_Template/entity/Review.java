@@ -2,15 +2,23 @@ package com.app_template.App_Template.entity;
 
 import java.time.LocalDateTime;
 
+import com.app_template.App_Template.enums.ReviewStatus;
+
+import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -19,10 +27,14 @@ import lombok.NoArgsConstructor;
 
 /**
  * Review entity - Stores code review results from Ollama.
- * Contains the original code, AI feedback, and effort estimation.
+ * The original code, AI feedback and conversation context live in ReviewContent and are only
+ * read when one of them is accessed; status, effort and summary are on the review itself.
  */
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        @Index(name = "idx_reviews_batch", columnList = "batch_id"),
+        @Index(name = "idx_reviews_project_timestamp", columnList = "project_id, timestamp, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,16 +48,56 @@ public class Review {
     @Column(nullable = false, updatable = false)
     private LocalDateTime timestamp;
 
-    @Lob
-    @Column(nullable = false, columnDefinition = "TEXT")
-    private String codeSnapshot;
+    @OneToOne(fetch = FetchType.LAZY, optional = false, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "content_id", nullable = false, unique = true)
+    private ReviewContent content; // code, response and context; loaded on first access
+
+    @Column(length = 50)
+    private String effortEstimation; // e.g., "3/10"
+
+    @Column(length = 500)
+    private String summary; // summary of llmResponse, so review listings need not load the response
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private ReviewStatus status;
+
+    private Integer attempts; // generations started for this review, including retries
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime completedAt;
+
+    @Column(length = 500)
+    private String errorMessage;
+
+    @Column(length = 100)
+    private String llmModel; // model that generated the review
 
     @Lob
     @Column(columnDefinition = "TEXT")
-    private String llmResponse; // JSON response from Ollama
+    private String conversationSummary; // rolling summary of chat turns older than the history window
 
-    @Column(length = 50)
-    private String effortEstimation; // e.g., "3/10"
+    private Long summarizedThroughCommentId; // last comment folded into conversationSummary
+
+    @Column(name = "base_review_id")
+    private Long baseReviewId; // previous review an incremental review was derived from
+
+    @Column(name = "batch_id", length = 36)
+    private String batchId; // batch the review was submitted in, null for single reviews
+
+    private String fileName; // path of the reviewed file within its batch
+
+    private Double nearMatchSimilarity; // set when the review was derived from a near-duplicate base review
+
+    @Column(length = 32768)
+    private byte[] codeEmbedding; // normalized embedding of codeSnapshot, for near-duplicate lookups
+
+    @Column(length = 100)
+    private String codeEmbeddingModel; // model that produced codeEmbedding
+
+    @Embedded
+    private InferenceTelemetry telemetry; // timings and token counts of the generation
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id", nullable = false)
@@ -54,4 +106,52 @@ public class Review {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
+
+    // The text accessors go through content, which loads it on first use outside of a fetch join
+
+    public String getCodeSnapshot() {
+        return content == null ? null : content.getCodeSnapshot();
+    }
+
+    public void setCodeSnapshot(String codeSnapshot) {
+        content().setCodeSnapshot(codeSnapshot);
+    }
+
+    public String getLlmResponse() {
+        return content == null ? null : content.getLlmResponse();
+    }
+
+    public void setLlmResponse(String llmResponse) {
+        content().setLlmResponse(llmResponse);
+    }
+
+    public String getLlmContext() {
+        return content == null ? null : content.getLlmContext();
+    }
+
+    public void setLlmContext(String llmContext) {
+        content().setLlmContext(llmContext);
+    }
+
+    public String getLlmContextModel() {
+        return content == null ? null : content.getLlmContextModel();
+    }
+
+    public void setLlmContextModel(String llmContextModel) {
+        content().setLlmContextModel(llmContextModel);
+    }
+
+    private ReviewContent content() {
+        if (content == null) {
+            content = new ReviewContent();
+        }
+        return content;
+    }
+
+    public static class ReviewBuilder {
+
+        public ReviewBuilder codeSnapshot(String codeSnapshot) {
+            return content(ReviewContent.builder().codeSnapshot(codeSnapshot).build());
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.app_template.App_Template.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Lob;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ReviewCacheEntry entity - Persistent tier of the review result cache.
+ * The cache key is a SHA-256 over the normalized code, guidelines, language and model,
+ * so identical submissions can reuse a previous Ollama generation across restarts.
+ */
+@Entity
+@Table(name = "review_cache")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReviewCacheEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String cacheKey;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String llmResponse;
+
+    @Column(length = 50)
+    private String effortEstimation;
+
+    @Column(nullable = false)
+    private String model;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime lastHitAt;
+
+    private long hitCount;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "project_id", nullable = false)
+    private Project project;
+}
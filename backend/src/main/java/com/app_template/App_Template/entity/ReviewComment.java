@@ -3,6 +3,7 @@ package com.app_template.App_Template.entity;
 import java.time.LocalDateTime;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
@@ -50,5 +51,8 @@ public class ReviewComment {
 
     @Column(nullable = false, updatable = false)
     private LocalDateTime timestamp;
+
+    @Embedded
+    private InferenceTelemetry telemetry; // timings and token counts of an AI answer
 }
 
@@ -0,0 +1,46 @@
+package com.app_template.App_Template.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ReviewContent entity - The large text of a review: the submitted code, the response from Ollama
+ * and the conversation context. Kept out of the reviews table so that loading a review for an
+ * ownership check, a status or a comment thread does not read them; Review loads it lazily.
+ */
+@Entity
+@Table(name = "review_contents")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReviewContent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String codeSnapshot;
+
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String llmResponse; // JSON response from Ollama
+
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String llmContext; // Ollama conversation context (token ids) of the review and its follow-up chat
+
+    @Column(length = 100)
+    private String llmContextModel; // model that produced llmContext; the context only works with that model
+}
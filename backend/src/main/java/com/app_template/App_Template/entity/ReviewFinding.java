@@ -0,0 +1,66 @@
+package com.app_template.App_Template.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ReviewFinding entity - One finding of a completed review, extracted from its JSON response once.
+ * The project and the review timestamp are copied onto each row so that aggregate queries
+ * (counts by type, trends, hotspot lines) run on this table alone, using its indexes.
+ */
+@Entity
+@Table(name = "review_findings", indexes = {
+        @Index(name = "idx_review_findings_project_type", columnList = "project_id, type"),
+        @Index(name = "idx_review_findings_project_created", columnList = "project_id, created_at"),
+        @Index(name = "idx_review_findings_project_line", columnList = "project_id, line"),
+        @Index(name = "idx_review_findings_review", columnList = "review_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReviewFinding {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "review_id", nullable = false)
+    private Review review;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "project_id", nullable = false)
+    private Project project;
+
+    private Integer line;
+
+    @Column(nullable = false, length = 50)
+    private String type; // e.g., "bug", "security"
+
+    @Column(columnDefinition = "TEXT")
+    private String message;
+
+    @Column(columnDefinition = "TEXT")
+    private String suggestion;
+
+    @Column(length = 20)
+    private String status; // "new" or "carried" for incremental reviews; carried rows are left out of aggregates
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt; // timestamp of the review
+}
@@ -0,0 +1,18 @@
+package com.app_template.App_Template.enums;
+
+/**
+ * Processing state of a review. QUEUED and RUNNING reviews are picked up again after a restart.
+ * CANCELLED reviews were stopped by their owner, or because the client went away, before they finished.
+ */
+public enum ReviewStatus {
+
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED,
+    CANCELLED;
+
+    public boolean isFinished() {
+        return this == DONE || this == FAILED || this == CANCELLED;
+    }
+}
@@ -3,7 +3,11 @@ package com.app_template.App_Template.repository;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.app_template.App_Template.entity.CustomGuideline;
 import com.app_template.App_Template.entity.Project;
@@ -23,4 +27,12 @@ public interface CustomGuidelineRepository extends JpaRepository<CustomGuideline
      * Find a guideline by ID and project (for security verification).
      */
     java.util.Optional<CustomGuideline> findByIdAndProject(Long id, Project project);
+
+    /**
+     * Store the embedding of a guideline without loading it.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE CustomGuideline g SET g.embedding = :embedding, g.embeddingModel = :model WHERE g.id = :id")
+    int updateEmbedding(@Param("id") Long id, @Param("embedding") byte[] embedding, @Param("model") String model);
 }
\ No newline at end of file
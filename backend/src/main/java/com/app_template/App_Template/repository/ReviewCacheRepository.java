@@ -0,0 +1,32 @@
+package com.app_template.App_Template.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.app_template.App_Template.entity.ReviewCacheEntry;
+
+/**
+ * Repository interface for ReviewCacheEntry entity operations.
+ */
+@Repository
+public interface ReviewCacheRepository extends JpaRepository<ReviewCacheEntry, Long> {
+
+    /**
+     * Find a cached review result by its content hash.
+     */
+    Optional<ReviewCacheEntry> findByCacheKey(String cacheKey);
+
+    /**
+     * Remove all cached results of a project (e.g. after its guidelines changed).
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ReviewCacheEntry e WHERE e.project.id = :projectId")
+    int deleteByProjectId(@Param("projectId") Long projectId);
+}
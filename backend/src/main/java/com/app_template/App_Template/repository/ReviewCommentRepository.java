@@ -2,6 +2,7 @@ package com.app_template.App_Template.repository;
 
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -18,5 +19,16 @@ public interface ReviewCommentRepository extends JpaRepository<ReviewComment, Lo
      * Find all comments for a specific review, ordered by timestamp.
      */
     List<ReviewComment> findByReviewOrderByTimestampAsc(Review review);
+
+    /**
+     * Find the latest comments of a review, newest first; bounded by the pageable.
+     */
+    List<ReviewComment> findByReviewIdOrderByIdDesc(Long reviewId, Pageable pageable);
+
+    /**
+     * Find the comments of a review between two comment IDs (both exclusive), oldest first.
+     */
+    List<ReviewComment> findByReviewIdAndIdGreaterThanAndIdLessThanOrderByIdAsc(
+            Long reviewId, Long afterId, Long beforeId, Pageable pageable);
 }
 
@@ -0,0 +1,75 @@
+package com.app_template.App_Template.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.app_template.App_Template.dto.FindingHotspot;
+import com.app_template.App_Template.dto.FindingTrendPoint;
+import com.app_template.App_Template.dto.FindingTypeCount;
+import com.app_template.App_Template.dto.ReviewFindingCount;
+import com.app_template.App_Template.entity.ReviewFinding;
+
+/**
+ * Repository interface for ReviewFinding entity operations.
+ * Aggregates are computed by the database; a null type matches all types.
+ * Findings carried forward by incremental reviews are left out of the aggregates, so an issue
+ * counts once, in the review that first reported it.
+ */
+@Repository
+public interface ReviewFindingRepository extends JpaRepository<ReviewFinding, Long> {
+
+    @Query("SELECT new com.app_template.App_Template.dto.FindingTypeCount(f.type, COUNT(f)) "
+            + "FROM ReviewFinding f WHERE f.project.id = :projectId AND f.createdAt >= :since "
+            + "AND (f.status IS NULL OR f.status <> 'carried') "
+            + "GROUP BY f.type ORDER BY COUNT(f) DESC")
+    List<FindingTypeCount> countByType(@Param("projectId") Long projectId, @Param("since") LocalDateTime since);
+
+    @Query("SELECT new com.app_template.App_Template.dto.FindingTrendPoint("
+            + "YEAR(f.createdAt), MONTH(f.createdAt), DAY(f.createdAt), f.type, COUNT(f)) "
+            + "FROM ReviewFinding f WHERE f.project.id = :projectId AND f.createdAt >= :since "
+            + "AND (:type IS NULL OR f.type = :type) AND (f.status IS NULL OR f.status <> 'carried') "
+            + "GROUP BY YEAR(f.createdAt), MONTH(f.createdAt), DAY(f.createdAt), f.type "
+            + "ORDER BY YEAR(f.createdAt), MONTH(f.createdAt), DAY(f.createdAt), f.type")
+    List<FindingTrendPoint> dailyTrend(@Param("projectId") Long projectId, @Param("since") LocalDateTime since,
+            @Param("type") String type);
+
+    @Query("SELECT new com.app_template.App_Template.dto.FindingTrendPoint("
+            + "YEAR(f.createdAt), MONTH(f.createdAt), f.type, COUNT(f)) "
+            + "FROM ReviewFinding f WHERE f.project.id = :projectId AND f.createdAt >= :since "
+            + "AND (:type IS NULL OR f.type = :type) AND (f.status IS NULL OR f.status <> 'carried') "
+            + "GROUP BY YEAR(f.createdAt), MONTH(f.createdAt), f.type "
+            + "ORDER BY YEAR(f.createdAt), MONTH(f.createdAt), f.type")
+    List<FindingTrendPoint> monthlyTrend(@Param("projectId") Long projectId, @Param("since") LocalDateTime since,
+            @Param("type") String type);
+
+    @Query("SELECT new com.app_template.App_Template.dto.FindingHotspot(r.fileName, f.line, COUNT(f), COUNT(DISTINCT r.id)) "
+            + "FROM ReviewFinding f JOIN f.review r "
+            + "WHERE f.project.id = :projectId AND f.createdAt >= :since AND f.line IS NOT NULL "
+            + "AND (:type IS NULL OR f.type = :type) AND (f.status IS NULL OR f.status <> 'carried') "
+            + "GROUP BY r.fileName, f.line ORDER BY COUNT(f) DESC, r.fileName, f.line")
+    List<FindingHotspot> hotspots(@Param("projectId") Long projectId, @Param("since") LocalDateTime since,
+            @Param("type") String type, Pageable pageable);
+
+    @Query("SELECT new com.app_template.App_Template.dto.ReviewFindingCount(f.review.id, f.type, COUNT(f)) "
+            + "FROM ReviewFinding f WHERE f.review.id IN :reviewIds GROUP BY f.review.id, f.type")
+    List<ReviewFindingCount> countByReviewAndType(@Param("reviewIds") Collection<Long> reviewIds);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ReviewFinding f WHERE f.review.id = :reviewId")
+    int deleteByReviewId(@Param("reviewId") Long reviewId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ReviewFinding f WHERE f.project.id = :projectId")
+    int deleteByProjectId(@Param("projectId") Long projectId);
+}
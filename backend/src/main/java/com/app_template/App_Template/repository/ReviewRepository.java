@@ -1,14 +1,25 @@
 package com.app_template.App_Template.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.app_template.App_Template.dto.BatchFileResult;
+import com.app_template.App_Template.dto.ReviewSummary;
 import com.app_template.App_Template.entity.Project;
 import com.app_template.App_Template.entity.Review;
 import com.app_template.App_Template.entity.User;
+import com.app_template.App_Template.enums.ReviewStatus;
 
 /**
  * Repository interface for Review entity operations.
@@ -17,17 +28,150 @@ import com.app_template.App_Template.entity.User;
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     /**
-     * Find all reviews for a specific project, ordered by timestamp.
+     * Code embedding of a review, without its code and response.
      */
-    List<Review> findByProjectOrderByTimestampDesc(Project project);
+    interface ReviewEmbedding {
+        Long getId();
+
+        Long getProjectId();
+
+        byte[] getCodeEmbedding();
+    }
+
+    /**
+     * Stored conversation context of a review, without its code and response.
+     */
+    interface ReviewChatContext {
+        String getLlmContext();
+
+        String getLlmContextModel();
+    }
+
+    /**
+     * First page of a project's reviews, newest first, without code and responses.
+     */
+    @Query("SELECT new com.app_template.App_Template.dto.ReviewSummary(r.id, r.timestamp, r.status, "
+            + "r.effortEstimation, r.summary, r.fileName, r.batchId, r.baseReviewId) FROM Review r "
+            + "WHERE r.project = :project ORDER BY r.timestamp DESC, r.id DESC")
+    List<ReviewSummary> findSummaries(@Param("project") Project project, Pageable pageable);
+
+    /**
+     * Next page of a project's reviews: the ones after (timestamp, id) in newest-first order.
+     */
+    @Query("SELECT new com.app_template.App_Template.dto.ReviewSummary(r.id, r.timestamp, r.status, "
+            + "r.effortEstimation, r.summary, r.fileName, r.batchId, r.baseReviewId) FROM Review r "
+            + "WHERE r.project = :project AND (r.timestamp < :timestamp OR (r.timestamp = :timestamp AND r.id < :id)) "
+            + "ORDER BY r.timestamp DESC, r.id DESC")
+    List<ReviewSummary> findSummariesAfter(@Param("project") Project project, @Param("timestamp") LocalDateTime timestamp,
+            @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Find the latest review of a project with its content, the base for an incremental re-review.
+     */
+    @EntityGraph(attributePaths = "content")
+    Optional<Review> findFirstByProjectOrderByTimestampDescIdDesc(Project project);
 
     /**
-     * Find a specific review by ID and project.
+     * Find a specific review by ID and project, without its code and response (for ownership checks and status).
      */
     Optional<Review> findByIdAndProject(Long id, Project project);
 
+    /**
+     * Find a specific review by ID and project together with its code, response and context.
+     */
+    @Query("SELECT r FROM Review r JOIN FETCH r.content WHERE r.id = :id AND r.project = :project")
+    Optional<Review> findWithContentByIdAndProject(@Param("id") Long id, @Param("project") Project project);
+
     /**
      * Find all reviews created by a specific user.
      */
     List<Review> findByUserOrderByTimestampDesc(User user);
+
+    /**
+     * Find a review with its content, its project and the project's guidelines, for processing outside a web request.
+     */
+    @Query("SELECT r FROM Review r JOIN FETCH r.content JOIN FETCH r.project p LEFT JOIN FETCH p.guidelines WHERE r.id = :id")
+    Optional<Review> findWithProjectAndGuidelinesById(@Param("id") Long id);
+
+    /**
+     * IDs of the reviews in the given states, oldest first.
+     */
+    @Query("SELECT r.id FROM Review r WHERE r.status IN :statuses ORDER BY r.id")
+    List<Long> findIdsByStatusIn(@Param("statuses") Collection<ReviewStatus> statuses);
+
+    /**
+     * Current status of a review, without loading its code and response.
+     */
+    @Query("SELECT r.status FROM Review r WHERE r.id = :id")
+    Optional<ReviewStatus> findStatusById(@Param("id") Long id);
+
+    /**
+     * The files of a batch with their status, without loading code and responses.
+     */
+    @Query("SELECT new com.app_template.App_Template.dto.BatchFileResult(r.id, r.fileName, r.status, "
+            + "r.effortEstimation, r.errorMessage) FROM Review r WHERE r.project = :project AND r.batchId = :batchId "
+            + "ORDER BY r.id")
+    List<BatchFileResult> findBatchFiles(@Param("project") Project project, @Param("batchId") String batchId);
+
+    /**
+     * Code embeddings of the given model of reviews in a state, after the given id and in id order, for paging through all of them.
+     */
+    @Query("SELECT r.id AS id, r.project.id AS projectId, r.codeEmbedding AS codeEmbedding FROM Review r "
+            + "WHERE r.codeEmbeddingModel = :model AND r.status = :status AND r.id > :afterId ORDER BY r.id")
+    List<ReviewEmbedding> findEmbeddingsAfter(@Param("model") String model, @Param("status") ReviewStatus status,
+            @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Conversation context a follow-up question can continue from, without reading the code or response.
+     */
+    @Query("SELECT c.llmContext AS llmContext, c.llmContextModel AS llmContextModel FROM Review r JOIN r.content c "
+            + "WHERE r.id = :id")
+    Optional<ReviewChatContext> findChatContext(@Param("id") Long id);
+
+    /**
+     * Store the extended conversation context of a review without loading its code and response.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReviewContent c SET c.llmContext = :context, c.llmContextModel = :model "
+            + "WHERE c.id = (SELECT r.content.id FROM Review r WHERE r.id = :id)")
+    int updateChatContext(@Param("id") Long id, @Param("context") String context, @Param("model") String model);
+
+    /**
+     * Store the code embedding of a review without touching the other columns.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Review r SET r.codeEmbedding = :embedding, r.codeEmbeddingModel = :model WHERE r.id = :id")
+    int updateCodeEmbedding(@Param("id") Long id, @Param("embedding") byte[] embedding, @Param("model") String model);
+
+    /**
+     * Atomically move a review from QUEUED to RUNNING and count the attempt.
+     * Returns 0 when another worker already claimed it or it is no longer queued.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Review r SET r.status = :running, r.attempts = COALESCE(r.attempts, 0) + 1, r.startedAt = :now "
+            + "WHERE r.id = :id AND r.status = :queued")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now,
+            @Param("queued") ReviewStatus queued, @Param("running") ReviewStatus running);
+
+    /**
+     * Atomically move a review to a final status, provided it is still in one of the given statuses.
+     * Returns 0 when it was finished (e.g. cancelled) in the meantime.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Review r SET r.status = :status, r.errorMessage = :error, r.completedAt = :now "
+            + "WHERE r.id = :id AND r.status IN :from")
+    int finish(@Param("id") Long id, @Param("from") Collection<ReviewStatus> from, @Param("status") ReviewStatus status,
+            @Param("error") String error, @Param("now") LocalDateTime now);
+
+    /**
+     * Store the rolling summary of a review's conversation without touching the other columns.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Review r SET r.conversationSummary = :summary, r.summarizedThroughCommentId = :throughId WHERE r.id = :id")
+    int updateConversationSummary(@Param("id") Long id, @Param("summary") String summary, @Param("throughId") Long throughId);
 }
\ No newline at end of file
@@ -0,0 +1,185 @@
+package com.app_template.App_Template.service.analysis;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import com.app_template.App_Template.dto.Finding;
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.Position;
+import com.github.javaparser.Problem;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.ConditionalExpr;
+import com.github.javaparser.ast.expr.StringLiteralExpr;
+import com.github.javaparser.ast.stmt.CatchClause;
+import com.github.javaparser.ast.stmt.DoStmt;
+import com.github.javaparser.ast.stmt.ForEachStmt;
+import com.github.javaparser.ast.stmt.ForStmt;
+import com.github.javaparser.ast.stmt.IfStmt;
+import com.github.javaparser.ast.stmt.SwitchEntry;
+import com.github.javaparser.ast.stmt.WhileStmt;
+
+/**
+ * JavaSourceAnalyzer - Parses Java with JavaParser and runs a few deterministic checks: syntax errors,
+ * empty catch blocks, strings compared with ==, and methods that are too long or too complex.
+ * Snippets are often not whole files, so a snippet that does not parse as a compilation unit is
+ * parsed again as class members and as statements; line numbers are kept by wrapping on the first line.
+ */
+class JavaSourceAnalyzer {
+
+    private static final String MEMBERS_PREFIX = "class Snippet__ { ";
+    private static final String STATEMENTS_METHOD = "snippet__";
+    private static final String STATEMENTS_PREFIX = "class Snippet__ { void " + STATEMENTS_METHOD + "() { ";
+
+    private static final int MAX_MESSAGE_LENGTH = 200;
+
+    record Result(boolean parsed, List<Finding> findings, int methods, int maxComplexity) {
+    }
+
+    private final ParserConfiguration configuration = new ParserConfiguration()
+            .setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_21);
+
+    private final int maxMethodComplexity;
+    private final int maxMethodLines;
+
+    JavaSourceAnalyzer(int maxMethodComplexity, int maxMethodLines) {
+        this.maxMethodComplexity = maxMethodComplexity;
+        this.maxMethodLines = maxMethodLines;
+    }
+
+    Result analyze(String code) {
+        // JavaParser instances are not thread-safe and are cheap to create
+        JavaParser parser = new JavaParser(configuration);
+        List<ParseResult<CompilationUnit>> attempts = new ArrayList<>(3);
+        for (String candidate : List.of(code, MEMBERS_PREFIX + code + "\n}", STATEMENTS_PREFIX + code + "\n}}")) {
+            ParseResult<CompilationUnit> result = parser.parse(candidate);
+            if (result.isSuccessful() && result.getResult().isPresent()) {
+                return inspect(result.getResult().get());
+            }
+            attempts.add(result);
+        }
+
+        // None of the forms parses: report the problems of the one that got furthest into the code
+        ParseResult<CompilationUnit> best = attempts.stream()
+                .max(Comparator.comparing(JavaSourceAnalyzer::firstProblemPosition))
+                .orElseThrow();
+        List<Finding> findings = best.getProblems().stream()
+                .map(problem -> Finding.builder()
+                        .line(line(problem))
+                        .type("bug")
+                        .message("Syntax error: " + shorten(problem.getMessage()))
+                        .suggestion("Fix the syntax so the code compiles")
+                        .build())
+                .distinct()
+                .toList();
+        return new Result(false, findings, 0, 0);
+    }
+
+    private Result inspect(CompilationUnit unit) {
+        List<Finding> findings = new ArrayList<>();
+
+        for (CatchClause catchClause : unit.findAll(CatchClause.class)) {
+            if (catchClause.getBody().getStatements().isEmpty() && catchClause.getBody().getAllContainedComments().isEmpty()) {
+                findings.add(finding(catchClause, "bug",
+                        "Empty catch block swallows " + catchClause.getParameter().getType() + " silently",
+                        "Handle the exception, log it, or rethrow it; add a comment if ignoring it is intended"));
+            }
+        }
+
+        for (BinaryExpr comparison : unit.findAll(BinaryExpr.class, expr -> expr.getOperator() == BinaryExpr.Operator.EQUALS
+                || expr.getOperator() == BinaryExpr.Operator.NOT_EQUALS)) {
+            if (comparison.getLeft() instanceof StringLiteralExpr || comparison.getRight() instanceof StringLiteralExpr) {
+                findings.add(finding(comparison, "bug",
+                        "String compared by reference with " + comparison.getOperator().asString(),
+                        "Compare strings with equals(), e.g. \"literal\".equals(value)"));
+            }
+        }
+
+        int methods = 0;
+        int maxComplexity = 0;
+        for (CallableDeclaration<?> method : unit.findAll(CallableDeclaration.class)) {
+            // Loose statements are parsed as the body of a wrapper method, which is not one of the snippet's methods
+            boolean wrapper = method.getNameAsString().equals(STATEMENTS_METHOD);
+            String name = wrapper ? "The snippet" : method.getNameAsString();
+            if (!wrapper) {
+                methods++;
+            }
+            int complexity = complexity(method);
+            maxComplexity = Math.max(maxComplexity, complexity);
+            if (complexity > maxMethodComplexity) {
+                findings.add(finding(method, "style",
+                        name + " has a cyclomatic complexity of " + complexity
+                                + " (limit " + maxMethodComplexity + ")",
+                        "Split the method or replace nested conditions with early returns"));
+            }
+            int lines = method.getRange().map(range -> range.getLineCount()).orElse(0);
+            if (lines > maxMethodLines) {
+                findings.add(finding(method, "style",
+                        name + " is " + lines + " lines long (limit " + maxMethodLines + ")",
+                        "Extract parts of the method into smaller, named methods"));
+            }
+        }
+
+        findings.sort(Comparator.comparing(finding -> finding.getLine() == null ? 0 : finding.getLine()));
+        return new Result(true, findings, methods, maxComplexity);
+    }
+
+    /**
+     * McCabe complexity: one plus the number of branch points.
+     */
+    private static int complexity(CallableDeclaration<?> method) {
+        int branches = method.findAll(IfStmt.class).size()
+                + method.findAll(ForStmt.class).size()
+                + method.findAll(ForEachStmt.class).size()
+                + method.findAll(WhileStmt.class).size()
+                + method.findAll(DoStmt.class).size()
+                + method.findAll(CatchClause.class).size()
+                + method.findAll(ConditionalExpr.class).size()
+                + method.findAll(SwitchEntry.class, entry -> !entry.getLabels().isEmpty()).size()
+                + method.findAll(BinaryExpr.class, expr -> expr.getOperator() == BinaryExpr.Operator.AND
+                        || expr.getOperator() == BinaryExpr.Operator.OR).size();
+        return 1 + branches;
+    }
+
+    private static Finding finding(Node node, String type, String message, String suggestion) {
+        return Finding.builder()
+                .line(node.getBegin().map(position -> position.line).orElse(null))
+                .type(type)
+                .message(message)
+                .suggestion(suggestion)
+                .build();
+    }
+
+    private static Integer line(Problem problem) {
+        return problem.getLocation()
+                .flatMap(location -> location.getBegin().getRange())
+                .map(range -> range.begin.line)
+                .orElse(null);
+    }
+
+    private static Position firstProblemPosition(ParseResult<CompilationUnit> result) {
+        Optional<Position> first = result.getProblems().stream()
+                .sorted(Problem.PROBLEM_BY_BEGIN_POSITION)
+                .findFirst()
+                .flatMap(problem -> problem.getLocation())
+                .flatMap(location -> location.getBegin().getRange())
+                .map(range -> range.begin);
+        return first.orElse(Position.HOME);
+    }
+
+    private static String shorten(String message) {
+        String firstLine = message == null ? "" : message.lines().findFirst().orElse("").trim();
+        // JavaParser lists every token it would have accepted, which says little about the mistake
+        int expected = firstLine.indexOf(", expected one of");
+        if (expected > 0) {
+            firstLine = firstLine.substring(0, expected);
+        }
+        return firstLine.length() <= MAX_MESSAGE_LENGTH ? firstLine : firstLine.substring(0, MAX_MESSAGE_LENGTH) + "...";
+    }
+}
@@ -0,0 +1,35 @@
+package com.app_template.App_Template.service.analysis;
+
+import java.util.List;
+
+import com.app_template.App_Template.dto.Finding;
+
+/**
+ * StaticAnalysis - Result of the local analysis of a snippet before it is sent to Ollama.
+ * Findings use the review finding format; skipReason is set when the snippet is answered by the
+ * analysis alone (it does not parse, or it is too small to be worth a generation).
+ *
+ * @param parsed whether a parser for the language ran and accepted the code; false for languages without one
+ * @param methods methods and constructors found, 0 when the language has no parser
+ * @param maxComplexity highest cyclomatic complexity of a method, 0 when the language has no parser
+ */
+public record StaticAnalysis(
+        String analyzer,
+        boolean parsed,
+        List<Finding> findings,
+        int codeLines,
+        int methods,
+        int maxComplexity,
+        String skipReason) {
+
+    public static final String SKIP_SYNTAX_ERRORS = "syntax-errors";
+    public static final String SKIP_TRIVIAL = "trivial";
+
+    public boolean skipsGeneration() {
+        return skipReason != null;
+    }
+
+    public boolean hasFindings() {
+        return !findings.isEmpty();
+    }
+}
@@ -0,0 +1,214 @@
+package com.app_template.App_Template.service.analysis;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.app_template.App_Template.dto.Finding;
+import com.app_template.App_Template.dto.ReviewResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * StaticAnalyzer - Fast local analysis of a snippet, run before it is queued for Ollama.
+ * Java is parsed with JavaParser (syntax errors, a few deterministic checks, method metrics); other
+ * languages only get their code lines counted. Snippets with syntax errors, or with fewer code lines
+ * than the configured minimum, are answered by the analysis alone; otherwise its findings are put into
+ * the prompt, so the model does not have to rediscover them, and added to the generated review.
+ * Analysis time is published as codezen.static.analysis, tagged with the analyzer and the outcome.
+ */
+@Slf4j
+@Component
+public class StaticAnalyzer {
+
+    public static final String MODEL = "static-analysis";
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final JavaSourceAnalyzer javaSourceAnalyzer;
+    private final boolean enabled;
+    private final int minCodeLines;
+
+    public StaticAnalyzer(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${codezen.static-analysis.enabled:true}") boolean enabled,
+            @Value("${codezen.static-analysis.min-code-lines:3}") int minCodeLines,
+            @Value("${codezen.static-analysis.max-method-complexity:10}") int maxMethodComplexity,
+            @Value("${codezen.static-analysis.max-method-lines:60}") int maxMethodLines) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.minCodeLines = minCodeLines;
+        this.javaSourceAnalyzer = new JavaSourceAnalyzer(maxMethodComplexity, maxMethodLines);
+    }
+
+    /**
+     * Analyze a snippet written in the project's language. Never fails: a crashing analyzer counts as no analysis.
+     */
+    public StaticAnalysis analyze(String code, String language) {
+        long start = System.nanoTime();
+        String source = code == null ? "" : code;
+        int codeLines = countCodeLines(source);
+        boolean java = language != null && language.trim().toLowerCase(Locale.ROOT).equals("java");
+        String analyzer = !enabled ? "none" : java ? "javaparser" : "lines";
+
+        StaticAnalysis analysis;
+        if (!enabled) {
+            analysis = new StaticAnalysis(analyzer, false, List.of(), codeLines, 0, 0, null);
+        } else if (java) {
+            analysis = analyzeJava(source, codeLines);
+        } else {
+            analysis = new StaticAnalysis(analyzer, false, List.of(), codeLines, 0, 0, trivialReason(codeLines));
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        String outcome = analysis.skipsGeneration() ? analysis.skipReason() : analysis.hasFindings() ? "findings" : "clean";
+        Timer.builder("codezen.static.analysis")
+                .description("Time spent in the static pre-analysis of a snippet")
+                .tag("analyzer", analyzer)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        log.debug("Static analysis ({}) of {} code lines: {} with {} findings in {} µs",
+                analyzer, codeLines, outcome, analysis.findings().size(), elapsedNanos / 1000);
+        return analysis;
+    }
+
+    /**
+     * The review JSON for a snippet that is answered by the analysis alone.
+     */
+    public String toReview(StaticAnalysis analysis) {
+        String summary = StaticAnalysis.SKIP_SYNTAX_ERRORS.equals(analysis.skipReason())
+                ? "The code does not parse (" + analysis.findings().size() + " syntax "
+                        + (analysis.findings().size() == 1 ? "error" : "errors")
+                        + "); fix the syntax and submit it again for a full review."
+                : "The snippet has only " + analysis.codeLines() + " code "
+                        + (analysis.codeLines() == 1 ? "line" : "lines")
+                        + ", too little for a meaningful review; submit the surrounding code for a full review.";
+        int effort = Math.min(10, 1 + analysis.findings().size() / 3);
+        return write(ReviewResult.builder()
+                .summary(summary)
+                .findings(new ArrayList<>(analysis.findings()))
+                .effortEstimation(effort + "/10")
+                .build());
+    }
+
+    /**
+     * Add the analysis findings the model did not report itself (same line and type) to a generated review.
+     * A review that is not valid JSON is returned unchanged.
+     */
+    public String addFindings(String reviewJson, StaticAnalysis analysis) {
+        if (analysis == null || !analysis.hasFindings() || reviewJson == null) {
+            return reviewJson;
+        }
+        JsonNode review;
+        try {
+            review = objectMapper.readTree(reviewJson);
+        } catch (Exception e) {
+            return reviewJson;
+        }
+        if (!(review instanceof ObjectNode object) || !review.path("findings").isArray()) {
+            return reviewJson;
+        }
+
+        List<JsonNode> findings = new ArrayList<>();
+        Set<String> reported = new HashSet<>();
+        for (JsonNode finding : review.path("findings")) {
+            findings.add(finding);
+            reported.add(finding.path("line").asInt(0) + "|" + finding.path("type").asText("").toLowerCase(Locale.ROOT));
+        }
+        for (Finding finding : analysis.findings()) {
+            if (reported.add(key(finding))) {
+                findings.add(objectMapper.valueToTree(finding));
+            }
+        }
+        findings.sort(Comparator.comparingInt(finding -> finding.path("line").asInt(0)));
+        object.set("findings", objectMapper.createArrayNode().addAll(findings));
+        return object.toString();
+    }
+
+    /**
+     * The part of the review prompt that hands the analysis to the model. Only findings between
+     * fromLine and toLine are included, renumbered relative to fromLine (for chunked reviews).
+     */
+    public String promptNote(StaticAnalysis analysis, int fromLine, int toLine) {
+        if (analysis == null || !analysis.parsed()) {
+            return "";
+        }
+        StringBuilder note = new StringBuilder("STATIC ANALYSIS (already verified, the code parses):\n");
+        note.append("- Code lines: ").append(analysis.codeLines()).append(", methods: ").append(analysis.methods())
+                .append(", highest cyclomatic complexity: ").append(analysis.maxComplexity()).append("\n");
+
+        List<Finding> inRange = analysis.findings().stream()
+                .filter(finding -> finding.getLine() == null || (finding.getLine() >= fromLine && finding.getLine() <= toLine))
+                .toList();
+        if (!inRange.isEmpty()) {
+            note.append("These issues are already reported; do not repeat them, look for other problems:\n");
+            for (Finding finding : inRange) {
+                note.append("- ");
+                if (finding.getLine() != null) {
+                    note.append("line ").append(finding.getLine() - fromLine + 1).append(" ");
+                }
+                note.append("[").append(finding.getType()).append("] ").append(finding.getMessage()).append("\n");
+            }
+        }
+        return note.append("\n").toString();
+    }
+
+    private StaticAnalysis analyzeJava(String code, int codeLines) {
+        try {
+            JavaSourceAnalyzer.Result result = javaSourceAnalyzer.analyze(code);
+            String skipReason = !result.parsed() ? StaticAnalysis.SKIP_SYNTAX_ERRORS : trivialReason(codeLines);
+            return new StaticAnalysis("javaparser", result.parsed(), result.findings(), codeLines,
+                    result.methods(), result.maxComplexity(), skipReason);
+        } catch (RuntimeException e) {
+            log.warn("JavaParser analysis failed, reviewing without it: {}", e.getMessage());
+            return new StaticAnalysis("javaparser", false, List.of(), codeLines, 0, 0, trivialReason(codeLines));
+        }
+    }
+
+    private String trivialReason(int codeLines) {
+        return codeLines < minCodeLines ? StaticAnalysis.SKIP_TRIVIAL : null;
+    }
+
+    /**
+     * Non-blank lines that are not just a comment or a lone brace.
+     */
+    private static int countCodeLines(String code) {
+        int count = 0;
+        for (String line : code.lines().toList()) {
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.equals("{") || trimmed.equals("}") || trimmed.startsWith("//")
+                    || trimmed.startsWith("#") || trimmed.startsWith("/*") || trimmed.startsWith("*")) {
+                continue;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    private static String key(Finding finding) {
+        return (finding.getLine() == null ? 0 : finding.getLine()) + "|" + (finding.getType() == null ? "" : finding.getType().toLowerCase(Locale.ROOT));
+    }
+
+    private String write(ReviewResult review) {
+        try {
+            return objectMapper.writeValueAsString(review);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to serialize static analysis review", e);
+        }
+    }
+}
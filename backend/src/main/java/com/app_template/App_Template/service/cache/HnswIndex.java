@@ -0,0 +1,242 @@
+package com.app_template.App_Template.service.cache;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.app_template.App_Template.service.ollama.OllamaEmbeddingClient;
+
+/**
+ * HnswIndex - Hierarchical navigable small world graph for approximate nearest-neighbour search over
+ * normalized vectors, where similarity is the dot product. Every node is placed on a random number of
+ * layers; a search descends greedily through the sparse upper layers and then explores the bottom layer
+ * with a candidate list of size ef. Removed nodes stay in the graph as stepping stones but are never returned.
+ * Searches run concurrently; insertions take an exclusive lock.
+ */
+class HnswIndex {
+
+    /**
+     * A search result, most similar first.
+     */
+    record Neighbour(long id, double similarity) {
+    }
+
+    private record Candidate(int node, double similarity) {
+    }
+
+    private static final class Node {
+        final long id;
+        final float[] vector;
+        final List<List<Integer>> links; // neighbours per layer, 0 is the bottom layer
+
+        Node(long id, float[] vector, int level) {
+            this.id = id;
+            this.vector = vector;
+            this.links = new ArrayList<>(level + 1);
+            for (int layer = 0; layer <= level; layer++) {
+                links.add(new ArrayList<>());
+            }
+        }
+
+        int level() {
+            return links.size() - 1;
+        }
+    }
+
+    private final int m;
+    private final int efConstruction;
+    private final double levelMultiplier;
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final Map<Long, Integer> nodeById = new HashMap<>();
+    private final Set<Long> removed = ConcurrentHashMap.newKeySet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int entryPoint = -1;
+
+    HnswIndex(int m, int efConstruction) {
+        this.m = Math.max(2, m);
+        this.efConstruction = Math.max(this.m, efConstruction);
+        this.levelMultiplier = 1 / Math.log(this.m);
+    }
+
+    /**
+     * Add a vector; adding an id that is already present is a no-op.
+     */
+    void add(long id, float[] vector) {
+        lock.writeLock().lock();
+        try {
+            if (nodeById.containsKey(id)) {
+                return;
+            }
+            int level = (int) Math.floor(-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * levelMultiplier);
+            Node node = new Node(id, vector, level);
+            int index = nodes.size();
+            nodes.add(node);
+            nodeById.put(id, index);
+
+            if (entryPoint < 0) {
+                entryPoint = index;
+                return;
+            }
+
+            int topLevel = nodes.get(entryPoint).level();
+            int current = entryPoint;
+            for (int layer = topLevel; layer > level; layer--) {
+                current = greedyClosest(vector, current, layer);
+            }
+            for (int layer = Math.min(level, topLevel); layer >= 0; layer--) {
+                List<Candidate> candidates = searchLayer(vector, current, efConstruction, layer);
+                int maxLinks = maxLinks(layer);
+                for (Candidate candidate : candidates.subList(0, Math.min(m, candidates.size()))) {
+                    node.links.get(layer).add(candidate.node());
+                    List<Integer> back = nodes.get(candidate.node()).links.get(layer);
+                    back.add(index);
+                    if (back.size() > maxLinks) {
+                        prune(candidate.node(), layer, maxLinks);
+                    }
+                }
+                current = candidates.get(0).node();
+            }
+            if (level > topLevel) {
+                entryPoint = index;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Exclude an id from future results.
+     */
+    void remove(long id) {
+        removed.add(id);
+    }
+
+    /**
+     * Up to k nearest neighbours of the query, most similar first; ef (at least k) trades speed for recall.
+     */
+    List<Neighbour> search(float[] query, int k, int ef) {
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0) {
+                return List.of();
+            }
+            int current = entryPoint;
+            for (int layer = nodes.get(entryPoint).level(); layer > 0; layer--) {
+                current = greedyClosest(query, current, layer);
+            }
+            return searchLayer(query, current, Math.max(ef, k), 0).stream()
+                    .map(candidate -> nodes.get(candidate.node()))
+                    .filter(node -> !removed.contains(node.id))
+                    .limit(k)
+                    .map(node -> new Neighbour(node.id, OllamaEmbeddingClient.similarity(node.vector, query)))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return nodes.size() - removed.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Follow the most similar neighbour on one layer until no neighbour is closer.
+     */
+    private int greedyClosest(float[] query, int start, int layer) {
+        int current = start;
+        double best = similarity(query, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int neighbour : nodes.get(current).links.get(layer)) {
+                double similarity = similarity(query, neighbour);
+                if (similarity > best) {
+                    best = similarity;
+                    current = neighbour;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Best-first search of one layer keeping the ef most similar nodes seen; returned most similar first.
+     */
+    private List<Candidate> searchLayer(float[] query, int start, int ef, int layer) {
+        BitSet visited = new BitSet(nodes.size());
+        PriorityQueue<Candidate> toVisit = new PriorityQueue<>(Comparator.comparingDouble(Candidate::similarity).reversed());
+        PriorityQueue<Candidate> found = new PriorityQueue<>(Comparator.comparingDouble(Candidate::similarity));
+
+        Candidate first = new Candidate(start, similarity(query, start));
+        visited.set(start);
+        toVisit.add(first);
+        found.add(first);
+
+        while (!toVisit.isEmpty()) {
+            Candidate candidate = toVisit.poll();
+            if (found.size() >= ef && candidate.similarity() < found.peek().similarity()) {
+                break;
+            }
+            for (int neighbour : nodes.get(candidate.node()).links.get(layer)) {
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                double similarity = similarity(query, neighbour);
+                if (found.size() < ef || similarity > found.peek().similarity()) {
+                    Candidate next = new Candidate(neighbour, similarity);
+                    toVisit.add(next);
+                    found.add(next);
+                    if (found.size() > ef) {
+                        found.poll();
+                    }
+                }
+            }
+        }
+
+        List<Candidate> result = new ArrayList<>(found);
+        result.sort(Comparator.comparingDouble(Candidate::similarity).reversed());
+        return result;
+    }
+
+    /**
+     * Keep only the maxLinks neighbours of a node that are most similar to it.
+     */
+    private void prune(int index, int layer, int maxLinks) {
+        float[] vector = nodes.get(index).vector;
+        List<Integer> links = nodes.get(index).links.get(layer);
+        List<Candidate> kept = links.stream()
+                .map(neighbour -> new Candidate(neighbour, similarity(vector, neighbour)))
+                .sorted(Comparator.comparingDouble(Candidate::similarity).reversed())
+                .limit(maxLinks)
+                .toList();
+        links.clear();
+        kept.forEach(candidate -> links.add(candidate.node()));
+    }
+
+    private int maxLinks(int layer) {
+        // The bottom layer holds every node and gets twice the links, as in the original paper
+        return layer == 0 ? 2 * m : m;
+    }
+
+    private double similarity(float[] query, int node) {
+        return OllamaEmbeddingClient.similarity(nodes.get(node).vector, query);
+    }
+}
@@ -0,0 +1,170 @@
+package com.app_template.App_Template.service.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.app_template.App_Template.entity.Project;
+import com.app_template.App_Template.enums.ReviewStatus;
+import com.app_template.App_Template.repository.ReviewRepository;
+import com.app_template.App_Template.repository.ReviewRepository.ReviewEmbedding;
+import com.app_template.App_Template.service.ollama.OllamaEmbeddingClient;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * NearDuplicateReviewIndex - Finds earlier reviews of a project whose code is nearly identical to a new
+ * submission (a renamed variable, a changed line), so only the differing lines need a new generation.
+ * The code of every finished review is embedded and kept in one HNSW index per project. The indexes are
+ * rebuilt from the stored embeddings at startup and updated as reviews complete. Candidates are only
+ * suggestions: callers still check that the review exists and that a diff against it is small.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NearDuplicateReviewIndex {
+
+    /**
+     * The embedding of a submission and the earlier reviews above the similarity threshold, most similar first.
+     * The vector is null when the code could not be embedded.
+     */
+    public record Probe(float[] vector, List<NearMatch> matches) {
+    }
+
+    public record NearMatch(Long reviewId, double similarity) {
+    }
+
+    private static final int MAX_MATCHES = 3;
+    private static final int REBUILD_PAGE_SIZE = 500;
+
+    private final OllamaEmbeddingClient embeddingClient;
+    private final ReviewRepository reviewRepository;
+    private final Scheduler blockingScheduler;
+
+    @Value("${codezen.near-duplicate.enabled:true}")
+    private boolean enabled;
+
+    @Value("${codezen.near-duplicate.min-similarity:0.97}")
+    private double minSimilarity;
+
+    @Value("${codezen.near-duplicate.hnsw.m:16}")
+    private int m;
+
+    @Value("${codezen.near-duplicate.hnsw.ef-construction:100}")
+    private int efConstruction;
+
+    @Value("${codezen.near-duplicate.hnsw.ef-search:50}")
+    private int efSearch;
+
+    private final Map<Long, HnswIndex> indexes = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getModel() {
+        return embeddingClient.getModel();
+    }
+
+    /**
+     * Embed the submitted code and look up near-duplicates among the project's reviews.
+     * Never fails: when embedding is not possible the probe is empty and the caller reviews in full.
+     */
+    public Mono<Probe> probe(String code, Project project) {
+        if (!enabled) {
+            return Mono.just(new Probe(null, List.of()));
+        }
+        Long projectId = project.getId();
+        return embeddingClient.embed(code)
+                .map(vector -> {
+                    HnswIndex index = indexes.get(projectId);
+                    List<NearMatch> matches = index == null ? List.of() : index.search(vector, MAX_MATCHES, efSearch).stream()
+                            .filter(neighbour -> neighbour.similarity() >= minSimilarity)
+                            .map(neighbour -> new NearMatch(neighbour.id(), neighbour.similarity()))
+                            .toList();
+                    return new Probe(vector, matches);
+                })
+                .onErrorResume(error -> {
+                    log.warn("Near-duplicate lookup failed for project {}, reviewing in full: {}", projectId, error.getMessage());
+                    return Mono.just(new Probe(null, List.of()));
+                });
+    }
+
+    /**
+     * Make a finished review findable; its embedding must already be stored on the review.
+     */
+    public void add(Long projectId, Long reviewId, float[] vector) {
+        if (!enabled || vector == null) {
+            return;
+        }
+        indexes.computeIfAbsent(projectId, id -> new HnswIndex(m, efConstruction)).add(reviewId, vector);
+    }
+
+    /**
+     * Embed and index a review that was generated without a probe (job and batch reviews), off the caller's thread.
+     */
+    public void indexInBackground(Long projectId, Long reviewId, String code) {
+        if (!enabled) {
+            return;
+        }
+        embeddingClient.embed(code)
+                .publishOn(blockingScheduler)
+                .doOnNext(vector -> {
+                    reviewRepository.updateCodeEmbedding(reviewId, OllamaEmbeddingClient.toBytes(vector), getModel());
+                    add(projectId, reviewId, vector);
+                })
+                .subscribe(vector -> { }, error -> log.warn("Could not embed review {}: {}", reviewId, error.getMessage()));
+    }
+
+    /**
+     * Stop suggesting a review, e.g. because it no longer exists.
+     */
+    public void remove(Long projectId, Long reviewId) {
+        HnswIndex index = indexes.get(projectId);
+        if (index != null) {
+            index.remove(reviewId);
+        }
+    }
+
+    public void removeProject(Long projectId) {
+        indexes.remove(projectId);
+    }
+
+    /**
+     * Load the stored embeddings of finished reviews in the background; until then lookups simply find less.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        Mono.fromRunnable(this::loadAll)
+                .subscribeOn(blockingScheduler)
+                .subscribe(done -> { }, error -> log.error("Could not rebuild the near-duplicate index", error));
+    }
+
+    private void loadAll() {
+        String model = getModel();
+        long afterId = 0;
+        int loaded = 0;
+        List<ReviewEmbedding> page;
+        do {
+            page = reviewRepository.findEmbeddingsAfter(model, ReviewStatus.DONE, afterId, PageRequest.ofSize(REBUILD_PAGE_SIZE));
+            for (ReviewEmbedding review : page) {
+                add(review.getProjectId(), review.getId(), OllamaEmbeddingClient.fromBytes(review.getCodeEmbedding()));
+                afterId = review.getId();
+            }
+            loaded += page.size();
+        } while (page.size() == REBUILD_PAGE_SIZE);
+        log.info("Near-duplicate index rebuilt with {} reviews in {} projects", loaded, indexes.size());
+    }
+}
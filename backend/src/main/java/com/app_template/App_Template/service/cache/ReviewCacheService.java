@@ -0,0 +1,247 @@
+package com.app_template.App_Template.service.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.app_template.App_Template.dto.ReviewCacheStats;
+import com.app_template.App_Template.entity.CustomGuideline;
+import com.app_template.App_Template.entity.Project;
+import com.app_template.App_Template.entity.ReviewCacheEntry;
+import com.app_template.App_Template.repository.ReviewCacheRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ReviewCacheService - Content-addressed cache for Ollama review results.
+ * Lookups go through a bounded in-memory LRU tier first and fall back to the
+ * review_cache table, so identical submissions are answered without a new generation.
+ */
+@Slf4j
+@Service
+public class ReviewCacheService {
+
+    /**
+     * A cached review result, independent of the tier it was read from.
+     */
+    public record CachedReview(Long projectId, String llmResponse, String effortEstimation, String model) {
+    }
+
+
+    private final ReviewCacheRepository cacheRepository;
+    private final boolean enabled;
+    private final int maxMemoryEntries;
+    private final int ttlDays;
+
+    private final Map<String, CachedReview> memoryTier;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong databaseHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong stores = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ReviewCacheService(
+            ReviewCacheRepository cacheRepository,
+            @Value("${codezen.review-cache.enabled:true}") boolean enabled,
+            @Value("${codezen.review-cache.memory.max-entries:500}") int maxMemoryEntries,
+            @Value("${codezen.review-cache.ttl-days:30}") int ttlDays) {
+        this.cacheRepository = cacheRepository;
+        this.enabled = enabled;
+        this.maxMemoryEntries = maxMemoryEntries;
+        this.ttlDays = ttlDays;
+        // Access-ordered LinkedHashMap gives LRU eviction once the bound is reached
+        this.memoryTier = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedReview> eldest) {
+                return size() > ReviewCacheService.this.maxMemoryEntries;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Compute the cache key for a submission.
+     * Line breaks, leading indentation and whitespace within a line are kept while trailing whitespace and
+     * trailing blank lines are dropped, so cached findings keep valid line numbers.
+     */
+    public String computeKey(String code, Project project, String model) {
+        StringBuilder material = new StringBuilder();
+        material.append("model:").append(model).append('\n');
+        material.append("language:").append(normalizeLanguage(project.getLanguage())).append('\n');
+
+        List<String> guidelines = guidelineTexts(project.getGuidelines());
+        for (String guideline : guidelines) {
+            material.append("guideline:").append(guideline).append('\n');
+        }
+
+        material.append("code:\n").append(normalizeCode(code));
+        return sha256(material.toString());
+    }
+
+    /**
+     * Look up a cached review result, promoting database hits into the memory tier.
+     */
+    public Optional<CachedReview> lookup(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        CachedReview cached;
+        synchronized (memoryTier) {
+            cached = memoryTier.get(key);
+        }
+        if (cached != null) {
+            memoryHits.incrementAndGet();
+            return Optional.of(cached);
+        }
+
+        Optional<ReviewCacheEntry> entry = cacheRepository.findByCacheKey(key);
+        if (entry.isPresent()) {
+            ReviewCacheEntry found = entry.get();
+            if (isExpired(found)) {
+                cacheRepository.delete(found);
+            } else {
+                found.setHitCount(found.getHitCount() + 1);
+                found.setLastHitAt(LocalDateTime.now());
+                cacheRepository.save(found);
+
+                CachedReview promoted = new CachedReview(
+                        found.getProject().getId(), found.getLlmResponse(), found.getEffortEstimation(), found.getModel());
+                synchronized (memoryTier) {
+                    memoryTier.put(key, promoted);
+                }
+                databaseHits.incrementAndGet();
+                return Optional.of(promoted);
+            }
+        }
+
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    /**
+     * Store a freshly generated review result in both tiers.
+     */
+    public void store(String key, Project project, String model, String llmResponse, String effortEstimation) {
+        if (!enabled || llmResponse == null || llmResponse.isBlank()) {
+            return;
+        }
+
+        synchronized (memoryTier) {
+            memoryTier.put(key, new CachedReview(project.getId(), llmResponse, effortEstimation, model));
+        }
+
+        try {
+            ReviewCacheEntry entry = cacheRepository.findByCacheKey(key)
+                    .orElseGet(() -> ReviewCacheEntry.builder()
+                            .cacheKey(key)
+                            .project(project)
+                            .createdAt(LocalDateTime.now())
+                            .build());
+            entry.setModel(model);
+            entry.setLlmResponse(llmResponse);
+            entry.setEffortEstimation(effortEstimation);
+            cacheRepository.save(entry);
+            stores.incrementAndGet();
+        } catch (Exception e) {
+            // A concurrent identical submission may have stored the same key first
+            log.warn("Could not persist review cache entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Drop every cached result of a project, e.g. when its guidelines change.
+     */
+    public void evictProject(Long projectId) {
+        synchronized (memoryTier) {
+            memoryTier.values().removeIf(cached -> Objects.equals(cached.projectId(), projectId));
+        }
+        int removed = cacheRepository.deleteByProjectId(projectId);
+        invalidations.incrementAndGet();
+        log.info("Invalidated review cache for project {} ({} persisted entries)", projectId, removed);
+    }
+
+    public ReviewCacheStats getStats() {
+        long hits = memoryHits.get() + databaseHits.get();
+        long lookups = hits + misses.get();
+        int memoryEntries;
+        synchronized (memoryTier) {
+            memoryEntries = memoryTier.size();
+        }
+        return ReviewCacheStats.builder()
+                .enabled(enabled)
+                .memoryHits(memoryHits.get())
+                .databaseHits(databaseHits.get())
+                .misses(misses.get())
+                .stores(stores.get())
+                .invalidations(invalidations.get())
+                .memoryEntries(memoryEntries)
+                .memoryMaxEntries(maxMemoryEntries)
+                .hitRatio(lookups == 0 ? 0.0 : (double) hits / lookups)
+                .build();
+    }
+
+    private boolean isExpired(ReviewCacheEntry entry) {
+        return ttlDays > 0 && entry.getCreatedAt().isBefore(LocalDateTime.now().minusDays(ttlDays));
+    }
+
+    private static List<String> guidelineTexts(Collection<CustomGuideline> guidelines) {
+        if (guidelines == null) {
+            return List.of();
+        }
+        return guidelines.stream()
+                .filter(guideline -> guideline.getRuleText() != null)
+                // Pinning changes which guidelines a prompt gets
+                .map(guideline -> (Boolean.TRUE.equals(guideline.getPinned()) ? "[pinned] " : "") + guideline.getRuleText().trim())
+                .sorted()
+                .toList();
+    }
+
+    private static String normalizeLanguage(String language) {
+        return language == null ? "" : language.trim().toLowerCase();
+    }
+
+    static String normalizeCode(String code) {
+        if (code == null) {
+            return "";
+        }
+        String[] lines = code.replace("\r\n", "\n").replace('\r', '\n').split("\n", -1);
+        StringBuilder normalized = new StringBuilder();
+        for (String line : lines) {
+            // Leading indentation changes what Python or YAML code means, and whitespace within a line may sit
+            // in a string or text block literal, so only trailing whitespace is dropped
+            normalized.append(line.stripTrailing()).append('\n');
+        }
+        // Trailing blank lines do not affect any finding's line number
+        int end = normalized.length();
+        while (end > 0 && normalized.charAt(end - 1) == '\n') {
+            end--;
+        }
+        return normalized.substring(0, end);
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
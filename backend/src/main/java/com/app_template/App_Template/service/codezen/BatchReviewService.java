@@ -0,0 +1,334 @@
+package com.app_template.App_Template.service.codezen;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.app_template.App_Template.dto.BatchFileResult;
+import com.app_template.App_Template.dto.BatchReviewResponse;
+import com.app_template.App_Template.dto.ReviewFindingCount;
+import com.app_template.App_Template.entity.Project;
+import com.app_template.App_Template.entity.Review;
+import com.app_template.App_Template.entity.User;
+import com.app_template.App_Template.enums.ReviewStatus;
+import com.app_template.App_Template.repository.ProjectRepository;
+import com.app_template.App_Template.repository.ReviewFindingRepository;
+import com.app_template.App_Template.repository.ReviewRepository;
+import com.app_template.App_Template.service.ollama.ReviewResultParser;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * BatchReviewService - Reviews a set of files (uploaded as multipart files and/or zip archives) in one request.
+ * Every file becomes a QUEUED review sharing a batch id; the files are handed to the ReviewJobWorker at most
+ * codezen.batch.parallelism at a time, so a large module cannot take over the worker pool. Progress and the
+ * aggregated report (per-file effort and finding counts, totals by finding type) are read from the reviews.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchReviewService {
+
+    private record BatchFile(String name, String code) {
+    }
+
+    private final ProjectRepository projectRepository;
+    private final ReviewRepository reviewRepository;
+    private final ReviewFindingRepository reviewFindingRepository;
+    private final ReviewJobWorker reviewJobWorker;
+    private final Scheduler blockingScheduler;
+
+    @Value("${codezen.batch.parallelism:4}")
+    private int parallelism;
+
+    @Value("${codezen.batch.max-files:100}")
+    private int maxFiles;
+
+    @Value("${codezen.batch.max-file-bytes:262144}")
+    private long maxFileBytes;
+
+    @Value("${codezen.batch.max-total-bytes:10485760}")
+    private long maxTotalBytes;
+
+    /**
+     * Save one QUEUED review per file and start the batch once the transaction has committed.
+     * Empty, binary and oversized files are skipped and listed in the response.
+     *
+     * @throws IllegalArgumentException when no file can be reviewed or the batch exceeds the limits
+     */
+    @Transactional
+    public BatchReviewResponse submitBatch(Long projectId, List<MultipartFile> uploads, User user) {
+        Project project = projectRepository.findByIdAndOwner(projectId, user)
+                .orElseThrow(() -> new EntityNotFoundException("Project not found"));
+
+        List<BatchFile> files = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        for (MultipartFile upload : uploads) {
+            readUpload(upload, files, skipped);
+        }
+        if (files.isEmpty()) {
+            throw new IllegalArgumentException("No reviewable files in the upload");
+        }
+
+        String batchId = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> reviewIds = new ArrayList<>();
+        for (BatchFile file : files) {
+            Review review = reviewRepository.save(Review.builder()
+                    .codeSnapshot(file.code())
+                    .fileName(file.name())
+                    .batchId(batchId)
+                    .timestamp(now)
+                    .status(ReviewStatus.QUEUED)
+                    .attempts(0)
+                    .project(project)
+                    .user(user)
+                    .build());
+            reviewIds.add(review.getId());
+        }
+        log.info("Batch {} of project {}: {} files queued, {} skipped", batchId, projectId, files.size(), skipped.size());
+
+        // The worker reads the rows in its own transaction, so it must not see them before the commit
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                run(batchId, reviewIds);
+            }
+        });
+
+        BatchReviewResponse response = buildReport(project, batchId, reviewRepository.findBatchFiles(project, batchId));
+        response.setSkippedFiles(skipped.isEmpty() ? null : skipped);
+        return response;
+    }
+
+    /**
+     * Progress and aggregated report of a batch.
+     */
+    @Transactional(readOnly = true)
+    public BatchReviewResponse getBatch(Long projectId, String batchId, User user) {
+        Project project = projectRepository.findByIdAndOwner(projectId, user)
+                .orElseThrow(() -> new EntityNotFoundException("Project not found"));
+        List<BatchFileResult> files = reviewRepository.findBatchFiles(project, batchId);
+        if (files.isEmpty()) {
+            throw new EntityNotFoundException("Batch not found");
+        }
+        return buildReport(project, batchId, files);
+    }
+
+    /**
+     * Follow a batch until every file is DONE, FAILED or CANCELLED: emits the report whenever the progress changes.
+     */
+    public Flux<BatchReviewResponse> watchBatch(Long projectId, String batchId, User user) {
+        BatchReviewResponse initial = getBatch(projectId, batchId, user);
+        Set<Long> reviewIds = new HashSet<>();
+        initial.getFiles().forEach(file -> reviewIds.add(file.getReviewId()));
+
+        Mono<BatchReviewResponse> load = Mono.fromCallable(() -> getBatch(projectId, batchId, user))
+                .subscribeOn(blockingScheduler);
+
+        return Flux.merge(
+                        reviewJobWorker.updates(reviewIds).map(id -> 0L),
+                        Flux.interval(Duration.ofSeconds(15)))
+                .sample(Duration.ofMillis(500))
+                .concatMap(tick -> load)
+                .startWith(initial)
+                .distinctUntilChanged(report -> List.of(report.getQueued(), report.getRunning(), report.getDone(),
+                        report.getFailed()))
+                .takeUntil(BatchReviewResponse::isFinished);
+    }
+
+    /**
+     * Feed the batch to the worker with bounded parallelism. After a restart the worker resumes
+     * unfinished reviews on its own, without the batch limit.
+     */
+    private void run(String batchId, List<Long> reviewIds) {
+        Flux.fromIterable(reviewIds)
+                .flatMap(reviewJobWorker::submitAndAwait, Math.max(1, parallelism))
+                .count()
+                .subscribe(count -> log.info("Batch {} finished ({} files)", batchId, count),
+                        error -> log.error("Batch {} stopped", batchId, error));
+    }
+
+    private BatchReviewResponse buildReport(Project project, String batchId, List<BatchFileResult> files) {
+        List<Long> reviewIds = files.stream().map(BatchFileResult::getReviewId).toList();
+        Map<Long, Long> findingsPerReview = new TreeMap<>();
+        Map<String, Long> findingsByType = new TreeMap<>();
+        for (ReviewFindingCount count : reviewFindingRepository.countByReviewAndType(reviewIds)) {
+            findingsPerReview.merge(count.getReviewId(), count.getCount(), Long::sum);
+            findingsByType.merge(count.getType() == null ? "other" : count.getType(), count.getCount(), Long::sum);
+        }
+
+        int queued = 0;
+        int running = 0;
+        int done = 0;
+        int failed = 0;
+        int cancelled = 0;
+        double effortSum = 0;
+        int effortCount = 0;
+        Double maxEffort = null;
+        String maxEffortText = null;
+
+        for (BatchFileResult file : files) {
+            file.setFindingCount(findingsPerReview.getOrDefault(file.getReviewId(), 0L));
+            ReviewStatus status = file.getStatus() == null ? ReviewStatus.QUEUED : ReviewStatus.valueOf(file.getStatus());
+            switch (status) {
+                case QUEUED -> queued++;
+                case RUNNING -> running++;
+                case DONE -> done++;
+                case FAILED -> failed++;
+                case CANCELLED -> cancelled++;
+            }
+
+            Double effort = ReviewResultParser.effortScore(file.getEffortEstimation());
+            if (effort != null) {
+                effortSum += effort;
+                effortCount++;
+                if (maxEffort == null || effort > maxEffort) {
+                    maxEffort = effort;
+                    maxEffortText = file.getEffortEstimation();
+                }
+            }
+        }
+
+        return BatchReviewResponse.builder()
+                .batchId(batchId)
+                .projectId(project.getId())
+                .totalFiles(files.size())
+                .queued(queued)
+                .running(running)
+                .done(done)
+                .failed(failed)
+                .cancelled(cancelled)
+                .finished(queued == 0 && running == 0)
+                .totalFindings(findingsByType.values().stream().mapToLong(Long::longValue).sum())
+                .findingsByType(findingsByType)
+                .maxEffort(maxEffortText)
+                .averageEffort(effortCount == 0 ? null : Math.round(effortSum / effortCount * 10) / 10.0)
+                .files(files)
+                .build();
+    }
+
+    /**
+     * Add the files of one upload: a zip archive is expanded, anything else is one file.
+     */
+    private void readUpload(MultipartFile upload, List<BatchFile> files, List<String> skipped) {
+        String name = upload.getOriginalFilename() == null ? "file" : upload.getOriginalFilename();
+        try (InputStream in = upload.getInputStream()) {
+            if (name.toLowerCase(Locale.ROOT).endsWith(".zip")) {
+                readZip(name, in, files, skipped);
+            } else {
+                addFile(name, readLimited(in, maxFileBytes), files, skipped);
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to read " + name + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void readZip(String archiveName, InputStream in, List<BatchFile> files, List<String> skipped) throws IOException {
+        try (ZipInputStream zip = new ZipInputStream(in, StandardCharsets.UTF_8)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String name = entry.getName();
+                if (entry.isDirectory() || name.startsWith("__MACOSX/") || name.contains("/.") || name.startsWith(".")) {
+                    continue;
+                }
+                addFile(name, readLimited(zip, maxFileBytes), files, skipped);
+            }
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid zip archive " + archiveName + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void addFile(String name, byte[] content, List<BatchFile> files, List<String> skipped) {
+        if (content == null) {
+            skipped.add(name + " (larger than " + maxFileBytes + " bytes)");
+            return;
+        }
+        String code = decodeText(content);
+        if (code == null) {
+            skipped.add(name + " (not a text file)");
+            return;
+        }
+        if (code.isBlank()) {
+            skipped.add(name + " (empty)");
+            return;
+        }
+        if (files.size() >= maxFiles) {
+            throw new IllegalArgumentException("A batch can contain at most " + maxFiles + " files");
+        }
+        long totalBytes = files.stream().mapToLong(file -> file.code().length()).sum() + code.length();
+        if (totalBytes > maxTotalBytes) {
+            throw new IllegalArgumentException("A batch can contain at most " + maxTotalBytes + " bytes of code");
+        }
+        files.add(new BatchFile(name, code));
+    }
+
+    /**
+     * Read at most limit bytes, or return null when the content is larger.
+     * Reading the stream rather than trusting sizes declared in the archive keeps zip bombs bounded.
+     */
+    private static byte[] readLimited(InputStream in, long limit) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            total += read;
+            if (total > limit) {
+                return null;
+            }
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decode UTF-8 text; binary content (NUL bytes or invalid UTF-8) yields null.
+     */
+    private static String decodeText(byte[] content) {
+        for (byte b : content) {
+            if (b == 0) {
+                return null;
+            }
+        }
+        try {
+            return StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(content))
+                    .toString();
+        } catch (CharacterCodingException e) {
+            return null;
+        }
+    }
+}
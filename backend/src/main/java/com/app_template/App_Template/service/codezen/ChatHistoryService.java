@@ -0,0 +1,140 @@
+package com.app_template.App_Template.service.codezen;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.app_template.App_Template.entity.Review;
+import com.app_template.App_Template.entity.ReviewComment;
+import com.app_template.App_Template.repository.ReviewCommentRepository;
+import com.app_template.App_Template.repository.ReviewRepository;
+import com.app_template.App_Template.service.ollama.OllamaService;
+import com.app_template.App_Template.service.scheduler.LlmJobScheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * ChatHistoryService - Decides which part of a review conversation goes into the chat prompt.
+ * The last turns are kept verbatim as long as they fit in a token budget; everything older is
+ * folded into a rolling summary stored on the review, which is regenerated in the background
+ * after each answer. History is always loaded with bounded queries.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatHistoryService {
+
+    /**
+     * The conversation as sent to the model: the summary of older turns (may be null)
+     * and the most recent messages, oldest first.
+     */
+    public record ChatWindow(String summary, List<ReviewComment> messages) {
+    }
+
+    private record PendingSummary(Long reviewId, String previousSummary, List<ReviewComment> messages) {
+    }
+
+    // Messages folded into the summary per background pass; the rest is picked up after the next answer
+    private static final int SUMMARY_BATCH_SIZE = 50;
+
+    private final ReviewRepository reviewRepository;
+    private final ReviewCommentRepository commentRepository;
+    private final OllamaService ollamaService;
+    private final LlmJobScheduler llmJobScheduler;
+    private final Scheduler blockingScheduler;
+
+    // Reviews whose summary is being regenerated right now
+    private final Set<Long> summarizing = ConcurrentHashMap.newKeySet();
+
+    @Value("${codezen.chat.history.max-turns:10}")
+    private int maxTurns;
+
+    @Value("${codezen.chat.history.token-budget:2000}")
+    private int tokenBudget;
+
+    /**
+     * Load the latest messages of a review's conversation that fit in the token budget.
+     * The newest message is always included, even when it alone exceeds the budget.
+     */
+    public ChatWindow loadWindow(Review review) {
+        List<ReviewComment> latest = commentRepository.findByReviewIdOrderByIdDesc(
+                review.getId(), PageRequest.of(0, Math.max(1, maxTurns * 2)));
+
+        List<ReviewComment> window = new ArrayList<>();
+        int tokens = 0;
+        for (ReviewComment comment : latest) {
+            int messageTokens = estimateTokens(comment.getMessage());
+            if (!window.isEmpty() && tokens + messageTokens > tokenBudget) {
+                break;
+            }
+            window.add(comment);
+            tokens += messageTokens;
+        }
+        Collections.reverse(window);
+
+        return new ChatWindow(review.getConversationSummary(), window);
+    }
+
+    /**
+     * Fold the messages that dropped out of the window into the review's summary, without blocking the caller.
+     * The generation runs in the scheduler's background lane, so it never takes a queue place or a turn from
+     * the user's own questions; when that lane is full the summary is simply brought up to date after a later answer.
+     */
+    public void refreshSummaryInBackground(Long reviewId) {
+        if (!summarizing.add(reviewId)) {
+            return;
+        }
+
+        Mono.fromCallable(() -> findPendingSummary(reviewId))
+                .subscribeOn(blockingScheduler)
+                .flatMap(pending -> llmJobScheduler
+                        .submitBackground("Conversation summary for review " + reviewId,
+                                () -> ollamaService.summarizeConversation(pending.previousSummary(), pending.messages()))
+                        .publishOn(blockingScheduler)
+                        .doOnNext(summary -> {
+                            Long throughId = pending.messages().get(pending.messages().size() - 1).getId();
+                            reviewRepository.updateConversationSummary(reviewId, summary, throughId);
+                            log.debug("Updated conversation summary of review {} through comment {}", reviewId, throughId);
+                        }))
+                .doFinally(signal -> summarizing.remove(reviewId))
+                .subscribe(summary -> { }, error -> log.warn("Unable to update conversation summary of review {}: {}",
+                        reviewId, error.getMessage()));
+    }
+
+    /**
+     * Messages older than the current window that are not part of the summary yet, or null when there are none.
+     */
+    private PendingSummary findPendingSummary(Long reviewId) {
+        Review review = reviewRepository.findById(reviewId).orElse(null);
+        if (review == null) {
+            return null;
+        }
+
+        ChatWindow window = loadWindow(review);
+        if (window.messages().isEmpty()) {
+            return null;
+        }
+
+        Long summarizedThrough = review.getSummarizedThroughCommentId() == null ? 0L : review.getSummarizedThroughCommentId();
+        List<ReviewComment> older = commentRepository.findByReviewIdAndIdGreaterThanAndIdLessThanOrderByIdAsc(
+                reviewId, summarizedThrough, window.messages().get(0).getId(), PageRequest.of(0, SUMMARY_BATCH_SIZE));
+
+        return older.isEmpty() ? null : new PendingSummary(reviewId, review.getConversationSummary(), older);
+    }
+
+    /**
+     * Rough token count (about four characters per token), enough to keep prompts within budget.
+     */
+    static int estimateTokens(String text) {
+        return text == null ? 0 : (text.length() + 3) / 4;
+    }
+}
@@ -1,11 +1,27 @@
 package com.app_template.App_Template.service.codezen;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.app_template.App_Template.dto.CommentRequest;
 import com.app_template.App_Template.dto.CommentResponse;
@@ -13,36 +29,121 @@ import com.app_template.App_Template.dto.GuidelineRequest;
 import com.app_template.App_Template.dto.GuidelineResponse;
 import com.app_template.App_Template.dto.ProjectRequest;
 import com.app_template.App_Template.dto.ProjectResponse;
+import com.app_template.App_Template.dto.QueuePositionResponse;
+import com.app_template.App_Template.dto.ReviewFindingCount;
+import com.app_template.App_Template.dto.ReviewPage;
 import com.app_template.App_Template.dto.ReviewRequest;
 import com.app_template.App_Template.dto.ReviewResponse;
+import com.app_template.App_Template.dto.ReviewResult;
+import com.app_template.App_Template.dto.ReviewStreamEvent;
+import com.app_template.App_Template.dto.ReviewSummary;
 import com.app_template.App_Template.entity.CustomGuideline;
+import com.app_template.App_Template.entity.InferenceTelemetry;
 import com.app_template.App_Template.entity.Project;
 import com.app_template.App_Template.entity.Review;
 import com.app_template.App_Template.entity.ReviewComment;
 import com.app_template.App_Template.entity.User;
+import com.app_template.App_Template.enums.ReviewStatus;
 import com.app_template.App_Template.repository.CustomGuidelineRepository;
 import com.app_template.App_Template.repository.ProjectRepository;
 import com.app_template.App_Template.repository.ReviewCommentRepository;
+import com.app_template.App_Template.repository.ReviewFindingRepository;
 import com.app_template.App_Template.repository.ReviewRepository;
+import com.app_template.App_Template.repository.ReviewRepository.ReviewChatContext;
+import com.app_template.App_Template.service.analysis.StaticAnalysis;
+import com.app_template.App_Template.service.analysis.StaticAnalyzer;
+import com.app_template.App_Template.service.cache.NearDuplicateReviewIndex;
+import com.app_template.App_Template.service.cache.NearDuplicateReviewIndex.NearMatch;
+import com.app_template.App_Template.service.cache.ReviewCacheService;
+import com.app_template.App_Template.service.codezen.ChatHistoryService.ChatWindow;
+import com.app_template.App_Template.service.ollama.GuidelineSelector;
+import com.app_template.App_Template.service.ollama.IncrementalReviewMerger;
+import com.app_template.App_Template.service.ollama.InferenceMetrics;
+import com.app_template.App_Template.service.ollama.IncrementalReviewMerger.HunkReview;
+import com.app_template.App_Template.service.ollama.IncrementalReviewPlanner;
+import com.app_template.App_Template.service.ollama.IncrementalReviewPlanner.Plan;
+import com.app_template.App_Template.service.ollama.ModelRouter;
+import com.app_template.App_Template.service.ollama.OllamaEmbeddingClient;
 import com.app_template.App_Template.service.ollama.OllamaService;
+import com.app_template.App_Template.service.ollama.OllamaUnavailableException;
+import com.app_template.App_Template.service.ollama.ReviewResultParser;
+import com.app_template.App_Template.service.ollama.ReviewStreamParser;
+import com.app_template.App_Template.service.scheduler.LlmJob;
+import com.app_template.App_Template.service.scheduler.LlmJobCancelledException;
+import com.app_template.App_Template.service.scheduler.LlmJobScheduler;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 /**
  * CodeZenService - Main business logic for code review functionality.
  * Handles project management, code reviews, and custom guidelines.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class CodeZenService {
 
+    /**
+     * An earlier review a submission nearly duplicates, with the diff against its code.
+     */
+    private record NearDuplicate(Review base, Plan plan, double similarity) {
+    }
+
+    /**
+     * Position of the last review of a listing page, handed to clients as an opaque cursor.
+     */
+    private record ReviewCursor(LocalDateTime timestamp, Long id) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((timestamp + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static ReviewCursor decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return null;
+            }
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8).split("\\|");
+                return new ReviewCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid review cursor");
+            }
+        }
+    }
+
+    private static final String CANCELLED_BY_USER = "Cancelled by the user";
+    private static final int MAX_REVIEW_PAGE_SIZE = 100;
+    private static final Set<String> REVIEW_SUMMARY_FIELDS = new LinkedHashSet<>(List.of("id", "timestamp", "status",
+            "effortEstimation", "summary", "findingCount", "findingsByType", "fileName", "batchId", "baseReviewId"));
+
     private final ProjectRepository projectRepository;
     private final ReviewRepository reviewRepository;
     private final CustomGuidelineRepository guidelineRepository;
     private final ReviewCommentRepository commentRepository;
     private final OllamaService ollamaService;
+    private final ReviewCacheService reviewCacheService;
+    private final IncrementalReviewPlanner incrementalReviewPlanner;
+    private final IncrementalReviewMerger incrementalReviewMerger;
+    private final LlmJobScheduler llmJobScheduler;
+    private final ChatHistoryService chatHistoryService;
+    private final ReviewJobWorker reviewJobWorker;
+    private final ReviewResultParser reviewResultParser;
+    private final ReviewFindingService reviewFindingService;
+    private final ReviewFindingRepository reviewFindingRepository;
+    private final InferenceMetrics inferenceMetrics;
+    private final GuidelineSelector guidelineSelector;
+    private final NearDuplicateReviewIndex nearDuplicateReviewIndex;
+    private final StaticAnalyzer staticAnalyzer;
+    private final ObjectMapper objectMapper;
+    private final Scheduler blockingScheduler;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Create a new project for the authenticated user.
@@ -52,6 +153,8 @@ public class CodeZenService {
         Project project = Project.builder()
                 .name(request.getName())
                 .language(request.getLanguage())
+                .triageModel(blankToNull(request.getTriageModel()))
+                .reviewModel(blankToNull(request.getReviewModel()))
                 .owner(user)
                 .createdAt(LocalDateTime.now())
                 .build();
@@ -81,6 +184,19 @@ public class CodeZenService {
         return mapToProjectResponse(project);
     }
 
+    /**
+     * Change the models that review the project's code. Blank values fall back to the
+     * per-language and global routing; cached reviews of the old routing are no longer used.
+     */
+    @Transactional
+    public ProjectResponse updateModelRouting(Long id, ProjectRequest request, User user) {
+        Project project = projectRepository.findByIdAndOwner(id, user)
+                .orElseThrow(() -> new EntityNotFoundException("Project not found"));
+        project.setTriageModel(blankToNull(request.getTriageModel()));
+        project.setReviewModel(blankToNull(request.getReviewModel()));
+        return mapToProjectResponse(projectRepository.save(project));
+    }
+
     /**
      * Delete a project (must belong to user).
      */
@@ -89,7 +205,16 @@ public class CodeZenService {
         if (!projectRepository.existsByIdAndOwner(id, user)) {
             throw new EntityNotFoundException("Project not found");
         }
+        // Findings reference both the project and its reviews
+        reviewFindingRepository.deleteByProjectId(id);
         projectRepository.deleteById(id);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                nearDuplicateReviewIndex.removeProject(id);
+            }
+        });
     }
 
     /**
@@ -100,43 +225,412 @@ public class CodeZenService {
         Project project = projectRepository.findByIdAndOwner(projectId, user)
                 .orElseThrow(() -> new EntityNotFoundException("Project not found"));
 
+        // Look up the base before saving, otherwise the new review would be its own base
+        Optional<Review> base = Boolean.TRUE.equals(request.getIncremental())
+                ? reviewRepository.findFirstByProjectOrderByTimestampDescIdDesc(project)
+                        .filter(previous -> reviewResultParser.parse(previous.getLlmResponse()).isPresent())
+                : Optional.empty();
+
         // Create review entity first
         Review review = Review.builder()
                 .codeSnapshot(request.getCode())
                 .timestamp(LocalDateTime.now())
+                .status(ReviewStatus.RUNNING)
+                .attempts(1)
+                .startedAt(LocalDateTime.now())
                 .project(project)
                 .user(user)
                 .build();
 
         Review savedReview = reviewRepository.save(review);
 
-        // Call Ollama asynchronously
-        return ollamaService.reviewCode(request.getCode(), project)
-                .map(response -> {
-                    // Parse effort estimation from response (if possible)
-                    String effort = extractEffortEstimation(response);
+        // Snippets that do not parse or are too small are answered by the static analysis alone
+        StaticAnalysis analysis = staticAnalyzer.analyze(request.getCode(), project.getLanguage());
+        if (analysis.skipsGeneration()) {
+            completeWithStaticAnalysis(savedReview, analysis);
+            return Mono.just(mapToReviewResponse(savedReview));
+        }
+
+        // Identical submissions are answered from the review cache without a new generation
+        String routeKey = ollamaService.getRoute(project).key();
+        String cacheKey = reviewCacheService.computeKey(request.getCode(), project, routeKey);
+        Optional<ReviewCacheService.CachedReview> cached = reviewCacheService.lookup(cacheKey);
+        if (cached.isPresent()) {
+            savedReview.setLlmResponse(cached.get().llmResponse());
+            savedReview.setEffortEstimation(cached.get().effortEstimation());
+            savedReview.setLlmModel(cached.get().model());
+            completeReview(savedReview, null);
+            return Mono.just(mapToReviewResponse(savedReview));
+        }
+
+        // Wait for a fair share of Ollama capacity; a full queue rolls back the review row
+        LlmJob job = llmJobScheduler.enqueue(user.getId(), "Review for project " + project.getId(), savedReview.getId(),
+                request.getRequestId());
+
+        // Resubmissions only send the changed hunks; a large rewrite falls back to a full review
+        Optional<Plan> plan = base.flatMap(previous -> incrementalReviewPlanner.plan(previous.getCodeSnapshot(), request.getCode()));
+        Mono<ReviewResponse> generation;
+        if (plan.isPresent()) {
+            generation = createIncrementalReview(savedReview, base.get(), plan.get(), project, job);
+        } else if (Boolean.TRUE.equals(request.getFullReview()) || !nearDuplicateReviewIndex.isEnabled()) {
+            generation = createFullReview(savedReview, project, analysis, job, cacheKey);
+        } else {
+            // A near-duplicate of an earlier review only gets the lines that differ reviewed
+            generation = findNearDuplicate(savedReview, project)
+                    .flatMap(nearDuplicate -> nearDuplicate.isPresent()
+                            ? createNearDuplicateReview(savedReview, nearDuplicate.get(), project, job)
+                            : createFullReview(savedReview, project, analysis, job, cacheKey));
+        }
 
-                    // Update review with response
+        // Cancelling the subscription (request timeout) aborts the Ollama request
+        return generation.doOnCancel(() -> abandonReview(savedReview, job));
+    }
+
+    /**
+     * Generate a review of the whole file once the job gets its slot.
+     */
+    private Mono<ReviewResponse> createFullReview(Review savedReview, Project project, StaticAnalysis analysis, LlmJob job,
+            String cacheKey) {
+        return llmJobScheduler.run(job, () -> ollamaService.reviewCode(savedReview.getCodeSnapshot(), project, analysis, job))
+                // Ollama answers on an event loop; saving the review blocks
+                .publishOn(blockingScheduler)
+                .map(generation -> {
+                    String response = generation.getResponse();
+
+                    // The typed review is parsed (and repaired if needed) by OllamaService
+                    String effort = generation.getReview() == null ? null : generation.getReview().getEffortEstimation();
+
+                    // Update review with response; the context lets follow-up questions continue the conversation
                     savedReview.setLlmResponse(response);
                     savedReview.setEffortEstimation(effort);
-                    reviewRepository.save(savedReview);
+                    savedReview.setLlmModel(generation.getModel());
+                    savedReview.setLlmContext(generation.getContext());
+                    savedReview.setLlmContextModel(generation.getModel());
+                    savedReview.setTelemetry(withQueueWait(generation.getTelemetry(), job));
+
+                    long persistStart = System.nanoTime();
+                    completeReview(savedReview, null);
+                    reviewCacheService.store(cacheKey, project, generation.getModel(), response, effort);
+                    inferenceMetrics.recordPersistence(InferenceMetrics.REVIEW, persistStart);
+                    inferenceMetrics.record(InferenceMetrics.REVIEW, generation.getModel(), savedReview.getTelemetry());
+                    indexForNearDuplicates(savedReview);
 
                     return mapToReviewResponse(savedReview);
+                })
+                .onErrorMap(error -> failReview(savedReview, error));
+    }
+
+    /**
+     * Review a near-duplicate submission against the earlier review it matched: its findings are
+     * reused and only the differing lines are reviewed, as in an incremental review.
+     */
+    private Mono<ReviewResponse> createNearDuplicateReview(Review savedReview, NearDuplicate nearDuplicate, Project project, LlmJob job) {
+        log.info("Review {} of project {} nearly duplicates review {} (similarity {}), reviewing {} changed lines",
+                savedReview.getId(), project.getId(), nearDuplicate.base().getId(),
+                String.format(Locale.ROOT, "%.3f", nearDuplicate.similarity()), nearDuplicate.plan().changedLines());
+        savedReview.setNearMatchSimilarity(nearDuplicate.similarity());
+        return createIncrementalReview(savedReview, nearDuplicate.base(), nearDuplicate.plan(), project, job);
+    }
+
+    /**
+     * Embed the submitted code, keep the embedding on the review and look for an earlier review of the project
+     * it nearly duplicates: one that is finished, can serve as an incremental base and differs in few enough lines.
+     * Any failure means no near-duplicate, so the caller reviews in full.
+     */
+    private Mono<Optional<NearDuplicate>> findNearDuplicate(Review review, Project project) {
+        return nearDuplicateReviewIndex.probe(review.getCodeSnapshot(), project)
+                .publishOn(blockingScheduler)
+                .map(probe -> {
+                    if (probe.vector() != null) {
+                        review.setCodeEmbedding(OllamaEmbeddingClient.toBytes(probe.vector()));
+                        review.setCodeEmbeddingModel(nearDuplicateReviewIndex.getModel());
+                    }
+                    for (NearMatch match : probe.matches()) {
+                        Optional<Review> base = reviewRepository.findWithContentByIdAndProject(match.reviewId(), project);
+                        if (base.isEmpty()) {
+                            nearDuplicateReviewIndex.remove(project.getId(), match.reviewId());
+                            continue;
+                        }
+                        if (base.get().getStatus() != ReviewStatus.DONE
+                                || reviewResultParser.parse(base.get().getLlmResponse()).isEmpty()) {
+                            continue;
+                        }
+                        Optional<Plan> plan = incrementalReviewPlanner.plan(base.get().getCodeSnapshot(), review.getCodeSnapshot());
+                        if (plan.isPresent()) {
+                            return Optional.of(new NearDuplicate(base.get(), plan.get(), match.similarity()));
+                        }
+                    }
+                    return Optional.<NearDuplicate>empty();
+                })
+                .onErrorResume(error -> {
+                    log.warn("Near-duplicate check of review {} failed, reviewing in full: {}", review.getId(), error.getMessage());
+                    return Mono.just(Optional.empty());
+                });
+    }
+
+    /**
+     * Review the code of an earlier review again in full, e.g. one that was derived from a near-duplicate.
+     */
+    @Transactional
+    public Mono<ReviewResponse> fullReview(Long projectId, Long reviewId, User user) {
+        Project project = projectRepository.findByIdAndOwner(projectId, user)
+                .orElseThrow(() -> new EntityNotFoundException("Project not found"));
+
+        Review review = reviewRepository.findWithContentByIdAndProject(reviewId, project)
+                .orElseThrow(() -> new EntityNotFoundException("Review not found"));
+
+        ReviewRequest request = ReviewRequest.builder()
+                .code(review.getCodeSnapshot())
+                .fullReview(true)
+                .build();
+        return createReview(projectId, request, user);
+    }
+
+    /**
+     * Review only the hunks that changed since the base review and merge them with its findings:
+     * findings on untouched lines are carried forward, findings on changed lines are resolved.
+     * An unchanged resubmission is answered without calling Ollama at all.
+     */
+    private Mono<ReviewResponse> createIncrementalReview(Review savedReview, Review base, Plan plan, Project project, LlmJob job) {
+        Long baseId = base.getId();
+        ReviewResult baseResult = reviewResultParser.parse(base.getLlmResponse())
+                .orElseGet(ReviewResult::new);
+        savedReview.setBaseReviewId(baseId);
+
+        Mono<List<HunkReview>> hunkReviews = Mono.just(List.of());
+        if (plan.hasChanges()) {
+            InferenceTelemetry telemetry = new InferenceTelemetry();
+            hunkReviews = llmJobScheduler.run(job,
+                    () -> ollamaService.reviewChanges(plan.hunks(), plan.totalLines(), project, job, telemetry))
+                    .doOnNext(reviews -> savedReview.setTelemetry(withQueueWait(telemetry, job)));
+        } else {
+            llmJobScheduler.release(job);
+        }
+
+        return hunkReviews.publishOn(blockingScheduler).map(reviews -> {
+            ReviewResult merged = incrementalReviewMerger.merge(baseId, baseResult, plan, reviews);
+            String model = ollamaService.getRoute(project).reviewModel();
+            savedReview.setLlmResponse(reviewResultParser.toJson(merged));
+            savedReview.setEffortEstimation(merged.getEffortEstimation());
+            savedReview.setLlmModel(model);
+
+            long persistStart = System.nanoTime();
+            completeReview(savedReview, null);
+            if (savedReview.getTelemetry() != null) {
+                inferenceMetrics.recordPersistence(InferenceMetrics.REVIEW, persistStart);
+                inferenceMetrics.record(InferenceMetrics.REVIEW, model, savedReview.getTelemetry());
+            }
+            indexForNearDuplicates(savedReview);
+            return mapToReviewResponse(savedReview);
+        }).onErrorMap(error -> failReview(savedReview, error));
+    }
+
+    /**
+     * Submit code for review and stream the AI feedback while Ollama generates it.
+     * Findings, summary and effort are emitted as soon as they can be parsed; the
+     * final event carries the persisted review once the generation has finished.
+     */
+    @Transactional
+    public Flux<ReviewStreamEvent> streamReview(Long projectId, ReviewRequest request, User user) {
+        Project project = projectRepository.findByIdAndOwner(projectId, user)
+                .orElseThrow(() -> new EntityNotFoundException("Project not found"));
+
+        Review review = Review.builder()
+                .codeSnapshot(request.getCode())
+                .timestamp(LocalDateTime.now())
+                .status(ReviewStatus.RUNNING)
+                .attempts(1)
+                .startedAt(LocalDateTime.now())
+                .project(project)
+                .user(user)
+                .build();
+
+        Review savedReview = reviewRepository.save(review);
+
+        ReviewStreamParser parser = new ReviewStreamParser(objectMapper);
+
+        StaticAnalysis analysis = staticAnalyzer.analyze(request.getCode(), project.getLanguage());
+        if (analysis.skipsGeneration()) {
+            completeWithStaticAnalysis(savedReview, analysis);
+            return Flux.fromIterable(parser.feed(savedReview.getLlmResponse()))
+                    .concatWithValues(ReviewStreamEvent.of(ReviewStreamEvent.REVIEW, mapToReviewResponse(savedReview)));
+        }
+
+        ModelRouter.Route route = ollamaService.getRoute(project);
+        String model = route.reviewModel();
+        String cacheKey = reviewCacheService.computeKey(request.getCode(), project, route.key());
+        Optional<ReviewCacheService.CachedReview> cached = reviewCacheService.lookup(cacheKey);
+        if (cached.isPresent()) {
+            savedReview.setLlmResponse(cached.get().llmResponse());
+            savedReview.setEffortEstimation(cached.get().effortEstimation());
+            savedReview.setLlmModel(cached.get().model());
+            completeReview(savedReview, null);
+            return Flux.fromIterable(parser.feed(cached.get().llmResponse()))
+                    .concatWithValues(ReviewStreamEvent.of(ReviewStreamEvent.REVIEW, mapToReviewResponse(savedReview)));
+        }
+
+        LlmJob job = llmJobScheduler.enqueue(user.getId(), "Streamed review for project " + project.getId(), savedReview.getId(),
+                request.getRequestId());
+        StringBuilder fullResponse = new StringBuilder();
+        AtomicReference<String> streamedContext = new AtomicReference<>();
+        InferenceTelemetry telemetry = new InferenceTelemetry();
+
+        Flux<ReviewStreamEvent> generation = llmJobScheduler
+                .runMany(job, () -> ollamaService.streamReviewCode(request.getCode(), project, analysis, job, streamedContext::set, telemetry))
+                .concatMapIterable(fragment -> {
+                    fullResponse.append(fragment);
+                    return parser.feed(fragment);
                 });
+
+        // Tell the client where it stands before the first finding arrives
+        // and show the findings of the static analysis while the model works on the rest
+        Flux<ReviewStreamEvent> fullReview = Flux.defer(() -> Flux.just(ReviewStreamEvent.of(ReviewStreamEvent.QUEUE, llmJobScheduler.getPosition(job))))
+                .concatWith(Flux.fromIterable(analysis.findings()).map(finding -> ReviewStreamEvent.of(ReviewStreamEvent.FINDING, finding)))
+                .concatWith(generation)
+                .concatWith(Mono.defer(() -> ollamaService.validateReviewText(fullResponse.toString(), model, telemetry))
+                        .publishOn(blockingScheduler)
+                        .map(validated -> {
+                            String response = staticAnalyzer.addFindings(validated, analysis);
+                            String effort = reviewResultParser.effortOf(response);
+                            savedReview.setLlmResponse(response);
+                            savedReview.setEffortEstimation(effort);
+                            savedReview.setLlmModel(model);
+                            savedReview.setLlmContext(streamedContext.get());
+                            savedReview.setLlmContextModel(model);
+                            savedReview.setTelemetry(withQueueWait(telemetry, job));
+
+                            long persistStart = System.nanoTime();
+                            completeReview(savedReview, null);
+                            reviewCacheService.store(cacheKey, project, model, response, effort);
+                            inferenceMetrics.recordPersistence(InferenceMetrics.REVIEW, persistStart);
+                            inferenceMetrics.record(InferenceMetrics.REVIEW, model, savedReview.getTelemetry());
+                            indexForNearDuplicates(savedReview);
+
+                            return ReviewStreamEvent.of(ReviewStreamEvent.REVIEW, mapToReviewResponse(savedReview));
+                        }))
+                .onErrorResume(error -> Mono.fromCallable(() -> {
+                    RuntimeException failure = failReview(savedReview, error);
+                    if (savedReview.getStatus() != ReviewStatus.CANCELLED) {
+                        log.error("Error streaming review {} from Ollama", savedReview.getId(), error);
+                    }
+                    return closingEvent(savedReview, failure);
+                }).subscribeOn(blockingScheduler));
+
+        Flux<ReviewStreamEvent> events = fullReview;
+        if (!Boolean.TRUE.equals(request.getFullReview()) && nearDuplicateReviewIndex.isEnabled()) {
+            // A near-duplicate gets the earlier review right away, then the review with its differing lines re-reviewed
+            events = findNearDuplicate(savedReview, project).flatMapMany(nearDuplicate -> nearDuplicate
+                    .map(match -> Flux.just(ReviewStreamEvent.of(ReviewStreamEvent.NEAR_MATCH, mapToReviewResponse(match.base())))
+                            .concatWith(createNearDuplicateReview(savedReview, match, project, job)
+                                    .map(response -> ReviewStreamEvent.of(ReviewStreamEvent.REVIEW, response)))
+                            // The review is already marked FAILED or CANCELLED
+                            .onErrorResume(error -> Flux.just(closingEvent(savedReview, error))))
+                    .orElse(fullReview));
+        }
+
+        // Closing the event stream cancels the subscription, which aborts the Ollama request
+        return events.doOnCancel(() -> abandonReview(savedReview, job));
+    }
+
+    /**
+     * Submit code for review in job mode: the review is saved as QUEUED and processed by the
+     * ReviewJobWorker, so the request returns right away. Poll getReview or subscribe to
+     * watchReview for the result.
+     */
+    @Transactional
+    public ReviewResponse submitReviewJob(Long projectId, ReviewRequest request, User user) {
+        Project project = projectRepository.findByIdAndOwner(projectId, user)
+                .orElseThrow(() -> new EntityNotFoundException("Project not found"));
+
+        Review review = Review.builder()
+                .codeSnapshot(request.getCode())
+                .timestamp(LocalDateTime.now())
+                .status(ReviewStatus.QUEUED)
+                .attempts(0)
+                .project(project)
+                .user(user)
+                .build();
+
+        Review savedReview = reviewRepository.save(review);
+
+        // The worker reads the row in its own transaction, so it must not see it before the commit
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reviewJobWorker.submit(savedReview.getId());
+            }
+        });
+
+        return mapToReviewResponse(savedReview);
     }
 
     /**
-     * Get all reviews for a project.
+     * Follow the status of a review until it is DONE, FAILED or CANCELLED. Emits the current state first,
+     * then every change published by the worker; a periodic re-check covers changes made by
+     * another instance.
+     */
+    public Flux<ReviewResponse> watchReview(Long projectId, Long reviewId, User user) {
+        Project project = projectRepository.findByIdAndOwner(projectId, user)
+                .orElseThrow(() -> new EntityNotFoundException("Project not found"));
+        if (reviewRepository.findByIdAndProject(reviewId, project).isEmpty()) {
+            throw new EntityNotFoundException("Review not found");
+        }
+
+        Mono<ReviewResponse> load = Mono.fromCallable(() -> reviewRepository.findWithContentByIdAndProject(reviewId, project)
+                        .map(this::mapToReviewResponse)
+                        .orElseThrow(() -> new EntityNotFoundException("Review not found")))
+                .subscribeOn(blockingScheduler);
+
+        return Flux.merge(
+                        Flux.just(reviewId),
+                        reviewJobWorker.updates(reviewId),
+                        Flux.interval(Duration.ofSeconds(15)).map(tick -> reviewId))
+                .concatMap(id -> load)
+                .distinctUntilChanged(ReviewResponse::getStatus)
+                .takeUntil(review -> review.getStatus() == null || ReviewStatus.valueOf(review.getStatus()).isFinished());
+    }
+
+    /**
+     * Get a page of a project's reviews, newest first, as summaries without code and responses
+     * (getReview returns those). Pages are keyed on (timestamp, id) rather than offsets, so a page costs
+     * the same however deep it is and reviews created meanwhile do not shift the following pages.
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @param fields the ReviewSummary fields to return, or empty for all of them
      */
     @Transactional(readOnly = true)
-    public List<ReviewResponse> getReviews(Long projectId, User user) {
+    public ReviewPage getReviews(Long projectId, String cursor, int limit, Set<String> fields, User user) {
         Project project = projectRepository.findByIdAndOwner(projectId, user)
                 .orElseThrow(() -> new EntityNotFoundException("Project not found"));
+        for (String field : fields) {
+            if (!REVIEW_SUMMARY_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unknown review field '" + field + "', expected one of "
+                        + String.join(", ", REVIEW_SUMMARY_FIELDS));
+            }
+        }
+        int size = Math.max(1, Math.min(limit, MAX_REVIEW_PAGE_SIZE));
 
-        List<Review> reviews = reviewRepository.findByProjectOrderByTimestampDesc(project);
-        return reviews.stream()
-                .map(this::mapToReviewResponse)
-                .collect(Collectors.toList());
+        // One review more than the page tells whether there is a next page
+        Pageable page = PageRequest.ofSize(size + 1);
+        ReviewCursor after = ReviewCursor.decode(cursor);
+        List<ReviewSummary> reviews = after == null
+                ? reviewRepository.findSummaries(project, page)
+                : reviewRepository.findSummariesAfter(project, after.timestamp(), after.id(), page);
+
+        String nextCursor = null;
+        if (reviews.size() > size) {
+            reviews = reviews.subList(0, size);
+            ReviewSummary last = reviews.get(size - 1);
+            nextCursor = new ReviewCursor(last.getTimestamp(), last.getId()).encode();
+        }
+
+        if (reviews.isEmpty()) {
+            return new ReviewPage(reviews, null);
+        }
+        if (fields.isEmpty() || fields.contains("findingCount") || fields.contains("findingsByType")) {
+            addFindingCounts(reviews);
+        }
+        return new ReviewPage(reviews.stream().map(review -> selectFields(review, fields)).toList(), nextCursor);
     }
 
     /**
@@ -147,7 +641,7 @@ public class CodeZenService {
         Project project = projectRepository.findByIdAndOwner(projectId, user)
                 .orElseThrow(() -> new EntityNotFoundException("Project not found"));
 
-        Review review = reviewRepository.findByIdAndProject(reviewId, project)
+        Review review = reviewRepository.findWithContentByIdAndProject(reviewId, project)
                 .orElseThrow(() -> new EntityNotFoundException("Review not found"));
 
         return mapToReviewResponse(review);
@@ -163,10 +657,45 @@ public class CodeZenService {
 
         CustomGuideline guideline = CustomGuideline.builder()
                 .ruleText(request.getRuleText())
+                .pinned(Boolean.TRUE.equals(request.getPinned()))
                 .project(project)
                 .build();
 
         CustomGuideline saved = guidelineRepository.save(guideline);
+
+        // Cached reviews were generated with the previous guideline set
+        reviewCacheService.evictProject(project.getId());
+        afterGuidelinesChanged(project.getId(), saved);
+
+        return mapToGuidelineResponse(saved);
+    }
+
+    /**
+     * Change the text of a guideline and/or whether it is pinned (always included in review prompts).
+     */
+    @Transactional
+    public GuidelineResponse updateGuideline(Long projectId, Long guidelineId, GuidelineRequest request, User user) {
+        Project project = projectRepository.findByIdAndOwner(projectId, user)
+                .orElseThrow(() -> new EntityNotFoundException("Project not found"));
+
+        CustomGuideline guideline = guidelineRepository.findByIdAndProject(guidelineId, project)
+                .orElseThrow(() -> new EntityNotFoundException("Guideline not found"));
+
+        boolean textChanged = request.getRuleText() != null && !request.getRuleText().isBlank()
+                && !request.getRuleText().equals(guideline.getRuleText());
+        if (textChanged) {
+            guideline.setRuleText(request.getRuleText());
+            guideline.setEmbedding(null);
+            guideline.setEmbeddingModel(null);
+        }
+        if (request.getPinned() != null) {
+            guideline.setPinned(request.getPinned());
+        }
+
+        CustomGuideline saved = guidelineRepository.save(guideline);
+        reviewCacheService.evictProject(project.getId());
+        afterGuidelinesChanged(project.getId(), textChanged ? saved : null);
+
         return mapToGuidelineResponse(saved);
     }
 
@@ -196,15 +725,40 @@ public class CodeZenService {
                 .orElseThrow(() -> new EntityNotFoundException("Guideline not found"));
 
         guidelineRepository.delete(guideline);
+        reviewCacheService.evictProject(project.getId());
+        afterGuidelinesChanged(project.getId(), null);
+    }
+
+    /**
+     * Once the change is committed, drop the project's guideline index and embed the new rule text, if any.
+     * Dropping it earlier would let a concurrent review rebuild it from the old guidelines. A review that loaded
+     * them before the commit can still cache an index built from them, which the next review replaces.
+     */
+    private void afterGuidelinesChanged(Long projectId, CustomGuideline toEmbed) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                guidelineSelector.invalidate(projectId);
+                if (toEmbed != null) {
+                    guidelineSelector.embedInBackground(toEmbed.getId(), toEmbed.getRuleText());
+                }
+            }
+        });
     }
 
     // Helper methods for mapping entities to DTOs
 
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
     private ProjectResponse mapToProjectResponse(Project project) {
         return ProjectResponse.builder()
                 .id(project.getId())
                 .name(project.getName())
                 .language(project.getLanguage())
+                .triageModel(project.getTriageModel())
+                .reviewModel(project.getReviewModel())
                 .createdAt(project.getCreatedAt())
                 .ownerId(project.getOwner().getId())
                 .ownerEmail(project.getOwner().getEmail())
@@ -218,105 +772,205 @@ public class CodeZenService {
                 .codeSnapshot(review.getCodeSnapshot())
                 .llmResponse(review.getLlmResponse())
                 .effortEstimation(review.getEffortEstimation())
+                .baseReviewId(review.getBaseReviewId())
+                .nearMatchSimilarity(review.getNearMatchSimilarity())
+                .batchId(review.getBatchId())
+                .fileName(review.getFileName())
+                .status(review.getStatus() == null ? null : review.getStatus().name())
+                .errorMessage(review.getErrorMessage())
                 .projectId(review.getProject().getId())
                 .userId(review.getUser().getId())
                 .build();
     }
 
+    private ReviewSummary mapToReviewSummary(Review review) {
+        return new ReviewSummary(review.getId(), review.getTimestamp(), review.getStatus(), review.getEffortEstimation(),
+                review.getSummary(), review.getFileName(), review.getBatchId(), review.getBaseReviewId());
+    }
+
     private GuidelineResponse mapToGuidelineResponse(CustomGuideline guideline) {
         return GuidelineResponse.builder()
                 .id(guideline.getId())
                 .ruleText(guideline.getRuleText())
+                .pinned(Boolean.TRUE.equals(guideline.getPinned()))
                 .projectId(guideline.getProject().getId())
                 .build();
     }
 
     /**
-     * Extract effort estimation from LLM response (if present).
-     * Handles both JSON and text responses.
+     * Fill in the finding counts of listed reviews with one grouped query.
      */
-    private String extractEffortEstimation(String response) {
-        if (response == null || response.trim().isEmpty()) {
-            return null;
+    private void addFindingCounts(List<ReviewSummary> reviews) {
+        Map<Long, ReviewSummary> byId = new HashMap<>();
+        for (ReviewSummary review : reviews) {
+            review.setFindingCount(0L);
+            review.setFindingsByType(new TreeMap<>());
+            byId.put(review.getId(), review);
         }
+        for (ReviewFindingCount count : reviewFindingRepository.countByReviewAndType(byId.keySet())) {
+            ReviewSummary review = byId.get(count.getReviewId());
+            review.setFindingCount(review.getFindingCount() + count.getCount());
+            review.getFindingsByType().merge(count.getType() == null ? "other" : count.getType(), count.getCount(), Long::sum);
+        }
+    }
 
-        try {
-            // Try JSON extraction first
-            if (response.contains("\"effort_estimation\"")) {
-                // Extract from JSON: "effort_estimation": "X/10"
-                int start = response.indexOf("\"effort_estimation\"") + 20;
-                int quoteStart = response.indexOf("\"", start);
-                if (quoteStart > start) {
-                    int quoteEnd = response.indexOf("\"", quoteStart + 1);
-                    if (quoteEnd > quoteStart) {
-                        String value = response.substring(quoteStart + 1, quoteEnd);
-                        if (!value.trim().isEmpty()) {
-                            return value;
-                        }
-                    }
-                }
-            }
+    /**
+     * Copy of a listed review with only the requested fields; all of them when none are requested.
+     */
+    private static ReviewSummary selectFields(ReviewSummary review, Set<String> fields) {
+        if (fields.isEmpty()) {
+            return review;
+        }
+        return ReviewSummary.builder()
+                .id(fields.contains("id") ? review.getId() : null)
+                .timestamp(fields.contains("timestamp") ? review.getTimestamp() : null)
+                .status(fields.contains("status") ? review.getStatus() : null)
+                .effortEstimation(fields.contains("effortEstimation") ? review.getEffortEstimation() : null)
+                .summary(fields.contains("summary") ? review.getSummary() : null)
+                .findingCount(fields.contains("findingCount") ? review.getFindingCount() : null)
+                .findingsByType(fields.contains("findingsByType") ? review.getFindingsByType() : null)
+                .fileName(fields.contains("fileName") ? review.getFileName() : null)
+                .batchId(fields.contains("batchId") ? review.getBatchId() : null)
+                .baseReviewId(fields.contains("baseReviewId") ? review.getBaseReviewId() : null)
+                .build();
+    }
 
-            // Try alternative JSON key
-            if (response.contains("\"effortEstimation\"")) {
-                int start = response.indexOf("\"effortEstimation\"") + 18;
-                int quoteStart = response.indexOf("\"", start);
-                if (quoteStart > start) {
-                    int quoteEnd = response.indexOf("\"", quoteStart + 1);
-                    if (quoteEnd > quoteStart) {
-                        String value = response.substring(quoteStart + 1, quoteEnd);
-                        if (!value.trim().isEmpty()) {
-                            return value;
-                        }
-                    }
-                }
+    /**
+     * Close a synchronously generated review; an error message marks it FAILED.
+     * Findings of a successful review are extracted into review_findings once, here, in the same
+     * transaction as the review (completion callbacks run outside the request's transaction).
+     */
+    private void completeReview(Review review, String error) {
+        review.setStatus(error == null ? ReviewStatus.DONE : ReviewStatus.FAILED);
+        review.setErrorMessage(error == null || error.length() <= 500 ? error : error.substring(0, 500));
+        review.setCompletedAt(LocalDateTime.now());
+        if (error == null) {
+            review.setSummary(reviewResultParser.summaryOf(review.getLlmResponse()));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            reviewRepository.save(review);
+            if (error == null) {
+                reviewFindingService.recordFindings(review);
             }
+        });
+    }
 
-            // Try text pattern extraction (fallback)
-            // Look for patterns like "3/10", "5 out of 10", "effort: 4", etc.
-            String lowerResponse = response.toLowerCase();
-            
-            // Pattern: "X/10" or "X out of 10"
-            java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("(\\d+)\\s*(?:/|out\\s+of)\\s*10", java.util.regex.Pattern.CASE_INSENSITIVE);
-            java.util.regex.Matcher matcher = pattern.matcher(response);
-            if (matcher.find()) {
-                String effort = matcher.group(1) + "/10";
-                return effort;
-            }
+    /**
+     * Close a review that the static analysis answered without a generation.
+     */
+    private void completeWithStaticAnalysis(Review review, StaticAnalysis analysis) {
+        log.info("Review {} answered by static analysis ({}), no generation needed", review.getId(), analysis.skipReason());
+        String response = staticAnalyzer.toReview(analysis);
+        review.setLlmResponse(response);
+        review.setEffortEstimation(reviewResultParser.effortOf(response));
+        review.setLlmModel(StaticAnalyzer.MODEL);
+        completeReview(review, null);
+    }
 
-            // Pattern: "effort: X" or "effort rating: X"
-            pattern = java.util.regex.Pattern.compile("effort[\\s:]+(\\d+)", java.util.regex.Pattern.CASE_INSENSITIVE);
-            matcher = pattern.matcher(response);
-            if (matcher.find()) {
-                String effort = matcher.group(1) + "/10";
-                return effort;
-            }
+    /**
+     * Mark a review whose generation failed as FAILED, or as CANCELLED when its job was cancelled. The error
+     * goes to errorMessage, never into llmResponse, so a failure is not mistaken for (or cached as) review content.
+     *
+     * @return the error to report to the client
+     */
+    private RuntimeException failReview(Review review, Throwable error) {
+        if (error instanceof LlmJobCancelledException cancelled) {
+            // Counted by whoever cancelled the job
+            markCancelled(review, CANCELLED_BY_USER);
+            return cancelled;
+        }
+        OllamaUnavailableException failure = error instanceof OllamaUnavailableException unavailable
+                ? unavailable
+                : new OllamaUnavailableException("Review could not be generated: "
+                        + (error.getMessage() == null ? error.getClass().getSimpleName() : error.getMessage()), error);
+        completeReview(review, failure.getMessage());
+        return failure;
+    }
 
-            // Infer from keywords
-            if (lowerResponse.contains("minor") || lowerResponse.contains("simple") || lowerResponse.contains("easy")) {
-                return "2/10";
-            } else if (lowerResponse.contains("moderate") || lowerResponse.contains("medium")) {
-                return "5/10";
-            } else if (lowerResponse.contains("major") || lowerResponse.contains("significant") || lowerResponse.contains("complex")) {
-                return "8/10";
-            }
+    /**
+     * Mark a review that is not finished yet as CANCELLED.
+     *
+     * @return false when the review had already finished
+     */
+    private boolean markCancelled(Review review, String reason) {
+        if (review.getStatus() != null && review.getStatus().isFinished()) {
+            return false;
+        }
+        // Conditional, so a generation that completed in the meantime is not overwritten
+        LocalDateTime now = LocalDateTime.now();
+        if (reviewRepository.finish(review.getId(), List.of(ReviewStatus.QUEUED, ReviewStatus.RUNNING), ReviewStatus.CANCELLED,
+                reason, now) == 0) {
+            return false;
+        }
+        review.setStatus(ReviewStatus.CANCELLED);
+        review.setErrorMessage(reason);
+        review.setCompletedAt(now);
+        return true;
+    }
 
-        } catch (Exception e) {
-            // Ignore parsing errors
+    /**
+     * The client stopped waiting for a review (closed the event stream, or the request timed out): give back its job,
+     * which cancels a queued or running generation, and mark the review CANCELLED.
+     */
+    private void abandonReview(Review review, LlmJob job) {
+        llmJobScheduler.release(job);
+        if (markCancelled(review, "Cancelled: the client disconnected")) {
+            log.info("Client disconnected, review {} cancelled", review.getId());
+            inferenceMetrics.recordCancellation(InferenceMetrics.REVIEW, InferenceMetrics.CANCEL_DISCONNECTED);
         }
-        return null;
+    }
+
+    /**
+     * The last event of a stream whose generation did not succeed.
+     */
+    private ReviewStreamEvent closingEvent(Review review, Throwable error) {
+        return review.getStatus() == ReviewStatus.CANCELLED
+                ? ReviewStreamEvent.of(ReviewStreamEvent.CANCELLED, mapToReviewResponse(review))
+                : ReviewStreamEvent.of(ReviewStreamEvent.ERROR, error.getMessage());
+    }
+
+    /**
+     * Make a finished review findable as a near-duplicate base. Reviews whose code was not embedded
+     * on submission (incremental ones) are embedded in the background.
+     */
+    private void indexForNearDuplicates(Review review) {
+        Long projectId = review.getProject().getId();
+        if (review.getCodeEmbedding() != null) {
+            nearDuplicateReviewIndex.add(projectId, review.getId(), OllamaEmbeddingClient.fromBytes(review.getCodeEmbedding()));
+        } else {
+            nearDuplicateReviewIndex.indexInBackground(projectId, review.getId(), review.getCodeSnapshot());
+        }
+    }
+
+    /**
+     * Add the time the generation spent waiting for its Ollama slot.
+     */
+    private InferenceTelemetry withQueueWait(InferenceTelemetry telemetry, LlmJob job) {
+        InferenceTelemetry result = telemetry == null ? new InferenceTelemetry() : telemetry;
+        result.setQueueWaitMs(job.getQueueWait().toMillis());
+        return result;
     }
 
     /**
      * Post a comment/question on a review and get AI response.
+     * When no answer can be generated the request fails with OllamaUnavailableException and no AI comment is saved.
      */
     @Transactional
     public Mono<CommentResponse> postComment(Long projectId, Long reviewId, CommentRequest request, User user) {
         Project project = projectRepository.findByIdAndOwner(projectId, user)
                 .orElseThrow(() -> new EntityNotFoundException("Project not found"));
 
+        // Only the stored conversation context is read here; the code and response are loaded when the
+        // full prompt turns out to be needed
         Review review = reviewRepository.findByIdAndProject(reviewId, project)
                 .orElseThrow(() -> new EntityNotFoundException("Review not found"));
+        ReviewChatContext storedContext = reviewRepository.findChatContext(reviewId).orElse(null);
+        Mono<Review> reviewWithContent = Mono.fromCallable(() -> reviewRepository.findWithContentByIdAndProject(reviewId, project)
+                        .orElseThrow(() -> new EntityNotFoundException("Review not found")))
+                .subscribeOn(blockingScheduler);
+
+        // Recent turns within the token budget plus the summary of older ones, loaded before the new question
+        ChatWindow window = chatHistoryService.loadWindow(review);
 
         // Save user's question
         ReviewComment userComment = ReviewComment.builder()
@@ -327,28 +981,102 @@ public class CodeZenService {
                 .timestamp(LocalDateTime.now())
                 .build();
 
-        ReviewComment savedUserComment = commentRepository.save(userComment);
+        commentRepository.save(userComment);
 
-        // Get conversation history
-        List<ReviewComment> history = commentRepository.findByReviewOrderByTimestampAsc(review);
+        LlmJob job = llmJobScheduler.enqueue(user.getId(), "Question on review " + review.getId(), null, request.getRequestId());
 
         // Get AI response
-        return ollamaService.answerReviewQuestion(request.getMessage(), review, history)
-                .map(aiResponse -> {
+        return llmJobScheduler.run(job, () -> ollamaService.answerReviewQuestion(
+                        request.getMessage(), review, storedContext, reviewWithContent, window.summary(), window.messages()))
+                .publishOn(blockingScheduler)
+                .map(generation -> {
+                    InferenceTelemetry telemetry = withQueueWait(generation.getTelemetry(), job);
+                    long persistStart = System.nanoTime();
+
                     // Save AI response
                     ReviewComment aiComment = ReviewComment.builder()
                             .review(review)
                             .user(user)
-                            .message(aiResponse)
+                            .message(generation.getResponse())
                             .role("AI")
                             .timestamp(LocalDateTime.now())
+                            .telemetry(telemetry)
                             .build();
 
-                    ReviewComment savedAiComment = commentRepository.save(aiComment);
+                    ReviewComment savedAiComment = transactionTemplate.execute(status -> {
+                        // Keep the extended context so the next question again only sends itself;
+                        // llmModel stays the model that generated the review
+                        if (generation.getContext() != null) {
+                            reviewRepository.updateChatContext(review.getId(), generation.getContext(), generation.getModel());
+                        }
+                        return commentRepository.save(aiComment);
+                    });
+                    inferenceMetrics.recordPersistence(InferenceMetrics.CHAT, persistStart);
+                    inferenceMetrics.record(InferenceMetrics.CHAT, generation.getModel(), telemetry);
+
+                    // Turns that just left the window are folded into the summary off the request path
+                    chatHistoryService.refreshSummaryInBackground(review.getId());
+
                     return mapToCommentResponse(savedAiComment);
+                })
+                .onErrorMap(error -> !(error instanceof OllamaUnavailableException || error instanceof LlmJobCancelledException),
+                        error -> new OllamaUnavailableException("Question could not be answered: "
+                                + (error.getMessage() == null ? error.getClass().getSimpleName() : error.getMessage()), error))
+                .doOnCancel(() -> {
+                    llmJobScheduler.release(job);
+                    inferenceMetrics.recordCancellation(InferenceMetrics.CHAT, InferenceMetrics.CANCEL_DISCONNECTED);
                 });
     }
 
+    /**
+     * Get the queued and running Ollama requests of the authenticated user.
+     */
+    public List<QueuePositionResponse> getQueuedJobs(User user) {
+        return llmJobScheduler.getJobs(user.getId());
+    }
+
+    /**
+     * Cancel a queued or running Ollama request of the authenticated user (a review or a chat answer).
+     * Its HTTP call to Ollama is aborted; a review being generated is marked CANCELLED.
+     */
+    public void cancelJob(String jobId, User user) {
+        LlmJob job = llmJobScheduler.cancel(user.getId(), jobId)
+                .orElseThrow(() -> new EntityNotFoundException("Job not found"));
+        log.info("User {} cancelled {}", user.getId(), job.getDescription());
+        inferenceMetrics.recordCancellation(job.getReviewId() == null ? InferenceMetrics.CHAT : InferenceMetrics.REVIEW,
+                InferenceMetrics.CANCEL_REQUESTED);
+    }
+
+    /**
+     * Cancel a review that is not finished yet: a generation running on this instance is aborted, and a
+     * job-mode review that is still queued will not be started. A finished review is returned unchanged.
+     * Only the review's summary is returned, so its code and response are never loaded.
+     */
+    @Transactional
+    public ReviewSummary cancelReview(Long projectId, Long reviewId, User user) {
+        Project project = projectRepository.findByIdAndOwner(projectId, user)
+                .orElseThrow(() -> new EntityNotFoundException("Project not found"));
+
+        Review review = reviewRepository.findByIdAndProject(reviewId, project)
+                .orElseThrow(() -> new EntityNotFoundException("Review not found"));
+
+        if (review.getStatus() != null && review.getStatus().isFinished()) {
+            return mapToReviewSummary(review);
+        }
+        llmJobScheduler.cancelReview(reviewId);
+        markCancelled(review, CANCELLED_BY_USER);
+        log.info("User {} cancelled review {}", user.getId(), reviewId);
+        inferenceMetrics.recordCancellation(InferenceMetrics.REVIEW, InferenceMetrics.CANCEL_REQUESTED);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reviewJobWorker.publish(reviewId);
+            }
+        });
+        return mapToReviewSummary(review);
+    }
+
     /**
      * Get all comments/conversation for a review.
      */
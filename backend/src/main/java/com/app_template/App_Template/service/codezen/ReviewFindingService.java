@@ -0,0 +1,125 @@
+package com.app_template.App_Template.service.codezen;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.app_template.App_Template.dto.Finding;
+import com.app_template.App_Template.dto.FindingHotspot;
+import com.app_template.App_Template.dto.FindingTrendPoint;
+import com.app_template.App_Template.dto.FindingTypeCount;
+import com.app_template.App_Template.dto.ReviewResult;
+import com.app_template.App_Template.entity.Project;
+import com.app_template.App_Template.entity.Review;
+import com.app_template.App_Template.entity.ReviewFinding;
+import com.app_template.App_Template.entity.User;
+import com.app_template.App_Template.repository.ProjectRepository;
+import com.app_template.App_Template.repository.ReviewFindingRepository;
+import com.app_template.App_Template.service.ollama.ReviewResultParser;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ReviewFindingService - Keeps the review_findings table in sync with completed reviews and
+ * answers aggregate questions about a project's findings with SQL aggregation.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReviewFindingService {
+
+    private static final int DEFAULT_DAYS = 30;
+    private static final int MAX_HOTSPOTS = 100;
+
+    private final ReviewFindingRepository findingRepository;
+    private final ProjectRepository projectRepository;
+    private final ReviewResultParser reviewResultParser;
+
+    /**
+     * Extract the findings of a completed review into review_findings. Called once when the review
+     * completes; rows of an earlier attempt of the same review are replaced.
+     */
+    @Transactional
+    public void recordFindings(Review review) {
+        ReviewResult result = reviewResultParser.parse(review.getLlmResponse()).orElse(null);
+        findingRepository.deleteByReviewId(review.getId());
+        if (result == null || result.getFindings().isEmpty()) {
+            return;
+        }
+
+        List<ReviewFinding> findings = result.getFindings().stream()
+                .map(finding -> toEntity(finding, review))
+                .toList();
+        findingRepository.saveAll(findings);
+        log.debug("Recorded {} findings of review {}", findings.size(), review.getId());
+    }
+
+    /**
+     * Number of findings per type since the given time (default: the last 30 days), most frequent first.
+     */
+    @Transactional(readOnly = true)
+    public List<FindingTypeCount> countByType(Long projectId, LocalDateTime since, User user) {
+        Project project = findProject(projectId, user);
+        return findingRepository.countByType(project.getId(), sinceOrDefault(since));
+    }
+
+    /**
+     * Findings per type per day (or per month), optionally for a single type.
+     */
+    @Transactional(readOnly = true)
+    public List<FindingTrendPoint> getTrend(Long projectId, LocalDateTime since, String type, boolean monthly, User user) {
+        Project project = findProject(projectId, user);
+        String normalizedType = normalizeType(type);
+        return monthly
+                ? findingRepository.monthlyTrend(project.getId(), sinceOrDefault(since), normalizedType)
+                : findingRepository.dailyTrend(project.getId(), sinceOrDefault(since), normalizedType);
+    }
+
+    /**
+     * Lines (per file) with the most findings, optionally for a single type.
+     */
+    @Transactional(readOnly = true)
+    public List<FindingHotspot> getHotspots(Long projectId, LocalDateTime since, String type, int limit, User user) {
+        Project project = findProject(projectId, user);
+        int pageSize = Math.min(Math.max(1, limit), MAX_HOTSPOTS);
+        return findingRepository.hotspots(project.getId(), sinceOrDefault(since), normalizeType(type),
+                PageRequest.of(0, pageSize));
+    }
+
+    private ReviewFinding toEntity(Finding finding, Review review) {
+        String type = normalizeType(finding.getType());
+        return ReviewFinding.builder()
+                .review(review)
+                .project(review.getProject())
+                .line(finding.getLine() != null && finding.getLine() > 0 ? finding.getLine() : null)
+                .type(type == null ? "style" : truncate(type, 50))
+                .message(finding.getMessage())
+                .suggestion(finding.getSuggestion())
+                .status(finding.getStatus() == null ? null : truncate(finding.getStatus(), 20))
+                .createdAt(review.getTimestamp())
+                .build();
+    }
+
+    private Project findProject(Long projectId, User user) {
+        return projectRepository.findByIdAndOwner(projectId, user)
+                .orElseThrow(() -> new EntityNotFoundException("Project not found"));
+    }
+
+    private LocalDateTime sinceOrDefault(LocalDateTime since) {
+        return since != null ? since : LocalDateTime.now().minusDays(DEFAULT_DAYS);
+    }
+
+    private String normalizeType(String type) {
+        return type == null || type.isBlank() ? null : type.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private String truncate(String value, int length) {
+        return value.length() <= length ? value : value.substring(0, length);
+    }
+}
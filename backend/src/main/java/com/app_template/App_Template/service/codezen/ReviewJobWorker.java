@@ -0,0 +1,330 @@
+package com.app_template.App_Template.service.codezen;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app_template.App_Template.entity.Project;
+import com.app_template.App_Template.entity.Review;
+import com.app_template.App_Template.enums.ReviewStatus;
+import com.app_template.App_Template.repository.ReviewRepository;
+import com.app_template.App_Template.service.analysis.StaticAnalysis;
+import com.app_template.App_Template.service.analysis.StaticAnalyzer;
+import com.app_template.App_Template.service.cache.NearDuplicateReviewIndex;
+import com.app_template.App_Template.service.cache.ReviewCacheService;
+import com.app_template.App_Template.service.ollama.InferenceMetrics;
+import com.app_template.App_Template.service.ollama.OllamaGeneration;
+import com.app_template.App_Template.service.ollama.OllamaService;
+import com.app_template.App_Template.service.ollama.OllamaUnavailableException;
+import com.app_template.App_Template.service.ollama.ReviewResultParser;
+import com.app_template.App_Template.service.scheduler.LlmJob;
+import com.app_template.App_Template.service.scheduler.LlmJobCancelledException;
+import com.app_template.App_Template.service.scheduler.LlmJobScheduler;
+import com.app_template.App_Template.service.scheduler.LlmQueueFullException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * ReviewJobWorker - Processes review jobs submitted in job mode, independently of any HTTP request.
+ * The review row is the job: its status moves QUEUED -> RUNNING -> DONE/FAILED (or CANCELLED by its
+ * owner), failed generations are retried with a growing delay, and reviews left QUEUED or RUNNING by a
+ * previous run of the application are picked up again on startup. Status changes are published for subscribers.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReviewJobWorker {
+
+    private final ReviewRepository reviewRepository;
+    private final OllamaService ollamaService;
+    private final ReviewCacheService reviewCacheService;
+    private final LlmJobScheduler llmJobScheduler;
+    private final ReviewResultParser reviewResultParser;
+    private final ReviewFindingService reviewFindingService;
+    private final InferenceMetrics inferenceMetrics;
+    private final NearDuplicateReviewIndex nearDuplicateReviewIndex;
+    private final StaticAnalyzer staticAnalyzer;
+    private final Scheduler blockingScheduler;
+    private final TransactionTemplate transactionTemplate;
+
+    // IDs of reviews whose status just changed
+    private final Sinks.Many<Long> updates = Sinks.many().multicast().directBestEffort();
+
+    private ScheduledThreadPoolExecutor executor;
+
+    @Value("${codezen.review-jobs.workers:2}")
+    private int workers;
+
+    @Value("${codezen.review-jobs.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${codezen.review-jobs.retry-delay-ms:5000}")
+    private long retryDelayMillis;
+
+    @Value("${codezen.review-jobs.timeout-ms:600000}")
+    private long timeoutMillis;
+
+    @PostConstruct
+    void start() {
+        executor = new ScheduledThreadPoolExecutor(Math.max(1, workers), runnable -> {
+            Thread thread = new Thread(runnable, "review-job-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        // Interrupted jobs stay RUNNING and are resumed on the next startup
+        executor.shutdownNow();
+    }
+
+    /**
+     * Hand a QUEUED review to the worker pool. Call after the transaction that saved it has committed.
+     */
+    public void submit(Long reviewId) {
+        executor.execute(() -> process(reviewId));
+    }
+
+    /**
+     * Status changes of one review, as they happen on this instance.
+     */
+    public Flux<Long> updates(Long reviewId) {
+        return updates.asFlux().filter(reviewId::equals);
+    }
+
+    /**
+     * Status changes of any of the given reviews, as they happen on this instance.
+     */
+    public Flux<Long> updates(Set<Long> reviewIds) {
+        return updates.asFlux().filter(reviewIds::contains);
+    }
+
+    /**
+     * Submit a QUEUED review and complete with its final status once it is finished, including retries.
+     * A periodic re-check covers updates published before the subscription and changes made elsewhere.
+     */
+    public Mono<ReviewStatus> submitAndAwait(Long reviewId) {
+        Mono<ReviewStatus> status = Mono.fromCallable(() -> reviewRepository.findStatusById(reviewId).orElse(ReviewStatus.FAILED))
+                .subscribeOn(blockingScheduler);
+
+        return Flux.merge(updates(reviewId), Flux.interval(Duration.ofSeconds(1), Duration.ofSeconds(5)))
+                .doOnSubscribe(subscription -> submit(reviewId))
+                .concatMap(tick -> status)
+                .filter(ReviewStatus::isFinished)
+                .next();
+    }
+
+    /**
+     * Resume the reviews a previous run left unfinished: RUNNING ones were interrupted mid-generation
+     * and are queued again (or failed when they used up their attempts), QUEUED ones are resubmitted.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverUnfinishedJobs() {
+        List<Long> unfinished = reviewRepository.findIdsByStatusIn(List.of(ReviewStatus.QUEUED, ReviewStatus.RUNNING));
+        if (unfinished.isEmpty()) {
+            return;
+        }
+        log.info("Recovering {} unfinished review jobs", unfinished.size());
+
+        for (Long reviewId : unfinished) {
+            Optional<Review> found = reviewRepository.findById(reviewId);
+            if (found.isEmpty()) {
+                continue;
+            }
+            Review review = found.get();
+            if (review.getStatus() == ReviewStatus.RUNNING) {
+                if (attemptsOf(review) >= maxAttempts) {
+                    markFailed(review, "Review did not finish after " + attemptsOf(review) + " attempts");
+                    continue;
+                }
+                review.setStatus(ReviewStatus.QUEUED);
+                reviewRepository.save(review);
+            }
+            submit(reviewId);
+        }
+    }
+
+    private void process(Long reviewId) {
+        if (reviewRepository.claim(reviewId, LocalDateTime.now(), ReviewStatus.QUEUED, ReviewStatus.RUNNING) == 0) {
+            return;
+        }
+        publish(reviewId);
+
+        Review review = reviewRepository.findWithProjectAndGuidelinesById(reviewId).orElse(null);
+        if (review == null) {
+            return;
+        }
+
+        try {
+            OllamaGeneration generation = generate(review);
+            String response = generation.getResponse();
+
+            review.setLlmResponse(response);
+            review.setEffortEstimation(reviewResultParser.effortOf(response));
+            review.setSummary(reviewResultParser.summaryOf(response));
+            review.setLlmModel(generation.getModel());
+            review.setLlmContext(generation.getContext());
+            review.setLlmContextModel(generation.getModel());
+            review.setTelemetry(generation.getTelemetry());
+
+            long persistStart = System.nanoTime();
+            if (!complete(review)) {
+                log.info("Review job {} was finished elsewhere (e.g. cancelled) while generating, dropping its result", reviewId);
+                publish(reviewId);
+                return;
+            }
+            if (generation.getTelemetry() != null) {
+                inferenceMetrics.recordPersistence(InferenceMetrics.REVIEW, persistStart);
+                inferenceMetrics.record(InferenceMetrics.REVIEW, generation.getModel(), generation.getTelemetry());
+            }
+            nearDuplicateReviewIndex.indexInBackground(review.getProject().getId(), reviewId, review.getCodeSnapshot());
+            publish(reviewId);
+        } catch (LlmJobCancelledException e) {
+            log.info("Review job {} was cancelled", reviewId);
+            review.setStatus(ReviewStatus.CANCELLED);
+            review.setErrorMessage("Cancelled by the user");
+            review.setCompletedAt(LocalDateTime.now());
+            reviewRepository.save(review);
+            publish(reviewId);
+        } catch (LlmQueueFullException e) {
+            // Not the review's fault: give the attempt back and wait for the queue to drain
+            review.setAttempts(attemptsOf(review) - 1);
+            requeue(review, Duration.ofSeconds(e.getRetryAfterSeconds()));
+        } catch (OllamaUnavailableException e) {
+            // Ollama is down or the circuit is open: no point retrying before it may be back
+            log.warn("Review job {} could not reach Ollama: {}", reviewId, e.getMessage());
+            retryOrFail(review, e.getMessage(), Duration.ofSeconds(e.getRetryAfterSeconds()));
+        } catch (Exception e) {
+            log.error("Review job {} failed", reviewId, e);
+            retryOrFail(review, e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+        }
+    }
+
+    /**
+     * Mark a RUNNING review DONE and store its result and findings in one transaction. The status moves with
+     * a conditional update, so a review cancelled while it was generating stays CANCELLED.
+     *
+     * @return false when the review was no longer RUNNING; nothing is written then
+     */
+    private boolean complete(Review review) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(transaction -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (reviewRepository.finish(review.getId(), List.of(ReviewStatus.RUNNING), ReviewStatus.DONE, null, now) == 0) {
+                return false;
+            }
+            review.setStatus(ReviewStatus.DONE);
+            review.setErrorMessage(null);
+            review.setCompletedAt(now);
+            reviewFindingService.recordFindings(reviewRepository.save(review));
+            return true;
+        }));
+    }
+
+    /**
+     * Answer from the static analysis or the review cache when possible, otherwise wait for a fair share of Ollama capacity
+     * and generate. Blocks the worker thread, never a servlet thread.
+     */
+    private OllamaGeneration generate(Review review) {
+        Project project = review.getProject();
+        String code = review.getCodeSnapshot();
+
+        StaticAnalysis analysis = staticAnalyzer.analyze(code, project.getLanguage());
+        if (analysis.skipsGeneration()) {
+            return OllamaGeneration.builder()
+                    .response(staticAnalyzer.toReview(analysis))
+                    .model(StaticAnalyzer.MODEL)
+                    .build();
+        }
+
+        String cacheKey = reviewCacheService.computeKey(code, project, ollamaService.getRoute(project).key());
+
+        Optional<ReviewCacheService.CachedReview> cached = reviewCacheService.lookup(cacheKey);
+        if (cached.isPresent()) {
+            return OllamaGeneration.builder()
+                    .response(cached.get().llmResponse())
+                    .model(cached.get().model())
+                    .build();
+        }
+
+        LlmJob job = llmJobScheduler.enqueue(review.getUser().getId(), "Review job " + review.getId(), review.getId());
+        // The prompt is built here, while the fetched guidelines are at hand; the call itself starts with the slot
+        Mono<OllamaGeneration> call = ollamaService.reviewCode(code, project, analysis, job);
+        OllamaGeneration generation = llmJobScheduler.run(job, () -> call).block(Duration.ofMillis(timeoutMillis));
+
+        if (generation == null || generation.getResponse() == null) {
+            throw new IllegalStateException("Empty response from Ollama");
+        }
+        if (generation.getTelemetry() != null) {
+            generation.getTelemetry().setQueueWaitMs(job.getQueueWait().toMillis());
+        }
+        reviewCacheService.store(cacheKey, project, generation.getModel(), generation.getResponse(),
+                reviewResultParser.effortOf(generation.getResponse()));
+        return generation;
+    }
+
+    private void retryOrFail(Review review, String error) {
+        retryOrFail(review, error, Duration.ZERO);
+    }
+
+    private void retryOrFail(Review review, String error, Duration minDelay) {
+        if (attemptsOf(review) < maxAttempts) {
+            log.warn("Review job {} failed on attempt {}, retrying: {}", review.getId(), attemptsOf(review), error);
+            review.setErrorMessage(truncate(error));
+            Duration delay = Duration.ofMillis(retryDelayMillis * attemptsOf(review));
+            requeue(review, delay.compareTo(minDelay) < 0 ? minDelay : delay);
+        } else {
+            markFailed(review, error);
+        }
+    }
+
+    private void requeue(Review review, Duration delay) {
+        review.setStatus(ReviewStatus.QUEUED);
+        reviewRepository.save(review);
+        publish(review.getId());
+        executor.schedule(() -> process(review.getId()), delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void markFailed(Review review, String error) {
+        review.setStatus(ReviewStatus.FAILED);
+        review.setErrorMessage(truncate(error));
+        review.setCompletedAt(LocalDateTime.now());
+        reviewRepository.save(review);
+        publish(review.getId());
+    }
+
+    /**
+     * Tell subscribers that the status of a review changed.
+     */
+    void publish(Long reviewId) {
+        // Sinks reject concurrent emissions, and workers publish from several threads
+        synchronized (updates) {
+            updates.tryEmitNext(reviewId);
+        }
+    }
+
+    private int attemptsOf(Review review) {
+        return review.getAttempts() == null ? 0 : review.getAttempts();
+    }
+
+    private String truncate(String error) {
+        return error == null || error.length() <= 500 ? error : error.substring(0, 500);
+    }
+}
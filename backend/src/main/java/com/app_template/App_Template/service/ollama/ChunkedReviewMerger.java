@@ -0,0 +1,98 @@
+package com.app_template.App_Template.service.ollama;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.app_template.App_Template.dto.Finding;
+import com.app_template.App_Template.dto.ReviewResult;
+import com.app_template.App_Template.service.ollama.CodeChunker.CodeChunk;
+
+/**
+ * ChunkedReviewMerger - Combines the per-chunk reviews of a large file into a single review.
+ * Finding lines are remapped from chunk-relative to file line numbers, findings reported twice
+ * because of chunk overlap are dropped, and effort estimates are averaged weighted by chunk size.
+ */
+@Component
+public class ChunkedReviewMerger {
+
+    /**
+     * The parsed review of one chunk; null when the chunk could not be reviewed.
+     */
+    public record ChunkReview(CodeChunk chunk, ReviewResult review) {
+    }
+
+    public ReviewResult merge(List<ChunkReview> chunkReviews) {
+        List<Finding> findings = new ArrayList<>();
+        Set<String> overlapKeys = new HashSet<>();
+        List<String> summaries = new ArrayList<>();
+        double weightedEffort = 0;
+        int effortWeight = 0;
+        int failedChunks = 0;
+
+        for (ChunkReview chunkReview : chunkReviews) {
+            CodeChunk chunk = chunkReview.chunk();
+            ReviewResult review = chunkReview.review();
+            if (review == null) {
+                failedChunks++;
+                continue;
+            }
+
+            String summary = review.getSummary() == null ? "" : review.getSummary().trim();
+            if (!summary.isEmpty()) {
+                summaries.add("Lines " + chunk.ownedStartLine() + "-" + chunk.endLine() + ": " + summary);
+            }
+
+            for (Finding finding : review.getFindings()) {
+                int relativeLine = finding.getLine() == null ? 0 : finding.getLine();
+                int line = relativeLine > 0 ? chunk.startLine() + relativeLine - 1 : chunk.ownedStartLine();
+
+                // Overlap lines are reviewed by two chunks; keep the first report of each issue there
+                if (line < chunk.ownedStartLine() || isOverlappedByNext(chunkReviews, chunk, line)) {
+                    String type = finding.getType() == null ? "" : finding.getType().toLowerCase(Locale.ROOT);
+                    if (!overlapKeys.add(line + "|" + type)) {
+                        continue;
+                    }
+                }
+                findings.add(new Finding(line, finding.getType(), finding.getMessage(), finding.getSuggestion(),
+                        finding.getStatus()));
+            }
+
+            Double effort = ReviewResultParser.effortScore(review.getEffortEstimation());
+            if (effort != null) {
+                weightedEffort += effort * chunk.ownedLineCount();
+                effortWeight += chunk.ownedLineCount();
+            }
+        }
+
+        findings.sort(Comparator.comparingInt(Finding::getLine));
+
+        StringBuilder summary = new StringBuilder("Large file reviewed in ")
+                .append(chunkReviews.size()).append(" parts");
+        if (failedChunks > 0) {
+            summary.append(" (").append(failedChunks).append(" could not be reviewed)");
+        }
+        summary.append(". ").append(String.join(" ", summaries));
+
+        return ReviewResult.builder()
+                .summary(summary.toString().trim())
+                .findings(findings)
+                .effortEstimation(effortWeight > 0 ? Math.round(Math.ceil(weightedEffort / effortWeight)) + "/10" : null)
+                .build();
+    }
+
+    private boolean isOverlappedByNext(List<ChunkReview> chunkReviews, CodeChunk chunk, int line) {
+        for (ChunkReview other : chunkReviews) {
+            CodeChunk next = other.chunk();
+            if (next.ownedStartLine() == chunk.endLine() + 1) {
+                return line >= next.startLine();
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,168 @@
+package com.app_template.App_Template.service.ollama;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * CodeChunker - Splits large source files into reviewable chunks along structural boundaries.
+ * Boundaries are lines that start a class/method/function at the top or first nesting level
+ * (brace depth for C-like languages, indentation for Python-like ones), moved up to include
+ * preceding comments and annotations. Every chunk after the first also carries a few lines of
+ * overlap so the model sees the context of the code it reviews.
+ */
+@Component
+public class CodeChunker {
+
+    /**
+     * A contiguous range of the original file. Lines are 1-based and inclusive;
+     * lines before ownedStartLine are overlap context already covered by the previous chunk.
+     */
+    public record CodeChunk(int startLine, int ownedStartLine, int endLine, String code) {
+
+        public int lineCount() {
+            return endLine - startLine + 1;
+        }
+
+        public int ownedLineCount() {
+            return endLine - ownedStartLine + 1;
+        }
+    }
+
+    private static final Pattern DECLARATION = Pattern.compile(
+            "^\\s*(public|private|protected|internal|static|final|abstract|sealed|override|async|export|default"
+                    + "|class|interface|enum|record|struct|trait|impl|def|function|func|fun|fn|module|namespace)\\b.*");
+
+    private static final Pattern PREAMBLE = Pattern.compile("^\\s*(@|//|/\\*|\\*|#|\"\"\").*");
+
+    /**
+     * Split code into chunks of at most maxLines owned lines, each preceded by up to overlapLines of context.
+     */
+    public List<CodeChunk> split(String code, int maxLines, int overlapLines) {
+        String[] lines = code.replace("\r\n", "\n").split("\n", -1);
+        int total = lines.length;
+        List<CodeChunk> chunks = new ArrayList<>();
+        if (total <= maxLines) {
+            chunks.add(new CodeChunk(1, 1, total, code));
+            return chunks;
+        }
+
+        TreeSet<Integer> boundaries = findBoundaries(lines);
+
+        int start = 0;
+        while (start < total) {
+            int limit = start + maxLines;
+            int end;
+            if (limit >= total) {
+                end = total;
+            } else {
+                // Prefer the last structural boundary in the second half of the window, else cut hard
+                Integer boundary = boundaries.floor(limit);
+                end = boundary != null && boundary > start + maxLines / 2 ? boundary : limit;
+            }
+
+            int contextStart = Math.max(0, start - overlapLines);
+            chunks.add(new CodeChunk(contextStart + 1, start + 1, end, join(lines, contextStart, end)));
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * 0-based indexes of lines where a new chunk may begin.
+     */
+    private TreeSet<Integer> findBoundaries(String[] lines) {
+        TreeSet<Integer> boundaries = new TreeSet<>();
+        int depth = 0;
+        boolean usesBraces = false;
+
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i];
+            boolean declaration = DECLARATION.matcher(line).matches();
+
+            if (declaration && i > 0) {
+                // Top level or first nesting level: class members in Java/TS, module functions in Python
+                boolean topLevel = usesBraces ? depth <= 1 : indentation(line) <= 4;
+                if (topLevel) {
+                    boundaries.add(includePreamble(lines, i));
+                }
+            }
+
+            int delta = braceDelta(line);
+            if (delta != 0 || line.indexOf('{') >= 0) {
+                usesBraces = true;
+            }
+            depth = Math.max(0, depth + delta);
+        }
+        return boundaries;
+    }
+
+    /**
+     * Move a boundary up over the comments, Javadoc and annotations attached to the declaration.
+     */
+    private int includePreamble(String[] lines, int index) {
+        int start = index;
+        while (start > 0 && PREAMBLE.matcher(lines[start - 1]).matches()) {
+            start--;
+        }
+        return start;
+    }
+
+    /**
+     * Net change in brace depth on a line, ignoring string/char literals and line comments.
+     */
+    private int braceDelta(String line) {
+        int delta = 0;
+        char quote = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quote != 0) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+                continue;
+            }
+            if (c == '"' || c == '\'' || c == '`') {
+                quote = c;
+            } else if (c == '/' && i + 1 < line.length() && line.charAt(i + 1) == '/') {
+                break;
+            } else if (c == '{') {
+                delta++;
+            } else if (c == '}') {
+                delta--;
+            }
+        }
+        return delta;
+    }
+
+    private int indentation(String line) {
+        int width = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == ' ') {
+                width++;
+            } else if (c == '\t') {
+                width += 4;
+            } else {
+                break;
+            }
+        }
+        return width;
+    }
+
+    private String join(String[] lines, int from, int to) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                builder.append('\n');
+            }
+            builder.append(lines[i]);
+        }
+        return builder.toString();
+    }
+}
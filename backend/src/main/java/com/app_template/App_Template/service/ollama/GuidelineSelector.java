@@ -0,0 +1,196 @@
+package com.app_template.App_Template.service.ollama;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.app_template.App_Template.entity.CustomGuideline;
+import com.app_template.App_Template.entity.Project;
+import com.app_template.App_Template.repository.CustomGuidelineRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * GuidelineSelector - Picks the custom guidelines that go into a review prompt.
+ * Guidelines are embedded when they are saved (or, if that failed, when the index is built) and the
+ * vectors of a project are kept in an in-memory index. A review gets the pinned guidelines plus the
+ * top-k guidelines most similar to the submitted code, instead of every rule of the project.
+ * Projects with no more unpinned guidelines than top-k get all of them without an embedding call;
+ * when embedding fails, all guidelines are used as before. A cached index is only used by reviews
+ * that loaded the same guidelines it was built from, and rebuilt otherwise.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GuidelineSelector {
+
+    // Reactor treats this TTL as "never expires"
+    private static final Duration FOREVER = Duration.ofMillis(Long.MAX_VALUE);
+
+    /**
+     * A guideline as captured while the project's guidelines were loadable; vector is null until embedded.
+     */
+    private record Entry(Long id, String ruleText, boolean pinned, float[] vector) {
+    }
+
+    /**
+     * What a guideline contributes to an index, without its vector; compared to tell whether an index is current.
+     */
+    private record Version(Long id, String ruleText, boolean pinned) {
+    }
+
+    /**
+     * A project's index and the guidelines it was built from.
+     */
+    private record CachedIndex(List<Version> version, Mono<List<Entry>> index) {
+    }
+
+    private final OllamaEmbeddingClient embeddingClient;
+    private final CustomGuidelineRepository guidelineRepository;
+    private final Scheduler blockingScheduler;
+
+    @Value("${codezen.guidelines.selection.enabled:true}")
+    private boolean enabled;
+
+    @Value("${codezen.guidelines.top-k:8}")
+    private int topK;
+
+    // Index per project id, shared by concurrent reviews; dropped whenever a guideline changes
+    private final Map<Long, CachedIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * The guideline texts to include in a review of the given code, in project order.
+     * The guidelines are read from the project right away, so call this while they are loadable.
+     */
+    public Mono<List<String>> select(String code, Project project) {
+        List<Entry> snapshot = snapshot(project);
+        long unpinned = snapshot.stream().filter(entry -> !entry.pinned()).count();
+        if (!enabled || unpinned <= topK) {
+            return Mono.just(texts(snapshot));
+        }
+
+        // A review that loaded its guidelines before a change may still get here after the invalidation; its
+        // index then no longer matches what newer reviews loaded, and they replace it
+        List<Version> version = version(snapshot);
+        CachedIndex cached = indexes.compute(project.getId(), (id, current) ->
+                current != null && current.version().equals(version) ? current : new CachedIndex(version, buildIndex(id, snapshot)));
+
+        return cached.index()
+                .zipWith(embeddingClient.embed(code))
+                .map(indexAndCode -> pick(indexAndCode.getT1(), indexAndCode.getT2()))
+                .doOnNext(selected -> log.debug("Selected {} of {} guidelines for project {}",
+                        selected.size(), snapshot.size(), project.getId()))
+                .onErrorResume(error -> {
+                    log.warn("Guideline selection failed for project {}, using all guidelines: {}",
+                            project.getId(), error.getMessage());
+                    return Mono.just(texts(snapshot));
+                });
+    }
+
+    /**
+     * Forget the index of a project after one of its guidelines was added, changed or removed.
+     */
+    public void invalidate(Long projectId) {
+        indexes.remove(projectId);
+    }
+
+    /**
+     * Embed a newly saved guideline off the request path and store its vector, so the next index
+     * build does not have to. Failures are only logged; the index build embeds what is missing.
+     */
+    public void embedInBackground(Long guidelineId, String ruleText) {
+        if (!enabled) {
+            return;
+        }
+        embeddingClient.embed(ruleText)
+                .publishOn(blockingScheduler)
+                .doOnNext(vector -> guidelineRepository.updateEmbedding(
+                        guidelineId, OllamaEmbeddingClient.toBytes(vector), embeddingClient.getModel()))
+                .subscribe(vector -> { }, error -> log.warn("Could not embed guideline {}: {}", guidelineId, error.getMessage()));
+    }
+
+    private Mono<List<Entry>> buildIndex(Long projectId, List<Entry> snapshot) {
+        List<Entry> missing = snapshot.stream().filter(entry -> entry.vector() == null).toList();
+        Mono<List<float[]>> embedded = embeddingClient.embed(missing.stream().map(Entry::ruleText).toList());
+
+        return embedded
+                .publishOn(blockingScheduler)
+                .map(vectors -> {
+                    Map<Long, float[]> added = new HashMap<>();
+                    for (int i = 0; i < missing.size(); i++) {
+                        Entry entry = missing.get(i);
+                        added.put(entry.id(), vectors.get(i));
+                        guidelineRepository.updateEmbedding(entry.id(), OllamaEmbeddingClient.toBytes(vectors.get(i)),
+                                embeddingClient.getModel());
+                    }
+                    if (!missing.isEmpty()) {
+                        log.info("Embedded {} guidelines of project {}", missing.size(), projectId);
+                    }
+                    List<Entry> index = new ArrayList<>(snapshot.size());
+                    for (Entry entry : snapshot) {
+                        index.add(entry.vector() != null ? entry
+                                : new Entry(entry.id(), entry.ruleText(), entry.pinned(), added.get(entry.id())));
+                    }
+                    return List.copyOf(index);
+                })
+                // A failed build is not kept, the next review tries again
+                .cache(index -> FOREVER, error -> Duration.ZERO, () -> Duration.ZERO);
+    }
+
+    private List<String> pick(List<Entry> index, float[] codeVector) {
+        Set<Long> selected = new HashSet<>();
+        index.stream()
+                .filter(Entry::pinned)
+                .forEach(entry -> selected.add(entry.id()));
+        index.stream()
+                .filter(entry -> !entry.pinned())
+                .sorted(Comparator.comparingDouble((Entry entry) -> OllamaEmbeddingClient.similarity(entry.vector(), codeVector))
+                        .reversed())
+                .limit(topK)
+                .forEach(entry -> selected.add(entry.id()));
+
+        return index.stream()
+                .filter(entry -> selected.contains(entry.id()))
+                .map(Entry::ruleText)
+                .toList();
+    }
+
+    private List<Entry> snapshot(Project project) {
+        List<CustomGuideline> guidelines = project.getGuidelines();
+        if (guidelines == null) {
+            return List.of();
+        }
+        String model = embeddingClient.getModel();
+        return guidelines.stream()
+                .sorted(Comparator.comparing(CustomGuideline::getId))
+                .map(guideline -> new Entry(
+                        guideline.getId(),
+                        guideline.getRuleText(),
+                        Boolean.TRUE.equals(guideline.getPinned()),
+                        // Vectors of another embedding model are not comparable
+                        guideline.getEmbedding() != null && model.equals(guideline.getEmbeddingModel())
+                                ? OllamaEmbeddingClient.fromBytes(guideline.getEmbedding())
+                                : null))
+                .toList();
+    }
+
+    private static List<Version> version(List<Entry> entries) {
+        return entries.stream().map(entry -> new Version(entry.id(), entry.ruleText(), entry.pinned())).toList();
+    }
+
+    private static List<String> texts(List<Entry> entries) {
+        return entries.stream().map(Entry::ruleText).toList();
+    }
+}
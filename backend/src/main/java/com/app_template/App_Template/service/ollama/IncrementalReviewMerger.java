@@ -0,0 +1,126 @@
+package com.app_template.App_Template.service.ollama;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.app_template.App_Template.dto.Finding;
+import com.app_template.App_Template.dto.IncrementalInfo;
+import com.app_template.App_Template.dto.ReviewResult;
+import com.app_template.App_Template.service.ollama.IncrementalReviewPlanner.Hunk;
+import com.app_template.App_Template.service.ollama.IncrementalReviewPlanner.Plan;
+
+/**
+ * IncrementalReviewMerger - Builds the review of a resubmitted file from the previous review and the
+ * reviews of the changed hunks. Findings on untouched lines are carried forward with remapped line
+ * numbers, findings on changed or removed lines are reported as resolved, and findings of the hunk
+ * reviews are added as new. Every finding gets a "status" of "new", "carried" or "resolved".
+ */
+@Component
+public class IncrementalReviewMerger {
+
+    public static final String STATUS_NEW = "new";
+    public static final String STATUS_CARRIED = "carried";
+    public static final String STATUS_RESOLVED = "resolved";
+
+    /**
+     * The parsed review of one hunk; null when the hunk could not be reviewed.
+     */
+    public record HunkReview(Hunk hunk, ReviewResult review) {
+    }
+
+    public ReviewResult merge(Long baseReviewId, ReviewResult previous, Plan plan, List<HunkReview> hunkReviews) {
+        List<Finding> findings = new ArrayList<>();
+        List<Finding> resolved = new ArrayList<>();
+        Set<String> carriedKeys = new HashSet<>();
+
+        for (Finding finding : previous.getFindings()) {
+            int oldLine = finding.getLine() == null ? 0 : finding.getLine();
+            int newLine = plan.mapOldLine(oldLine);
+
+            if (oldLine > 0 && newLine == 0) {
+                resolved.add(copy(finding, oldLine, STATUS_RESOLVED));
+                continue;
+            }
+            int line = newLine > 0 ? newLine : oldLine;
+            carriedKeys.add(key(line, finding));
+            findings.add(copy(finding, line, STATUS_CARRIED));
+        }
+
+        List<String> summaries = new ArrayList<>();
+        Double effort = null;
+        int newCount = 0;
+        int failedHunks = 0;
+
+        for (HunkReview hunkReview : hunkReviews) {
+            Hunk hunk = hunkReview.hunk();
+            ReviewResult review = hunkReview.review();
+            if (review == null) {
+                failedHunks++;
+                continue;
+            }
+
+            String summary = review.getSummary() == null ? "" : review.getSummary().trim();
+            if (!summary.isEmpty()) {
+                summaries.add("Lines " + hunk.changedStartLine() + "-" + hunk.changedEndLine() + ": " + summary);
+            }
+
+            for (Finding finding : review.getFindings()) {
+                int relativeLine = finding.getLine() == null ? 0 : finding.getLine();
+                int line = relativeLine > 0 ? hunk.startLine() + relativeLine - 1 : hunk.changedStartLine();
+                // The model sometimes repeats an issue it sees in the context lines; that one is already carried
+                if (!carriedKeys.add(key(line, finding))) {
+                    continue;
+                }
+                findings.add(copy(finding, line, STATUS_NEW));
+                newCount++;
+            }
+
+            Double hunkEffort = ReviewResultParser.effortScore(review.getEffortEstimation());
+            if (hunkEffort != null) {
+                effort = effort == null ? hunkEffort : Math.max(effort, hunkEffort);
+            }
+        }
+
+        // Carried findings still need the effort that was estimated for them
+        int carriedCount = findings.size() - newCount;
+        Double previousEffort = ReviewResultParser.effortScore(previous.getEffortEstimation());
+        if (previousEffort != null && (carriedCount > 0 || effort == null)) {
+            effort = effort == null ? previousEffort : Math.max(effort, previousEffort);
+        }
+
+        findings.sort(Comparator.comparingInt(Finding::getLine));
+
+        StringBuilder summary = new StringBuilder("Incremental review of ")
+                .append(plan.changedLines()).append(" changed lines in ")
+                .append(plan.hunks().size()).append(plan.hunks().size() == 1 ? " hunk" : " hunks");
+        if (failedHunks > 0) {
+            summary.append(" (").append(failedHunks).append(" could not be reviewed)");
+        }
+        summary.append(": ").append(newCount).append(" new, ")
+                .append(carriedCount).append(" carried over, ")
+                .append(resolved.size()).append(" resolved. ")
+                .append(String.join(" ", summaries));
+
+        return ReviewResult.builder()
+                .summary(summary.toString().trim())
+                .findings(findings)
+                .resolvedFindings(resolved)
+                .effortEstimation(effort == null ? null : Math.round(Math.ceil(effort)) + "/10")
+                .incremental(new IncrementalInfo(baseReviewId, plan.changedLines(), plan.hunks().size()))
+                .build();
+    }
+
+    private static Finding copy(Finding finding, int line, String status) {
+        return new Finding(line, finding.getType(), finding.getMessage(), finding.getSuggestion(), status);
+    }
+
+    private static String key(int line, Finding finding) {
+        return line + "|" + (finding.getType() == null ? "" : finding.getType().toLowerCase(Locale.ROOT));
+    }
+}
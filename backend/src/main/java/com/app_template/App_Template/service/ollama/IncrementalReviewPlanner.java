@@ -0,0 +1,132 @@
+package com.app_template.App_Template.service.ollama;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.difflib.DiffUtils;
+import com.github.difflib.patch.AbstractDelta;
+import com.github.difflib.patch.Patch;
+
+/**
+ * IncrementalReviewPlanner - Diffs a resubmitted file against the code of the previous review
+ * and turns the changes into hunks (changed lines plus surrounding context) that can be reviewed
+ * on their own. It also maps every unchanged line of the old code to its new line number, so
+ * findings of the previous review can be carried forward.
+ */
+@Component
+public class IncrementalReviewPlanner {
+
+    /**
+     * Changed region of the new code with its context. Lines are 1-based and inclusive;
+     * changedStartLine..changedEndLine is the part that actually differs from the previous code.
+     */
+    public record Hunk(int startLine, int endLine, int changedStartLine, int changedEndLine, String code) {
+    }
+
+    /**
+     * Result of diffing the previous and the new code.
+     * oldToNew[oldLine] is the new line of an unchanged old line, or 0 when the old line was changed or removed.
+     */
+    public record Plan(List<Hunk> hunks, int[] oldToNew, int totalLines, int changedLines) {
+
+        public boolean hasChanges() {
+            return !hunks.isEmpty();
+        }
+
+        public int mapOldLine(int oldLine) {
+            return oldLine > 0 && oldLine < oldToNew.length ? oldToNew[oldLine] : 0;
+        }
+    }
+
+    @Value("${codezen.incremental.context-lines:10}")
+    private int contextLines;
+
+    @Value("${codezen.incremental.max-changed-ratio:0.5}")
+    private double maxChangedRatio;
+
+    /**
+     * Plan an incremental review, or return empty when so much changed that a full review is the better choice.
+     */
+    public Optional<Plan> plan(String previousCode, String code) {
+        List<String> oldLines = lines(previousCode);
+        List<String> newLines = lines(code);
+        Patch<String> patch = DiffUtils.diff(oldLines, newLines);
+
+        int[] oldToNew = new int[oldLines.size() + 1];
+        List<int[]> changedRanges = new ArrayList<>();
+        int changedLines = 0;
+        int oldIndex = 0;
+        int newIndex = 0;
+
+        for (AbstractDelta<String> delta : patch.getDeltas()) {
+            int sourcePosition = delta.getSource().getPosition();
+            int targetPosition = delta.getTarget().getPosition();
+
+            // Lines between deltas are unchanged and only shift by the size difference of earlier deltas
+            while (oldIndex < sourcePosition) {
+                oldToNew[++oldIndex] = ++newIndex;
+            }
+            oldIndex += delta.getSource().size();
+            newIndex = targetPosition + delta.getTarget().size();
+
+            int targetSize = delta.getTarget().size();
+            if (targetSize > 0) {
+                changedRanges.add(new int[] { targetPosition + 1, targetPosition + targetSize });
+            } else {
+                // Pure deletion: review the lines around the gap it left
+                changedRanges.add(new int[] { Math.max(1, targetPosition), Math.min(newLines.size(), targetPosition + 1) });
+            }
+            changedLines += Math.max(delta.getSource().size(), targetSize);
+        }
+        while (oldIndex < oldLines.size()) {
+            oldToNew[++oldIndex] = ++newIndex;
+        }
+
+        if (!newLines.isEmpty() && changedLines > maxChangedRatio * newLines.size()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new Plan(toHunks(changedRanges, newLines), oldToNew, newLines.size(), changedLines));
+    }
+
+    /**
+     * Widen each changed range by the context lines and merge ranges whose windows touch.
+     */
+    private List<Hunk> toHunks(List<int[]> changedRanges, List<String> newLines) {
+        List<Hunk> hunks = new ArrayList<>();
+        int total = newLines.size();
+        int[] current = null;
+
+        for (int[] range : changedRanges) {
+            if (range[1] < range[0]) {
+                continue;
+            }
+            if (current != null && range[0] - contextLines <= current[1] + contextLines + 1) {
+                current[1] = Math.max(current[1], range[1]);
+                continue;
+            }
+            if (current != null) {
+                hunks.add(toHunk(current, newLines, total));
+            }
+            current = new int[] { range[0], range[1] };
+        }
+        if (current != null) {
+            hunks.add(toHunk(current, newLines, total));
+        }
+        return hunks;
+    }
+
+    private Hunk toHunk(int[] changed, List<String> newLines, int total) {
+        int start = Math.max(1, changed[0] - contextLines);
+        int end = Math.min(total, changed[1] + contextLines);
+        return new Hunk(start, end, changed[0], changed[1], String.join("\n", newLines.subList(start - 1, end)));
+    }
+
+    private List<String> lines(String code) {
+        return code == null || code.isEmpty() ? List.of() : code.lines().toList();
+    }
+}
@@ -0,0 +1,101 @@
+package com.app_template.App_Template.service.ollama;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.app_template.App_Template.entity.InferenceTelemetry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * InferenceMetrics - Publishes the InferenceTelemetry of reviews and chat answers as Micrometer histograms
+ * (codezen.inference.*, tagged with the operation and model), so slow answers can be attributed to
+ * queueing, model loading, prompt size or generation speed. Generations that were cancelled are counted
+ * as codezen.inference.cancellations. Available under /actuator/metrics.
+ */
+@Component
+@RequiredArgsConstructor
+public class InferenceMetrics {
+
+    public static final String REVIEW = "review";
+    public static final String CHAT = "chat";
+
+    /**
+     * Cancellation reasons: the owner asked for it, or the client closed the connection.
+     */
+    public static final String CANCEL_REQUESTED = "requested";
+    public static final String CANCEL_DISCONNECTED = "disconnected";
+
+    private final MeterRegistry meterRegistry;
+
+    public void record(String operation, String model, InferenceTelemetry telemetry) {
+        if (telemetry == null) {
+            return;
+        }
+        String modelTag = model == null ? "unknown" : model;
+        time("codezen.inference.prompt.build", "Time spent building the prompt", operation, modelTag, telemetry.getPromptBuildMs());
+        time("codezen.inference.queue.wait", "Time waiting for an Ollama slot", operation, modelTag, telemetry.getQueueWaitMs());
+        time("codezen.inference.http", "Wall time of the calls to Ollama", operation, modelTag, telemetry.getHttpMs());
+        time("codezen.inference.model.load", "Model load time reported by Ollama", operation, modelTag, telemetry.getModelLoadMs());
+        time("codezen.inference.prompt.eval", "Prompt evaluation time reported by Ollama", operation, modelTag, telemetry.getPromptEvalMs());
+        time("codezen.inference.eval", "Generation time reported by Ollama", operation, modelTag, telemetry.getEvalMs());
+        time("codezen.inference.ttft", "Time to first token", operation, modelTag, telemetry.getTimeToFirstTokenMs());
+        summary("codezen.inference.prompt.tokens", "tokens", operation, modelTag, telemetry.getPromptTokens());
+        summary("codezen.inference.eval.tokens", "tokens", operation, modelTag, telemetry.getEvalTokens());
+        summary("codezen.inference.tokens.per.second", "tokens/s", operation, modelTag, telemetry.getTokensPerSecond());
+    }
+
+    public void recordCancellation(String operation, String reason) {
+        Counter.builder("codezen.inference.cancellations")
+                .description("Generations cancelled before they finished")
+                .tag("operation", operation)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Time spent storing the answer (and its findings) since startNanos (a System.nanoTime() value).
+     * Not stored on the entity, which is already written by then.
+     */
+    public void recordPersistence(String operation, long startNanos) {
+        Timer.builder("codezen.inference.persist")
+                .description("Time spent persisting the answer")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+
+    private void time(String name, String description, String operation, String model, Long millis) {
+        if (millis == null) {
+            return;
+        }
+        Timer.builder(name)
+                .description(description)
+                .tag("operation", operation)
+                .tag("model", model)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(millis, TimeUnit.MILLISECONDS);
+    }
+
+    private void summary(String name, String unit, String operation, String model, Number value) {
+        if (value == null) {
+            return;
+        }
+        DistributionSummary.builder(name)
+                .baseUnit(unit)
+                .tag("operation", operation)
+                .tag("model", model)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(value.doubleValue());
+    }
+}
@@ -0,0 +1,388 @@
+package com.app_template.App_Template.service.ollama;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.app_template.App_Template.dto.OllamaLoadedModel;
+import com.app_template.App_Template.dto.OllamaModelState;
+import com.app_template.App_Template.dto.OllamaModelsStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * ModelLifecycleManager - Keeps the models that serve reviews loaded in Ollama, so reviews do not pay
+ * for loading a model from disk. Every request asks Ollama to keep its model loaded for the configured
+ * keep-alive; the configured models are preloaded on every backend at startup; and during business hours
+ * models are pinged periodically while traffic is expected for them. Traffic is learned per hour of the
+ * week: a model is kept warm in an hour (and the hour before it) when it served requests in that hour
+ * within the lookback period. Until a week of traffic has been observed, the preloaded models are kept
+ * warm throughout business hours. Pings go through the OllamaBackendPool, so they take a node's embedding
+ * slots and respect the circuit breaker; a node that is serving requests is skipped. Pings are counted as
+ * ollama.model.warmups, tagged with the model and whether the model had to be loaded.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ModelLifecycleManager {
+
+    private static final int HOURS_PER_WEEK = 7 * 24;
+    private static final Duration WARM_UP_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration STATUS_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration LEARNING_PERIOD = Duration.ofDays(7);
+    // A ping that reports a longer load time found the model unloaded
+    private static final long COLD_LOAD_MILLIS = 500;
+
+    private final OllamaBackendPool backendPool;
+    private final ModelRouter modelRouter;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ollama.keep-alive.duration:30m}")
+    private String keepAlive;
+
+    @Value("${ollama.warm-up.enabled:true}")
+    private boolean warmUpEnabled;
+
+    @Value("${ollama.warm-up.models:}")
+    private String warmUpModelsSetting;
+
+    @Value("${ollama.embedding.model:nomic-embed-text}")
+    private String embeddingModel;
+
+    @Value("${ollama.keep-alive.business-hours:08:00-19:00}")
+    private String businessHoursSetting;
+
+    @Value("${ollama.keep-alive.business-days:MON-FRI}")
+    private String businessDaysSetting;
+
+    @Value("${ollama.keep-alive.time-zone:}")
+    private String timeZoneSetting;
+
+    @Value("${ollama.keep-alive.traffic-lookback-days:14}")
+    private int trafficLookbackDays;
+
+    private final Map<String, ModelUsage> usage = new ConcurrentHashMap<>();
+    private final AtomicBoolean pinging = new AtomicBoolean();
+    private final Instant startedAt = Instant.now();
+
+    private Set<String> warmUpModels;
+    private LocalTime businessStart;
+    private LocalTime businessEnd;
+    private Set<DayOfWeek> businessDays;
+    private ZoneId zone;
+
+    /**
+     * What is known about one model: when it was used per hour of the week, and how its last ping went.
+     */
+    private static final class ModelUsage {
+        final AtomicLongArray lastUsedBySlot = new AtomicLongArray(HOURS_PER_WEEK); // epoch millis, 0 = never
+        volatile Instant lastUsedAt;
+        volatile Instant lastWarmedAt;
+        volatile Long lastWarmUpLoadMs;
+        volatile String lastWarmUpError;
+    }
+
+    @PostConstruct
+    void init() {
+        warmUpModels = new LinkedHashSet<>(modelRouter.configuredModels());
+        Arrays.stream(warmUpModelsSetting.split(","))
+                .map(String::trim)
+                .filter(model -> !model.isEmpty())
+                .forEach(warmUpModels::add);
+        if (embeddingModel != null && !embeddingModel.isBlank()) {
+            warmUpModels.add(embeddingModel.trim());
+        }
+        warmUpModels.forEach(model -> usage.computeIfAbsent(model, key -> new ModelUsage()));
+
+        String[] hours = businessHoursSetting.split("-");
+        if (hours.length != 2) {
+            throw new IllegalArgumentException("ollama.keep-alive.business-hours must look like 08:00-19:00");
+        }
+        businessStart = LocalTime.parse(hours[0].trim());
+        businessEnd = LocalTime.parse(hours[1].trim());
+        businessDays = parseDays(businessDaysSetting);
+        zone = timeZoneSetting == null || timeZoneSetting.isBlank() ? ZoneId.systemDefault() : ZoneId.of(timeZoneSetting.trim());
+    }
+
+    /**
+     * The keep_alive to send with every request, or null to leave Ollama's default (5 minutes).
+     */
+    public String getKeepAlive() {
+        return keepAlive == null || keepAlive.isBlank() ? null : keepAlive.trim();
+    }
+
+    /**
+     * Record that a request for the model is being sent to Ollama.
+     */
+    public void recordUse(String model) {
+        if (model == null || model.isBlank()) {
+            return;
+        }
+        Instant now = Instant.now();
+        ModelUsage modelUsage = usage.computeIfAbsent(model, key -> new ModelUsage());
+        modelUsage.lastUsedAt = now;
+        modelUsage.lastUsedBySlot.set(slot(now.atZone(zone)), now.toEpochMilli());
+    }
+
+    /**
+     * Preload the warm-up models on every backend in the background, so the first reviews find them loaded.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!warmUpEnabled || warmUpModels.isEmpty()) {
+            return;
+        }
+        log.info("Preloading Ollama models {} with keep_alive {}", warmUpModels, getKeepAlive());
+        pingAll(List.copyOf(warmUpModels));
+    }
+
+    /**
+     * During business hours, ping the models traffic is expected for, resetting their keep-alive timer.
+     * Runs in the background; a round that is still loading models makes the next one skip.
+     */
+    @Scheduled(fixedDelayString = "${ollama.keep-alive.ping-interval-ms:600000}",
+            initialDelayString = "${ollama.keep-alive.ping-interval-ms:600000}")
+    public void keepWarm() {
+        ZonedDateTime now = ZonedDateTime.now(zone);
+        if (!warmUpEnabled || !isBusinessHours(now)) {
+            return;
+        }
+        List<String> models = usage.keySet().stream()
+                .filter(model -> isExpected(model, now))
+                .sorted()
+                .toList();
+        if (!models.isEmpty()) {
+            log.debug("Keeping Ollama models warm: {}", models);
+            pingAll(models);
+        }
+    }
+
+    /**
+     * The keep-alive settings, the state of every known model and what each backend has loaded (/api/ps).
+     */
+    public Mono<OllamaModelsStatus> getStatus() {
+        ZonedDateTime now = ZonedDateTime.now(zone);
+        List<OllamaModelState> models = usage.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> OllamaModelState.builder()
+                        .model(entry.getKey())
+                        .warmUp(warmUpModels.contains(entry.getKey()))
+                        .keptWarm(warmUpEnabled && isBusinessHours(now) && isExpected(entry.getKey(), now))
+                        .lastUsedAt(toLocal(entry.getValue().lastUsedAt))
+                        .lastWarmedAt(toLocal(entry.getValue().lastWarmedAt))
+                        .lastWarmUpLoadMs(entry.getValue().lastWarmUpLoadMs)
+                        .lastWarmUpError(entry.getValue().lastWarmUpError)
+                        .build())
+                .toList();
+
+        List<String> unreachable = new ArrayList<>();
+        return Flux.fromIterable(backendPool.getBackends())
+                .flatMap(backend -> backend.getWebClient()
+                        .get()
+                        .uri("/api/ps")
+                        .retrieve()
+                        .bodyToMono(JsonNode.class)
+                        .timeout(STATUS_TIMEOUT)
+                        .flatMapIterable(response -> loadedModels(backend.getBaseUrl(), response))
+                        .onErrorResume(error -> {
+                            synchronized (unreachable) {
+                                unreachable.add(backend.getBaseUrl());
+                            }
+                            return Flux.empty();
+                        }))
+                .collectList()
+                .map(loaded -> {
+                    loaded.sort(Comparator.comparing(OllamaLoadedModel::getBaseUrl).thenComparing(OllamaLoadedModel::getModel));
+                    return OllamaModelsStatus.builder()
+                            .keepAlive(getKeepAlive())
+                            .businessHours(isBusinessHours(now))
+                            .models(models)
+                            .loaded(loaded)
+                            .unreachableBackends(unreachable.stream().sorted().toList())
+                            .build();
+                });
+    }
+
+    private void pingAll(List<String> models) {
+        if (!pinging.compareAndSet(false, true)) {
+            log.debug("Previous Ollama keep-alive round still running, skipping");
+            return;
+        }
+        // One model at a time per backend: loading several at once competes for memory and disk
+        Flux.fromIterable(backendPool.getBackends())
+                .filter(OllamaBackend::isHealthy)
+                .flatMap(backend -> Flux.fromIterable(models).concatMap(model -> ping(backend, model)))
+                .doFinally(signal -> pinging.set(false))
+                .subscribe(null, error -> log.warn("Ollama keep-alive round failed: {}", error.getMessage()));
+    }
+
+    /**
+     * Load the model, or reset its keep-alive timer when it is already loaded. An empty generate request
+     * only loads the model; embedding models are loaded by embedding a short text. A node that is busy is
+     * skipped and tried again in the next round.
+     */
+    private Mono<Void> ping(OllamaBackend backend, String model) {
+        boolean embedding = model.equals(embeddingModel);
+        Map<String, Object> body = new HashMap<>();
+        body.put("model", model);
+        if (embedding) {
+            body.put("input", "warm-up");
+        } else {
+            body.put("stream", false);
+        }
+        if (getKeepAlive() != null) {
+            body.put("keep_alive", getKeepAlive());
+        }
+        ModelUsage modelUsage = usage.computeIfAbsent(model, key -> new ModelUsage());
+
+        return backendPool.executePing(backend, client -> client
+                        .post()
+                        .uri(embedding ? "/api/embed" : "/api/generate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(body)
+                        .retrieve()
+                        .bodyToMono(JsonNode.class)
+                        .timeout(WARM_UP_TIMEOUT))
+                .doOnNext(response -> {
+                    JsonNode loadNanos = response.path("load_duration");
+                    Long loadMillis = loadNanos.isNumber() ? loadNanos.asLong() / 1_000_000 : null;
+                    boolean loaded = loadMillis != null && loadMillis >= COLD_LOAD_MILLIS;
+                    modelUsage.lastWarmedAt = Instant.now();
+                    modelUsage.lastWarmUpLoadMs = loadMillis;
+                    modelUsage.lastWarmUpError = null;
+                    warmUpCounter(model, loaded ? "loaded" : "resident").increment();
+                    if (loaded) {
+                        log.info("Loaded Ollama model {} on {} in {} ms", model, backend.getBaseUrl(), loadMillis);
+                    }
+                })
+                .switchIfEmpty(Mono.fromRunnable(() -> {
+                    warmUpCounter(model, "skipped").increment();
+                    log.debug("Ollama backend {} is busy, not pinging model {}", backend.getBaseUrl(), model);
+                }))
+                .onErrorResume(error -> {
+                    modelUsage.lastWarmUpError = error.getClass().getSimpleName() + ": " + error.getMessage();
+                    warmUpCounter(model, "failed").increment();
+                    log.warn("Could not warm up Ollama model {} on {}: {}", model, backend.getBaseUrl(), error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * Whether traffic is expected for the model in this hour: it was used in this or the next hour of the
+     * week within the lookback period, or it is a warm-up model and too little traffic has been seen yet.
+     */
+    private boolean isExpected(String model, ZonedDateTime now) {
+        ModelUsage modelUsage = usage.get(model);
+        if (modelUsage == null) {
+            return false;
+        }
+        long since = now.toInstant().minus(Duration.ofDays(trafficLookbackDays)).toEpochMilli();
+        int current = slot(now);
+        if (modelUsage.lastUsedBySlot.get(current) > since
+                || modelUsage.lastUsedBySlot.get((current + 1) % HOURS_PER_WEEK) > since) {
+            return true;
+        }
+        return warmUpModels.contains(model) && startedAt.isAfter(now.toInstant().minus(LEARNING_PERIOD));
+    }
+
+    private boolean isBusinessHours(ZonedDateTime now) {
+        LocalTime time = now.toLocalTime();
+        return businessDays.contains(now.getDayOfWeek()) && !time.isBefore(businessStart) && time.isBefore(businessEnd);
+    }
+
+    private Counter warmUpCounter(String model, String result) {
+        return Counter.builder("ollama.model.warmups")
+                .description("Keep-alive pings and preloads of Ollama models")
+                .tag("model", model)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static List<OllamaLoadedModel> loadedModels(String baseUrl, JsonNode response) {
+        List<OllamaLoadedModel> loaded = new ArrayList<>();
+        for (JsonNode model : response.path("models")) {
+            loaded.add(OllamaLoadedModel.builder()
+                    .baseUrl(baseUrl)
+                    .model(model.path("name").asText(model.path("model").asText()))
+                    .sizeVram(model.path("size_vram").asLong())
+                    .expiresAt(model.path("expires_at").asText(null))
+                    .build());
+        }
+        return loaded;
+    }
+
+    private static int slot(ZonedDateTime time) {
+        return (time.getDayOfWeek().getValue() - 1) * 24 + time.getHour();
+    }
+
+    private LocalDateTime toLocal(Instant instant) {
+        return instant == null ? null : LocalDateTime.ofInstant(instant, zone);
+    }
+
+    /**
+     * Parse "MON-FRI" or "MON,WED,SAT"; full day names are accepted too.
+     */
+    static Set<DayOfWeek> parseDays(String setting) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (String part : setting.split(",")) {
+            String[] range = part.trim().split("-");
+            if (range.length == 1 && !range[0].isBlank()) {
+                days.add(parseDay(range[0]));
+            } else if (range.length == 2) {
+                DayOfWeek from = parseDay(range[0]);
+                DayOfWeek to = parseDay(range[1]);
+                for (DayOfWeek day = from; ; day = day.plus(1)) {
+                    days.add(day);
+                    if (day == to) {
+                        break;
+                    }
+                }
+            }
+        }
+        return days;
+    }
+
+    private static DayOfWeek parseDay(String name) {
+        String normalized = name.trim().toUpperCase(Locale.ROOT);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day.name().equals(normalized)
+                    || day.getDisplayName(TextStyle.SHORT, Locale.ENGLISH).toUpperCase(Locale.ROOT).equals(normalized)) {
+                return day;
+            }
+        }
+        throw new IllegalArgumentException("Unknown day of week in ollama.keep-alive.business-days: " + name);
+    }
+}
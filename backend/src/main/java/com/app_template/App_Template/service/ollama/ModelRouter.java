@@ -0,0 +1,176 @@
+package com.app_template.App_Template.service.ollama;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.app_template.App_Template.dto.Finding;
+import com.app_template.App_Template.dto.ReviewResult;
+import com.app_template.App_Template.entity.Project;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * ModelRouter - Decides which models review a snippet.
+ * Small snippets first get a quick review from a fast triage model; only when that review flags
+ * the code as non-trivial (serious findings, many findings, high effort, or unusable output) is the
+ * snippet escalated to the larger review model. Large snippets go to the review model directly.
+ * Models are configured globally, per project language and per project, the latter taking precedence.
+ */
+@Component
+public class ModelRouter {
+
+    /**
+     * Value of a triage model setting that turns triage off for a language or project.
+     */
+    public static final String NO_TRIAGE = "none";
+
+    /**
+     * Models for one project. triageModel is null when snippets go straight to the review model.
+     */
+    public record Route(String triageModel, String reviewModel) {
+
+        public boolean hasTriage() {
+            return triageModel != null;
+        }
+
+        /**
+         * Identifies the routing in cache keys, so changing a model does not serve reviews of the old one.
+         */
+        public String key() {
+            return hasTriage() ? triageModel + ">" + reviewModel : reviewModel;
+        }
+    }
+
+    @Value("${ollama.model:codellama:7b}")
+    private String defaultModel;
+
+    @Value("${ollama.routing.triage-model:}")
+    private String defaultTriageModel;
+
+    @Value("${ollama.routing.language-review-models:}")
+    private String languageReviewModelsSetting;
+
+    @Value("${ollama.routing.language-triage-models:}")
+    private String languageTriageModelsSetting;
+
+    @Value("${ollama.routing.max-triage-lines:150}")
+    private int maxTriageLines;
+
+    @Value("${ollama.routing.escalate-types:bug,type-error,security}")
+    private String escalateTypesSetting;
+
+    @Value("${ollama.routing.escalate-min-findings:4}")
+    private int escalateMinFindings;
+
+    @Value("${ollama.routing.escalate-effort:5}")
+    private double escalateEffort;
+
+    private Map<String, String> languageReviewModels;
+    private Map<String, String> languageTriageModels;
+    private Set<String> escalateTypes;
+
+    @PostConstruct
+    void init() {
+        languageReviewModels = parseLanguageModels(languageReviewModelsSetting);
+        languageTriageModels = parseLanguageModels(languageTriageModelsSetting);
+        escalateTypes = Arrays.stream(escalateTypesSetting.split(","))
+                .map(type -> type.trim().toLowerCase(Locale.ROOT))
+                .filter(type -> !type.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    public Route route(Project project) {
+        String language = normalize(project.getLanguage());
+
+        String reviewModel = firstNonBlank(project.getReviewModel(), languageReviewModels.get(language), defaultModel);
+        String triageModel = firstNonBlank(project.getTriageModel(), languageTriageModels.get(language), defaultTriageModel);
+        if (triageModel == null || NO_TRIAGE.equalsIgnoreCase(triageModel) || triageModel.equals(reviewModel)) {
+            triageModel = null;
+        }
+        return new Route(triageModel, reviewModel);
+    }
+
+    /**
+     * Every model the global and per-language settings route to; project-specific models are not included.
+     */
+    public Set<String> configuredModels() {
+        Set<String> models = new LinkedHashSet<>();
+        models.add(defaultModel);
+        models.addAll(languageReviewModels.values());
+        if (defaultTriageModel != null && !defaultTriageModel.isBlank()) {
+            models.add(defaultTriageModel.trim());
+        }
+        models.addAll(languageTriageModels.values());
+        models.removeIf(model -> model.isBlank() || NO_TRIAGE.equalsIgnoreCase(model));
+        return models;
+    }
+
+    /**
+     * Whether the snippet is small enough to be triaged; larger ones are sent to the review model directly.
+     */
+    public boolean shouldTriage(Route route, String code) {
+        return route.hasTriage() && code != null && code.lines().count() <= maxTriageLines;
+    }
+
+    /**
+     * Why the triage review is not good enough to be the final review, or empty when it can be kept.
+     */
+    public Optional<String> escalationReason(ReviewResult triage) {
+        if (triage == null) {
+            return Optional.of("triage output could not be parsed");
+        }
+        for (Finding finding : triage.getFindings()) {
+            String type = finding.getType() == null ? "" : finding.getType().trim().toLowerCase(Locale.ROOT);
+            if (escalateTypes.contains(type)) {
+                return Optional.of("triage reported a " + type + " finding");
+            }
+        }
+        if (triage.getFindings().size() >= escalateMinFindings) {
+            return Optional.of("triage reported " + triage.getFindings().size() + " findings");
+        }
+        Double effort = ReviewResultParser.effortScore(triage.getEffortEstimation());
+        if (effort != null && effort >= escalateEffort) {
+            return Optional.of("triage estimated effort " + triage.getEffortEstimation());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Parse "java=codellama:13b,python=deepseek-coder:6.7b"; model names may contain ':' so '=' separates.
+     */
+    private static Map<String, String> parseLanguageModels(String setting) {
+        Map<String, String> models = new HashMap<>();
+        if (setting == null || setting.isBlank()) {
+            return models;
+        }
+        for (String entry : setting.split(",")) {
+            int separator = entry.indexOf('=');
+            if (separator > 0 && separator < entry.length() - 1) {
+                models.put(normalize(entry.substring(0, separator)), entry.substring(separator + 1).trim());
+            }
+        }
+        return models;
+    }
+
+    private static String normalize(String language) {
+        return language == null ? "" : language.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String firstNonBlank(String... values) {
+        for (String value : values) {
+            if (value != null && !value.isBlank()) {
+                return value.trim();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,125 @@
+package com.app_template.App_Template.service.ollama;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.app_template.App_Template.dto.OllamaBackendStatus;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * One Ollama instance of the OllamaBackendPool, with its load and health state.
+ * Embedding requests have their own slots, so that they never take the capacity that the
+ * LlmJobScheduler hands out to generations.
+ */
+@Getter
+public class OllamaBackend {
+
+    private final String baseUrl;
+    private final WebClient webClient;
+    private final int maxConcurrent;
+    private final int maxConcurrentEmbeddings;
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger outstanding = new AtomicInteger();
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger outstandingEmbeddings = new AtomicInteger();
+
+    private volatile boolean healthy = true;
+    private volatile int consecutiveFailures;
+    private volatile String lastError;
+    private volatile LocalDateTime lastCheckedAt;
+
+    OllamaBackend(String baseUrl, WebClient webClient, int maxConcurrent, int maxConcurrentEmbeddings) {
+        this.baseUrl = baseUrl;
+        this.webClient = webClient;
+        this.maxConcurrent = maxConcurrent;
+        this.maxConcurrentEmbeddings = maxConcurrentEmbeddings;
+    }
+
+    /**
+     * Reserve a request slot; fails when the node is already at its concurrency limit.
+     */
+    boolean tryAcquire() {
+        return tryIncrement(outstanding, maxConcurrent);
+    }
+
+    void release() {
+        outstanding.decrementAndGet();
+    }
+
+    public int getOutstandingCount() {
+        return outstanding.get();
+    }
+
+    /**
+     * Reserve an embedding slot; fails when the node already runs its maximum of embedding requests.
+     */
+    boolean tryAcquireEmbedding() {
+        return tryIncrement(outstandingEmbeddings, maxConcurrentEmbeddings);
+    }
+
+    void releaseEmbedding() {
+        outstandingEmbeddings.decrementAndGet();
+    }
+
+    public int getOutstandingEmbeddingCount() {
+        return outstandingEmbeddings.get();
+    }
+
+    private static boolean tryIncrement(AtomicInteger counter, int max) {
+        while (true) {
+            int current = counter.get();
+            if (current >= max) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Record a successful request or probe; an ejected node is reinstated.
+     */
+    synchronized boolean recordSuccess() {
+        boolean reinstated = !healthy;
+        consecutiveFailures = 0;
+        healthy = true;
+        lastError = null;
+        lastCheckedAt = LocalDateTime.now();
+        return reinstated;
+    }
+
+    /**
+     * Record a connection-level failure; the node is ejected once the threshold is reached.
+     *
+     * @return true when this failure ejected the node
+     */
+    synchronized boolean recordFailure(Throwable error, int failureThreshold) {
+        consecutiveFailures++;
+        lastError = error.getClass().getSimpleName() + ": " + error.getMessage();
+        lastCheckedAt = LocalDateTime.now();
+        if (healthy && consecutiveFailures >= failureThreshold) {
+            healthy = false;
+            return true;
+        }
+        return false;
+    }
+
+    OllamaBackendStatus toStatus() {
+        return OllamaBackendStatus.builder()
+                .baseUrl(baseUrl)
+                .healthy(healthy)
+                .outstanding(outstanding.get())
+                .maxConcurrent(maxConcurrent)
+                .outstandingEmbeddings(outstandingEmbeddings.get())
+                .maxConcurrentEmbeddings(maxConcurrentEmbeddings)
+                .consecutiveFailures(consecutiveFailures)
+                .lastError(lastError)
+                .lastCheckedAt(lastCheckedAt)
+                .build();
+    }
+}
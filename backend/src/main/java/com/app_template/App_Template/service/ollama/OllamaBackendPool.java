@@ -0,0 +1,500 @@
+package com.app_template.App_Template.service.ollama;
+
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.app_template.App_Template.dto.OllamaBackendStatus;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * OllamaBackendPool - Routes Ollama calls across several inference instances.
+ * Each call goes to the healthy node with the fewest outstanding requests (ties rotate),
+ * never exceeding a node's max concurrency. Embedding calls are counted against a separate,
+ * smaller limit per node, so they cannot use up the slots of scheduled generations; model warm-up and keep-alive
+ * pings share those slots and skip nodes that are serving requests. Connection-level failures fail over to the next
+ * node and count towards ejecting the failing one; periodic probes against /api/tags eject
+ * unreachable nodes and reinstate them once they answer again.
+ * <p>
+ * Around that sits a circuit breaker that rejects calls right away while Ollama keeps failing,
+ * bounded retries with jittered backoff when no node could be connected to, and optionally a
+ * hedged second request to another node when a call takes longer than the recent p95 latency.
+ */
+@Slf4j
+@Component
+public class OllamaBackendPool {
+
+    private static final Duration PROBE_TIMEOUT = Duration.ofSeconds(5);
+    private static final int DEFAULT_MAX_CONCURRENT_EMBEDDINGS = 2;
+
+    private final List<OllamaBackend> backends;
+    private final int failureThreshold;
+    private final AtomicInteger rotation = new AtomicInteger();
+    private final LatencyWindow latencies = new LatencyWindow(200);
+
+    private OllamaCircuitBreaker circuitBreaker = new OllamaCircuitBreaker(5, Duration.ofSeconds(30));
+    private int maxRetries = 2;
+    private Duration retryBackoff = Duration.ofMillis(500);
+    private boolean hedgingEnabled;
+    private int hedgingMinSamples = 20;
+
+    @Autowired
+    public OllamaBackendPool(
+            WebClient.Builder webClientBuilder,
+            @Value("${ollama.api.urls:}") String apiUrls,
+            @Value("${ollama.api.url:http://localhost:11434/api/generate}") String apiUrl,
+            @Value("${ollama.pool.max-concurrent-per-node:4}") int maxConcurrentPerNode,
+            @Value("${ollama.pool.max-concurrent-embeddings-per-node:2}") int maxConcurrentEmbeddingsPerNode,
+            @Value("${ollama.pool.failure-threshold:3}") int failureThreshold) {
+        this(webClientBuilder, parseUrls(apiUrls, apiUrl), maxConcurrentPerNode, maxConcurrentEmbeddingsPerNode, failureThreshold);
+    }
+
+    public OllamaBackendPool(WebClient.Builder webClientBuilder, List<String> baseUrls,
+                             int maxConcurrentPerNode, int failureThreshold) {
+        this(webClientBuilder, baseUrls, maxConcurrentPerNode, DEFAULT_MAX_CONCURRENT_EMBEDDINGS, failureThreshold);
+    }
+
+    public OllamaBackendPool(WebClient.Builder webClientBuilder, List<String> baseUrls,
+                             int maxConcurrentPerNode, int maxConcurrentEmbeddingsPerNode, int failureThreshold) {
+        if (baseUrls.isEmpty()) {
+            throw new IllegalArgumentException("At least one Ollama URL must be configured");
+        }
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.backends = baseUrls.stream()
+                .map(OllamaBackendPool::toBaseUrl)
+                .distinct()
+                .map(baseUrl -> {
+                    log.info("Registering Ollama backend: {} (max {} concurrent requests, {} embeddings)",
+                            baseUrl, maxConcurrentPerNode, maxConcurrentEmbeddingsPerNode);
+                    // Clone the shared builder so every backend gets its own base URL
+                    return new OllamaBackend(baseUrl, webClientBuilder.clone().baseUrl(baseUrl).build(),
+                            maxConcurrentPerNode, Math.max(1, maxConcurrentEmbeddingsPerNode));
+                })
+                .toList();
+    }
+
+    @Autowired
+    void configureResilience(
+            @Value("${ollama.circuit-breaker.failure-threshold:5}") int breakerFailureThreshold,
+            @Value("${ollama.circuit-breaker.open-duration-ms:30000}") long breakerOpenMillis,
+            @Value("${ollama.retry.max-retries:2}") int maxRetries,
+            @Value("${ollama.retry.backoff-ms:500}") long retryBackoffMillis,
+            @Value("${ollama.hedging.enabled:false}") boolean hedgingEnabled,
+            @Value("${ollama.hedging.min-samples:20}") int hedgingMinSamples) {
+        this.circuitBreaker = new OllamaCircuitBreaker(breakerFailureThreshold, Duration.ofMillis(breakerOpenMillis));
+        this.maxRetries = Math.max(0, maxRetries);
+        this.retryBackoff = Duration.ofMillis(Math.max(1, retryBackoffMillis));
+        this.hedgingEnabled = hedgingEnabled;
+        this.hedgingMinSamples = Math.max(1, hedgingMinSamples);
+    }
+
+    /**
+     * Run a single-value call on the least-loaded healthy backend, failing over on connection errors.
+     * When hedging is enabled and the call outlives the recent p95 latency, the same call is also sent
+     * to another backend; the first answer wins and the other call is cancelled.
+     */
+    public <T> Mono<T> execute(Function<WebClient, Mono<T>> call) {
+        return guarded(() -> hedged(call));
+    }
+
+    /**
+     * Run an embedding call on the healthy backend with the fewest outstanding embeddings, using the
+     * node's embedding slots rather than its request slots. Embeddings are short and never hedged.
+     */
+    public <T> Mono<T> executeEmbedding(Function<WebClient, Mono<T>> call) {
+        return guarded(() -> attempt(call, new HashSet<>(), true));
+    }
+
+    /**
+     * Run a model warm-up or keep-alive ping on the given backend, in one of its embedding slots and behind the
+     * circuit breaker. A ping is never failed over or retried: it completes empty without being sent when the
+     * node is serving requests, whose models stay loaded anyway, or has no embedding slot free.
+     */
+    public <T> Mono<T> executePing(OllamaBackend backend, Function<WebClient, Mono<T>> call) {
+        return Mono.defer(() -> {
+            if (backend.getOutstandingCount() > 0 || !backend.tryAcquireEmbedding()) {
+                return Mono.empty();
+            }
+            Runnable release = releaseOnce(backend, true);
+            if (!circuitBreaker.tryAcquirePermission()) {
+                release.run();
+                return Mono.error(circuitOpen());
+            }
+            return call.apply(backend.getWebClient())
+                    .doOnTerminate(release)
+                    .doOnCancel(release)
+                    .doOnSuccess(value -> {
+                        circuitBreaker.onSuccess();
+                        backend.recordSuccess();
+                    })
+                    .doOnError(error -> {
+                        recordOutcome(error);
+                        if (isConnectionError(error)) {
+                            recordFailure(backend, error);
+                        }
+                    })
+                    .doOnCancel(circuitBreaker::onIgnored);
+        });
+    }
+
+    private <T> Mono<T> guarded(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                return Mono.error(circuitOpen());
+            }
+            return Mono.defer(call)
+                    .retryWhen(connectionRetry())
+                    .doOnSuccess(value -> circuitBreaker.onSuccess())
+                    .doOnError(this::recordOutcome)
+                    .doOnCancel(circuitBreaker::onIgnored);
+        });
+    }
+
+    /**
+     * Run a streaming call on the least-loaded healthy backend, failing over on connection errors.
+     * A connection error is raised before any element arrives, so failing over never duplicates output.
+     */
+    public <T> Flux<T> executeMany(Function<WebClient, Flux<T>> call) {
+        return Flux.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                return Flux.error(circuitOpen());
+            }
+            return Flux.defer(() -> attemptMany(call, new HashSet<>()))
+                    .retryWhen(connectionRetry())
+                    .doOnComplete(circuitBreaker::onSuccess)
+                    .doOnError(this::recordOutcome)
+                    .doOnCancel(circuitBreaker::onIgnored);
+        });
+    }
+
+    public List<OllamaBackend> getBackends() {
+        return backends;
+    }
+
+    public List<OllamaBackendStatus> getStatus() {
+        return backends.stream().map(OllamaBackend::toStatus).toList();
+    }
+
+    public OllamaCircuitBreaker.State getCircuitBreakerState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * Probe every backend's /api/tags; ejects nodes that keep failing and reinstates recovered ones.
+     */
+    public Mono<Void> probeAll() {
+        return Flux.fromIterable(backends)
+                .flatMap(backend -> backend.getWebClient()
+                        .get()
+                        .uri("/api/tags")
+                        .retrieve()
+                        .toBodilessEntity()
+                        .timeout(PROBE_TIMEOUT)
+                        .doOnSuccess(response -> {
+                            if (backend.recordSuccess()) {
+                                log.info("Reinstating Ollama backend {} after successful health probe", backend.getBaseUrl());
+                            }
+                        })
+                        .onErrorResume(error -> {
+                            recordFailure(backend, error);
+                            return Mono.empty();
+                        }))
+                .then();
+    }
+
+    @Scheduled(fixedDelayString = "${ollama.pool.health-check-interval-ms:15000}",
+            initialDelayString = "${ollama.pool.health-check-interval-ms:15000}")
+    public void scheduledHealthCheck() {
+        probeAll().block(PROBE_TIMEOUT.multipliedBy(2));
+    }
+
+    /**
+     * The call on one backend, plus a hedge on another backend that starts once the call has taken longer
+     * than the p95 of recent calls. Until enough calls have been timed no hedge is sent.
+     */
+    private <T> Mono<T> hedged(Function<WebClient, Mono<T>> call) {
+        Duration hedgeDelay = hedgingEnabled && backends.size() > 1 ? latencies.percentile(0.95, hedgingMinSamples) : null;
+        if (hedgeDelay == null) {
+            return attempt(call, new HashSet<>(), false);
+        }
+
+        // Shared, so the hedge never lands on a backend the primary call already uses
+        Set<OllamaBackend> tried = ConcurrentHashMap.newKeySet();
+        Mono<T> primary = Mono.defer(() -> attempt(call, tried, false));
+        Mono<T> hedge = Mono.delay(hedgeDelay)
+                .then(Mono.defer(() -> {
+                    log.info("Ollama call exceeded p95 latency of {} ms, hedging to another backend", hedgeDelay.toMillis());
+                    return attempt(call, tried, false);
+                }))
+                // No free backend for the hedge: just wait for the primary call
+                .onErrorResume(OllamaUnavailableException.class, error -> Mono.empty());
+
+        return Mono.firstWithValue(primary, hedge)
+                .onErrorMap(NoSuchElementException.class, OllamaBackendPool::firstFailure);
+    }
+
+    private <T> Mono<T> attempt(Function<WebClient, Mono<T>> call, Set<OllamaBackend> tried, boolean embedding) {
+        OllamaBackend backend = acquire(tried, embedding);
+        tried.add(backend);
+        Runnable release = releaseOnce(backend, embedding);
+        long startedAt = System.nanoTime();
+
+        return call.apply(backend.getWebClient())
+                .doOnTerminate(release)
+                .doOnCancel(release)
+                .doOnSuccess(value -> {
+                    // Per backend call, so the time spent waiting before a hedge does not inflate the p95;
+                    // embeddings are much faster than generations and would pull it down
+                    if (!embedding) {
+                        latencies.record(System.nanoTime() - startedAt);
+                    }
+                    backend.recordSuccess();
+                })
+                .onErrorResume(error -> {
+                    if (isConnectionError(error)) {
+                        recordFailure(backend, error);
+                        if (tried.size() < backends.size()) {
+                            log.warn("Ollama backend {} unreachable, failing over", backend.getBaseUrl());
+                            return attempt(call, tried, embedding);
+                        }
+                    }
+                    return Mono.error(error);
+                });
+    }
+
+    private <T> Flux<T> attemptMany(Function<WebClient, Flux<T>> call, Set<OllamaBackend> tried) {
+        OllamaBackend backend = acquire(tried, false);
+        tried.add(backend);
+        Runnable release = releaseOnce(backend, false);
+
+        return call.apply(backend.getWebClient())
+                .doOnTerminate(release)
+                .doOnCancel(release)
+                .doOnComplete(backend::recordSuccess)
+                .onErrorResume(error -> {
+                    if (isConnectionError(error)) {
+                        recordFailure(backend, error);
+                        if (tried.size() < backends.size()) {
+                            log.warn("Ollama backend {} unreachable, failing over", backend.getBaseUrl());
+                            return attemptMany(call, tried);
+                        }
+                    }
+                    return Flux.error(error);
+                });
+    }
+
+    /**
+     * Pick the healthy, not yet tried backend with the fewest outstanding requests and reserve a slot on it.
+     * When every node is ejected, ejected nodes are tried as a last resort rather than failing outright.
+     * Embedding calls are balanced and limited by the embedding slots only.
+     */
+    private OllamaBackend acquire(Set<OllamaBackend> tried, boolean embedding) {
+        OllamaBackend chosen = select(tried, true, embedding);
+        if (chosen == null) {
+            chosen = select(tried, false, embedding);
+        }
+        if (chosen == null) {
+            throw new OllamaUnavailableException(embedding
+                    ? "All Ollama backends are unavailable or at embedding capacity"
+                    : "All Ollama backends are unavailable or at capacity");
+        }
+        return chosen;
+    }
+
+    private OllamaBackend select(Set<OllamaBackend> tried, boolean healthyOnly, boolean embedding) {
+        int size = backends.size();
+        int start = Math.floorMod(rotation.getAndIncrement(), size);
+
+        // Candidates ordered by load, starting from a rotating index so ties are spread evenly
+        List<OllamaBackend> candidates = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            OllamaBackend backend = backends.get((start + i) % size);
+            if (!tried.contains(backend) && (!healthyOnly || backend.isHealthy())) {
+                candidates.add(backend);
+            }
+        }
+        // Snapshot the loads so concurrent acquires cannot change the ordering mid-sort
+        Map<OllamaBackend, Integer> load = new HashMap<>();
+        candidates.forEach(backend -> load.put(backend,
+                embedding ? backend.getOutstandingEmbeddingCount() : backend.getOutstandingCount()));
+        candidates.sort(Comparator.comparingInt(load::get));
+
+        for (OllamaBackend candidate : candidates) {
+            if (embedding ? candidate.tryAcquireEmbedding() : candidate.tryAcquire()) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retry a call that could not reach any backend, with exponential backoff and jitter so that
+     * callers waiting for a restarting Ollama do not all come back at the same moment.
+     */
+    private Retry connectionRetry() {
+        return Retry.backoff(maxRetries, retryBackoff)
+                .maxBackoff(retryBackoff.multipliedBy(10))
+                .jitter(0.5)
+                .filter(OllamaBackendPool::isConnectionError)
+                .doBeforeRetry(signal -> log.warn("No Ollama backend reachable, retry {}/{}: {}",
+                        signal.totalRetries() + 1, maxRetries, signal.failure().getMessage()))
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    /**
+     * Failures that say Ollama is unhealthy count towards opening the circuit breaker; client errors
+     * and a pool that is merely at capacity do not.
+     */
+    private void recordOutcome(Throwable error) {
+        boolean unhealthy = error instanceof WebClientRequestException
+                || error instanceof TimeoutException
+                || (error instanceof WebClientResponseException response && response.getStatusCode().is5xxServerError());
+        if (unhealthy) {
+            circuitBreaker.onFailure(error);
+        } else {
+            circuitBreaker.onIgnored();
+        }
+    }
+
+    private OllamaUnavailableException circuitOpen() {
+        long retryAfter = Math.max(1, (circuitBreaker.getRemainingOpenDuration().toMillis() + 999) / 1000);
+        return new OllamaUnavailableException("Ollama is unavailable, not sending requests for " + retryAfter + "s",
+                null, retryAfter);
+    }
+
+    /**
+     * Mono.firstWithValue signals NoSuchElementException when neither call produced a value;
+     * report the error of the call that failed instead.
+     */
+    private static Throwable firstFailure(NoSuchElementException error) {
+        Throwable cause = error.getCause();
+        if (cause != null) {
+            List<Throwable> failures = Exceptions.unwrapMultiple(cause);
+            if (!failures.isEmpty()) {
+                return failures.get(0);
+            }
+        }
+        return error.getSuppressed().length > 0 ? error.getSuppressed()[0] : error;
+    }
+
+    private void recordFailure(OllamaBackend backend, Throwable error) {
+        if (backend.recordFailure(error, failureThreshold)) {
+            log.warn("Ejecting Ollama backend {} after {} consecutive failures: {}",
+                    backend.getBaseUrl(), backend.getConsecutiveFailures(), backend.getLastError());
+        }
+    }
+
+    private static Runnable releaseOnce(OllamaBackend backend, boolean embedding) {
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                if (embedding) {
+                    backend.releaseEmbedding();
+                } else {
+                    backend.release();
+                }
+            }
+        };
+    }
+
+    private static boolean isConnectionError(Throwable error) {
+        // The request never reached Ollama (refused, unknown host, connect timeout), so retrying elsewhere is safe.
+        // A response timeout is also a WebClientRequestException, but the generation may have run: not retried.
+        if (!(error instanceof WebClientRequestException)) {
+            return false;
+        }
+        for (Throwable cause = error.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof UnknownHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> parseUrls(String apiUrls, String apiUrl) {
+        if (apiUrls != null && !apiUrls.isBlank()) {
+            return Arrays.stream(apiUrls.split(","))
+                    .map(String::trim)
+                    .filter(url -> !url.isEmpty())
+                    .toList();
+        }
+        return List.of(apiUrl);
+    }
+
+    /**
+     * Sliding window of the latencies of recent successful calls.
+     */
+    static class LatencyWindow {
+
+        private final long[] samples;
+        private int next;
+        private int count;
+
+        LatencyWindow(int size) {
+            this.samples = new long[size];
+        }
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        /**
+         * The given percentile of the window, or null while it holds fewer than minSamples latencies.
+         */
+        synchronized Duration percentile(double percentile, int minSamples) {
+            if (count < minSamples || count == 0) {
+                return null;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = Math.min(count - 1, (int) Math.ceil(percentile * count) - 1);
+            return Duration.ofNanos(sorted[Math.max(0, index)]);
+        }
+    }
+
+    /**
+     * Strip the endpoint path, e.g. "http://localhost:11434/api/generate" -> "http://localhost:11434".
+     */
+    static String toBaseUrl(String url) {
+        String baseUrl = url.trim();
+        if (baseUrl.contains("/api/generate")) {
+            baseUrl = baseUrl.substring(0, baseUrl.indexOf("/api/generate"));
+        } else if (baseUrl.contains("/api/")) {
+            baseUrl = baseUrl.substring(0, baseUrl.indexOf("/api/"));
+        }
+        if (baseUrl.endsWith("/")) {
+            baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
+        }
+        return baseUrl;
+    }
+}
@@ -0,0 +1,102 @@
+package com.app_template.App_Template.service.ollama;
+
+import java.time.Duration;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * OllamaCircuitBreaker - Stops sending requests to Ollama while it keeps failing.
+ * After a number of consecutive failures the breaker opens and calls are rejected immediately;
+ * once the open period is over a single trial call is let through (half-open), which closes the
+ * breaker when it succeeds and opens it again when it fails.
+ */
+@Slf4j
+public class OllamaCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+
+    public OllamaCircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDuration = openDuration;
+    }
+
+    /**
+     * Whether a call may go out now. In half-open state only one trial call is permitted at a time.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAtNanos < openDuration.toNanos()) {
+                return false;
+            }
+            log.info("Ollama circuit breaker half-open, letting a trial request through");
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("Ollama circuit breaker closed, Ollama is answering again");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    public synchronized void onFailure(Throwable error) {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                log.warn("Ollama circuit breaker opened for {} ms after {} consecutive failures: {}",
+                        openDuration.toMillis(), consecutiveFailures, error.getMessage());
+            }
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+            trialInFlight = false;
+        }
+    }
+
+    /**
+     * The permitted call ended without telling anything about Ollama's health (cancelled, or a
+     * client-side error); frees the half-open trial slot.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Time until the open breaker lets a trial call through; zero when it is not open.
+     */
+    public synchronized Duration getRemainingOpenDuration() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        long remaining = openDuration.toNanos() - (System.nanoTime() - openedAtNanos);
+        return Duration.ofNanos(Math.max(0, remaining));
+    }
+}
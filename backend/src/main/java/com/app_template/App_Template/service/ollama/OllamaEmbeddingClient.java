@@ -0,0 +1,155 @@
+package com.app_template.App_Template.service.ollama;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * OllamaEmbeddingClient - Embeds text with Ollama's /api/embed endpoint through the backend pool,
+ * using the pool's embedding slots so that embeddings never compete with scheduled generations.
+ * Vectors are L2-normalized, so the cosine similarity of two vectors is their dot product, and can
+ * be stored compactly as little-endian float32 bytes.
+ */
+@Component
+@RequiredArgsConstructor
+public class OllamaEmbeddingClient {
+
+    private static final int RECENT_ENTRIES = 32;
+
+    private final OllamaBackendPool backendPool;
+    private final ModelLifecycleManager modelLifecycleManager;
+
+    @Value("${ollama.embedding.model:nomic-embed-text}")
+    private String model;
+
+    @Value("${ollama.embedding.max-input-chars:8000}")
+    private int maxInputChars;
+
+    // Access-ordered LinkedHashMap gives LRU eviction of the most recent single-text embeddings
+    private final Map<String, float[]> recent = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, float[]> eldest) {
+            return size() > RECENT_ENTRIES;
+        }
+    };
+
+    public String getModel() {
+        return model;
+    }
+
+    /**
+     * Embed several texts in one request; the vectors are returned in input order.
+     * Inputs longer than the configured limit are truncated to stay within the model's context.
+     */
+    public Mono<List<float[]>> embed(List<String> inputs) {
+        if (inputs.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        List<String> truncated = inputs.stream()
+                .map(input -> input.length() > maxInputChars ? input.substring(0, maxInputChars) : input)
+                .toList();
+        Map<String, Object> body = new HashMap<>();
+        body.put("model", model);
+        body.put("input", truncated);
+        if (modelLifecycleManager.getKeepAlive() != null) {
+            body.put("keep_alive", modelLifecycleManager.getKeepAlive());
+        }
+        modelLifecycleManager.recordUse(model);
+
+        return backendPool.executeEmbedding(client -> client
+                        .post()
+                        .uri("/api/embed")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(body)
+                        .retrieve()
+                        .bodyToMono(JsonNode.class))
+                .map(response -> {
+                    JsonNode embeddings = response.path("embeddings");
+                    if (!embeddings.isArray() || embeddings.size() != inputs.size()) {
+                        throw new IllegalStateException("Ollama returned " + embeddings.size()
+                                + " embeddings for " + inputs.size() + " inputs");
+                    }
+                    List<float[]> vectors = new ArrayList<>(embeddings.size());
+                    for (JsonNode embedding : embeddings) {
+                        vectors.add(normalize(embedding));
+                    }
+                    return vectors;
+                });
+    }
+
+    /**
+     * Embed one text. Recent results are remembered: a review embeds its code both to look for
+     * near-duplicates and to select guidelines.
+     */
+    public Mono<float[]> embed(String input) {
+        float[] known;
+        synchronized (recent) {
+            known = recent.get(input);
+        }
+        if (known != null) {
+            return Mono.just(known);
+        }
+        return embed(List.of(input))
+                .map(vectors -> vectors.get(0))
+                .doOnNext(vector -> {
+                    synchronized (recent) {
+                        recent.put(input, vector);
+                    }
+                });
+    }
+
+    /**
+     * Cosine similarity of two normalized vectors; 0 when their dimensions differ (different models).
+     */
+    public static double similarity(float[] a, float[] b) {
+        if (a.length != b.length) {
+            return 0;
+        }
+        double dot = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return dot;
+    }
+
+    public static byte[] toBytes(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    public static float[] fromBytes(byte[] bytes) {
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+        return vector;
+    }
+
+    private static float[] normalize(JsonNode embedding) {
+        float[] vector = new float[embedding.size()];
+        double norm = 0;
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = (float) embedding.get(i).asDouble();
+            norm += vector[i] * vector[i];
+        }
+        norm = Math.sqrt(norm);
+        if (norm > 0) {
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] /= (float) norm;
+            }
+        }
+        return vector;
+    }
+}
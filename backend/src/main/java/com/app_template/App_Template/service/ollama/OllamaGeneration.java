@@ -0,0 +1,31 @@
+package com.app_template.App_Template.service.ollama;
+
+import com.app_template.App_Template.dto.ReviewResult;
+import com.app_template.App_Template.entity.InferenceTelemetry;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * OllamaGeneration - Result of an Ollama generation.
+ * Besides the generated text it carries the conversation context Ollama returns, so a
+ * follow-up generation can continue from it instead of re-sending the whole prompt.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OllamaGeneration {
+
+    private String response;
+
+    private ReviewResult review; // typed review, null for chat answers and unparsable output
+
+    private String context; // JSON array of token ids as returned by Ollama, null when not available
+
+    private String model;
+
+    private InferenceTelemetry telemetry; // where the time went, null when Ollama was not called
+}
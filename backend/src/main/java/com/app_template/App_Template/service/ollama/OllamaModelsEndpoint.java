@@ -0,0 +1,27 @@
+package com.app_template.App_Template.service.ollama;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import com.app_template.App_Template.dto.OllamaModelsStatus;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * OllamaModelsEndpoint - Actuator endpoint (/actuator/ollamamodels) reporting which models each Ollama
+ * backend has loaded and the warm-up and keep-alive state of every model the application uses.
+ */
+@Component
+@Endpoint(id = "ollamamodels")
+@RequiredArgsConstructor
+public class OllamaModelsEndpoint {
+
+    private final ModelLifecycleManager modelLifecycleManager;
+
+    @ReadOperation
+    public Mono<OllamaModelsStatus> models() {
+        return modelLifecycleManager.getStatus();
+    }
+}
@@ -1,21 +1,46 @@
 package com.app_template.App_Template.service.ollama;
 
+import java.security.MessageDigest;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 
-import com.app_template.App_Template.entity.CustomGuideline;
+import com.app_template.App_Template.dto.ReviewResult;
+import com.app_template.App_Template.entity.InferenceTelemetry;
 import com.app_template.App_Template.entity.Project;
 import com.app_template.App_Template.entity.Review;
 import com.app_template.App_Template.entity.ReviewComment;
+import com.app_template.App_Template.repository.ReviewRepository.ReviewChatContext;
+import com.app_template.App_Template.service.analysis.StaticAnalysis;
+import com.app_template.App_Template.service.analysis.StaticAnalyzer;
+import com.app_template.App_Template.service.ollama.ChunkedReviewMerger.ChunkReview;
+import com.app_template.App_Template.service.ollama.CodeChunker.CodeChunk;
+import com.app_template.App_Template.service.ollama.IncrementalReviewMerger.HunkReview;
+import com.app_template.App_Template.service.ollama.IncrementalReviewPlanner.Hunk;
+import com.app_template.App_Template.service.scheduler.LlmJob;
+import com.app_template.App_Template.service.scheduler.LlmJobScheduler;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonRawValue;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -34,40 +59,168 @@ public class OllamaService {
     @lombok.Builder
     @lombok.NoArgsConstructor
     @lombok.AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private static class OllamaRequest {
         private String model;
         private String prompt;
         private Boolean stream;
+        @JsonRawValue
+        private String context; // conversation context of an earlier generation to continue from
+        @JsonRawValue
+        private String format; // JSON schema the output is constrained to
+        @JsonProperty("keep_alive")
+        private String keepAlive; // how long Ollama keeps the model loaded after the request
     }
 
-    private final WebClient.Builder webClientBuilder;
+    /**
+     * JSON schema of ReviewResult, passed as Ollama's "format" so the model can only emit valid reviews.
+     */
+    private static final String REVIEW_SCHEMA = """
+            {"type":"object","properties":{\
+            "summary":{"type":"string"},\
+            "findings":{"type":"array","items":{"type":"object","properties":{\
+            "line":{"type":"integer"},\
+            "type":{"type":"string","enum":["bug","type-error","security","performance","style"]},\
+            "message":{"type":"string"},\
+            "suggestion":{"type":"string"}},\
+            "required":["line","type","message","suggestion"]}},\
+            "effort_estimation":{"type":"string","pattern":"^([1-9]|10)/10$"}},\
+            "required":["summary","findings","effort_estimation"]}\
+            """;
+
+    private final OllamaBackendPool backendPool;
     private final ObjectMapper objectMapper;
-
-    @Value("${ollama.api.url:http://localhost:11434/api/generate}")
-    private String ollamaApiUrl;
+    private final CodeChunker codeChunker;
+    private final ChunkedReviewMerger chunkedReviewMerger;
+    private final ReviewResultParser reviewResultParser;
+    private final ModelRouter modelRouter;
+    private final GuidelineSelector guidelineSelector;
+    private final StaticAnalyzer staticAnalyzer;
+    private final ModelLifecycleManager modelLifecycleManager;
+    private final LlmJobScheduler llmJobScheduler;
 
     @Value("${ollama.model:codellama:7b}")
     private String ollamaModel;
 
-    private WebClient webClient;
+    @Value("${ollama.chat.max-context-tokens:6144}")
+    private int maxChatContextTokens;
+
+    @Value("${ollama.chunking.enabled:true}")
+    private boolean chunkingEnabled;
+
+    @Value("${ollama.chunking.threshold-lines:400}")
+    private int chunkingThresholdLines;
+
+    @Value("${ollama.chunking.max-chunk-lines:250}")
+    private int maxChunkLines;
+
+    @Value("${ollama.chunking.overlap-lines:20}")
+    private int chunkOverlapLines;
+
+    @Value("${ollama.chunking.parallelism:3}")
+    private int chunkParallelism;
+
+    // Generations currently running, keyed by a hash of the request body
+    private final Map<String, Flux<String>> inFlight = new ConcurrentHashMap<>();
 
     /**
-     * Initialize WebClient if not already initialized.
-     * Extracts base URL from ollama.api.url configuration.
+     * The default model, used for chat and conversation summaries.
      */
-    private WebClient getWebClient() {
-        if (webClient == null) {
-            // Extract base URL from ollamaApiUrl (e.g., "http://localhost:11434/api/generate" -> "http://localhost:11434")
-            String baseUrl = ollamaApiUrl;
-            if (baseUrl.contains("/api/generate")) {
-                baseUrl = baseUrl.substring(0, baseUrl.indexOf("/api/generate"));
-            } else if (baseUrl.contains("/api/")) {
-                baseUrl = baseUrl.substring(0, baseUrl.indexOf("/api/"));
+    public String getModel() {
+        return ollamaModel;
+    }
+
+    /**
+     * The models that review code of the project; its key is part of the review cache key.
+     */
+    public ModelRouter.Route getRoute(Project project) {
+        return modelRouter.route(project);
+    }
+
+    /**
+     * POST /api/generate and return the raw (non-streamed) response body.
+     * Concurrent identical requests share one generation.
+     */
+    private Mono<String> generate(OllamaRequest request) {
+        keepLoaded(request);
+        return coalesce(request, () -> backendPool.execute(client -> client
+                        .post()
+                        .uri("/api/generate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(String.class))
+                .flux())
+                .next();
+    }
+
+    /**
+     * POST /api/generate with stream=true and return the raw NDJSON lines.
+     * Concurrent identical requests share one generation; late joiners replay what was already streamed.
+     */
+    private Flux<String> generateStream(OllamaRequest request) {
+        keepLoaded(request);
+        return coalesce(request, () -> backendPool.executeMany(client -> client
+                .post()
+                .uri("/api/generate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(request)
+                .retrieve()
+                .bodyToFlux(String.class)));
+    }
+
+    /**
+     * Ask Ollama to keep the model loaded after the request, and record the use for the keep-alive pings.
+     */
+    private void keepLoaded(OllamaRequest request) {
+        request.setKeepAlive(modelLifecycleManager.getKeepAlive());
+        modelLifecycleManager.recordUse(request.getModel());
+    }
+
+    /**
+     * generate() and parse the response, adding the figures Ollama reports and the HTTP time to the telemetry.
+     */
+    private Mono<JsonNode> generateTimed(OllamaRequest request, InferenceTelemetry telemetry) {
+        return generate(request)
+                .elapsed()
+                .map(timed -> {
+                    JsonNode json = readResponse(timed.getT2());
+                    if (telemetry != null) {
+                        telemetry.add(telemetryOf(json, timed.getT1()));
+                    }
+                    return json;
+                });
+    }
+
+    /**
+     * Single-flight: while a generation for an identical request body is in flight, new callers
+     * subscribe to it instead of starting another one. The shared Flux replays its signals and
+     * is reference counted, so a cancelling caller only detaches itself; the HTTP call to Ollama
+     * is aborted only when the last caller is gone.
+     */
+    private Flux<String> coalesce(OllamaRequest request, Supplier<Flux<String>> call) {
+        return Flux.defer(() -> {
+            String key = requestKey(request);
+            Flux<String> shared = inFlight.get(key);
+            if (shared != null) {
+                log.info("Joining in-flight Ollama generation instead of starting a new one");
+                return shared;
             }
-            log.info("Initializing Ollama WebClient with base URL: {}", baseUrl);
-            webClient = webClientBuilder.baseUrl(baseUrl).build();
+            return inFlight.computeIfAbsent(key, k -> call.get()
+                    .doFinally(signal -> inFlight.remove(k))
+                    .replay()
+                    .refCount());
+        });
+    }
+
+    private String requestKey(OllamaRequest request) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to compute Ollama request key", e);
         }
-        return webClient;
     }
 
     /**
@@ -75,154 +228,639 @@ public class OllamaService {
      *
      * @param code The code snippet to review
      * @param project The project containing custom guidelines
-     * @return JSON response as string from Ollama
+     * @param analysis The static analysis of the code, handed to the model and merged into its review; may be null
+     * @param job The scheduler job the review runs in; a large file is reviewed in parts of this job
+     * @return the JSON review from Ollama, with the conversation context when it was a single generation;
+     *         errors when Ollama cannot be reached or does not answer with a generation
      */
-    public Mono<String> reviewCode(String code, Project project) {
-        // Build prompt with guidelines
-        String prompt = buildReviewPrompt(code, project);
+    public Mono<OllamaGeneration> reviewCode(String code, Project project, StaticAnalysis analysis, LlmJob job) {
+        ModelRouter.Route route = modelRouter.route(project);
+        String reviewModel = route.reviewModel();
+
+        if (isLargeFile(code)) {
+            InferenceTelemetry telemetry = new InferenceTelemetry();
+            return reviewLargeCode(code, project, reviewModel, analysis, job, telemetry).map(merged -> {
+                OllamaGeneration generation = withoutContext(staticAnalyzer.addFindings(merged, analysis), reviewModel);
+                generation.setReview(reviewResultParser.parse(generation.getResponse()).orElse(null));
+                generation.setTelemetry(telemetry);
+                return generation;
+            });
+        }
 
-        // Prepare request body
+        // Build prompt with the guidelines relevant to the code
+        long promptStart = System.nanoTime();
+        String language = project.getLanguage();
+        Long projectId = project.getId();
+        return guidelineSelector.select(code, project).flatMap(guidelines -> {
+            String prompt = buildReviewPrompt(code, language, guidelines, null, staticNote(analysis, 1, Integer.MAX_VALUE));
+            return review(code, projectId, route, prompt, millisSince(promptStart));
+        }).map(generation -> withStaticFindings(generation, analysis));
+    }
+
+    /**
+     * Add the static analysis findings the model did not report to a generated review.
+     */
+    private OllamaGeneration withStaticFindings(OllamaGeneration generation, StaticAnalysis analysis) {
+        String response = staticAnalyzer.addFindings(generation.getResponse(), analysis);
+        if (response != null && !response.equals(generation.getResponse())) {
+            generation.setResponse(response);
+            generation.setReview(reviewResultParser.parse(response).orElse(generation.getReview()));
+        }
+        return generation;
+    }
+
+    private String staticNote(StaticAnalysis analysis, int fromLine, int toLine) {
+        return analysis == null ? null : staticAnalyzer.promptNote(analysis, fromLine, toLine);
+    }
+
+    /**
+     * Review a built prompt with the review model, or with the triage model first when the route has one.
+     */
+    private Mono<OllamaGeneration> review(String code, Long projectId, ModelRouter.Route route, String prompt,
+            long promptBuildMillis) {
+        String reviewModel = route.reviewModel();
+        if (!modelRouter.shouldTriage(route, code)) {
+            log.info("Sending review request to Ollama for project: {} (model {})", projectId, reviewModel);
+            return generateReview(prompt, reviewModel)
+                    .flatMap(this::validateReview)
+                    .map(generation -> withPromptBuildTime(generation, promptBuildMillis))
+                    .doOnError(error -> log.error("Error reviewing code of project {} with Ollama", projectId, error));
+        }
+
+        // Quick pass with the triage model; its review is kept unless it flags the code as non-trivial
+        log.info("Sending triage request to Ollama for project: {} (model {})", projectId, route.triageModel());
+        return generateReview(prompt, route.triageModel())
+                .map(triage -> {
+                    Optional<ReviewResult> parsed = reviewResultParser.parse(triage.getResponse());
+                    return parsed.isPresent() ? withReview(triage, parsed.get()) : triage;
+                })
+                .onErrorResume(error -> {
+                    log.warn("Triage with {} failed for project {}: {}", route.triageModel(), projectId, error.getMessage());
+                    return Mono.just(withoutContext(null, route.triageModel()));
+                })
+                .flatMap(triage -> {
+                    Optional<String> reason = modelRouter.escalationReason(triage.getReview());
+                    if (reason.isEmpty()) {
+                        log.info("Triage review of project {} kept, no escalation needed", projectId);
+                        return Mono.just(triage);
+                    }
+                    log.info("Escalating review of project {} to {}: {}", projectId, reviewModel, reason.get());
+                    return generateReview(prompt, reviewModel).flatMap(this::validateReview).map(escalated -> {
+                        escalated.getTelemetry().add(triage.getTelemetry());
+                        return escalated;
+                    });
+                })
+                .map(generation -> withPromptBuildTime(generation, promptBuildMillis))
+                .doOnError(error -> log.error("Error reviewing code of project {} with Ollama", projectId, error));
+    }
+
+    /**
+     * One schema-constrained review generation with the given model.
+     */
+    private Mono<OllamaGeneration> generateReview(String prompt, String model) {
         OllamaRequest request = OllamaRequest.builder()
-                .model(ollamaModel)
+                .model(model)
                 .prompt(prompt)
                 .stream(false)
+                .format(REVIEW_SCHEMA)
                 .build();
 
-        log.info("Sending review request to Ollama for project: {}", project.getId());
+        return Mono.defer(() -> {
+            InferenceTelemetry telemetry = new InferenceTelemetry();
+            return generateTimed(request, telemetry).map(json -> {
+                OllamaGeneration generation = toGeneration(json, model);
+                generation.setTelemetry(telemetry);
+                return generation;
+            });
+        });
+    }
 
-        // Make async call to Ollama
-        return getWebClient()
-                .post()
-                .uri("/api/generate")
-                .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(request)
-                .retrieve()
-                .bodyToMono(String.class)
-                .map(response -> {
+    /**
+     * Parse the generated text into a ReviewResult and store it in canonical JSON form. Output that does
+     * not parse is sent through a small repair generation (just the broken text and the schema) instead
+     * of regenerating the whole review; if that fails too, the raw text is kept as before.
+     */
+    private Mono<OllamaGeneration> validateReview(OllamaGeneration generation) {
+        if (generation.getResponse() == null) {
+            return Mono.just(generation);
+        }
+
+        Optional<ReviewResult> parsed = reviewResultParser.parse(generation.getResponse());
+        if (parsed.isPresent()) {
+            return Mono.just(withReview(generation, parsed.get()));
+        }
+
+        log.warn("Review output is not valid JSON, running repair pass");
+        return repairReview(generation.getResponse(), generation.getModel(), generation.getTelemetry())
+                .map(repaired -> withReview(generation, repaired))
+                .defaultIfEmpty(generation);
+    }
+
+    /**
+     * Parse streamed review text the same way, repairing it when needed.
+     *
+     * @param telemetry receives the figures of a repair generation, may be null
+     * @return the canonical JSON of the review, or the text unchanged when it cannot be repaired
+     */
+    public Mono<String> validateReviewText(String text, String model, InferenceTelemetry telemetry) {
+        OllamaGeneration generation = withoutContext(text, model);
+        generation.setTelemetry(telemetry);
+        return validateReview(generation).map(OllamaGeneration::getResponse);
+    }
+
+    private Mono<ReviewResult> repairReview(String text, String model, InferenceTelemetry telemetry) {
+        String prompt = "The following code review was meant to be JSON matching the given schema but is malformed. "
+                + "Return the same review as valid JSON. Keep all findings and wording; do not add new ones.\n\n"
+                + text;
+
+        OllamaRequest request = OllamaRequest.builder()
+                .model(model == null ? ollamaModel : model)
+                .prompt(prompt)
+                .stream(false)
+                .format(REVIEW_SCHEMA)
+                .build();
+
+        return generateTimed(request, telemetry)
+                .map(json -> json.path("response").asText())
+                .flatMap(repaired -> Mono.justOrEmpty(reviewResultParser.parse(repaired)))
+                .onErrorResume(error -> {
+                    log.error("Review repair pass failed", error);
+                    return Mono.empty();
+                });
+    }
+
+    private OllamaGeneration withReview(OllamaGeneration generation, ReviewResult review) {
+        return OllamaGeneration.builder()
+                .response(reviewResultParser.toJson(review))
+                .review(review)
+                .context(generation.getContext())
+                .model(generation.getModel())
+                .telemetry(generation.getTelemetry())
+                .build();
+    }
+
+    private OllamaGeneration withPromptBuildTime(OllamaGeneration generation, long millis) {
+        if (generation.getTelemetry() == null) {
+            generation.setTelemetry(new InferenceTelemetry());
+        }
+        generation.getTelemetry().setPromptBuildMs(millis);
+        return generation;
+    }
+
+    /**
+     * Map a final (done) Ollama response object to a generation, keeping the returned context.
+     */
+    private OllamaGeneration toGeneration(JsonNode jsonNode, String model) {
+        JsonNode context = jsonNode.path("context");
+        return OllamaGeneration.builder()
+                .response(jsonNode.path("response").asText())
+                .context(context.isArray() && !context.isEmpty() ? context.toString() : null)
+                .model(model)
+                .build();
+    }
+
+    /**
+     * Durations (reported in nanoseconds) and token counts of a final Ollama response object.
+     */
+    private InferenceTelemetry telemetryOf(JsonNode jsonNode, Long httpMillis) {
+        Long modelLoad = nanosToMillis(jsonNode.path("load_duration"));
+        Long promptEval = nanosToMillis(jsonNode.path("prompt_eval_duration"));
+        JsonNode evalNanos = jsonNode.path("eval_duration");
+        Integer evalTokens = jsonNode.hasNonNull("eval_count") ? jsonNode.path("eval_count").asInt() : null;
+        return InferenceTelemetry.builder()
+                .httpMs(httpMillis)
+                .modelLoadMs(modelLoad)
+                .promptEvalMs(promptEval)
+                .evalMs(nanosToMillis(evalNanos))
+                .timeToFirstTokenMs(modelLoad == null && promptEval == null ? null
+                        : (modelLoad == null ? 0 : modelLoad) + (promptEval == null ? 0 : promptEval))
+                .promptTokens(jsonNode.hasNonNull("prompt_eval_count") ? jsonNode.path("prompt_eval_count").asInt() : null)
+                .evalTokens(evalTokens)
+                .tokensPerSecond(evalTokens == null || evalNanos.asLong() <= 0 ? null : evalTokens * 1e9 / evalNanos.asLong())
+                .generations(1)
+                .build();
+    }
+
+    private static Long nanosToMillis(JsonNode nanos) {
+        return nanos.isNumber() ? nanos.asLong() / 1_000_000 : null;
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Generations that were merged from several prompts (or never reached Ollama) have no single context.
+     */
+    private OllamaGeneration withoutContext(String response, String model) {
+        return OllamaGeneration.builder()
+                .response(response)
+                .model(model)
+                .build();
+    }
+
+    /**
+     * Whether the code is long enough to be reviewed in chunks rather than in one prompt.
+     */
+    public boolean isLargeFile(String code) {
+        return chunkingEnabled && code != null && code.lines().count() > chunkingThresholdLines;
+    }
+
+    /**
+     * Review a large file by splitting it into structural chunks that are reviewed concurrently,
+     * then merging the chunk reviews (remapped line numbers, deduplicated overlap) into one JSON review.
+     * Prompts are built up front, while the project's guidelines are still loadable.
+     */
+    private Mono<String> reviewLargeCode(String code, Project project, String model, StaticAnalysis analysis, LlmJob job,
+            InferenceTelemetry telemetry) {
+        long promptStart = System.nanoTime();
+        List<CodeChunk> chunks = codeChunker.split(code, maxChunkLines, chunkOverlapLines);
+        long totalLines = code.lines().count();
+        String language = project.getLanguage();
+
+        // One guideline selection for the whole file, so every chunk is held to the same rules
+        return guidelineSelector.select(code, project).flatMap(guidelines -> {
+            List<OllamaRequest> requests = chunks.stream()
+                    .map(chunk -> OllamaRequest.builder()
+                            .model(model)
+                            .prompt(buildReviewPrompt(chunk.code(), language, guidelines, chunkScopeNote(chunk, totalLines),
+                                    staticNote(analysis, chunk.startLine(), chunk.endLine())))
+                            .stream(false)
+                            .format(REVIEW_SCHEMA)
+                            .build())
+                    .toList();
+            telemetry.setPromptBuildMs(millisSince(promptStart));
+
+            log.info("Sending large-file review to Ollama for project: {} ({} lines, {} chunks)",
+                    project.getId(), totalLines, chunks.size());
+
+            return reviewParts(chunks, requests, ChunkReview::new, "chunk", project, job, telemetry);
+        }).map(chunkedReviewMerger::merge).map(reviewResultParser::toJson);
+    }
+
+    /**
+     * Review only the changed hunks of a resubmitted file. Each hunk is reviewed on its own, with its
+     * surrounding lines as context, so prompt size follows the size of the change rather than the file.
+     *
+     * @param job the scheduler job the review runs in; the hunks are reviewed in parts of this job
+     * @param telemetry receives the prompt build time and the figures of the hunk generations
+     * @return one HunkReview per hunk, in order; the review is null for hunks that failed or were not a usable review
+     */
+    public Mono<List<HunkReview>> reviewChanges(List<Hunk> hunks, int totalLines, Project project, LlmJob job,
+            InferenceTelemetry telemetry) {
+        long promptStart = System.nanoTime();
+        String model = modelRouter.route(project).reviewModel();
+        String language = project.getLanguage();
+        String changedCode = hunks.stream().map(Hunk::code).collect(Collectors.joining("\n"));
+
+        return guidelineSelector.select(changedCode, project).flatMap(guidelines -> {
+            List<OllamaRequest> requests = hunks.stream()
+                    .map(hunk -> OllamaRequest.builder()
+                            .model(model)
+                            .prompt(buildReviewPrompt(hunk.code(), language, guidelines, hunkScopeNote(hunk, totalLines), null))
+                            .stream(false)
+                            .format(REVIEW_SCHEMA)
+                            .build())
+                    .toList();
+            telemetry.setPromptBuildMs(millisSince(promptStart));
+
+            log.info("Sending incremental review to Ollama for project: {} ({} hunks)", project.getId(), hunks.size());
+
+            return reviewParts(hunks, requests, HunkReview::new, "hunk", project, job, telemetry);
+        });
+    }
+
+    /**
+     * Generate the part reviews concurrently (bounded by the chunking parallelism), keeping their order.
+     * Every part is a scheduler job of its own (LlmJobScheduler.runPart), so the parts share the global
+     * limit and the user's fair share with everything else instead of running inside the review's slot.
+     * Each part's text is parsed with ReviewResultParser; a failed or unparseable part yields a result
+     * with a null review instead of failing the whole review;
+     * only when every part failed does the review itself fail.
+     */
+    private <P, R> Mono<List<R>> reviewParts(List<P> parts, List<OllamaRequest> requests,
+            BiFunction<P, ReviewResult, R> toResult, String partName, Project project, LlmJob job, InferenceTelemetry telemetry) {
+        AtomicReference<Throwable> lastError = new AtomicReference<>();
+        AtomicInteger failures = new AtomicInteger();
+
+        return Flux.range(0, parts.size())
+                .flatMapSequential(index -> llmJobScheduler
+                        .runPart(job, job.getDescription() + ", " + partName + " " + (index + 1) + "/" + parts.size(),
+                                () -> generateTimed(requests.get(index), telemetry))
+                        .map(json -> json.path("response").asText())
+                        .map(text -> toResult.apply(parts.get(index), reviewResultParser.parse(text).orElse(null)))
+                        .onErrorResume(error -> {
+                            log.error("Error reviewing {} {} of project {}", partName, index + 1, project.getId(), error);
+                            lastError.set(error);
+                            failures.incrementAndGet();
+                            return Mono.just(toResult.apply(parts.get(index), null));
+                        }), Math.max(1, chunkParallelism))
+                .collectList()
+                .flatMap(results -> !parts.isEmpty() && failures.get() == parts.size()
+                        ? Mono.error(lastError.get())
+                        : Mono.just(results));
+    }
+
+    private String hunkScopeNote(Hunk hunk, int totalLines) {
+        StringBuilder note = new StringBuilder();
+        note.append("NOTE: This file was reviewed before and has since been edited. The code below is lines ")
+                .append(hunk.startLine()).append("-").append(hunk.endLine())
+                .append(" of the ").append(totalLines).append("-line file; only lines ")
+                .append(hunk.changedStartLine() - hunk.startLine() + 1).append("-")
+                .append(hunk.changedEndLine() - hunk.startLine() + 1)
+                .append(" of the snippet changed. Report only issues in or caused by the changed lines; ")
+                .append("the other lines are context. Report line numbers relative to the snippet below ")
+                .append("(its first line is line 1).\n\n");
+        return note.toString();
+    }
+
+    private String chunkScopeNote(CodeChunk chunk, long totalLines) {
+        StringBuilder note = new StringBuilder();
+        note.append("NOTE: The code below is lines ").append(chunk.startLine()).append("-").append(chunk.endLine())
+                .append(" of a ").append(totalLines).append("-line file. ");
+        if (chunk.ownedStartLine() > chunk.startLine()) {
+            note.append("Its first ").append(chunk.ownedStartLine() - chunk.startLine())
+                    .append(" lines are context only; focus on the code after them. ");
+        }
+        note.append("Report line numbers relative to the snippet below (its first line is line 1).\n\n");
+        return note.toString();
+    }
+
+    private String extractResponseText(String response) {
+        return readResponse(response).path("response").asText();
+    }
+
+    private JsonNode readResponse(String response) {
+        try {
+            return objectMapper.readTree(response);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to parse Ollama response: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Generate code review using Ollama in streaming mode.
+     * Ollama answers with NDJSON, one line per generated chunk; each line is unwrapped
+     * to its "response" fragment so callers can parse the review while it is produced.
+     *
+     * @param code The code snippet to review
+     * @param project The project containing custom guidelines
+     * @param job The scheduler job the review runs in; a large file is reviewed in parts of this job
+     * @param contextListener receives the conversation context Ollama reports with its final line
+     * @param telemetry receives the prompt build time, the measured time to first token and Ollama's figures
+     * @return Flux of generated text fragments, completing when Ollama reports done
+     */
+    public Flux<String> streamReviewCode(String code, Project project, StaticAnalysis analysis, LlmJob job,
+            Consumer<String> contextListener, InferenceTelemetry telemetry) {
+        // Large files are reviewed chunk by chunk; the merged review is emitted as one fragment
+        // Streaming shows the review as it is written, so there is no triage pass: the review model answers
+        String model = modelRouter.route(project).reviewModel();
+        if (isLargeFile(code)) {
+            return reviewLargeCode(code, project, model, analysis, job, telemetry).flux();
+        }
+
+        long promptStart = System.nanoTime();
+        String language = project.getLanguage();
+        Long projectId = project.getId();
+        return guidelineSelector.select(code, project).flatMapMany(guidelines -> {
+            String prompt = buildReviewPrompt(code, language, guidelines, null, staticNote(analysis, 1, Integer.MAX_VALUE));
+            telemetry.setPromptBuildMs(millisSince(promptStart));
+
+            OllamaRequest request = OllamaRequest.builder()
+                    .model(model)
+                    .prompt(prompt)
+                    .stream(true)
+                    .format(REVIEW_SCHEMA)
+                    .build();
+
+            log.info("Sending streaming review request to Ollama for project: {}", projectId);
+            return streamGeneration(request, model, contextListener, telemetry);
+        });
+    }
+
+    /**
+     * Unwrap the NDJSON lines of a streamed generation into text fragments.
+     */
+    private Flux<String> streamGeneration(OllamaRequest request, String model, Consumer<String> contextListener,
+            InferenceTelemetry telemetry) {
+        AtomicLong requestStart = new AtomicLong();
+        return generateStream(request)
+                .doOnSubscribe(subscription -> requestStart.set(System.nanoTime()))
+                .filter(line -> !line.isBlank())
+                .handle((line, sink) -> {
                     try {
-                        // Parse Ollama response
-                        JsonNode jsonNode = objectMapper.readTree(response);
-                        String responseText = jsonNode.path("response").asText();
-                        return responseText;
+                        JsonNode jsonNode = objectMapper.readTree(line);
+                        if (jsonNode.hasNonNull("error")) {
+                            sink.error(new IllegalStateException(jsonNode.path("error").asText()));
+                            return;
+                        }
+                        String fragment = jsonNode.path("response").asText("");
+                        if (!fragment.isEmpty()) {
+                            if (telemetry.getTimeToFirstTokenMs() == null) {
+                                telemetry.setTimeToFirstTokenMs(millisSince(requestStart.get()));
+                            }
+                            sink.next(fragment);
+                        }
+                        if (jsonNode.path("done").asBoolean(false)) {
+                            telemetry.add(telemetryOf(jsonNode, millisSince(requestStart.get())));
+                            String context = toGeneration(jsonNode, model).getContext();
+                            if (context != null) {
+                                contextListener.accept(context);
+                            }
+                        }
                     } catch (Exception e) {
-                        log.error("Error parsing Ollama response", e);
-                        return "Error parsing response: " + e.getMessage();
+                        log.error("Error parsing Ollama stream chunk", e);
+                        sink.error(e);
                     }
-                })
-                .onErrorResume(error -> {
-                    log.error("Error calling Ollama API", error);
-                    return Mono.just("Error: Unable to connect to Ollama. Please ensure Ollama is running on http://localhost:11434");
                 });
     }
 
     /**
-     * Build the review prompt including custom guidelines.
+     * Build the review prompt including the selected custom guidelines and the static analysis, if any.
      */
-    private String buildReviewPrompt(String code, Project project) {
+    private String buildReviewPrompt(String code, String language, List<String> guidelines, String scopeNote,
+            String analysisNote) {
         StringBuilder prompt = new StringBuilder();
 
         prompt.append("You are a senior software engineer performing a professional code review.\n");
         prompt.append("Analyze the following code and provide structured feedback.\n\n");
 
         // Add custom guidelines if they exist
-        List<CustomGuideline> guidelines = project.getGuidelines();
-        if (guidelines != null && !guidelines.isEmpty()) {
+        if (!guidelines.isEmpty()) {
             prompt.append("IMPORTANT PROJECT-SPECIFIC GUIDELINES:\n");
-            for (CustomGuideline guideline : guidelines) {
-                prompt.append("- ").append(guideline.getRuleText()).append("\n");
+            for (String guideline : guidelines) {
+                prompt.append("- ").append(guideline).append("\n");
             }
             prompt.append("\n");
         }
 
+        if (scopeNote != null) {
+            prompt.append(scopeNote);
+        }
+
+        if (analysisNote != null) {
+            prompt.append(analysisNote);
+        }
+
         prompt.append("CODE TO REVIEW:\n");
-        prompt.append("```").append(project.getLanguage()).append("\n");
+        prompt.append("```").append(language).append("\n");
         prompt.append(code);
         prompt.append("\n```\n\n");
 
-        prompt.append("CRITICAL INSTRUCTION: You MUST respond with ONLY valid JSON. No text before or after the JSON object.\n\n");
-        prompt.append("REQUIRED JSON STRUCTURE (copy this format exactly):\n");
-        prompt.append("{\n");
-        prompt.append("  \"summary\": \"A brief one-sentence overview identifying main issues (e.g., 'Type mismatch error on line 3 where string type is assigned to number result')\",\n");
-        prompt.append("  \"findings\": [\n");
-        prompt.append("    {\"line\": 3, \"type\": \"type-error\", \"message\": \"Type mismatch: function add() returns number but result is typed as string\", \"suggestion\": \"Change 'const result: string = add(5, 10);' to 'const result: number = add(5, 10);' or use type inference 'const result = add(5, 10);'\"},\n");
-        prompt.append("    {\"line\": 15, \"type\": \"bug\", \"message\": \"Description of the bug\", \"suggestion\": \"Fixed code: 'corrected code here'\"},\n");
-        prompt.append("    {\"line\": 42, \"type\": \"performance\", \"message\": \"Performance concern\", \"suggestion\": \"Optimization suggestion with example code if applicable\"}\n");
-        prompt.append("  ],\n");
-        prompt.append("  \"effort_estimation\": \"X/10\"\n");
-        prompt.append("}\n\n");
-        prompt.append("REVIEW CRITERIA (analyze for):\n");
-        prompt.append("- Type errors (especially in TypeScript: type mismatches, incorrect type annotations)\n");
-        prompt.append("- Syntax errors and compilation issues\n");
-        prompt.append("- Logic errors and bugs\n");
-        prompt.append("- Code quality and best practices\n");
-        prompt.append("- Performance optimizations\n");
-        prompt.append("- Security vulnerabilities\n");
-        prompt.append("- Style consistency and maintainability\n");
-        prompt.append("- Potential edge cases\n\n");
-        prompt.append("CRITICAL: You MUST identify ALL type errors, syntax errors, and bugs. For EACH finding, provide:\n");
-        prompt.append("1. Exact line number where the error occurs\n");
-        prompt.append("2. Type of issue (bug, type-error, security, performance, style)\n");
-        prompt.append("3. Clear description of the problem\n");
-        prompt.append("4. A COMPLETE CODE FIX or improvement suggestion in the 'suggestion' field.\n");
-        prompt.append("   The suggestion MUST include the corrected code if it's a bug or type error.\n");
-        prompt.append("   Example: \"Change 'const result: string = add(5, 10);' to 'const result: number = add(5, 10);'\"\n");
-        prompt.append("   Or: \"Use 'const result = add(5, 10);' (let TypeScript infer the type)\"\n\n");
-        prompt.append("EFFORT ESTIMATION GUIDE:\n");
-        prompt.append("- 1-3/10: Minor style issues, very easy to fix\n");
-        prompt.append("- 4-6/10: Some bugs or refactoring needed, moderate effort\n");
-        prompt.append("- 7-9/10: Multiple issues, significant refactoring required\n");
-        prompt.append("- 10/10: Major rewrite needed\n\n");
-        prompt.append("IMPORTANT: Start your response directly with { and end with }. No markdown code blocks, no explanations, ONLY the JSON object.");
+        prompt.append("Respond with a JSON review: a one-sentence \"summary\" of the main issues; \"findings\", each with\n");
+        prompt.append("the exact \"line\", its \"type\" (bug, type-error, security, performance, style), a clear \"message\"\n");
+        prompt.append("and a \"suggestion\" that contains the corrected code for bugs and type errors; and an\n");
+        prompt.append("\"effort_estimation\" from \"1/10\" to \"10/10\".\n\n");
+        prompt.append("Look for type errors, syntax errors, logic errors and bugs, security vulnerabilities, performance\n");
+        prompt.append("problems, edge cases, code quality, style and maintainability. Report every type error, syntax error and bug.\n\n");
+        prompt.append("Effort: 1-3 minor style issues, 4-6 some bugs or refactoring, 7-9 significant refactoring, 10 major rewrite.");
 
         return prompt.toString();
     }
 
     /**
      * Answer user question about a review.
-     * Provides context-aware responses based on the original review.
+     * When the review stored the conversation context of its generation, only the new question is sent and
+     * Ollama continues from that context, with the model that produced it; otherwise the full prompt
+     * with code, review, conversation summary and recent history is built. A context that has grown
+     * beyond the token limit is dropped in favour of the (windowed) full prompt. The full prompt, and the
+     * code and response it needs, are only loaded when the stored context cannot be used or fails.
      * 
      * @param question User's question
-     * @param review The review context
-     * @param conversationHistory Previous messages for context
-     * @return AI's response
+     * @param review The review, without its content
+     * @param storedContext Conversation context stored for the review, may be null
+     * @param reviewWithContent Loads the review with its code and response, for the full prompt
+     * @param conversationSummary Summary of the turns older than the history, may be null
+     * @param conversationHistory Recent messages for context, oldest first
+     * @return AI's response, with the conversation context to continue from next time; fails with
+     *         OllamaUnavailableException when no answer could be generated
+     */
+    public Mono<OllamaGeneration> answerReviewQuestion(String question, Review review, ReviewChatContext storedContext,
+            Mono<Review> reviewWithContent, String conversationSummary, List<ReviewComment> conversationHistory) {
+        String context = storedContext == null ? null : storedContext.getLlmContext();
+        // Context tokens only mean something to the model that produced them; older reviews kept it in llmModel
+        String contextModel = storedContext != null && storedContext.getLlmContextModel() != null
+                ? storedContext.getLlmContextModel() : review.getLlmModel();
+        boolean resumable = context != null
+                && contextModel != null
+                && contextTokens(context) <= maxChatContextTokens;
+
+        // Built on subscription only, so a resumed conversation never loads the code or builds the full prompt
+        Mono<OllamaGeneration> fullAnswer = reviewWithContent.flatMap(full -> {
+            long promptStart = System.nanoTime();
+            OllamaRequest fullRequest = OllamaRequest.builder()
+                    .model(ollamaModel)
+                    .prompt(buildChatPrompt(question, full, conversationSummary, conversationHistory))
+                    .stream(false)
+                    .build();
+            long promptBuildMillis = millisSince(promptStart);
+            return generate(fullRequest)
+                    .elapsed()
+                    .map(timed -> withPromptBuildTime(parseChatResponse(timed.getT2(), timed.getT1(), ollamaModel),
+                            promptBuildMillis));
+        });
+
+        Mono<OllamaGeneration> answer;
+        if (resumable) {
+            long promptStart = System.nanoTime();
+            OllamaRequest followUp = OllamaRequest.builder()
+                    .model(contextModel)
+                    .prompt(buildFollowUpPrompt(question))
+                    .stream(false)
+                    .context(context)
+                    .build();
+            long promptBuildMillis = millisSince(promptStart);
+
+            log.info("Sending follow-up question to Ollama for review: {} (reusing context)", review.getId());
+            answer = generate(followUp)
+                    .elapsed()
+                    .map(timed -> withPromptBuildTime(parseChatResponse(timed.getT2(), timed.getT1(), contextModel),
+                            promptBuildMillis))
+                    .onErrorResume(error -> {
+                        log.warn("Follow-up with stored context failed for review {}, resending full prompt", review.getId(), error);
+                        return fullAnswer;
+                    });
+        } else {
+            log.info("Sending chat question to Ollama for review: {}", review.getId());
+            answer = fullAnswer;
+        }
+
+        return answer.doOnError(error -> log.error("Error calling Ollama API for chat on review {}", review.getId(), error));
+    }
+
+    private OllamaGeneration parseChatResponse(String response, long httpMillis, String model) {
+        try {
+            JsonNode jsonNode = objectMapper.readTree(response);
+            OllamaGeneration generation = toGeneration(jsonNode, model);
+            generation.setTelemetry(telemetryOf(jsonNode, httpMillis));
+            return generation;
+        } catch (Exception e) {
+            throw new OllamaUnavailableException("Ollama returned an answer that could not be read", e);
+        }
+    }
+
+    /**
+     * Summarize chat turns, extending an earlier summary, so they can leave the verbatim history.
+     *
+     * @param previousSummary Summary of even older turns, may be null
+     * @param messages Turns to fold into the summary, oldest first
+     * @return the new summary text
      */
-    public Mono<String> answerReviewQuestion(String question, Review review, List<ReviewComment> conversationHistory) {
-        String prompt = buildChatPrompt(question, review, conversationHistory);
+    public Mono<String> summarizeConversation(String previousSummary, List<ReviewComment> messages) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("Summarize the following conversation between a user and a code review assistant.\n");
+        prompt.append("Keep the questions asked, the answers and decisions given, and any code changes agreed on. ");
+        prompt.append("Use at most 150 words of plain text.\n\n");
+        if (previousSummary != null && !previousSummary.isBlank()) {
+            prompt.append("SUMMARY OF THE CONVERSATION SO FAR:\n").append(previousSummary).append("\n\n");
+        }
+        prompt.append("NEW MESSAGES:\n");
+        appendMessages(prompt, messages);
 
         OllamaRequest request = OllamaRequest.builder()
                 .model(ollamaModel)
-                .prompt(prompt)
+                .prompt(prompt.toString())
                 .stream(false)
                 .build();
 
-        log.info("Sending chat question to Ollama for review: {}", review.getId());
+        return generate(request)
+                .map(this::extractResponseText)
+                .map(String::trim);
+    }
 
-        return getWebClient()
-                .post()
-                .uri("/api/generate")
-                .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(request)
-                .retrieve()
-                .bodyToMono(String.class)
-                .map(response -> {
-                    try {
-                        JsonNode jsonNode = objectMapper.readTree(response);
-                        return jsonNode.path("response").asText();
-                    } catch (Exception e) {
-                        log.error("Error parsing Ollama response", e);
-                        return "I apologize, but I encountered an error processing your question.";
-                    }
-                })
-                .onErrorResume(error -> {
-                    log.error("Error calling Ollama API for chat", error);
-                    return Mono.just("I apologize, but I'm currently unable to answer. Please try again later.");
-                });
+    /**
+     * Number of tokens in a stored context (a JSON array of token ids).
+     */
+    private int contextTokens(String context) {
+        int tokens = 1;
+        for (int i = 0; i < context.length(); i++) {
+            if (context.charAt(i) == ',') {
+                tokens++;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Prompt for a question that continues the stored conversation; the code, the review and
+     * the earlier questions are already part of the context.
+     */
+    private String buildFollowUpPrompt(String question) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("The user has a follow-up question about the code review you just performed.\n\n");
+        prompt.append("USER'S QUESTION:\n");
+        prompt.append(question);
+        prompt.append("\n\n");
+        prompt.append("Answer in plain text, not JSON. Be helpful, clear and concise, base your answer on the code ");
+        prompt.append("and review above, and provide code examples or fixes in a clear format when asked for them.");
+        return prompt.toString();
     }
 
     /**
      * Build chat prompt with review context and conversation history.
      */
-    private String buildChatPrompt(String question, Review review, List<ReviewComment> conversationHistory) {
+    private String buildChatPrompt(String question, Review review, String conversationSummary,
+            List<ReviewComment> conversationHistory) {
         StringBuilder prompt = new StringBuilder();
 
         prompt.append("You are an AI code review assistant. The user is asking a question about a code review you previously performed.\n\n");
@@ -236,16 +874,17 @@ public class OllamaService {
         prompt.append(review.getLlmResponse());
         prompt.append("\n\n");
 
+        // Older turns only survive as a summary; the recent ones are inlined verbatim
+        if (conversationSummary != null && !conversationSummary.isBlank()) {
+            prompt.append("EARLIER CONVERSATION (SUMMARY):\n");
+            prompt.append(conversationSummary);
+            prompt.append("\n\n");
+        }
+
         // Add conversation history for context
         if (conversationHistory != null && !conversationHistory.isEmpty()) {
             prompt.append("CONVERSATION HISTORY:\n");
-            for (ReviewComment comment : conversationHistory) {
-                if ("USER".equals(comment.getRole())) {
-                    prompt.append("User: ").append(comment.getMessage()).append("\n");
-                } else {
-                    prompt.append("You: ").append(comment.getMessage()).append("\n");
-                }
-            }
+            appendMessages(prompt, conversationHistory);
             prompt.append("\n");
         }
 
@@ -260,4 +899,14 @@ public class OllamaService {
 
         return prompt.toString();
     }
-}
\ No newline at end of file
+
+    private void appendMessages(StringBuilder prompt, List<ReviewComment> messages) {
+        for (ReviewComment comment : messages) {
+            if ("USER".equals(comment.getRole())) {
+                prompt.append("User: ").append(comment.getMessage()).append("\n");
+            } else {
+                prompt.append("You: ").append(comment.getMessage()).append("\n");
+            }
+        }
+    }
+}
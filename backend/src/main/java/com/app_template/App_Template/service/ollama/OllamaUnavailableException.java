@@ -0,0 +1,28 @@
+package com.app_template.App_Template.service.ollama;
+
+import lombok.Getter;
+
+/**
+ * Thrown when no Ollama backend can take a request (all ejected, saturated or unreachable),
+ * or when a review could not be generated because Ollama failed.
+ */
+@Getter
+public class OllamaUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds; // 0 when no estimate is available
+
+    public OllamaUnavailableException(String message) {
+        this(message, null, 0);
+    }
+
+    public OllamaUnavailableException(String message, Throwable cause) {
+        this(message, cause, 0);
+    }
+
+    public OllamaUnavailableException(String message, Throwable cause, long retryAfterSeconds) {
+        super(message, cause);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,110 @@
+package com.app_template.App_Template.service.ollama;
+
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+
+import com.app_template.App_Template.dto.ReviewResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ReviewResultParser - Parses generated review text into a typed ReviewResult.
+ * Output constrained by the review JSON schema parses directly; for anything else a cheap local
+ * repair is tried (markdown fences, text around the object, trailing commas) before giving up.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReviewResultParser {
+
+    private static final Pattern TRAILING_COMMA = Pattern.compile(",\\s*([}\\]])");
+    private static final Pattern EFFORT = Pattern.compile("(\\d+(?:\\.\\d+)?)\\s*/\\s*10");
+    private static final int MAX_SUMMARY_LENGTH = 500;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Parse a review, or return empty when the text is not a usable review.
+     */
+    public Optional<ReviewResult> parse(String text) {
+        if (text == null || text.isBlank()) {
+            return Optional.empty();
+        }
+
+        Optional<ReviewResult> result = read(text.trim());
+        if (result.isPresent()) {
+            return result;
+        }
+
+        int start = text.indexOf('{');
+        int end = text.lastIndexOf('}');
+        if (start < 0 || end <= start) {
+            return Optional.empty();
+        }
+        String repaired = TRAILING_COMMA.matcher(text.substring(start, end + 1)).replaceAll("$1");
+        return read(repaired);
+    }
+
+    /**
+     * Effort estimation of a stored review response, or null when it has none.
+     */
+    public String effortOf(String response) {
+        return parse(response).map(ReviewResult::getEffortEstimation).orElse(null);
+    }
+
+    /**
+     * Summary of a stored review response, shortened to fit the review listing, or null when it has none.
+     */
+    public String summaryOf(String response) {
+        String summary = parse(response).map(ReviewResult::getSummary).map(String::strip).orElse(null);
+        if (summary == null || summary.isEmpty()) {
+            return null;
+        }
+        return summary.length() <= MAX_SUMMARY_LENGTH ? summary
+                : summary.substring(0, MAX_SUMMARY_LENGTH - 3).stripTrailing() + "...";
+    }
+
+    /**
+     * Numeric score of an effort estimation such as "3/10", or null when there is none.
+     */
+    public static Double effortScore(String effortEstimation) {
+        if (effortEstimation == null) {
+            return null;
+        }
+        Matcher matcher = EFFORT.matcher(effortEstimation);
+        return matcher.find() ? Double.valueOf(matcher.group(1)) : null;
+    }
+
+    public String toJson(ReviewResult result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to serialize review", e);
+        }
+    }
+
+    private Optional<ReviewResult> read(String json) {
+        try {
+            ReviewResult result = objectMapper.readValue(json, ReviewResult.class);
+            if (result == null) {
+                return Optional.empty();
+            }
+            if (result.getFindings() == null) {
+                result.setFindings(new ArrayList<>());
+            }
+            if (result.getSummary() == null && result.getFindings().isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(result);
+        } catch (Exception e) {
+            log.debug("Review is not valid JSON: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.app_template.App_Template.service.ollama;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.app_template.App_Template.dto.ReviewStreamEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ReviewStreamParser - Incrementally parses the review JSON while Ollama is still generating it.
+ * Each completed entry of "findings", the "summary" and the "effort_estimation" are emitted
+ * as soon as their closing character arrives, without waiting for the whole document.
+ * Not thread-safe: one parser instance per streamed review.
+ */
+@Slf4j
+public class ReviewStreamParser {
+
+    private final ObjectMapper objectMapper;
+    private final StringBuilder buffer = new StringBuilder();
+
+    private int position;
+    private int depth;
+    private boolean started;
+    private boolean finished;
+    private boolean inString;
+    private boolean escaped;
+    private boolean expectingKey;
+    private int stringStart = -1;
+    private int valueStart = -1;
+    private int elementStart = -1;
+    private String currentKey;
+
+    public ReviewStreamParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Append a chunk of generated text and return the events that became complete with it.
+     */
+    public List<ReviewStreamEvent> feed(String chunk) {
+        List<ReviewStreamEvent> events = new ArrayList<>();
+        if (chunk == null || chunk.isEmpty() || finished) {
+            return events;
+        }
+        buffer.append(chunk);
+
+        for (; position < buffer.length() && !finished; position++) {
+            char c = buffer.charAt(position);
+
+            // Skip any text (e.g. a markdown fence) before the JSON object starts
+            if (!started) {
+                if (c == '{') {
+                    started = true;
+                    depth = 1;
+                    expectingKey = true;
+                }
+                continue;
+            }
+
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                    if (depth == 1 && expectingKey) {
+                        currentKey = buffer.substring(stringStart + 1, position);
+                    }
+                }
+                continue;
+            }
+
+            switch (c) {
+                case '"' -> {
+                    inString = true;
+                    stringStart = position;
+                }
+                case ':' -> {
+                    if (depth == 1) {
+                        expectingKey = false;
+                        valueStart = position + 1;
+                    }
+                }
+                case ',' -> {
+                    if (depth == 1) {
+                        emitTopLevelValue(position, events);
+                        expectingKey = true;
+                    }
+                }
+                case '{', '[' -> {
+                    depth++;
+                    if (c == '{' && depth == 3 && "findings".equals(currentKey)) {
+                        elementStart = position;
+                    }
+                }
+                case '}', ']' -> {
+                    if (c == '}' && depth == 3 && elementStart >= 0) {
+                        emitFinding(buffer.substring(elementStart, position + 1), events);
+                        elementStart = -1;
+                    }
+                    depth--;
+                    if (depth == 0) {
+                        emitTopLevelValue(position, events);
+                        finished = true;
+                    }
+                }
+                default -> {
+                    // Whitespace and scalar characters are consumed as part of the current value
+                }
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Whether the closing brace of the review object has been seen.
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    private void emitTopLevelValue(int end, List<ReviewStreamEvent> events) {
+        if (valueStart < 0 || currentKey == null) {
+            return;
+        }
+        String raw = buffer.substring(valueStart, end).trim();
+        valueStart = -1;
+        if (raw.isEmpty()) {
+            return;
+        }
+
+        String type = switch (currentKey) {
+            case "summary" -> ReviewStreamEvent.SUMMARY;
+            case "effort_estimation", "effortEstimation" -> ReviewStreamEvent.EFFORT;
+            default -> null;
+        };
+        if (type == null) {
+            return;
+        }
+
+        try {
+            JsonNode value = objectMapper.readTree(raw);
+            events.add(ReviewStreamEvent.of(type, value.asText()));
+        } catch (Exception e) {
+            log.debug("Skipping unparsable streamed value for key {}: {}", currentKey, raw);
+        }
+    }
+
+    private void emitFinding(String raw, List<ReviewStreamEvent> events) {
+        try {
+            events.add(ReviewStreamEvent.of(ReviewStreamEvent.FINDING, objectMapper.readTree(raw)));
+        } catch (Exception e) {
+            log.debug("Skipping unparsable streamed finding: {}", raw);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.app_template.App_Template.service.scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import lombok.Getter;
+import reactor.core.publisher.Sinks;
+
+/**
+ * A single Ollama request waiting for, or holding, a slot in the LlmJobScheduler.
+ */
+@Getter
+public class LlmJob {
+
+    public enum State {
+        QUEUED,
+        RUNNING
+    }
+
+    private final String id;
+    private final Long userId; // null for background jobs of the application
+    private final String description;
+    private final Long reviewId; // review this job generates, null for chat answers
+    private final Instant enqueuedAt = Instant.now();
+
+    private volatile State state = State.QUEUED;
+    private volatile Instant startedAt;
+
+    // Only subscribed jobs are dispatched, so an abandoned reservation never holds a slot
+    private volatile boolean subscribed;
+
+    private volatile boolean cancelled;
+
+    // Set when the job runs its work as separate part jobs and no longer holds a slot itself
+    private volatile boolean split;
+
+    // Completes when the scheduler hands this job a concurrency slot
+    final Sinks.Empty<Void> permit = Sinks.empty();
+
+    // Emits when the job is cancelled; late subscribers still see it
+    final Sinks.One<Boolean> cancellation = Sinks.one();
+
+    LlmJob(String id, Long userId, String description, Long reviewId) {
+        this.id = id;
+        this.userId = userId;
+        this.description = description;
+        this.reviewId = reviewId;
+    }
+
+    public boolean isBackground() {
+        return userId == null;
+    }
+
+    /**
+     * How long the job waited for its slot; still counting while it is queued.
+     */
+    public Duration getQueueWait() {
+        Instant end = startedAt == null ? Instant.now() : startedAt;
+        return Duration.between(enqueuedAt, end);
+    }
+
+    /**
+     * Stop the job: a waiting job gives up its place, a running one has its Ollama call cancelled.
+     */
+    void cancel() {
+        cancelled = true;
+        cancellation.tryEmitValue(true);
+    }
+
+    void markSubscribed() {
+        this.subscribed = true;
+    }
+
+    void markSplit() {
+        this.split = true;
+    }
+
+    void markRunning() {
+        this.state = State.RUNNING;
+        this.startedAt = Instant.now();
+    }
+}
@@ -0,0 +1,14 @@
+package com.app_template.App_Template.service.scheduler;
+
+/**
+ * Thrown by a job run by the LlmJobScheduler when the job was cancelled while waiting or generating.
+ * Mapped to HTTP 409.
+ */
+public class LlmJobCancelledException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LlmJobCancelledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,435 @@
+package com.app_template.App_Template.service.scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.app_template.App_Template.dto.QueuePositionResponse;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * LlmJobScheduler - Admission control and fair scheduling in front of OllamaService.
+ * At most maxConcurrent generations run at once; waiting jobs are kept in one queue per
+ * user and dispatched round-robin across users, so a single user submitting many files
+ * cannot starve everybody else. When the queue is full, requests are rejected right away
+ * with LlmQueueFullException instead of piling up until the Ollama timeout. A job can be
+ * cancelled while it waits or runs; its Ollama call is then cancelled, which aborts the HTTP request.
+ * A running job can split into parts (the chunks of a large file) that queue as jobs of their own.
+ * Background jobs of the application (e.g. conversation summaries) wait in a separate lane that is
+ * only served while no user job is waiting, one at a time, so they never use a user's queue places.
+ */
+@Slf4j
+@Service
+public class LlmJobScheduler {
+
+    private static final Duration ABANDONED_AFTER = Duration.ofMinutes(1);
+    private static final Pattern REQUEST_ID = Pattern.compile("[A-Za-z0-9-]{8,64}");
+
+    private final int maxConcurrent;
+    private final int maxQueueDepth;
+    private final int maxQueuedPerUser;
+
+    private final Object lock = new Object();
+
+    // Iteration order of this map is the round-robin order of users with waiting jobs
+    private final LinkedHashMap<Long, ArrayDeque<LlmJob>> queues = new LinkedHashMap<>();
+    private final List<LlmJob> runningJobs = new ArrayList<>();
+    private int queuedCount;
+
+    // Low-priority lane for jobs that belong to no user
+    private final ArrayDeque<LlmJob> backgroundQueue = new ArrayDeque<>();
+
+    @Value("${ollama.scheduler.max-queued-background:20}")
+    private int maxQueuedBackground = 20;
+
+    // Exponentially weighted average job duration, used for Retry-After and wait estimates
+    private double averageJobMillis;
+
+    public LlmJobScheduler(
+            @Value("${ollama.scheduler.max-concurrent:2}") int maxConcurrent,
+            @Value("${ollama.scheduler.max-queue-depth:100}") int maxQueueDepth,
+            @Value("${ollama.scheduler.max-queued-per-user:5}") int maxQueuedPerUser,
+            @Value("${ollama.scheduler.initial-job-estimate-ms:30000}") long initialJobEstimateMillis) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxQueueDepth = maxQueueDepth;
+        this.maxQueuedPerUser = maxQueuedPerUser;
+        this.averageJobMillis = initialJobEstimateMillis;
+    }
+
+    /**
+     * Reserve a place in the queue for the generation of a review, so it can be cancelled through the review.
+     * Admission is decided immediately so callers can reject the HTTP request before doing any other work.
+     *
+     * @param reviewId review the job generates, null for other requests
+     * @throws LlmQueueFullException when the global or per-user queue limit is reached
+     */
+    public LlmJob enqueue(Long userId, String description, Long reviewId) {
+        return enqueue(userId, description, reviewId, null);
+    }
+
+    /**
+     * Reserve a place in the queue under an id chosen by the client (its requestId), so the client can cancel
+     * the request before the reply arrives. A missing or malformed requestId gets a random id.
+     */
+    public LlmJob enqueue(Long userId, String description, Long reviewId, String requestId) {
+        String jobId = requestId != null && REQUEST_ID.matcher(requestId).matches() ? requestId : UUID.randomUUID().toString();
+        LlmJob job = new LlmJob(jobId, userId, description, reviewId);
+        synchronized (lock) {
+            purgeAbandoned();
+            ArrayDeque<LlmJob> userQueue = queues.get(userId);
+            int userQueued = userQueue == null ? 0 : userQueue.size();
+
+            if (queuedCount >= maxQueueDepth) {
+                throw new LlmQueueFullException("Review queue is full, please retry later", retryAfterSeconds());
+            }
+            if (userQueued >= maxQueuedPerUser) {
+                throw new LlmQueueFullException(
+                        "You already have " + userQueued + " requests waiting, please retry later", retryAfterSeconds());
+            }
+
+            queues.computeIfAbsent(userId, id -> new ArrayDeque<>()).addLast(job);
+            queuedCount++;
+        }
+        log.debug("Enqueued LLM job {} for user {} ({})", job.getId(), userId, description);
+        dispatch();
+        return job;
+    }
+
+    /**
+     * Run a single-value Ollama call once the job gets a slot.
+     * The returned Mono must be subscribed; cancelling it frees the slot or the queue place.
+     * Cancelling the job cancels the call and fails the Mono with LlmJobCancelledException.
+     */
+    public <T> Mono<T> run(LlmJob job, Supplier<Mono<T>> work) {
+        return awaitSlot(job)
+                .then(Mono.defer(work))
+                .takeUntilOther(job.cancellation.asMono())
+                .switchIfEmpty(Mono.defer(() -> job.isCancelled() ? Mono.error(cancelled(job)) : Mono.empty()))
+                .doFinally(signal -> finish(job));
+    }
+
+    /**
+     * Run a streaming Ollama call once the job gets a slot.
+     */
+    public <T> Flux<T> runMany(LlmJob job, Supplier<? extends Publisher<T>> work) {
+        return awaitSlot(job)
+                .thenMany(Flux.defer(work))
+                .takeUntilOther(job.cancellation.asMono())
+                .concatWith(Mono.defer(() -> job.isCancelled() ? Mono.error(cancelled(job)) : Mono.empty()))
+                .doFinally(signal -> finish(job));
+    }
+
+    /**
+     * Run one part of a running job (e.g. a chunk of a large file) as a job of its own, queued behind the
+     * owner's other jobs. The first part makes the parent give up its slot, so parts run side by side within
+     * the owner's fair share and a waiting parent never holds a slot its parts need. Parts skip the queue
+     * limits, since their parent was admitted; cancelling the parent cancels the parts it runs.
+     */
+    public <T> Mono<T> runPart(LlmJob parent, String description, Supplier<Mono<T>> work) {
+        return Mono.defer(() -> {
+            LlmJob part = new LlmJob(UUID.randomUUID().toString(), parent.getUserId(), description, null);
+            synchronized (lock) {
+                parent.markSplit();
+                queues.computeIfAbsent(parent.getUserId(), id -> new ArrayDeque<>()).addLast(part);
+                queuedCount++;
+            }
+            log.debug("Enqueued LLM job {} as part of job {}", part.getId(), parent.getId());
+            return run(part, work);
+        });
+    }
+
+    /**
+     * Cancel a waiting or running job of the user.
+     *
+     * @return the cancelled job, empty when the user has no such job
+     */
+    public Optional<LlmJob> cancel(Long userId, String jobId) {
+        return cancelFirst(job -> userId.equals(job.getUserId()) && job.getId().equals(jobId));
+    }
+
+    /**
+     * Cancel the waiting or running generation of a review.
+     *
+     * @return whether a generation of the review was found on this instance
+     */
+    public boolean cancelReview(Long reviewId) {
+        return cancelFirst(job -> reviewId.equals(job.getReviewId())).isPresent();
+    }
+
+    /**
+     * Give back a reservation that turned out not to be needed, without running it.
+     */
+    public void release(LlmJob job) {
+        finish(job);
+    }
+
+    /**
+     * Enqueue and run in one step.
+     */
+    public <T> Mono<T> submit(Long userId, String description, Supplier<Mono<T>> work) {
+        return run(enqueue(userId, description, null), work);
+    }
+
+    /**
+     * Enqueue and run a job of the application itself in the background lane. It gets a slot only while
+     * no user job is waiting and counts against no user's limits.
+     *
+     * @throws LlmQueueFullException when the background lane is full
+     */
+    public <T> Mono<T> submitBackground(String description, Supplier<Mono<T>> work) {
+        LlmJob job = new LlmJob(UUID.randomUUID().toString(), null, description, null);
+        synchronized (lock) {
+            purgeAbandoned();
+            if (backgroundQueue.size() >= maxQueuedBackground) {
+                throw new LlmQueueFullException("Background queue is full", retryAfterSeconds());
+            }
+            backgroundQueue.addLast(job);
+        }
+        log.debug("Enqueued background LLM job {} ({})", job.getId(), description);
+        return run(job, work);
+    }
+
+    /**
+     * Current position of one job.
+     */
+    public QueuePositionResponse getPosition(LlmJob job) {
+        synchronized (lock) {
+            return toPosition(job);
+        }
+    }
+
+    /**
+     * Queued and running jobs of a user, with their current positions.
+     */
+    public List<QueuePositionResponse> getJobs(Long userId) {
+        synchronized (lock) {
+            List<QueuePositionResponse> jobs = new ArrayList<>();
+            for (LlmJob running : runningJobs) {
+                if (userId.equals(running.getUserId())) {
+                    jobs.add(toPosition(running));
+                }
+            }
+            ArrayDeque<LlmJob> userQueue = queues.get(userId);
+            if (userQueue != null) {
+                for (LlmJob queued : userQueue) {
+                    jobs.add(toPosition(queued));
+                }
+            }
+            return jobs;
+        }
+    }
+
+    /**
+     * Jobs holding a slot right now.
+     */
+    public int getRunningCount() {
+        synchronized (lock) {
+            return slotsInUse();
+        }
+    }
+
+    public int getQueuedCount() {
+        synchronized (lock) {
+            return queuedCount;
+        }
+    }
+
+    private Optional<LlmJob> cancelFirst(Predicate<LlmJob> filter) {
+        Optional<LlmJob> found;
+        synchronized (lock) {
+            found = runningJobs.stream().filter(filter).findFirst()
+                    .or(() -> queues.values().stream().flatMap(ArrayDeque::stream).filter(filter).findFirst());
+        }
+        // Outside the lock: the cancelled call gives back its slot synchronously
+        found.ifPresent(job -> {
+            log.debug("Cancelling LLM job {} for user {}", job.getId(), job.getUserId());
+            job.cancel();
+        });
+        return found;
+    }
+
+    private static LlmJobCancelledException cancelled(LlmJob job) {
+        return new LlmJobCancelledException("Request was cancelled: " + job.getDescription());
+    }
+
+    private Mono<Void> awaitSlot(LlmJob job) {
+        return Mono.defer(() -> {
+            job.markSubscribed();
+            dispatch();
+            return job.permit.asMono();
+        });
+    }
+
+    private void finish(LlmJob job) {
+        synchronized (lock) {
+            if (runningJobs.remove(job)) {
+                // A split job only waited for its parts, which were measured on their own
+                if (!job.isSplit()) {
+                    long elapsed = Duration.between(job.getStartedAt(), Instant.now()).toMillis();
+                    averageJobMillis = 0.8 * averageJobMillis + 0.2 * elapsed;
+                }
+            } else if (job.isBackground()) {
+                backgroundQueue.remove(job);
+            } else {
+                // Cancelled before it got a slot
+                ArrayDeque<LlmJob> userQueue = queues.get(job.getUserId());
+                if (userQueue != null && userQueue.remove(job)) {
+                    queuedCount--;
+                    if (userQueue.isEmpty()) {
+                        queues.remove(job.getUserId());
+                    }
+                }
+            }
+        }
+        dispatch();
+    }
+
+    private void dispatch() {
+        List<LlmJob> started = new ArrayList<>();
+        synchronized (lock) {
+            while (slotsInUse() < maxConcurrent && queuedCount > 0) {
+                // Take the head of the first user whose next job is ready, then rotate that user to the back
+                Map.Entry<Long, ArrayDeque<LlmJob>> next = null;
+                for (Map.Entry<Long, ArrayDeque<LlmJob>> entry : queues.entrySet()) {
+                    if (entry.getValue().peekFirst().isSubscribed()) {
+                        next = entry;
+                        break;
+                    }
+                }
+                if (next == null) {
+                    break;
+                }
+                queues.remove(next.getKey());
+
+                ArrayDeque<LlmJob> userQueue = next.getValue();
+                LlmJob job = userQueue.pollFirst();
+                queuedCount--;
+                if (!userQueue.isEmpty()) {
+                    queues.put(next.getKey(), userQueue);
+                }
+
+                job.markRunning();
+                runningJobs.add(job);
+                started.add(job);
+            }
+
+            // The background lane only gets a free slot nobody is waiting for
+            LlmJob background = backgroundQueue.peekFirst();
+            if (background != null && background.isSubscribed() && queuedCount == 0
+                    && slotsInUse() < maxConcurrent && runningJobs.stream().noneMatch(LlmJob::isBackground)) {
+                backgroundQueue.pollFirst();
+                background.markRunning();
+                runningJobs.add(background);
+                started.add(background);
+            }
+        }
+        // Release permits outside the lock: subscribers start their Ollama calls synchronously
+        for (LlmJob job : started) {
+            log.debug("Starting LLM job {} for user {}", job.getId(), job.getUserId());
+            job.permit.tryEmitEmpty();
+        }
+    }
+
+    /**
+     * Running jobs that hold a slot; a split job gave its slot to its parts.
+     * Must be called while holding the lock.
+     */
+    private int slotsInUse() {
+        int slots = 0;
+        for (LlmJob running : runningJobs) {
+            if (!running.isSplit()) {
+                slots++;
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Drop reservations whose request never subscribed (e.g. it failed before returning).
+     * Must be called while holding the lock.
+     */
+    private void purgeAbandoned() {
+        Instant cutoff = Instant.now().minus(ABANDONED_AFTER);
+        Iterator<Map.Entry<Long, ArrayDeque<LlmJob>>> iterator = queues.entrySet().iterator();
+        while (iterator.hasNext()) {
+            ArrayDeque<LlmJob> userQueue = iterator.next().getValue();
+            int before = userQueue.size();
+            userQueue.removeIf(job -> !job.isSubscribed() && job.getEnqueuedAt().isBefore(cutoff));
+            queuedCount -= before - userQueue.size();
+            if (userQueue.isEmpty()) {
+                iterator.remove();
+            }
+        }
+        backgroundQueue.removeIf(job -> !job.isSubscribed() && job.getEnqueuedAt().isBefore(cutoff));
+    }
+
+    /**
+     * 1-based position in the global dispatch order implied by round-robin across users.
+     * Must be called while holding the lock.
+     */
+    private QueuePositionResponse toPosition(LlmJob job) {
+        int position = 0;
+        if (job.getState() == LlmJob.State.QUEUED) {
+            ArrayDeque<LlmJob> ownQueue = queues.get(job.getUserId());
+            int index = ownQueue == null ? -1 : indexOf(ownQueue, job);
+            if (index >= 0) {
+                boolean beforeOwner = true;
+                for (Map.Entry<Long, ArrayDeque<LlmJob>> entry : queues.entrySet()) {
+                    int size = entry.getValue().size();
+                    if (entry.getKey().equals(job.getUserId())) {
+                        beforeOwner = false;
+                        continue;
+                    }
+                    // Users ahead in the rotation get one extra turn in the job's own round
+                    position += Math.min(size, beforeOwner ? index + 1 : index);
+                }
+                position += index + 1;
+            }
+        }
+
+        long waitMillis = position == 0 ? 0
+                : (long) (averageJobMillis * Math.ceil((double) position / maxConcurrent));
+
+        return QueuePositionResponse.builder()
+                .jobId(job.getId())
+                .description(job.getDescription())
+                .state(job.getState().name())
+                .position(position)
+                .queueLength(queuedCount)
+                .estimatedWaitSeconds(waitMillis / 1000)
+                .build();
+    }
+
+    private static int indexOf(ArrayDeque<LlmJob> queue, LlmJob job) {
+        int index = 0;
+        for (LlmJob queued : queue) {
+            if (queued == job) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    private long retryAfterSeconds() {
+        double waves = Math.ceil((double) (queuedCount + 1) / maxConcurrent);
+        return Math.max(1, (long) Math.ceil(averageJobMillis * waves / 1000));
+    }
+}
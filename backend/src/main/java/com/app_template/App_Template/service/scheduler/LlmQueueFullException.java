@@ -0,0 +1,21 @@
+package com.app_template.App_Template.service.scheduler;
+
+/**
+ * Thrown when the LLM job queue cannot accept another request.
+ * Mapped to HTTP 429 with a Retry-After header.
+ */
+public class LlmQueueFullException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public LlmQueueFullException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,25 @@
+-- Inference telemetry of reviews and chat answers (InferenceTelemetry)
+
+ALTER TABLE reviews ADD COLUMN inference_prompt_build_ms BIGINT;
+ALTER TABLE reviews ADD COLUMN inference_queue_wait_ms BIGINT;
+ALTER TABLE reviews ADD COLUMN inference_http_ms BIGINT;
+ALTER TABLE reviews ADD COLUMN inference_model_load_ms BIGINT;
+ALTER TABLE reviews ADD COLUMN inference_prompt_eval_ms BIGINT;
+ALTER TABLE reviews ADD COLUMN inference_eval_ms BIGINT;
+ALTER TABLE reviews ADD COLUMN inference_ttft_ms BIGINT;
+ALTER TABLE reviews ADD COLUMN inference_prompt_tokens INTEGER;
+ALTER TABLE reviews ADD COLUMN inference_eval_tokens INTEGER;
+ALTER TABLE reviews ADD COLUMN inference_tokens_per_second DOUBLE PRECISION;
+ALTER TABLE reviews ADD COLUMN inference_generations INTEGER;
+
+ALTER TABLE review_comments ADD COLUMN inference_prompt_build_ms BIGINT;
+ALTER TABLE review_comments ADD COLUMN inference_queue_wait_ms BIGINT;
+ALTER TABLE review_comments ADD COLUMN inference_http_ms BIGINT;
+ALTER TABLE review_comments ADD COLUMN inference_model_load_ms BIGINT;
+ALTER TABLE review_comments ADD COLUMN inference_prompt_eval_ms BIGINT;
+ALTER TABLE review_comments ADD COLUMN inference_eval_ms BIGINT;
+ALTER TABLE review_comments ADD COLUMN inference_ttft_ms BIGINT;
+ALTER TABLE review_comments ADD COLUMN inference_prompt_tokens INTEGER;
+ALTER TABLE review_comments ADD COLUMN inference_eval_tokens INTEGER;
+ALTER TABLE review_comments ADD COLUMN inference_tokens_per_second DOUBLE PRECISION;
+ALTER TABLE review_comments ADD COLUMN inference_generations INTEGER;
@@ -0,0 +1,5 @@
+-- Guideline selection: pinned guidelines and the embedding of each rule
+
+ALTER TABLE custom_guidelines ADD COLUMN pinned BOOLEAN;
+ALTER TABLE custom_guidelines ADD COLUMN embedding BYTEA;
+ALTER TABLE custom_guidelines ADD COLUMN embedding_model VARCHAR(100);
@@ -0,0 +1,5 @@
+-- Near-duplicate reviews: embedding of the reviewed code and similarity to the reused review
+
+ALTER TABLE reviews ADD COLUMN near_match_similarity DOUBLE PRECISION;
+ALTER TABLE reviews ADD COLUMN code_embedding BYTEA;
+ALTER TABLE reviews ADD COLUMN code_embedding_model VARCHAR(100);
@@ -0,0 +1,4 @@
+-- Review listing: summary projection and keyset pagination
+
+ALTER TABLE reviews ADD COLUMN summary VARCHAR(500);
+CREATE INDEX idx_reviews_project_timestamp ON reviews (project_id, timestamp, id);
@@ -0,0 +1,28 @@
+-- Move the large text of reviews (code, response, conversation context) into review_contents,
+-- one row per review, so that loading a review does not read them (ReviewContent).
+
+CREATE TABLE review_contents (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    code_snapshot TEXT NOT NULL,
+    llm_response TEXT,
+    llm_context TEXT,
+    llm_context_model VARCHAR(100),
+    review_id BIGINT
+);
+
+-- The context was produced by the model that generated the review
+INSERT INTO review_contents (review_id, code_snapshot, llm_response, llm_context, llm_context_model)
+SELECT id, code_snapshot, llm_response, llm_context, CASE WHEN llm_context IS NULL THEN NULL ELSE llm_model END
+FROM reviews;
+
+ALTER TABLE reviews ADD COLUMN content_id BIGINT;
+UPDATE reviews SET content_id = (SELECT c.id FROM review_contents c WHERE c.review_id = reviews.id);
+
+ALTER TABLE reviews ALTER COLUMN content_id SET NOT NULL;
+ALTER TABLE reviews ADD CONSTRAINT uk_reviews_content UNIQUE (content_id);
+ALTER TABLE reviews ADD CONSTRAINT fk_reviews_content FOREIGN KEY (content_id) REFERENCES review_contents (id);
+
+ALTER TABLE review_contents DROP COLUMN review_id;
+ALTER TABLE reviews DROP COLUMN code_snapshot;
+ALTER TABLE reviews DROP COLUMN llm_response;
+ALTER TABLE reviews DROP COLUMN llm_context;
@@ -0,0 +1,60 @@
+-- Schema before the review pipeline changes (users, projects, guidelines, reviews and their comments).
+-- Existing databases are baselined at version 1 (spring.flyway.baseline-on-migrate) and skip this script;
+-- it only runs on an empty database.
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    firstname VARCHAR(255),
+    lastname VARCHAR(255),
+    email VARCHAR(255),
+    password VARCHAR(255),
+    image_url VARCHAR(255),
+    google_id VARCHAR(255),
+    created_at TIMESTAMP(6),
+    preferred_theme VARCHAR(255),
+    preferred_language VARCHAR(255),
+    mfa_enabled BOOLEAN NOT NULL,
+    secret VARCHAR(255),
+    reset_password_token VARCHAR(255),
+    reset_password_expiry TIMESTAMP(6),
+    role VARCHAR(255) CHECK (role IN ('USER', 'ADMIN'))
+);
+
+CREATE TABLE projects (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    language VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    owner_id BIGINT NOT NULL,
+    CONSTRAINT fk_projects_owner FOREIGN KEY (owner_id) REFERENCES users (id)
+);
+
+CREATE TABLE custom_guidelines (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    rule_text TEXT NOT NULL,
+    project_id BIGINT NOT NULL,
+    CONSTRAINT fk_custom_guidelines_project FOREIGN KEY (project_id) REFERENCES projects (id)
+);
+
+CREATE TABLE reviews (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    timestamp TIMESTAMP(6) NOT NULL,
+    code_snapshot TEXT NOT NULL,
+    llm_response TEXT,
+    effort_estimation VARCHAR(50),
+    project_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    CONSTRAINT fk_reviews_project FOREIGN KEY (project_id) REFERENCES projects (id),
+    CONSTRAINT fk_reviews_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE review_comments (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    message TEXT NOT NULL,
+    role VARCHAR(255) NOT NULL,
+    timestamp TIMESTAMP(6) NOT NULL,
+    review_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    CONSTRAINT fk_review_comments_review FOREIGN KEY (review_id) REFERENCES reviews (id),
+    CONSTRAINT fk_review_comments_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
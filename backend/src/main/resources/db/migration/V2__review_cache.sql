@@ -0,0 +1,14 @@
+-- Persistent tier of the review result cache (ReviewCacheEntry)
+
+CREATE TABLE review_cache (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    cache_key VARCHAR(64) NOT NULL UNIQUE,
+    llm_response TEXT NOT NULL,
+    effort_estimation VARCHAR(50),
+    model VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    last_hit_at TIMESTAMP(6),
+    hit_count BIGINT NOT NULL DEFAULT 0,
+    project_id BIGINT NOT NULL,
+    CONSTRAINT fk_review_cache_project FOREIGN KEY (project_id) REFERENCES projects (id)
+);
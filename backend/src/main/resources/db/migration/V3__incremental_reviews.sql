@@ -0,0 +1,3 @@
+-- Incremental reviews: the previous review an incremental review was derived from
+
+ALTER TABLE reviews ADD COLUMN base_review_id BIGINT;
@@ -0,0 +1,4 @@
+-- Follow-up chat resumes the Ollama context of the review, which only works with the model that produced it
+
+ALTER TABLE reviews ADD COLUMN llm_model VARCHAR(100);
+ALTER TABLE reviews ADD COLUMN llm_context TEXT;
@@ -0,0 +1,4 @@
+-- Rolling summary of the chat turns older than the history window
+
+ALTER TABLE reviews ADD COLUMN conversation_summary TEXT;
+ALTER TABLE reviews ADD COLUMN summarized_through_comment_id BIGINT;
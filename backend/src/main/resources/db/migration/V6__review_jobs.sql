@@ -0,0 +1,15 @@
+-- Asynchronous review jobs: status, attempts and timings of each review
+
+ALTER TABLE reviews ADD COLUMN status VARCHAR(20);
+ALTER TABLE reviews ADD COLUMN attempts INTEGER;
+ALTER TABLE reviews ADD COLUMN started_at TIMESTAMP(6);
+ALTER TABLE reviews ADD COLUMN completed_at TIMESTAMP(6);
+ALTER TABLE reviews ADD COLUMN error_message VARCHAR(500);
+ALTER TABLE reviews ADD CONSTRAINT ck_reviews_status
+    CHECK (status IN ('QUEUED', 'RUNNING', 'DONE', 'FAILED', 'CANCELLED'));
+
+-- Earlier reviews were answered synchronously: finished, or failed without a response
+UPDATE reviews
+SET status = CASE WHEN llm_response IS NULL THEN 'FAILED' ELSE 'DONE' END,
+    attempts = 1,
+    completed_at = timestamp;
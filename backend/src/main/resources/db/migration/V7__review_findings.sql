@@ -0,0 +1,20 @@
+-- Findings of completed reviews, for the aggregate endpoints (ReviewFinding).
+-- Reviews completed before this migration have no rows here until they are reviewed again.
+
+CREATE TABLE review_findings (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    review_id BIGINT NOT NULL,
+    project_id BIGINT NOT NULL,
+    line INTEGER,
+    type VARCHAR(50) NOT NULL,
+    message TEXT,
+    suggestion TEXT,
+    status VARCHAR(20),
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_review_findings_review FOREIGN KEY (review_id) REFERENCES reviews (id),
+    CONSTRAINT fk_review_findings_project FOREIGN KEY (project_id) REFERENCES projects (id)
+);
+CREATE INDEX idx_review_findings_project_type ON review_findings (project_id, type);
+CREATE INDEX idx_review_findings_project_created ON review_findings (project_id, created_at);
+CREATE INDEX idx_review_findings_project_line ON review_findings (project_id, line);
+CREATE INDEX idx_review_findings_review ON review_findings (review_id);
@@ -0,0 +1,4 @@
+-- Per-project overrides of the triage and review models
+
+ALTER TABLE projects ADD COLUMN triage_model VARCHAR(100);
+ALTER TABLE projects ADD COLUMN review_model VARCHAR(100);
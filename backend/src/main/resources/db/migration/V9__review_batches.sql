@@ -0,0 +1,5 @@
+-- Batch reviews: the batch a review was submitted in and the reviewed file
+
+ALTER TABLE reviews ADD COLUMN batch_id VARCHAR(36);
+ALTER TABLE reviews ADD COLUMN file_name VARCHAR(255);
+CREATE INDEX idx_reviews_batch ON reviews (batch_id);
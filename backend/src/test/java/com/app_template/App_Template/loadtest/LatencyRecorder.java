@@ -0,0 +1,88 @@
+package com.app_template.App_Template.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LatencyRecorder - Collects request latencies per endpoint and reports throughput and p50/p95/p99.
+ */
+public class LatencyRecorder {
+
+    /**
+     * Summary of one endpoint over the whole run.
+     */
+    public record EndpointStats(String endpoint, int requests, long errors, double throughput,
+            double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+    }
+
+    private static class Samples {
+        private final ConcurrentLinkedQueue<Long> nanos = new ConcurrentLinkedQueue<>();
+        private final AtomicLong errors = new AtomicLong();
+    }
+
+    // Insertion order of the endpoints is the order of the flow
+    private final Map<String, Samples> endpoints = new ConcurrentHashMap<>();
+    private final List<String> order = new ArrayList<>();
+
+    public void record(String endpoint, long nanos, boolean success) {
+        Samples samples = endpoints.computeIfAbsent(endpoint, key -> {
+            synchronized (order) {
+                order.add(key);
+            }
+            return new Samples();
+        });
+        samples.nanos.add(nanos);
+        if (!success) {
+            samples.errors.incrementAndGet();
+        }
+    }
+
+    public List<EndpointStats> stats(Duration elapsed) {
+        List<String> names;
+        synchronized (order) {
+            names = List.copyOf(order);
+        }
+        double seconds = Math.max(0.001, elapsed.toNanos() / 1e9);
+
+        List<EndpointStats> stats = new ArrayList<>();
+        for (String name : names) {
+            Samples samples = endpoints.get(name);
+            long[] sorted = samples.nanos.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            stats.add(new EndpointStats(name, sorted.length, samples.errors.get(), sorted.length / seconds,
+                    percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.95), percentileMillis(sorted, 0.99),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6));
+        }
+        return stats;
+    }
+
+    public String report(Duration elapsed) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "%-28s %8s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (EndpointStats endpoint : stats(elapsed)) {
+            report.append(String.format(Locale.ROOT, "%-28s %8d %7d %9.2f %9.1f %9.1f %9.1f %9.1f%n",
+                    endpoint.endpoint(), endpoint.requests(), endpoint.errors(), endpoint.throughput(),
+                    endpoint.p50Millis(), endpoint.p95Millis(), endpoint.p99Millis(), endpoint.maxMillis()));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Nearest-rank percentile.
+     */
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)] / 1e6;
+    }
+}
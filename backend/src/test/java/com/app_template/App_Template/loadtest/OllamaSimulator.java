@@ -0,0 +1,282 @@
+package com.app_template.App_Template.loadtest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * OllamaSimulator - In-process stand-in for Ollama's /api/generate, /api/embed, /api/tags and /api/ps.
+ * Generation time follows the configured first-token latency (log-normally distributed around the
+ * median) plus the response length divided by the token rate. Streamed requests get NDJSON fragments
+ * paced at that rate. A share of requests can be failed with HTTP 500 to exercise the error paths.
+ * Requests with a "format" are answered with a review that matches the review schema, others with chat text.
+ * Final responses carry Ollama's load, prompt evaluation and generation figures. Embeddings are
+ * deterministic bag-of-words vectors, so texts sharing words are similar. A generate request without a
+ * prompt only loads the model, as in Ollama; every model that was requested is listed as loaded.
+ */
+public class OllamaSimulator {
+
+    /**
+     * Behaviour of the simulator.
+     *
+     * @param tokensPerSecond   generation speed
+     * @param medianLatencyMs   median time to the first token
+     * @param latencySigma      spread of the log-normal first-token latency (0 = constant)
+     * @param errorRate         share of generate requests answered with HTTP 500
+     */
+    public record Settings(double tokensPerSecond, long medianLatencyMs, double latencySigma, double errorRate) {
+
+        /**
+         * Settings from system properties (loadtest.ollama.*), so a run can be tuned from the Maven command line.
+         */
+        public static Settings fromSystemProperties() {
+            return new Settings(
+                    Double.parseDouble(System.getProperty("loadtest.ollama.tokens-per-second", "400")),
+                    Long.getLong("loadtest.ollama.median-latency-ms", 150),
+                    Double.parseDouble(System.getProperty("loadtest.ollama.latency-sigma", "0.5")),
+                    Double.parseDouble(System.getProperty("loadtest.ollama.error-rate", "0")));
+        }
+    }
+
+    private static final String[] TYPES = { "bug", "performance", "style", "security", "type-error" };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Settings settings;
+    private final HttpServer server;
+
+    private final AtomicLong generateRequests = new AtomicLong();
+    private final AtomicLong streamedRequests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final Set<String> loadedModels = ConcurrentHashMap.newKeySet();
+
+    private OllamaSimulator(Settings settings) throws IOException {
+        this.settings = settings;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/api/generate", this::generate);
+        server.createContext("/api/embed", this::embed);
+        server.createContext("/api/tags", exchange -> respond(exchange, 200, "{\"models\":[]}"));
+        server.createContext("/api/ps", this::ps);
+    }
+
+    public static OllamaSimulator start(Settings settings) {
+        try {
+            OllamaSimulator simulator = new OllamaSimulator(settings);
+            simulator.server.start();
+            return simulator;
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to start the Ollama simulator", e);
+        }
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    /**
+     * The URL to configure as ollama.api.url.
+     */
+    public String generateUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/api/generate";
+    }
+
+    public Settings getSettings() {
+        return settings;
+    }
+
+    public long getGenerateRequests() {
+        return generateRequests.get();
+    }
+
+    public long getStreamedRequests() {
+        return streamedRequests.get();
+    }
+
+    public long getInjectedErrors() {
+        return injectedErrors.get();
+    }
+
+    private void generate(HttpExchange exchange) throws IOException {
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        String model = request.path("model").asText("simulated");
+        if (!request.hasNonNull("prompt")) {
+            boolean cold = loadedModels.add(model);
+            respond(exchange, 200, objectMapper.writeValueAsString(Map.of(
+                    "model", model, "response", "", "done", true,
+                    "load_duration", (cold ? 2000 : 1) * 1_000_000L)));
+            return;
+        }
+        generateRequests.incrementAndGet();
+        loadedModels.add(model);
+
+        long firstTokenMillis = firstTokenLatencyMillis();
+        sleep(firstTokenMillis);
+        if (ThreadLocalRandom.current().nextDouble() < settings.errorRate()) {
+            injectedErrors.incrementAndGet();
+            respond(exchange, 500, "{\"error\":\"simulated failure\"}");
+            return;
+        }
+
+        String text = request.hasNonNull("format") ? reviewJson(request.path("prompt").asText("")) : chatAnswer();
+        if (request.path("stream").asBoolean(false)) {
+            streamedRequests.incrementAndGet();
+            stream(exchange, model, request.path("prompt").asText(""), text, firstTokenMillis);
+            return;
+        }
+
+        sleep(generationMillis(text));
+        Map<String, Object> body = new HashMap<>(doneFields(request.path("prompt").asText(""), text, firstTokenMillis));
+        body.put("model", model);
+        body.put("response", text);
+        respond(exchange, 200, objectMapper.writeValueAsString(body));
+    }
+
+    private void embed(HttpExchange exchange) throws IOException {
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        loadedModels.add(request.path("model").asText("simulated"));
+        List<float[]> embeddings = new ArrayList<>();
+        JsonNode input = request.path("input");
+        if (input.isArray()) {
+            input.forEach(text -> embeddings.add(embedding(text.asText())));
+        } else {
+            embeddings.add(embedding(input.asText()));
+        }
+        respond(exchange, 200, objectMapper.writeValueAsString(Map.of(
+                "model", request.path("model").asText("simulated"),
+                "embeddings", embeddings)));
+    }
+
+    private void ps(HttpExchange exchange) throws IOException {
+        List<Map<String, Object>> models = loadedModels.stream()
+                .sorted()
+                .map(model -> Map.<String, Object>of("name", model, "model", model, "size_vram", 0))
+                .toList();
+        respond(exchange, 200, objectMapper.writeValueAsString(Map.of("models", models)));
+    }
+
+    private static float[] embedding(String text) {
+        float[] vector = new float[64];
+        for (String word : text.toLowerCase().split("\\W+")) {
+            if (!word.isEmpty()) {
+                vector[Math.floorMod(word.hashCode(), vector.length)] += 1;
+            }
+        }
+        return vector;
+    }
+
+    private void stream(HttpExchange exchange, String model, String prompt, String text, long firstTokenMillis)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            // About four characters per token, a few tokens per fragment
+            int fragmentLength = 16;
+            for (int start = 0; start < text.length(); start += fragmentLength) {
+                String fragment = text.substring(start, Math.min(text.length(), start + fragmentLength));
+                sleep(generationMillis(fragment));
+                writeLine(out, Map.of("model", model, "response", fragment, "done", false));
+            }
+            Map<String, Object> done = new HashMap<>(doneFields(prompt, text, firstTokenMillis));
+            done.put("model", model);
+            done.put("response", "");
+            writeLine(out, done);
+        }
+    }
+
+    /**
+     * The final-line fields Ollama reports: context and durations (in nanoseconds) with token counts.
+     */
+    private Map<String, Object> doneFields(String prompt, String text, long firstTokenMillis) {
+        long nanosPerMilli = 1_000_000;
+        return Map.of(
+                "done", true,
+                "context", context(text),
+                "load_duration", firstTokenMillis / 4 * nanosPerMilli,
+                "prompt_eval_count", prompt.length() / 4 + 1,
+                "prompt_eval_duration", (firstTokenMillis - firstTokenMillis / 4) * nanosPerMilli,
+                "eval_count", text.length() / 4 + 1,
+                "eval_duration", generationMillis(text) * nanosPerMilli);
+    }
+
+    private void writeLine(OutputStream out, Map<String, Object> line) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(line));
+        out.write('\n');
+        out.flush();
+    }
+
+    /**
+     * A schema-conforming review with a few findings, sized roughly like real output.
+     */
+    private String reviewJson(String prompt) throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int lines = Math.max(1, (int) prompt.lines().count() / 2);
+        List<Map<String, Object>> findings = new ArrayList<>();
+        int count = random.nextInt(0, 4);
+        for (int i = 0; i < count; i++) {
+            findings.add(Map.of(
+                    "line", random.nextInt(1, lines + 1),
+                    "type", TYPES[random.nextInt(TYPES.length)],
+                    "message", "Simulated finding " + (i + 1) + ": this construct could be simplified.",
+                    "suggestion", "Extract the repeated logic into a helper method."));
+        }
+        return objectMapper.writeValueAsString(Map.of(
+                "summary", "Simulated review: the code is readable; " + count + " issues were found.",
+                "findings", findings,
+                "effort_estimation", random.nextInt(1, 8) + "/10"));
+    }
+
+    private String chatAnswer() {
+        return "The finding refers to duplicated logic. Moving it into a helper keeps both call sites "
+                + "consistent and makes the behaviour easier to test.";
+    }
+
+    private List<Integer> context(String text) {
+        List<Integer> tokens = new ArrayList<>();
+        for (int i = 0; i < Math.min(256, text.length() / 4 + 1); i++) {
+            tokens.add(ThreadLocalRandom.current().nextInt(1, 32000));
+        }
+        return tokens;
+    }
+
+    private long firstTokenLatencyMillis() {
+        double gaussian = ThreadLocalRandom.current().nextGaussian();
+        return Math.round(settings.medianLatencyMs() * Math.exp(settings.latencySigma() * gaussian));
+    }
+
+    private long generationMillis(String text) {
+        double tokens = Math.max(1, text.length() / 4.0);
+        return Math.round(tokens / settings.tokensPerSecond() * 1000);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
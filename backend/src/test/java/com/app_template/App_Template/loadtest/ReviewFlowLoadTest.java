@@ -0,0 +1,217 @@
+package com.app_template.App_Template.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * ReviewFlowLoadTest - Drives the full user flow (register, login, create project, review, chat) with
+ * concurrent virtual users against the application on H2 and the embedded Ollama simulator, then
+ * prints throughput and p50/p95/p99 latency per endpoint.
+ *
+ * Run with: mvn test -Pload-test [-Dloadtest.users=50 -Dloadtest.reviews-per-user=5
+ * -Dloadtest.ollama.tokens-per-second=200 -Dloadtest.ollama.median-latency-ms=300
+ * -Dloadtest.ollama.latency-sigma=0.8 -Dloadtest.ollama.error-rate=0.05 -Dloadtest.max-error-rate=0.1]
+ */
+@Tag("load")
+@ActiveProfiles("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ReviewFlowLoadTest {
+
+    private static final OllamaSimulator OLLAMA = OllamaSimulator.start(OllamaSimulator.Settings.fromSystemProperties());
+
+    private static final int USERS = Integer.getInteger("loadtest.users", 20);
+    private static final int REVIEWS_PER_USER = Integer.getInteger("loadtest.reviews-per-user", 3);
+    private static final double MAX_ERROR_RATE =
+            Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+
+    @DynamicPropertySource
+    static void ollamaProperties(DynamicPropertyRegistry registry) {
+        registry.add("ollama.api.url", OLLAMA::generateUrl);
+    }
+
+    @AfterAll
+    static void stopSimulator() {
+        OLLAMA.stop();
+    }
+
+    @MockitoBean
+    private JavaMailSender mailSender;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    @Test
+    void reviewFlowUnderLoad() throws Exception {
+        long start = System.nanoTime();
+        List<Future<?>> users = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < USERS; user++) {
+                int index = user;
+                users.add(executor.submit(() -> {
+                    runUser(index);
+                    return null;
+                }));
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        int abortedUsers = 0;
+        for (Future<?> user : users) {
+            try {
+                user.get();
+            } catch (Exception e) {
+                abortedUsers++;
+            }
+        }
+
+        List<LatencyRecorder.EndpointStats> stats = recorder.stats(elapsed);
+        System.out.printf("%nLoad test: %d users x %d reviews in %.1f s (%s), %d users aborted%n",
+                USERS, REVIEWS_PER_USER, elapsed.toMillis() / 1000.0, OLLAMA.getSettings(), abortedUsers);
+        System.out.printf("Ollama simulator: %d generate requests, %d streamed, %d injected errors%n",
+                OLLAMA.getGenerateRequests(), OLLAMA.getStreamedRequests(), OLLAMA.getInjectedErrors());
+        System.out.println(recorder.report(elapsed));
+        printInferenceTimers();
+
+        long requests = stats.stream().mapToLong(LatencyRecorder.EndpointStats::requests).sum();
+        long errors = stats.stream().mapToLong(LatencyRecorder.EndpointStats::errors).sum();
+        assertThat(requests).isPositive();
+        assertThat((double) errors / requests)
+                .as("error rate over %d requests", requests)
+                .isLessThanOrEqualTo(MAX_ERROR_RATE);
+    }
+
+    /**
+     * Where the server-side time went, from the codezen.inference.* timers.
+     */
+    private void printInferenceTimers() {
+        System.out.printf("%-34s %-8s %8s %9s %9s%n", "inference timer", "op", "count", "mean ms", "max ms");
+        meterRegistry.getMeters().stream()
+                .filter(meter -> meter instanceof Timer && meter.getId().getName().startsWith("codezen.inference."))
+                .map(Timer.class::cast)
+                .sorted(Comparator.comparing((Timer timer) -> timer.getId().getName())
+                        .thenComparing(timer -> String.valueOf(timer.getId().getTag("operation"))))
+                .forEach(timer -> System.out.printf(Locale.ROOT, "%-34s %-8s %8d %9.1f %9.1f%n",
+                        timer.getId().getName(), timer.getId().getTag("operation"), timer.count(),
+                        timer.mean(TimeUnit.MILLISECONDS), timer.max(TimeUnit.MILLISECONDS)));
+        System.out.println();
+    }
+
+    /**
+     * One virtual user. Registration, login and project creation must succeed for the rest of the flow to run;
+     * failed reviews are recorded and skipped without a chat.
+     */
+    private void runUser(int index) throws Exception {
+        String email = "load-" + index + "-" + System.nanoTime() + "@codezen.test";
+        call("register", "POST", "/api/auth/register", null, Map.of(
+                "firstname", "Load", "lastname", "User" + index, "email", email, "password", "Secret123!"));
+
+        String token = call("login", "POST", "/api/auth/login", null,
+                Map.of("email", email, "password", "Secret123!")).path("accessToken").asText();
+
+        long projectId = call("create project", "POST", "/api/v1/projects", token,
+                Map.of("name", "Load project " + index, "language", "java")).path("id").asLong();
+
+        for (int review = 0; review < REVIEWS_PER_USER; review++) {
+            JsonNode created;
+            try {
+                created = call("review", "POST", "/api/v1/projects/" + projectId + "/reviews", token,
+                        Map.of("code", snippet(index, review)));
+            } catch (IllegalStateException e) {
+                continue;
+            }
+            try {
+                call("chat", "POST", "/api/v1/projects/" + projectId + "/reviews/" + created.path("id").asLong()
+                        + "/comments", token, Map.of("message", "Why is the first finding a problem?"));
+            } catch (IllegalStateException e) {
+                // recorded as an error, move on to the next review
+            }
+        }
+    }
+
+    /**
+     * Every snippet is unique so reviews miss the cache and reach the simulator. Later snippets of a user
+     * nearly duplicate the first one, so they are re-reviewed on their changed lines only.
+     */
+    private static String snippet(int user, int review) {
+        return """
+                public class Order%1$d_%2$d {
+                    private final java.util.List<Integer> items = new java.util.ArrayList<>();
+
+                    public int total() {
+                        int sum = 0;
+                        for (int i = 0; i < items.size(); i++) {
+                            sum += items.get(i) * %2$d;
+                        }
+                        return sum;
+                    }
+                }
+                """.formatted(user, review);
+    }
+
+    private JsonNode call(String endpoint, String method, String path, String token, Object body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofMinutes(5))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (Exception e) {
+            recorder.record(endpoint, System.nanoTime() - start, false);
+            throw e;
+        }
+        boolean success = response.statusCode() / 100 == 2;
+        recorder.record(endpoint, System.nanoTime() - start, success);
+        if (!success) {
+            throw new IllegalStateException(endpoint + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+}
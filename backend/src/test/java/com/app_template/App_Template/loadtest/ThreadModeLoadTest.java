@@ -0,0 +1,198 @@
+package com.app_template.App_Template.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import com.app_template.App_Template.AppTemplateApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * ThreadModeLoadTest - Compares request handling on platform threads with virtual threads
+ * (spring.threads.virtual.enabled) under the same load: many concurrent review requests that each wait
+ * for the Ollama simulator. The application is started once per mode, on its own H2 database, and the
+ * test prints throughput, p50/p95/p99 latency and the peak number of platform threads of each run.
+ *
+ * Run with: mvn test -Pload-test -Dtest=ThreadModeLoadTest [-Dloadtest.threads.requests=2000
+ * -Dloadtest.threads.users=10 -Dloadtest.threads.ollama-concurrency=64 -Dloadtest.ollama.median-latency-ms=1000]
+ */
+@Tag("load")
+class ThreadModeLoadTest {
+
+    private static final int REQUESTS = Integer.getInteger("loadtest.threads.requests", 1000);
+    private static final int USERS = Integer.getInteger("loadtest.threads.users", 10);
+    private static final int OLLAMA_CONCURRENCY = Integer.getInteger("loadtest.threads.ollama-concurrency", 64);
+    private static final double MAX_ERROR_RATE =
+            Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+
+    private record ModeResult(String mode, LatencyRecorder.EndpointStats reviews, int idleThreads, int peakThreads) {
+    }
+
+    private record Account(String token, long projectId) {
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @Test
+    void compareThreadModes() throws Exception {
+        List<ModeResult> results = new ArrayList<>();
+        results.add(run(false));
+        results.add(run(true));
+
+        System.out.printf("%nThread modes: %d concurrent reviews from %d users, Ollama concurrency %d (%s)%n",
+                REQUESTS, USERS, OLLAMA_CONCURRENCY, OllamaSimulator.Settings.fromSystemProperties());
+        System.out.printf("%-10s %8s %7s %9s %9s %9s %9s %9s %13s %13s%n", "threads", "requests", "errors",
+                "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "idle threads", "peak threads");
+        for (ModeResult result : results) {
+            LatencyRecorder.EndpointStats reviews = result.reviews();
+            System.out.printf(Locale.ROOT, "%-10s %8d %7d %9.2f %9.1f %9.1f %9.1f %9.1f %13d %13d%n",
+                    result.mode(), reviews.requests(), reviews.errors(), reviews.throughput(), reviews.p50Millis(),
+                    reviews.p95Millis(), reviews.p99Millis(), reviews.maxMillis(), result.idleThreads(), result.peakThreads());
+        }
+        System.out.println();
+
+        for (ModeResult result : results) {
+            assertThat(result.reviews().requests()).as("%s reviews", result.mode()).isEqualTo(REQUESTS);
+            assertThat((double) result.reviews().errors() / REQUESTS)
+                    .as("%s error rate over %d reviews", result.mode(), REQUESTS)
+                    .isLessThanOrEqualTo(MAX_ERROR_RATE);
+        }
+    }
+
+    /**
+     * Start the application in one thread mode, sign up the users, then submit every review at once.
+     */
+    private ModeResult run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        OllamaSimulator ollama = OllamaSimulator.start(OllamaSimulator.Settings.fromSystemProperties());
+        // Command line arguments take precedence over the loadtest profile
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AppTemplateApplication.class)
+                .profiles("loadtest")
+                .initializers(applicationContext -> ((GenericApplicationContext) applicationContext)
+                        .registerBean(JavaMailSender.class, () -> Mockito.mock(JavaMailSender.class)))
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=jdbc:h2:mem:codezen-threads-" + mode + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                        "--ollama.api.url=" + ollama.generateUrl(),
+                        "--ollama.pool.max-concurrent-per-node=" + OLLAMA_CONCURRENCY,
+                        "--ollama.scheduler.max-concurrent=" + OLLAMA_CONCURRENCY,
+                        "--ollama.scheduler.max-queue-depth=" + REQUESTS,
+                        "--ollama.scheduler.max-queued-per-user=" + REQUESTS,
+                        // Every request is a full generation: no near-duplicate shortcuts
+                        "--codezen.near-duplicate.enabled=false")) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            LatencyRecorder recorder = new LatencyRecorder();
+
+            List<Account> accounts = new ArrayList<>();
+            for (int user = 0; user < USERS; user++) {
+                accounts.add(signUp(port, recorder, mode, user));
+            }
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            int idleThreads = threads.getThreadCount();
+            threads.resetPeakThreadCount();
+
+            long start = System.nanoTime();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int request = 0; request < REQUESTS; request++) {
+                    Account account = accounts.get(request % accounts.size());
+                    String code = snippet(mode, request);
+                    executor.submit(() -> call(port, recorder, "review", "POST",
+                            "/api/v1/projects/" + account.projectId() + "/reviews", account.token(), Map.of("code", code)));
+                }
+            }
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            int peakThreads = threads.getPeakThreadCount();
+
+            LatencyRecorder.EndpointStats reviews = recorder.stats(elapsed).stream()
+                    .filter(endpoint -> endpoint.endpoint().equals("review"))
+                    .findFirst()
+                    .orElseThrow();
+            return new ModeResult(mode, reviews, idleThreads, peakThreads);
+        } finally {
+            ollama.stop();
+        }
+    }
+
+    private Account signUp(int port, LatencyRecorder recorder, String mode, int index) throws Exception {
+        String email = "threads-" + mode + "-" + index + "@codezen.test";
+        call(port, recorder, "register", "POST", "/api/auth/register", null, Map.of(
+                "firstname", "Load", "lastname", "User" + index, "email", email, "password", "Secret123!"));
+        String token = call(port, recorder, "login", "POST", "/api/auth/login", null,
+                Map.of("email", email, "password", "Secret123!")).path("accessToken").asText();
+        long projectId = call(port, recorder, "create project", "POST", "/api/v1/projects", token,
+                Map.of("name", "Thread mode project " + index, "language", "java")).path("id").asLong();
+        return new Account(token, projectId);
+    }
+
+    /**
+     * A unique snippet per request, so every review misses the cache and reaches the simulator.
+     */
+    private static String snippet(String mode, int request) {
+        return """
+                public class Invoice_%1$s_%2$d {
+                    private final java.util.List<Long> amounts = new java.util.ArrayList<>();
+
+                    public long total() {
+                        long sum = 0;
+                        for (int i = 0; i < amounts.size(); i++) {
+                            sum += amounts.get(i) * %2$d;
+                        }
+                        return sum;
+                    }
+                }
+                """.formatted(mode, request);
+    }
+
+    private JsonNode call(int port, LatencyRecorder recorder, String endpoint, String method, String path, String token,
+            Object body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofMinutes(5))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (Exception e) {
+            recorder.record(endpoint, System.nanoTime() - start, false);
+            throw e;
+        }
+        boolean success = response.statusCode() / 100 == 2;
+        recorder.record(endpoint, System.nanoTime() - start, success);
+        if (!success) {
+            throw new IllegalStateException(endpoint + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+}
@@ -0,0 +1,170 @@
+package com.app_template.App_Template.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import com.app_template.App_Template.dto.ReviewSummary;
+import com.app_template.App_Template.entity.Project;
+import com.app_template.App_Template.entity.Review;
+import com.app_template.App_Template.entity.ReviewComment;
+import com.app_template.App_Template.entity.User;
+import com.app_template.App_Template.enums.ReviewStatus;
+
+/**
+ * Checks which columns the review queries select: ownership checks, listings and comment threads
+ * must not read the code, response or context of a review, which are only loaded when accessed,
+ * and follow-up questions only read and write the conversation context.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.app_template.App_Template.repository.ReviewColumnSelectionTest$SqlRecorder"
+})
+class ReviewColumnSelectionTest {
+
+    private static final List<String> CONTENT_COLUMNS = List.of("code_snapshot", "llm_response", "llm_context");
+
+    /**
+     * Records every statement Hibernate prepares.
+     */
+    public static class SqlRecorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.toLowerCase(Locale.ROOT));
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private ReviewCommentRepository commentRepository;
+
+    private Project project;
+    private Review review;
+
+    @BeforeEach
+    void saveReview() {
+        User user = entityManager.persist(User.builder()
+                .firstname("Ana")
+                .lastname("Pop")
+                .email("ana@codezen.test")
+                .password("secret")
+                .createdAt(LocalDateTime.now())
+                .build());
+        project = entityManager.persist(Project.builder()
+                .name("Columns")
+                .language("java")
+                .owner(user)
+                .createdAt(LocalDateTime.now())
+                .build());
+        review = Review.builder()
+                .codeSnapshot("class Big {}\n".repeat(10_000))
+                .timestamp(LocalDateTime.now())
+                .status(ReviewStatus.DONE)
+                .effortEstimation("3/10")
+                .summary("Readable")
+                .project(project)
+                .user(user)
+                .build();
+        review.setLlmResponse("{\"summary\":\"Readable\",\"findings\":[]}");
+        review.setLlmContext("[1,2,3]");
+        entityManager.persist(review);
+        entityManager.persist(ReviewComment.builder()
+                .review(review)
+                .user(user)
+                .message("Why?")
+                .role("USER")
+                .timestamp(LocalDateTime.now())
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+        SqlRecorder.STATEMENTS.clear();
+    }
+
+    @Test
+    void ownershipCheckDoesNotSelectContent() {
+        Review found = reviewRepository.findByIdAndProject(review.getId(), project).orElseThrow();
+
+        assertThat(found.getStatus()).isEqualTo(ReviewStatus.DONE);
+        assertThat(SqlRecorder.STATEMENTS).hasSize(1);
+        assertSelectsNoContent(SqlRecorder.STATEMENTS.get(0));
+    }
+
+    @Test
+    void listingDoesNotSelectContent() {
+        List<ReviewSummary> page = reviewRepository.findSummaries(project, PageRequest.ofSize(20));
+
+        assertThat(page).extracting(ReviewSummary::getSummary).containsExactly("Readable");
+        assertThat(SqlRecorder.STATEMENTS).hasSize(1);
+        assertSelectsNoContent(SqlRecorder.STATEMENTS.get(0));
+    }
+
+    @Test
+    void commentThreadDoesNotSelectContent() {
+        Review found = reviewRepository.findByIdAndProject(review.getId(), project).orElseThrow();
+        List<ReviewComment> comments = commentRepository.findByReviewOrderByTimestampAsc(found);
+
+        assertThat(comments).extracting(ReviewComment::getMessage).containsExactly("Why?");
+        assertThat(SqlRecorder.STATEMENTS).hasSize(2).allSatisfy(ReviewColumnSelectionTest::assertSelectsNoContent);
+    }
+
+    @Test
+    void contentIsLoadedOnFirstAccess() {
+        Review found = reviewRepository.findByIdAndProject(review.getId(), project).orElseThrow();
+        SqlRecorder.STATEMENTS.clear();
+
+        assertThat(found.getLlmResponse()).contains("Readable");
+        assertThat(found.getCodeSnapshot()).startsWith("class Big {}");
+        assertThat(SqlRecorder.STATEMENTS).singleElement()
+                .satisfies(sql -> assertThat(sql).contains("review_contents").contains(CONTENT_COLUMNS));
+    }
+
+    @Test
+    void contentIsFetchedWithTheReviewWhenAskedFor() {
+        Review found = reviewRepository.findWithContentByIdAndProject(review.getId(), project).orElseThrow();
+
+        assertThat(found.getLlmContext()).isEqualTo("[1,2,3]");
+        assertThat(SqlRecorder.STATEMENTS).singleElement()
+                .satisfies(sql -> assertThat(sql).contains("join review_contents").contains(CONTENT_COLUMNS));
+    }
+
+    @Test
+    void chatContextIsReadAndWrittenWithoutCodeOrResponse() {
+        assertThat(reviewRepository.findChatContext(review.getId()))
+                .hasValueSatisfying(context -> assertThat(context.getLlmContext()).isEqualTo("[1,2,3]"));
+        reviewRepository.updateChatContext(review.getId(), "[1,2,3,4]", "llama3");
+
+        assertThat(SqlRecorder.STATEMENTS).hasSize(2).allSatisfy(sql -> assertThat(sql)
+                .doesNotContain("code_snapshot").doesNotContain("llm_response"));
+        Review found = reviewRepository.findWithContentByIdAndProject(review.getId(), project).orElseThrow();
+        assertThat(found.getLlmContext()).isEqualTo("[1,2,3,4]");
+        assertThat(found.getLlmContextModel()).isEqualTo("llama3");
+    }
+
+    private static void assertSelectsNoContent(String sql) {
+        assertThat(sql).doesNotContain("review_contents");
+        for (String column : CONTENT_COLUMNS) {
+            assertThat(sql).doesNotContain(column);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.app_template.App_Template.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import com.app_template.App_Template.dto.FindingHotspot;
+import com.app_template.App_Template.dto.FindingTrendPoint;
+import com.app_template.App_Template.dto.FindingTypeCount;
+import com.app_template.App_Template.entity.Project;
+import com.app_template.App_Template.entity.Review;
+import com.app_template.App_Template.entity.ReviewFinding;
+import com.app_template.App_Template.entity.User;
+import com.app_template.App_Template.enums.ReviewStatus;
+
+/**
+ * Checks the finding aggregates: findings carried forward by incremental reviews are counted once,
+ * and hotspots are told apart by file.
+ */
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+class ReviewFindingRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ReviewFindingRepository findingRepository;
+
+    private User user;
+    private Project project;
+    private LocalDateTime since;
+
+    @BeforeEach
+    void saveProject() {
+        user = entityManager.persist(User.builder()
+                .firstname("Ana")
+                .lastname("Pop")
+                .email("ana@codezen.test")
+                .password("secret")
+                .createdAt(LocalDateTime.now())
+                .build());
+        project = entityManager.persist(Project.builder()
+                .name("Findings")
+                .language("java")
+                .owner(user)
+                .createdAt(LocalDateTime.now())
+                .build());
+        since = LocalDateTime.now().minusDays(1);
+    }
+
+    @Test
+    void carriedFindingsAreCountedOnce() {
+        Review base = saveReview("Service.java");
+        Review incremental = saveReview("Service.java");
+        saveFinding(base, 10, "bug", null);
+        saveFinding(incremental, 10, "bug", "carried");
+        saveFinding(incremental, 20, "bug", "new");
+        entityManager.flush();
+
+        List<FindingTypeCount> counts = findingRepository.countByType(project.getId(), since);
+        List<FindingTrendPoint> trend = findingRepository.dailyTrend(project.getId(), since, null);
+        List<FindingHotspot> hotspots = findingRepository.hotspots(project.getId(), since, null, PageRequest.ofSize(10));
+
+        assertThat(counts).extracting(FindingTypeCount::getCount).containsExactly(2L);
+        assertThat(trend).extracting(FindingTrendPoint::getCount).containsExactly(2L);
+        assertThat(hotspots).extracting(FindingHotspot::getFindings).containsExactly(1L, 1L);
+    }
+
+    @Test
+    void hotspotsAreGroupedByFileAndLine() {
+        Review service = saveReview("Service.java");
+        Review controller = saveReview("Controller.java");
+        Review serviceAgain = saveReview("Service.java");
+        saveFinding(service, 10, "bug", null);
+        saveFinding(serviceAgain, 10, "security", null);
+        saveFinding(controller, 10, "bug", null);
+        entityManager.flush();
+
+        List<FindingHotspot> hotspots = findingRepository.hotspots(project.getId(), since, null, PageRequest.ofSize(10));
+
+        assertThat(hotspots).hasSize(2);
+        assertThat(hotspots.get(0).getFileName()).isEqualTo("Service.java");
+        assertThat(hotspots.get(0).getLine()).isEqualTo(10);
+        assertThat(hotspots.get(0).getFindings()).isEqualTo(2L);
+        assertThat(hotspots.get(0).getReviews()).isEqualTo(2L);
+        assertThat(hotspots.get(1).getFileName()).isEqualTo("Controller.java");
+        assertThat(hotspots.get(1).getFindings()).isEqualTo(1L);
+    }
+
+    private Review saveReview(String fileName) {
+        Review review = Review.builder()
+                .codeSnapshot("class A {}")
+                .fileName(fileName)
+                .timestamp(LocalDateTime.now())
+                .status(ReviewStatus.DONE)
+                .project(project)
+                .user(user)
+                .build();
+        return entityManager.persist(review);
+    }
+
+    private void saveFinding(Review review, int line, String type, String status) {
+        entityManager.persist(ReviewFinding.builder()
+                .review(review)
+                .project(project)
+                .line(line)
+                .type(type)
+                .message("Issue")
+                .status(status)
+                .createdAt(review.getTimestamp())
+                .build());
+    }
+}
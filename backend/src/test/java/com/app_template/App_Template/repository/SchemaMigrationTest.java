@@ -0,0 +1,97 @@
+package com.app_template.App_Template.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Types;
+import java.util.Map;
+
+import org.flywaydb.core.Flyway;
+import org.hibernate.dialect.H2Dialect;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Applies the Flyway migrations to H2 in PostgreSQL mode and lets Hibernate validate the entities
+ * against the result, the way the application starts against PostgreSQL (ddl-auto=validate).
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.datasource.url=jdbc:h2:mem:migrations;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect="
+                + "com.app_template.App_Template.repository.SchemaMigrationTest$TextAsClobH2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SchemaMigrationTest {
+
+    private static final String PRE_CONTENT_VERSION = "13";
+
+    /**
+     * H2 stores TEXT as VARCHAR, while the entities expect a CLOB for their TEXT columns;
+     * PostgreSQL reports them as "text", which Hibernate accepts by name.
+     */
+    public static class TextAsClobH2Dialect extends H2Dialect {
+
+        @Override
+        public boolean equivalentTypes(int typeCode1, int typeCode2) {
+            return super.equivalentTypes(typeCode1, typeCode2) || isText(typeCode1) && isText(typeCode2);
+        }
+
+        private static boolean isText(int typeCode) {
+            return typeCode == Types.CLOB || typeCode == Types.VARCHAR;
+        }
+    }
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void entitiesMatchTheMigratedSchema() {
+        // The context only starts when schema validation passed
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo(latestVersion());
+    }
+
+    @Test
+    void reviewContentMoveKeepsCodeResponseAndContext() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:content-move;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        Flyway.configure().dataSource(dataSource).target(PRE_CONTENT_VERSION).load().migrate();
+
+        jdbc.update("INSERT INTO users (email, mfa_enabled) VALUES ('ana@codezen.test', FALSE)");
+        jdbc.update("INSERT INTO projects (name, language, created_at, owner_id) VALUES ('Move', 'java', NOW(), 1)");
+        jdbc.update("INSERT INTO reviews (timestamp, code_snapshot, llm_response, llm_context, llm_model, status, project_id, user_id)"
+                + " VALUES (NOW(), 'class A {}', '{\"summary\":\"ok\"}', '[1,2,3]', 'codellama:7b', 'DONE', 1, 1)");
+        jdbc.update("INSERT INTO reviews (timestamp, code_snapshot, status, project_id, user_id)"
+                + " VALUES (NOW(), 'class B {}', 'FAILED', 1, 1)");
+
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        Map<String, Object> done = contentOf(jdbc, 1L);
+        assertThat(done.get("code_snapshot")).isEqualTo("class A {}");
+        assertThat(done.get("llm_response")).isEqualTo("{\"summary\":\"ok\"}");
+        assertThat(done.get("llm_context")).isEqualTo("[1,2,3]");
+        assertThat(done.get("llm_context_model")).isEqualTo("codellama:7b");
+
+        Map<String, Object> failed = contentOf(jdbc, 2L);
+        assertThat(failed.get("code_snapshot")).isEqualTo("class B {}");
+        assertThat(failed.get("llm_response")).isNull();
+        assertThat(failed.get("llm_context_model")).isNull();
+    }
+
+    private Map<String, Object> contentOf(JdbcTemplate jdbc, Long reviewId) {
+        return jdbc.queryForMap("SELECT c.* FROM reviews r JOIN review_contents c ON c.id = r.content_id WHERE r.id = ?",
+                reviewId);
+    }
+
+    private String latestVersion() {
+        return flyway.info().all()[flyway.info().all().length - 1].getVersion().getVersion();
+    }
+}
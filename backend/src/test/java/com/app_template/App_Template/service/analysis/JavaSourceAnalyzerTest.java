@@ -0,0 +1,124 @@
+package com.app_template.App_Template.service.analysis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.app_template.App_Template.dto.Finding;
+
+class JavaSourceAnalyzerTest {
+
+    private final JavaSourceAnalyzer analyzer = new JavaSourceAnalyzer(3, 10);
+
+    @Test
+    void parsesACompilationUnit() {
+        JavaSourceAnalyzer.Result result = analyzer.analyze("""
+                package demo;
+
+                class Demo {
+                    Demo() {
+                    }
+
+                    int twice(int value) {
+                        return value * 2;
+                    }
+                }
+                """);
+
+        assertThat(result.parsed()).isTrue();
+        assertThat(result.findings()).isEmpty();
+        assertThat(result.methods()).isEqualTo(2);
+        assertThat(result.maxComplexity()).isEqualTo(1);
+    }
+
+    @Test
+    void parsesClassMembersAndStatementsOnTheirOriginalLines() {
+        JavaSourceAnalyzer.Result members = analyzer.analyze("""
+                int value;
+
+                boolean isAdmin(String role) {
+                    return role == "admin";
+                }
+                """);
+        JavaSourceAnalyzer.Result statements = analyzer.analyze("""
+                int total = 0;
+                try {
+                    total = Integer.parseInt(text);
+                } catch (NumberFormatException e) {
+                }
+                """);
+
+        assertThat(members.parsed()).isTrue();
+        assertThat(members.methods()).isEqualTo(1);
+        assertThat(members.findings()).singleElement().satisfies(finding -> {
+            assertThat(finding.getLine()).isEqualTo(4);
+            assertThat(finding.getMessage()).isEqualTo("String compared by reference with ==");
+        });
+
+        assertThat(statements.parsed()).isTrue();
+        assertThat(statements.methods()).isZero();
+        assertThat(statements.findings()).singleElement().satisfies(finding -> {
+            assertThat(finding.getLine()).isEqualTo(4);
+            assertThat(finding.getMessage()).isEqualTo("Empty catch block swallows NumberFormatException silently");
+        });
+    }
+
+    @Test
+    void acceptsACatchBlockThatExplainsWhyItIsEmpty() {
+        JavaSourceAnalyzer.Result result = analyzer.analyze("""
+                try {
+                    close();
+                } catch (Exception e) {
+                    // closing is best effort
+                }
+                """);
+
+        assertThat(result.findings()).isEmpty();
+    }
+
+    @Test
+    void reportsComplexAndLongMethods() {
+        JavaSourceAnalyzer.Result result = analyzer.analyze("""
+                int classify(int a, int b) {
+                    if (a > 0 && b > 0) {
+                        return 1;
+                    }
+                    for (int i = 0; i < a; i++) {
+                        b = b > i ? b - i : b;
+                    }
+                    int sum = 0;
+                    sum += a;
+                    sum += b;
+                    return sum;
+                }
+                """);
+
+        // if, &&, for and ?: on top of the method itself
+        assertThat(result.maxComplexity()).isEqualTo(5);
+        assertThat(result.findings()).extracting(Finding::getMessage).containsExactly(
+                "classify has a cyclomatic complexity of 5 (limit 3)",
+                "classify is 12 lines long (limit 10)");
+        assertThat(result.findings()).allSatisfy(finding -> {
+            assertThat(finding.getType()).isEqualTo("style");
+            assertThat(finding.getLine()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void reportsSyntaxErrorsWithoutTheListOfExpectedTokens() {
+        JavaSourceAnalyzer.Result result = analyzer.analyze("""
+                class Broken {
+                    void run() {
+                        int x = ;
+                    }
+                }
+                """);
+
+        assertThat(result.parsed()).isFalse();
+        assertThat(result.findings()).isNotEmpty().allSatisfy(finding -> {
+            assertThat(finding.getType()).isEqualTo("bug");
+            assertThat(finding.getMessage()).startsWith("Syntax error: ").doesNotContain("expected one of");
+        });
+        assertThat(result.findings().get(0).getLine()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,113 @@
+package com.app_template.App_Template.service.analysis;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.app_template.App_Template.dto.Finding;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class StaticAnalyzerTest {
+
+    private static final String JAVA_METHOD = """
+            boolean isAdmin(String role) {
+                // Compares the role name
+                return role == "admin";
+            }
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StaticAnalyzer analyzer = new StaticAnalyzer(objectMapper, meterRegistry, true, 3, 10, 60);
+
+    @Test
+    void analyzesJavaAndRecordsTheOutcome() {
+        StaticAnalysis analysis = analyzer.analyze(JAVA_METHOD, " Java ");
+
+        assertThat(analysis.analyzer()).isEqualTo("javaparser");
+        assertThat(analysis.parsed()).isTrue();
+        assertThat(analysis.codeLines()).isEqualTo(2);
+        assertThat(analysis.skipReason()).isEqualTo(StaticAnalysis.SKIP_TRIVIAL);
+        assertThat(meterRegistry.get("codezen.static.analysis")
+                .tag("analyzer", "javaparser").tag("outcome", StaticAnalysis.SKIP_TRIVIAL).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void skipsGenerationForCodeThatDoesNotParse() {
+        StaticAnalysis analysis = analyzer.analyze("class Broken {\n    void run() {\n        int x = ;\n    }\n}", "java");
+
+        assertThat(analysis.skipReason()).isEqualTo(StaticAnalysis.SKIP_SYNTAX_ERRORS);
+        assertThat(analysis.hasFindings()).isTrue();
+    }
+
+    @Test
+    void onlyCountsLinesOfOtherLanguages() {
+        String python = "# comment\n\ndef add(a, b):\n    total = a + b\n    return total\n";
+
+        StaticAnalysis analysis = analyzer.analyze(python, "python");
+
+        assertThat(analysis.analyzer()).isEqualTo("lines");
+        assertThat(analysis.parsed()).isFalse();
+        assertThat(analysis.codeLines()).isEqualTo(3);
+        assertThat(analysis.skipsGeneration()).isFalse();
+    }
+
+    @Test
+    void doesNothingWhenDisabled() {
+        StaticAnalyzer disabled = new StaticAnalyzer(objectMapper, meterRegistry, false, 3, 10, 60);
+
+        StaticAnalysis analysis = disabled.analyze("x", "java");
+
+        assertThat(analysis.analyzer()).isEqualTo("none");
+        assertThat(analysis.skipsGeneration()).isFalse();
+        assertThat(analysis.findings()).isEmpty();
+    }
+
+    @Test
+    void answersSkippedSnippetsWithAReview() throws Exception {
+        StaticAnalysis analysis = new StaticAnalysis("javaparser", false,
+                List.of(finding(3, "bug")), 5, 0, 0, StaticAnalysis.SKIP_SYNTAX_ERRORS);
+
+        JsonNode review = objectMapper.readTree(analyzer.toReview(analysis));
+
+        assertThat(review.path("summary").asText()).startsWith("The code does not parse (1 syntax error)");
+        assertThat(review.path("findings")).hasSize(1);
+        assertThat(review.path("effort_estimation").asText()).isEqualTo("1/10");
+    }
+
+    @Test
+    void addsOnlyTheFindingsTheModelDidNotReport() throws Exception {
+        StaticAnalysis analysis = new StaticAnalysis("javaparser", true,
+                List.of(finding(2, "bug"), finding(7, "style")), 10, 1, 1, null);
+        String generated = "{\"summary\":\"ok\",\"findings\":[{\"line\":2,\"type\":\"BUG\",\"message\":\"Same\"},"
+                + "{\"line\":9,\"type\":\"security\",\"message\":\"Other\"}],\"effort_estimation\":\"2/10\"}";
+
+        JsonNode review = objectMapper.readTree(analyzer.addFindings(generated, analysis));
+
+        assertThat(review.path("findings")).extracting(finding -> finding.path("line").asInt()).containsExactly(2, 7, 9);
+        assertThat(review.path("findings").get(0).path("message").asText()).isEqualTo("Same");
+        assertThat(review.path("effort_estimation").asText()).isEqualTo("2/10");
+        assertThat(analyzer.addFindings("not json", analysis)).isEqualTo("not json");
+    }
+
+    @Test
+    void promptNoteRenumbersTheFindingsOfTheChunk() {
+        StaticAnalysis analysis = new StaticAnalysis("javaparser", true,
+                List.of(finding(5, "bug"), finding(25, "style")), 30, 2, 4, null);
+
+        String note = analyzer.promptNote(analysis, 21, 30);
+
+        assertThat(note).contains("- Code lines: 30, methods: 2, highest cyclomatic complexity: 4");
+        assertThat(note).contains("- line 5 [style] Issue").doesNotContain("[bug]");
+        assertThat(analyzer.promptNote(new StaticAnalysis("lines", false, List.of(), 3, 0, 0, null), 1, 3)).isEmpty();
+    }
+
+    private static Finding finding(int line, String type) {
+        return Finding.builder().line(line).type(type).message("Issue").suggestion("Fix").build();
+    }
+}
@@ -0,0 +1,145 @@
+package com.app_template.App_Template.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.app_template.App_Template.service.cache.HnswIndex.Neighbour;
+import com.app_template.App_Template.service.ollama.OllamaEmbeddingClient;
+
+/**
+ * Compares HnswIndex searches against a brute-force scan of the same random vectors.
+ */
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 32;
+    private static final int VECTORS = 2000;
+    private static final int QUERIES = 50;
+    private static final int K = 10;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void findsMostOfTheExactNearestNeighbours() {
+        List<float[]> vectors = randomVectors(VECTORS);
+        HnswIndex index = build(vectors);
+
+        double recall = averageRecall(index, vectors, Set.of());
+
+        assertThat(recall).isGreaterThanOrEqualTo(0.9);
+    }
+
+    @Test
+    void returnsNeighboursMostSimilarFirstWithTheirSimilarity() {
+        List<float[]> vectors = randomVectors(VECTORS);
+        HnswIndex index = build(vectors);
+        float[] query = vectors.get(7);
+
+        List<Neighbour> result = index.search(query, K, 50);
+
+        assertThat(result).hasSize(K);
+        assertThat(result.get(0).id()).isEqualTo(7L);
+        assertThat(result).isSortedAccordingTo(Comparator.comparingDouble(Neighbour::similarity).reversed());
+        for (Neighbour neighbour : result) {
+            double expected = OllamaEmbeddingClient.similarity(vectors.get((int) neighbour.id()), query);
+            assertThat(neighbour.similarity()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void removedIdsAreNeverReturnedAndTheRestStaysFindable() {
+        List<float[]> vectors = randomVectors(VECTORS);
+        HnswIndex index = build(vectors);
+        Set<Long> removed = new HashSet<>();
+        for (long id = 0; id < VECTORS; id += 3) {
+            index.remove(id);
+            removed.add(id);
+        }
+
+        for (int i = 0; i < QUERIES; i++) {
+            List<Neighbour> result = index.search(randomVector(), K, 100);
+            assertThat(result).extracting(Neighbour::id).doesNotContainAnyElementsOf(removed);
+        }
+        assertThat(index.size()).isEqualTo(VECTORS - removed.size());
+        assertThat(averageRecall(index, vectors, removed)).isGreaterThanOrEqualTo(0.85);
+    }
+
+    @Test
+    void addingAnIdTwiceKeepsTheFirstVector() {
+        HnswIndex index = new HnswIndex(16, 100);
+        float[] first = randomVector();
+        index.add(1, first);
+        index.add(1, randomVector());
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.search(first, K, 50)).singleElement()
+                .satisfies(neighbour -> assertThat(neighbour.similarity()).isCloseTo(1.0, within(1e-6)));
+    }
+
+    @Test
+    void emptyIndexFindsNothing() {
+        assertThat(new HnswIndex(16, 100).search(randomVector(), K, 50)).isEmpty();
+    }
+
+    /**
+     * Share of the exact top-k (by brute force over the ids that were not removed) that the index returned.
+     */
+    private double averageRecall(HnswIndex index, List<float[]> vectors, Set<Long> removed) {
+        int hits = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            float[] query = randomVector();
+            Set<Long> exact = new HashSet<>(IntStream.range(0, vectors.size())
+                    .mapToObj(id -> (long) id)
+                    .filter(id -> !removed.contains(id))
+                    .sorted(Comparator.comparingDouble(
+                            (Long id) -> OllamaEmbeddingClient.similarity(vectors.get(id.intValue()), query)).reversed())
+                    .limit(K)
+                    .toList());
+            for (Neighbour neighbour : index.search(query, K, 100)) {
+                if (exact.contains(neighbour.id())) {
+                    hits++;
+                }
+            }
+        }
+        return (double) hits / (QUERIES * K);
+    }
+
+    private HnswIndex build(List<float[]> vectors) {
+        HnswIndex index = new HnswIndex(16, 100);
+        for (int id = 0; id < vectors.size(); id++) {
+            index.add(id, vectors.get(id));
+        }
+        return index;
+    }
+
+    private List<float[]> randomVectors(int count) {
+        List<float[]> vectors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            vectors.add(randomVector());
+        }
+        return vectors;
+    }
+
+    private float[] randomVector() {
+        float[] vector = new float[DIMENSIONS];
+        double norm = 0;
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+            norm += vector[i] * vector[i];
+        }
+        norm = Math.sqrt(norm);
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] /= (float) norm;
+        }
+        return vector;
+    }
+}
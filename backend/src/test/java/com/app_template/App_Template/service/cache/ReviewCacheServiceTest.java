@@ -0,0 +1,33 @@
+package com.app_template.App_Template.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class ReviewCacheServiceTest {
+
+    @Test
+    void keepsLeadingIndentation() {
+        String nested = "if ready:\n    start()\n    stop()\n";
+        String dedented = "if ready:\n    start()\nstop()\n";
+
+        assertThat(ReviewCacheService.normalizeCode(nested)).isNotEqualTo(ReviewCacheService.normalizeCode(dedented));
+    }
+
+    @Test
+    void keepsWhitespaceWithinALine() {
+        String spaced = "print(\"a  b\")\n";
+        String single = "print(\"a b\")\n";
+
+        assertThat(ReviewCacheService.normalizeCode(spaced)).isNotEqualTo(ReviewCacheService.normalizeCode(single));
+    }
+
+    @Test
+    void normalizesLineEndingsTrailingWhitespaceAndTrailingBlankLines() {
+        String original = "def f(a, b):\n    return a + b\n";
+        String reformatted = "def f(a, b):  \r\n    return a + b\t\r\n\r\n   \n";
+
+        assertThat(ReviewCacheService.normalizeCode(reformatted)).isEqualTo(ReviewCacheService.normalizeCode(original))
+                .isEqualTo("def f(a, b):\n    return a + b");
+    }
+}
@@ -0,0 +1,86 @@
+package com.app_template.App_Template.service.ollama;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.app_template.App_Template.dto.Finding;
+import com.app_template.App_Template.dto.ReviewResult;
+import com.app_template.App_Template.service.ollama.ChunkedReviewMerger.ChunkReview;
+import com.app_template.App_Template.service.ollama.CodeChunker.CodeChunk;
+
+class ChunkedReviewMergerTest {
+
+    // Lines 1-10, then lines 11-20 with lines 8-10 as overlap context
+    private static final CodeChunk FIRST = new CodeChunk(1, 1, 10, "");
+    private static final CodeChunk SECOND = new CodeChunk(8, 11, 20, "");
+
+    private final ChunkedReviewMerger merger = new ChunkedReviewMerger();
+
+    @Test
+    void remapsChunkRelativeLinesToFileLines() {
+        ReviewResult merged = merger.merge(List.of(
+                new ChunkReview(FIRST, review("First half", "2/10", finding(4, "bug"))),
+                new ChunkReview(SECOND, review("Second half", "2/10", finding(6, "style"), finding(null, "security")))));
+
+        assertThat(merged.getFindings()).extracting(Finding::getLine).containsExactly(4, 11, 13);
+        assertThat(merged.getFindings()).extracting(Finding::getType).containsExactly("bug", "security", "style");
+        assertThat(merged.getSummary()).isEqualTo("Large file reviewed in 2 parts. Lines 1-10: First half Lines 11-20: Second half");
+    }
+
+    @Test
+    void dropsAFindingReportedByBothChunksOfTheOverlap() {
+        ReviewResult merged = merger.merge(List.of(
+                new ChunkReview(FIRST, review("a", null, finding(9, "bug"), finding(9, "style"))),
+                new ChunkReview(SECOND, review("b", null, finding(2, "BUG"), finding(3, "bug")))));
+
+        // Chunk line 2 of the second chunk is file line 9, already reported as a bug by the first chunk
+        assertThat(merged.getFindings()).extracting(Finding::getLine).containsExactly(9, 9, 10);
+        assertThat(merged.getFindings()).extracting(Finding::getType).containsExactly("bug", "style", "bug");
+    }
+
+    @Test
+    void weighsEffortByOwnedLinesAndRoundsUp() {
+        CodeChunk small = new CodeChunk(18, 21, 25, "");
+
+        ReviewResult merged = merger.merge(List.of(
+                new ChunkReview(FIRST, review("a", "2/10")),
+                new ChunkReview(SECOND, review("b", "5/10")),
+                new ChunkReview(small, review("c", "9/10"))));
+
+        // (2 * 10 + 5 * 10 + 9 * 5) / 25 = 4.6
+        assertThat(merged.getEffortEstimation()).isEqualTo("5/10");
+    }
+
+    @Test
+    void reportsChunksThatCouldNotBeReviewed() {
+        ReviewResult merged = merger.merge(List.of(
+                new ChunkReview(FIRST, null),
+                new ChunkReview(SECOND, review("Second half", "3/10", finding(4, "bug")))));
+
+        assertThat(merged.getSummary()).startsWith("Large file reviewed in 2 parts (1 could not be reviewed).");
+        assertThat(merged.getFindings()).extracting(Finding::getLine).containsExactly(11);
+        assertThat(merged.getEffortEstimation()).isEqualTo("3/10");
+    }
+
+    @Test
+    void leavesEffortOutWhenNoChunkEstimatedIt() {
+        ReviewResult merged = merger.merge(List.of(new ChunkReview(FIRST, review("a", "unknown"))));
+
+        assertThat(merged.getEffortEstimation()).isNull();
+    }
+
+    private static ReviewResult review(String summary, String effort, Finding... findings) {
+        return ReviewResult.builder()
+                .summary(summary)
+                .effortEstimation(effort)
+                .findings(List.of(findings))
+                .build();
+    }
+
+    private static Finding finding(Integer line, String type) {
+        return Finding.builder().line(line).type(type).message("Issue").suggestion("Fix").build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.app_template.App_Template.service.ollama;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.app_template.App_Template.service.ollama.CodeChunker.CodeChunk;
+
+class CodeChunkerTest {
+
+    private final CodeChunker chunker = new CodeChunker();
+
+    @Test
+    void keepsSmallFilesInOneChunk() {
+        String code = "class A {\n    void a() {}\n}";
+
+        List<CodeChunk> chunks = chunker.split(code, 10, 3);
+
+        assertThat(chunks).containsExactly(new CodeChunk(1, 1, 3, code));
+    }
+
+    @Test
+    void chunksCoverTheFileWithoutGapsAndWithOverlap() {
+        String code = javaClass(40);
+        String[] lines = code.split("\n", -1);
+
+        List<CodeChunk> chunks = chunker.split(code, 60, 5);
+
+        assertThat(chunks).hasSizeGreaterThan(1);
+        assertThat(chunks.get(0).startLine()).isEqualTo(1);
+        assertThat(chunks.get(chunks.size() - 1).endLine()).isEqualTo(lines.length);
+        for (int i = 0; i < chunks.size(); i++) {
+            CodeChunk chunk = chunks.get(i);
+            assertThat(chunk.ownedLineCount()).isLessThanOrEqualTo(60);
+            assertThat(chunk.code().split("\n", -1)).hasSize(chunk.lineCount());
+            assertThat(chunk.code().split("\n", -1)[0]).isEqualTo(lines[chunk.startLine() - 1]);
+            if (i > 0) {
+                CodeChunk previous = chunks.get(i - 1);
+                assertThat(chunk.ownedStartLine()).isEqualTo(previous.endLine() + 1);
+                assertThat(chunk.startLine()).isEqualTo(chunk.ownedStartLine() - 5);
+            }
+        }
+    }
+
+    @Test
+    void cutsBeforeTheCommentsAndAnnotationsOfADeclaration() {
+        String code = javaClass(40);
+        String[] lines = code.split("\n", -1);
+
+        List<CodeChunk> chunks = chunker.split(code, 60, 5);
+
+        for (CodeChunk chunk : chunks.subList(1, chunks.size())) {
+            assertThat(lines[chunk.ownedStartLine() - 1]).isEqualTo("    /**");
+        }
+    }
+
+    @Test
+    void cutsHardWhenThereIsNoStructure() {
+        String code = "x = 1\n".repeat(25).strip();
+
+        List<CodeChunk> chunks = chunker.split(code, 10, 2);
+
+        assertThat(chunks).extracting(CodeChunk::ownedStartLine).containsExactly(1, 11, 21);
+        assertThat(chunks).extracting(CodeChunk::endLine).containsExactly(10, 20, 25);
+        assertThat(chunks).extracting(CodeChunk::startLine).containsExactly(1, 9, 19);
+    }
+
+    @Test
+    void splitsPythonAtModuleLevelFunctions() {
+        StringBuilder code = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            code.append("def function_").append(i).append("(value):\n");
+            for (int line = 0; line < 5; line++) {
+                code.append("    value = value + ").append(line).append("\n");
+            }
+            code.append("    return value\n");
+        }
+
+        List<CodeChunk> chunks = chunker.split(code.toString().strip(), 20, 0);
+
+        assertThat(chunks).hasSizeGreaterThan(1);
+        for (CodeChunk chunk : chunks) {
+            assertThat(chunk.code()).startsWith("def function_");
+        }
+    }
+
+    private static String javaClass(int methods) {
+        StringBuilder code = new StringBuilder("package demo;\n\npublic class Demo {\n");
+        for (int i = 0; i < methods; i++) {
+            code.append("\n")
+                    .append("    /**\n")
+                    .append("     * Method ").append(i).append(".\n")
+                    .append("     */\n")
+                    .append("    @Deprecated\n")
+                    .append("    public int method").append(i).append("(int value) {\n")
+                    .append("        String text = \"{ not a brace }\";\n")
+                    .append("        if (value > ").append(i).append(") {\n")
+                    .append("            return value;\n")
+                    .append("        }\n")
+                    .append("        return text.length();\n")
+                    .append("    }\n");
+        }
+        return code.append("}").toString();
+    }
+}
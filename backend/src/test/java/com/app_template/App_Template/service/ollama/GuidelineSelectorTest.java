@@ -0,0 +1,72 @@
+package com.app_template.App_Template.service.ollama;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.app_template.App_Template.entity.CustomGuideline;
+import com.app_template.App_Template.entity.Project;
+import com.app_template.App_Template.repository.CustomGuidelineRepository;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+class GuidelineSelectorTest {
+
+    private static final String CODE = "class Service {}";
+
+    private GuidelineSelector selector;
+
+    @BeforeEach
+    void createSelector() {
+        OllamaEmbeddingClient embeddingClient = mock(OllamaEmbeddingClient.class);
+        when(embeddingClient.getModel()).thenReturn("nomic-embed-text");
+        when(embeddingClient.embed(anyString())).thenReturn(Mono.just(new float[] { 1, 0 }));
+        // "beta" points away from the code, every other rule towards it
+        when(embeddingClient.embed(anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            return Mono.just(texts.stream()
+                    .map(text -> text.equals("beta") ? new float[] { 0, 1 } : new float[] { 1, 0 })
+                    .toList());
+        });
+
+        selector = new GuidelineSelector(embeddingClient, mock(CustomGuidelineRepository.class), Schedulers.immediate());
+        ReflectionTestUtils.setField(selector, "enabled", true);
+        ReflectionTestUtils.setField(selector, "topK", 1);
+    }
+
+    @Test
+    void picksTheGuidelinesClosestToTheCode() {
+        assertThat(selector.select(CODE, project("alpha", "beta")).block(Duration.ofSeconds(5)))
+                .containsExactly("alpha");
+    }
+
+    @Test
+    void rebuildsAnIndexCachedFromGuidelinesLoadedBeforeAChange() {
+        selector.invalidate(1L);
+        // A review that loaded the guidelines before the change caches its index after the invalidation
+        selector.select(CODE, project("alpha", "beta")).block(Duration.ofSeconds(5));
+
+        assertThat(selector.select(CODE, project("gamma", "beta")).block(Duration.ofSeconds(5)))
+                .containsExactly("gamma");
+    }
+
+    private static Project project(String first, String second) {
+        Project project = Project.builder().id(1L).build();
+        project.setGuidelines(List.of(guideline(10L, first, project), guideline(11L, second, project)));
+        return project;
+    }
+
+    private static CustomGuideline guideline(Long id, String ruleText, Project project) {
+        return CustomGuideline.builder().id(id).ruleText(ruleText).pinned(false).project(project).build();
+    }
+}
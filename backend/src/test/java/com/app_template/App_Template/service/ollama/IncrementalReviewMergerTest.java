@@ -0,0 +1,123 @@
+package com.app_template.App_Template.service.ollama;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.app_template.App_Template.dto.Finding;
+import com.app_template.App_Template.dto.ReviewResult;
+import com.app_template.App_Template.service.ollama.IncrementalReviewMerger.HunkReview;
+import com.app_template.App_Template.service.ollama.IncrementalReviewPlanner.Hunk;
+import com.app_template.App_Template.service.ollama.IncrementalReviewPlanner.Plan;
+
+class IncrementalReviewMergerTest {
+
+    private final IncrementalReviewMerger merger = new IncrementalReviewMerger();
+
+    @Test
+    void carriesResolvesAndAddsFindings() {
+        // Old line 5 became line 7 (two lines inserted at 3-4), old line 6 was changed
+        Plan plan = plan(new int[] { 0, 1, 2, 5, 6, 7, 0, 9 }, 10, 3, hunk(1, 10, 3, 8));
+        ReviewResult previous = review("Before", "3/10", finding(5, "bug"), finding(6, "style"));
+        ReviewResult hunkReview = review("Inserted lines", "2/10", finding(4, "security"));
+
+        ReviewResult merged = merger.merge(42L, previous, plan, List.of(new HunkReview(plan.hunks().get(0), hunkReview)));
+
+        assertThat(merged.getFindings()).extracting(Finding::getLine).containsExactly(4, 7);
+        assertThat(merged.getFindings()).extracting(Finding::getStatus)
+                .containsExactly(IncrementalReviewMerger.STATUS_NEW, IncrementalReviewMerger.STATUS_CARRIED);
+        assertThat(merged.getResolvedFindings()).singleElement().satisfies(finding -> {
+            assertThat(finding.getLine()).isEqualTo(6);
+            assertThat(finding.getStatus()).isEqualTo(IncrementalReviewMerger.STATUS_RESOLVED);
+        });
+        assertThat(merged.getSummary()).isEqualTo(
+                "Incremental review of 3 changed lines in 1 hunk: 1 new, 1 carried over, 1 resolved. Lines 3-8: Inserted lines");
+        assertThat(merged.getIncremental().getBaseReviewId()).isEqualTo(42L);
+        assertThat(merged.getIncremental().getChangedLines()).isEqualTo(3);
+        assertThat(merged.getIncremental().getHunks()).isEqualTo(1);
+    }
+
+    @Test
+    void dropsHunkFindingsThatRepeatACarriedOne() {
+        Plan plan = plan(new int[] { 0, 1, 2, 3, 4, 5 }, 6, 1, hunk(3, 6, 6, 6));
+        ReviewResult previous = review("Before", "3/10", finding(4, "bug"));
+        // Hunk line 2 is file line 4, the carried bug seen again in the context lines
+        ReviewResult hunkReview = review("Context", "2/10", finding(2, "BUG"), finding(4, "bug"));
+
+        ReviewResult merged = merger.merge(1L, previous, plan, List.of(new HunkReview(plan.hunks().get(0), hunkReview)));
+
+        assertThat(merged.getFindings()).extracting(Finding::getLine).containsExactly(4, 6);
+        assertThat(merged.getFindings()).extracting(Finding::getStatus)
+                .containsExactly(IncrementalReviewMerger.STATUS_CARRIED, IncrementalReviewMerger.STATUS_NEW);
+    }
+
+    @Test
+    void keepsThePreviousEffortWhileFindingsAreCarried() {
+        Plan plan = plan(new int[] { 0, 1, 2, 3 }, 4, 1, hunk(4, 4, 4, 4));
+        ReviewResult previous = review("Before", "6/10", finding(1, "bug"));
+
+        ReviewResult merged = merger.merge(1L, previous, plan,
+                List.of(new HunkReview(plan.hunks().get(0), review("Small", "2/10"))));
+
+        assertThat(merged.getEffortEstimation()).isEqualTo("6/10");
+    }
+
+    @Test
+    void usesTheHunkEffortOnceNothingIsCarried() {
+        Plan plan = plan(new int[] { 0, 0, 2 }, 2, 1, hunk(1, 2, 1, 1));
+        ReviewResult previous = review("Before", "6/10", finding(1, "bug"));
+
+        ReviewResult merged = merger.merge(1L, previous, plan,
+                List.of(new HunkReview(plan.hunks().get(0), review("Fixed", "2/10"))));
+
+        assertThat(merged.getFindings()).isEmpty();
+        assertThat(merged.getEffortEstimation()).isEqualTo("2/10");
+    }
+
+    @Test
+    void unchangedResubmissionCarriesEverything() {
+        Plan plan = plan(new int[] { 0, 1, 2 }, 2, 0);
+        ReviewResult previous = review("Before", "4/10", finding(2, "style"));
+
+        ReviewResult merged = merger.merge(7L, previous, plan, List.of());
+
+        assertThat(merged.getFindings()).singleElement()
+                .satisfies(finding -> assertThat(finding.getStatus()).isEqualTo(IncrementalReviewMerger.STATUS_CARRIED));
+        assertThat(merged.getResolvedFindings()).isEmpty();
+        assertThat(merged.getEffortEstimation()).isEqualTo("4/10");
+        assertThat(merged.getSummary()).startsWith("Incremental review of 0 changed lines in 0 hunks: 0 new, 1 carried over");
+    }
+
+    @Test
+    void countsHunksThatCouldNotBeReviewed() {
+        Plan plan = plan(new int[] { 0, 1, 2, 3 }, 4, 1, hunk(4, 4, 4, 4));
+
+        ReviewResult merged = merger.merge(1L, review("Before", null), plan,
+                List.of(new HunkReview(plan.hunks().get(0), null)));
+
+        assertThat(merged.getSummary()).contains("in 1 hunk (1 could not be reviewed): 0 new");
+        assertThat(merged.getEffortEstimation()).isNull();
+    }
+
+    private static Plan plan(int[] oldToNew, int totalLines, int changedLines, Hunk... hunks) {
+        return new Plan(List.of(hunks), oldToNew, totalLines, changedLines);
+    }
+
+    private static Hunk hunk(int startLine, int endLine, int changedStartLine, int changedEndLine) {
+        return new Hunk(startLine, endLine, changedStartLine, changedEndLine, "");
+    }
+
+    private static ReviewResult review(String summary, String effort, Finding... findings) {
+        return ReviewResult.builder()
+                .summary(summary)
+                .effortEstimation(effort)
+                .findings(List.of(findings))
+                .build();
+    }
+
+    private static Finding finding(int line, String type) {
+        return Finding.builder().line(line).type(type).message("Issue").suggestion("Fix").build();
+    }
+}
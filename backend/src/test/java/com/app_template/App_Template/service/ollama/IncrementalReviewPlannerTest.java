@@ -0,0 +1,123 @@
+package com.app_template.App_Template.service.ollama;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.app_template.App_Template.service.ollama.IncrementalReviewPlanner.Hunk;
+import com.app_template.App_Template.service.ollama.IncrementalReviewPlanner.Plan;
+
+class IncrementalReviewPlannerTest {
+
+    private final IncrementalReviewPlanner planner = new IncrementalReviewPlanner();
+
+    @BeforeEach
+    void configure() {
+        ReflectionTestUtils.setField(planner, "contextLines", 5);
+        ReflectionTestUtils.setField(planner, "maxChangedRatio", 0.5);
+    }
+
+    @Test
+    void unchangedCodeHasNoHunksAndMapsEveryLineToItself() {
+        String code = code(lines(20));
+
+        Plan plan = planner.plan(code, code).orElseThrow();
+
+        assertThat(plan.hasChanges()).isFalse();
+        assertThat(plan.changedLines()).isZero();
+        assertThat(plan.mapOldLine(1)).isEqualTo(1);
+        assertThat(plan.mapOldLine(20)).isEqualTo(20);
+    }
+
+    @Test
+    void changedLineBecomesAHunkWithContext() {
+        List<String> lines = lines(100);
+        List<String> changed = new ArrayList<>(lines);
+        changed.set(49, "int changed = 50;");
+
+        Plan plan = planner.plan(code(lines), code(changed)).orElseThrow();
+
+        assertThat(plan.hunks()).singleElement().satisfies(hunk -> {
+            assertThat(hunk.startLine()).isEqualTo(45);
+            assertThat(hunk.endLine()).isEqualTo(55);
+            assertThat(hunk.changedStartLine()).isEqualTo(50);
+            assertThat(hunk.changedEndLine()).isEqualTo(50);
+            assertThat(hunk.code()).isEqualTo(code(changed.subList(44, 55)));
+        });
+        assertThat(plan.changedLines()).isEqualTo(1);
+        assertThat(plan.mapOldLine(49)).isEqualTo(49);
+        assertThat(plan.mapOldLine(50)).isZero();
+        assertThat(plan.mapOldLine(51)).isEqualTo(51);
+    }
+
+    @Test
+    void insertedLinesShiftTheLinesAfterThem() {
+        List<String> lines = lines(100);
+        List<String> changed = new ArrayList<>(lines);
+        changed.addAll(20, List.of("int added1;", "int added2;"));
+
+        Plan plan = planner.plan(code(lines), code(changed)).orElseThrow();
+
+        assertThat(plan.hunks()).singleElement().satisfies(hunk -> {
+            assertThat(hunk.changedStartLine()).isEqualTo(21);
+            assertThat(hunk.changedEndLine()).isEqualTo(22);
+        });
+        assertThat(plan.mapOldLine(20)).isEqualTo(20);
+        assertThat(plan.mapOldLine(21)).isEqualTo(23);
+        assertThat(plan.mapOldLine(100)).isEqualTo(102);
+        assertThat(plan.totalLines()).isEqualTo(102);
+    }
+
+    @Test
+    void removedLineIsReviewedThroughTheLinesAroundTheGap() {
+        List<String> lines = lines(100);
+        List<String> changed = new ArrayList<>(lines);
+        changed.remove(29);
+
+        Plan plan = planner.plan(code(lines), code(changed)).orElseThrow();
+
+        assertThat(plan.hunks()).singleElement().satisfies(hunk -> {
+            assertThat(hunk.changedStartLine()).isEqualTo(29);
+            assertThat(hunk.changedEndLine()).isEqualTo(30);
+        });
+        assertThat(plan.mapOldLine(30)).isZero();
+        assertThat(plan.mapOldLine(31)).isEqualTo(30);
+    }
+
+    @Test
+    void mergesNearbyChangesAndKeepsDistantOnesApart() {
+        List<String> lines = lines(100);
+        List<String> changed = new ArrayList<>(lines);
+        changed.set(9, "near 1");
+        changed.set(17, "near 2");
+        changed.set(79, "far");
+
+        Plan plan = planner.plan(code(lines), code(changed)).orElseThrow();
+
+        assertThat(plan.hunks()).extracting(Hunk::changedStartLine).containsExactly(10, 80);
+        assertThat(plan.hunks()).extracting(Hunk::changedEndLine).containsExactly(18, 80);
+    }
+
+    @Test
+    void declinesWhenMostOfTheFileChanged() {
+        List<String> lines = lines(20);
+        List<String> changed = lines.stream().map(line -> line + " // edited").toList();
+
+        assertThat(planner.plan(code(lines), code(changed))).isEmpty();
+    }
+
+    private static List<String> lines(int count) {
+        return IntStream.rangeClosed(1, count).mapToObj(i -> "int line" + i + " = " + i + ";").toList();
+    }
+
+    private static String code(List<String> lines) {
+        return lines.stream().collect(Collectors.joining("\n"));
+    }
+}
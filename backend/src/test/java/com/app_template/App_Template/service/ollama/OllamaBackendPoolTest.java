@@ -0,0 +1,258 @@
+package com.app_template.App_Template.service.ollama;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import com.sun.net.httpserver.HttpServer;
+
+import reactor.core.publisher.Mono;
+
+class OllamaBackendPoolTest {
+
+    private final List<StubOllama> stubs = new ArrayList<>();
+
+    @AfterEach
+    void stopStubs() {
+        stubs.forEach(StubOllama::stop);
+    }
+
+    @Test
+    void routesToLeastOutstandingBackend() throws IOException {
+        StubOllama first = startStub(300);
+        StubOllama second = startStub(300);
+        OllamaBackendPool pool = new OllamaBackendPool(WebClient.builder(), List.of(first.url(), second.url()), 4, 3);
+
+        List<Mono<String>> calls = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            calls.add(generate(pool));
+        }
+        Mono.zip(calls, results -> results).block(Duration.ofSeconds(10));
+
+        assertThat(first.generateCalls.get()).isEqualTo(2);
+        assertThat(second.generateCalls.get()).isEqualTo(2);
+        assertThat(pool.getBackends()).allMatch(backend -> backend.getOutstandingCount() == 0);
+    }
+
+    @Test
+    void rejectsWhenEveryBackendIsAtMaxConcurrency() throws IOException {
+        StubOllama stub = startStub(500);
+        OllamaBackendPool pool = new OllamaBackendPool(WebClient.builder(), List.of(stub.url()), 1, 3);
+
+        Mono<String> inFlight = generate(pool).cache();
+        inFlight.subscribe();
+
+        assertThatThrownBy(() -> generate(pool).block(Duration.ofSeconds(5)))
+                .isInstanceOf(OllamaUnavailableException.class);
+        assertThat(inFlight.block(Duration.ofSeconds(5))).contains("ok");
+    }
+
+    @Test
+    void embeddingsUseTheirOwnSlots() throws IOException {
+        StubOllama stub = startStub(500);
+        OllamaBackendPool pool = new OllamaBackendPool(WebClient.builder(), List.of(stub.url()), 1, 1, 3);
+
+        Mono<String> embedding = embed(pool).cache();
+        embedding.subscribe();
+
+        // The embedding in flight takes its own slot from another embedding, but leaves the request slot to a generation
+        assertThatThrownBy(() -> embed(pool).block(Duration.ofSeconds(5)))
+                .isInstanceOf(OllamaUnavailableException.class);
+        assertThat(generate(pool).block(Duration.ofSeconds(5))).contains("ok");
+        assertThat(embedding.block(Duration.ofSeconds(5))).contains("ok");
+    }
+
+    @Test
+    void pingsSkipBusyNodesAndUseEmbeddingSlots() throws IOException {
+        StubOllama stub = startStub(500);
+        OllamaBackendPool pool = new OllamaBackendPool(WebClient.builder(), List.of(stub.url()), 1, 1, 3);
+        OllamaBackend backend = pool.getBackends().get(0);
+
+        Mono<String> generation = generate(pool).cache();
+        generation.subscribe();
+        assertThat(ping(pool, backend).block(Duration.ofSeconds(5))).isNull();
+        assertThat(generation.block(Duration.ofSeconds(5))).contains("ok");
+        assertThat(stub.generateCalls.get()).isEqualTo(1);
+
+        Mono<String> ping = ping(pool, backend).cache();
+        ping.subscribe();
+        // The ping in flight holds the embedding slot, not the request slot
+        assertThatThrownBy(() -> embed(pool).block(Duration.ofSeconds(5)))
+                .isInstanceOf(OllamaUnavailableException.class);
+        assertThat(backend.getOutstandingCount()).isZero();
+        assertThat(ping.block(Duration.ofSeconds(5))).contains("ok");
+        assertThat(backend.getOutstandingEmbeddingCount()).isZero();
+    }
+
+    @Test
+    void failsOverAndEjectsUnreachableBackend() throws IOException {
+        StubOllama healthy = startStub(0);
+        String unreachable = "http://localhost:" + freePort();
+        OllamaBackendPool pool = new OllamaBackendPool(WebClient.builder(), List.of(unreachable, healthy.url()), 4, 1);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(generate(pool).block(Duration.ofSeconds(10))).contains("ok");
+        }
+
+        assertThat(healthy.generateCalls.get()).isEqualTo(3);
+        assertThat(pool.getStatus())
+                .filteredOn(status -> status.getBaseUrl().equals(unreachable))
+                .singleElement()
+                .satisfies(status -> assertThat(status.isHealthy()).isFalse());
+    }
+
+    @Test
+    void healthProbesEjectAndReinstateBackends() throws IOException {
+        StubOllama stub = startStub(0);
+        OllamaBackendPool pool = new OllamaBackendPool(WebClient.builder(), List.of(stub.url()), 4, 2);
+
+        stub.tagsStatus = 500;
+        pool.probeAll().block(Duration.ofSeconds(10));
+        assertThat(pool.getStatus().get(0).isHealthy()).isTrue();
+        pool.probeAll().block(Duration.ofSeconds(10));
+        assertThat(pool.getStatus().get(0).isHealthy()).isFalse();
+
+        stub.tagsStatus = 200;
+        pool.probeAll().block(Duration.ofSeconds(10));
+        assertThat(pool.getStatus().get(0).isHealthy()).isTrue();
+        assertThat(stub.tagsCalls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void opensCircuitAfterRepeatedFailuresAndFailsFast() throws IOException {
+        String unreachable = "http://localhost:" + freePort();
+        OllamaBackendPool pool = new OllamaBackendPool(WebClient.builder(), List.of(unreachable), 4, 3);
+        pool.configureResilience(2, 60_000, 0, 1, false, 20);
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> generate(pool).block(Duration.ofSeconds(10)))
+                    .isInstanceOf(WebClientRequestException.class);
+        }
+        assertThat(pool.getCircuitBreakerState()).isEqualTo(OllamaCircuitBreaker.State.OPEN);
+
+        assertThatThrownBy(() -> generate(pool).block(Duration.ofSeconds(1)))
+                .isInstanceOfSatisfying(OllamaUnavailableException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isPositive());
+    }
+
+    @Test
+    void hedgesCallsSlowerThanP95ToAnotherBackend() throws IOException {
+        StubOllama slow = startStub(20);
+        StubOllama fast = startStub(20);
+        OllamaBackendPool pool = new OllamaBackendPool(WebClient.builder(), List.of(slow.url(), fast.url()), 4, 3);
+        pool.configureResilience(5, 30_000, 0, 1, true, 4);
+
+        for (int i = 0; i < 4; i++) {
+            generate(pool).block(Duration.ofSeconds(5));
+        }
+        slow.delayMillis = 3000;
+
+        for (int i = 0; i < 4; i++) {
+            long startedAt = System.nanoTime();
+            assertThat(generate(pool).block(Duration.ofSeconds(5))).contains("ok");
+            assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofMillis(1500));
+        }
+        // Calls that landed on the slow backend were answered by the hedge
+        assertThat(slow.generateCalls.get()).isGreaterThan(2);
+    }
+
+    private Mono<String> generate(OllamaBackendPool pool) {
+        return pool.execute(client -> client.post()
+                .uri("/api/generate")
+                .bodyValue("{}")
+                .retrieve()
+                .bodyToMono(String.class));
+    }
+
+    private Mono<String> embed(OllamaBackendPool pool) {
+        return pool.executeEmbedding(client -> client.post()
+                .uri("/api/generate")
+                .bodyValue("{}")
+                .retrieve()
+                .bodyToMono(String.class));
+    }
+
+    private Mono<String> ping(OllamaBackendPool pool, OllamaBackend backend) {
+        return pool.executePing(backend, client -> client.post()
+                .uri("/api/generate")
+                .bodyValue("{}")
+                .retrieve()
+                .bodyToMono(String.class));
+    }
+
+    private StubOllama startStub(long delayMillis) throws IOException {
+        StubOllama stub = new StubOllama(delayMillis);
+        stubs.add(stub);
+        return stub;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * Minimal Ollama stand-in serving /api/generate and /api/tags.
+     */
+    private static class StubOllama {
+
+        private final HttpServer server;
+        private final AtomicInteger generateCalls = new AtomicInteger();
+        private final AtomicInteger tagsCalls = new AtomicInteger();
+        private volatile int tagsStatus = 200;
+        private volatile long delayMillis;
+
+        StubOllama(long delayMillis) throws IOException {
+            this.delayMillis = delayMillis;
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/api/generate", exchange -> {
+                generateCalls.incrementAndGet();
+                sleep(this.delayMillis);
+                byte[] body = "{\"response\":\"ok\",\"done\":true}".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+                exchange.close();
+            });
+            server.createContext("/api/tags", exchange -> {
+                tagsCalls.incrementAndGet();
+                byte[] body = "{\"models\":[]}".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(tagsStatus, body.length);
+                exchange.getResponseBody().write(body);
+                exchange.close();
+            });
+            server.start();
+        }
+
+        String url() {
+            return "http://localhost:" + server.getAddress().getPort() + "/api/generate";
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+
+        private static void sleep(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
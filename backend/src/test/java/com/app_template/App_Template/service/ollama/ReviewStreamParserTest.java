@@ -0,0 +1,79 @@
+package com.app_template.App_Template.service.ollama;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.app_template.App_Template.dto.ReviewStreamEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ReviewStreamParserTest {
+
+    private static final String REVIEW = """
+            {"summary": "Mostly fine, one \\"quoted\\" {brace}",
+             "findings": [
+               {"line": 3, "type": "bug", "message": "Off by one", "suggestion": "Use <"},
+               {"line": 9, "type": "style", "message": "Name [x] better", "suggestion": "Rename"}
+             ],
+             "effort_estimation": "3/10"}""";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void emitsEveryPartOnceWhenFedCharacterByCharacter() {
+        ReviewStreamParser parser = new ReviewStreamParser(objectMapper);
+        List<ReviewStreamEvent> events = new ArrayList<>();
+
+        for (char c : REVIEW.toCharArray()) {
+            events.addAll(parser.feed(String.valueOf(c)));
+        }
+
+        assertThat(events).extracting(ReviewStreamEvent::getType).containsExactly(
+                ReviewStreamEvent.SUMMARY, ReviewStreamEvent.FINDING, ReviewStreamEvent.FINDING, ReviewStreamEvent.EFFORT);
+        assertThat(events.get(0).getData()).isEqualTo("Mostly fine, one \"quoted\" {brace}");
+        assertThat(((JsonNode) events.get(1).getData()).path("line").asInt()).isEqualTo(3);
+        assertThat(((JsonNode) events.get(2).getData()).path("message").asText()).isEqualTo("Name [x] better");
+        assertThat(events.get(3).getData()).isEqualTo("3/10");
+        assertThat(parser.isFinished()).isTrue();
+    }
+
+    @Test
+    void emitsAFindingAsSoonAsItIsClosed() {
+        ReviewStreamParser parser = new ReviewStreamParser(objectMapper);
+
+        assertThat(parser.feed("{\"summary\": \"ok\", \"findings\": [{\"line\": 1, \"type\": \"bug\""))
+                .extracting(ReviewStreamEvent::getType).containsExactly(ReviewStreamEvent.SUMMARY);
+        List<ReviewStreamEvent> events = parser.feed("}, {\"line\"");
+
+        assertThat(events).extracting(ReviewStreamEvent::getType).containsExactly(ReviewStreamEvent.FINDING);
+        assertThat(parser.isFinished()).isFalse();
+    }
+
+    @Test
+    void skipsTextBeforeTheObjectAndIgnoresEverythingAfterIt() {
+        ReviewStreamParser parser = new ReviewStreamParser(objectMapper);
+
+        List<ReviewStreamEvent> events = parser.feed("```json\n{\"effortEstimation\": \"2/10\"}\n```");
+
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.getType()).isEqualTo(ReviewStreamEvent.EFFORT);
+            assertThat(event.getData()).isEqualTo("2/10");
+        });
+        assertThat(parser.feed("{\"summary\": \"again\"}")).isEmpty();
+    }
+
+    @Test
+    void ignoresUnknownKeysAndNestedObjectsOutsideFindings() {
+        ReviewStreamParser parser = new ReviewStreamParser(objectMapper);
+
+        List<ReviewStreamEvent> events = parser.feed(
+                "{\"meta\": {\"line\": 1, \"nested\": {\"a\": 1}}, \"notes\": [{\"x\": 1}], \"summary\": \"done\"}");
+
+        assertThat(events).singleElement()
+                .satisfies(event -> assertThat(event.getType()).isEqualTo(ReviewStreamEvent.SUMMARY));
+    }
+}
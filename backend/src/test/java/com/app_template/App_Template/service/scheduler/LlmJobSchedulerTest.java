@@ -0,0 +1,231 @@
+package com.app_template.App_Template.service.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.app_template.App_Template.dto.QueuePositionResponse;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class LlmJobSchedulerTest {
+
+    /**
+     * A generation that runs until the test completes it.
+     */
+    private static final class Generation {
+        final String name;
+        final Sinks.One<String> result = Sinks.one();
+        final AtomicBoolean cancelled = new AtomicBoolean();
+
+        Generation(String name) {
+            this.name = name;
+        }
+
+        Mono<String> mono(List<String> started) {
+            return Mono.defer(() -> {
+                started.add(name);
+                return result.asMono().doOnCancel(() -> cancelled.set(true));
+            });
+        }
+
+        void complete() {
+            result.tryEmitValue(name);
+        }
+    }
+
+    private final List<String> started = new ArrayList<>();
+
+    @Test
+    void runsAtMostMaxConcurrentGenerations() {
+        LlmJobScheduler scheduler = new LlmJobScheduler(2, 10, 10, 1000);
+        List<Generation> generations = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Generation generation = new Generation("g" + i);
+            generations.add(generation);
+            scheduler.run(scheduler.enqueue((long) i, generation.name, null), () -> generation.mono(started)).subscribe();
+        }
+
+        assertThat(started).containsExactly("g0", "g1");
+        assertThat(scheduler.getRunningCount()).isEqualTo(2);
+        assertThat(scheduler.getQueuedCount()).isEqualTo(2);
+
+        generations.get(0).complete();
+        assertThat(started).containsExactly("g0", "g1", "g2");
+        assertThat(scheduler.getRunningCount()).isEqualTo(2);
+        assertThat(scheduler.getQueuedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void dispatchesRoundRobinAcrossUsers() {
+        LlmJobScheduler scheduler = new LlmJobScheduler(1, 10, 10, 1000);
+        // User 1 submits three files at once, then user 2 submits one
+        List<Generation> generations = new ArrayList<>();
+        List<LlmJob> jobs = new ArrayList<>();
+        for (String name : List.of("a1", "a2", "a3", "b1")) {
+            generations.add(new Generation(name));
+            jobs.add(scheduler.enqueue(name.startsWith("a") ? 1L : 2L, name, null));
+        }
+        for (int i = 0; i < 4; i++) {
+            Generation generation = generations.get(i);
+            scheduler.run(jobs.get(i), () -> generation.mono(started)).subscribe();
+        }
+
+        for (int i = 0; i < 4; i++) {
+            String running = started.get(started.size() - 1);
+            generations.stream().filter(generation -> generation.name.equals(running)).findFirst().orElseThrow().complete();
+        }
+
+        assertThat(started).containsExactly("a1", "b1", "a2", "a3");
+        assertThat(scheduler.getRunningCount()).isZero();
+        assertThat(scheduler.getQueuedCount()).isZero();
+    }
+
+    @Test
+    void rejectsWhenTheGlobalOrPerUserQueueIsFull() {
+        LlmJobScheduler scheduler = new LlmJobScheduler(1, 3, 2, 1000);
+        scheduler.enqueue(1L, "first", null);
+        scheduler.enqueue(1L, "second", null);
+
+        assertThatThrownBy(() -> scheduler.enqueue(1L, "third", null))
+                .isInstanceOf(LlmQueueFullException.class)
+                .satisfies(error -> assertThat(((LlmQueueFullException) error).getRetryAfterSeconds()).isPositive());
+
+        scheduler.enqueue(2L, "other user", null);
+        assertThatThrownBy(() -> scheduler.enqueue(3L, "queue full", null)).isInstanceOf(LlmQueueFullException.class);
+    }
+
+    @Test
+    void cancellingARunningJobCancelsItsGenerationAndFreesTheSlot() {
+        LlmJobScheduler scheduler = new LlmJobScheduler(1, 10, 10, 1000);
+        Generation running = new Generation("running");
+        Generation waiting = new Generation("waiting");
+        LlmJob job = scheduler.enqueue(1L, "running", 42L, "request-0001");
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        scheduler.run(job, () -> running.mono(started)).subscribe(value -> { }, error::set);
+        scheduler.run(scheduler.enqueue(2L, "waiting", null), () -> waiting.mono(started)).subscribe();
+
+        assertThat(scheduler.cancel(2L, "request-0001")).isEmpty();
+        assertThat(scheduler.cancel(1L, "request-0001")).containsSame(job);
+
+        assertThat(running.cancelled).isTrue();
+        assertThat(error.get()).isInstanceOf(LlmJobCancelledException.class);
+        assertThat(started).containsExactly("running", "waiting");
+    }
+
+    @Test
+    void cancellingAQueuedReviewRemovesItFromTheQueue() {
+        LlmJobScheduler scheduler = new LlmJobScheduler(1, 10, 10, 1000);
+        scheduler.run(scheduler.enqueue(1L, "running", null), () -> new Generation("running").mono(started)).subscribe();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        scheduler.run(scheduler.enqueue(1L, "queued", 7L), () -> new Generation("queued").mono(started))
+                .subscribe(value -> { }, error::set);
+
+        assertThat(scheduler.cancelReview(7L)).isTrue();
+
+        assertThat(error.get()).isInstanceOf(LlmJobCancelledException.class);
+        assertThat(scheduler.getQueuedCount()).isZero();
+        assertThat(started).containsExactly("running");
+    }
+
+    @Test
+    void releaseGivesBackAnUnusedReservation() {
+        LlmJobScheduler scheduler = new LlmJobScheduler(1, 10, 1, 1000);
+        LlmJob job = scheduler.enqueue(1L, "unused", null);
+
+        scheduler.release(job);
+
+        assertThat(scheduler.getQueuedCount()).isZero();
+        scheduler.enqueue(1L, "next", null);
+    }
+
+    @Test
+    void partsRunInTheSlotTheirParentGivesUpAndTakeTurnsWithOtherUsers() {
+        LlmJobScheduler scheduler = new LlmJobScheduler(1, 10, 1, 1000);
+        List<Generation> parts = List.of(new Generation("part1"), new Generation("part2"), new Generation("part3"));
+        LlmJob parent = scheduler.enqueue(1L, "large file", 7L);
+        AtomicReference<List<String>> result = new AtomicReference<>();
+        scheduler.run(parent, () -> Flux.fromIterable(parts)
+                        .flatMapSequential(part -> scheduler.runPart(parent, part.name, () -> part.mono(started)), 2)
+                        .collectList())
+                .subscribe(result::set);
+        Generation other = new Generation("other");
+        scheduler.run(scheduler.enqueue(2L, "other", null), () -> other.mono(started)).subscribe();
+
+        // The parent waits for its parts without holding the only slot
+        assertThat(started).containsExactly("part1");
+        assertThat(scheduler.getRunningCount()).isEqualTo(1);
+
+        parts.get(0).complete();
+        parts.get(1).complete();
+        assertThat(started).containsExactly("part1", "part2", "other");
+
+        other.complete();
+        parts.get(2).complete();
+        assertThat(result.get()).containsExactly("part1", "part2", "part3");
+        assertThat(scheduler.getRunningCount()).isZero();
+        assertThat(scheduler.getQueuedCount()).isZero();
+    }
+
+    @Test
+    void cancellingASplitReviewCancelsItsParts() {
+        LlmJobScheduler scheduler = new LlmJobScheduler(2, 10, 10, 1000);
+        Generation part = new Generation("part");
+        LlmJob parent = scheduler.enqueue(1L, "large file", 7L);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        scheduler.run(parent, () -> scheduler.runPart(parent, "part", () -> part.mono(started)))
+                .subscribe(value -> { }, error::set);
+
+        assertThat(scheduler.cancelReview(7L)).isTrue();
+
+        assertThat(part.cancelled).isTrue();
+        assertThat(error.get()).isInstanceOf(LlmJobCancelledException.class);
+        assertThat(scheduler.getRunningCount()).isZero();
+    }
+
+    @Test
+    void backgroundJobsOnlyRunWhileNoUserJobWaits() {
+        LlmJobScheduler scheduler = new LlmJobScheduler(1, 10, 1, 1000);
+        Generation running = new Generation("running");
+        scheduler.run(scheduler.enqueue(1L, "running", null), () -> running.mono(started)).subscribe();
+        Generation summary = new Generation("summary");
+        scheduler.submitBackground("summary", () -> summary.mono(started)).subscribe();
+        Generation question = new Generation("question");
+        scheduler.run(scheduler.enqueue(1L, "question", null), () -> question.mono(started)).subscribe();
+
+        // The waiting background job takes no place of the user, whose limit is one
+        assertThat(scheduler.getJobs(1L)).extracting(QueuePositionResponse::getDescription)
+                .containsExactly("running", "question");
+
+        running.complete();
+        assertThat(started).containsExactly("running", "question");
+
+        question.complete();
+        assertThat(started).containsExactly("running", "question", "summary");
+        assertThat(scheduler.getRunningCount()).isEqualTo(1);
+    }
+
+    @Test
+    void reportsQueuePositionsInDispatchOrder() {
+        LlmJobScheduler scheduler = new LlmJobScheduler(1, 10, 10, 1000);
+        scheduler.run(scheduler.enqueue(1L, "running", null), () -> new Generation("running").mono(started)).subscribe();
+        for (String name : List.of("a1", "a2")) {
+            scheduler.run(scheduler.enqueue(1L, name, null), () -> new Generation(name).mono(started)).subscribe();
+        }
+        scheduler.run(scheduler.enqueue(2L, "b1", null), () -> new Generation("b1").mono(started)).subscribe();
+
+        List<QueuePositionResponse> jobs = scheduler.getJobs(1L);
+
+        assertThat(jobs).extracting(QueuePositionResponse::getDescription).containsExactly("running", "a1", "a2");
+        assertThat(jobs).extracting(QueuePositionResponse::getPosition).containsExactly(0, 1, 3);
+        assertThat(scheduler.getJobs(2L)).extracting(QueuePositionResponse::getPosition).containsExactly(2);
+    }
+}
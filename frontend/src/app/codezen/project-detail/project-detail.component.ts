@@ -1,5 +1,6 @@
-import { Component, OnInit, signal } from '@angular/core';
+import { Component, HostListener, OnDestroy, OnInit, signal } from '@angular/core';
 import { ActivatedRoute, Router } from '@angular/router';
+import { Subscription } from 'rxjs';
 import { CommonModule } from '@angular/common';
 import { FormsModule } from '@angular/forms';
 import { TranslateModule, TranslateService } from '@ngx-translate/core';
@@ -18,7 +19,7 @@ import { NzDividerModule } from 'ng-zorro-antd/divider';
 
 import { CodezenService } from '../service/codezen.service';
 import { ProjectResponse } from '../../models/project-response';
-import { ReviewResponse } from '../../models/review-response';
+import { ReviewSummary } from '../../models/review-summary';
 import { GuidelineResponse } from '../../models/guideline-response';
 
 /**
@@ -48,12 +49,14 @@ import { GuidelineResponse } from '../../models/guideline-response';
   templateUrl: './project-detail.component.html',
   styleUrls: ['./project-detail.component.scss']
 })
-export class ProjectDetailComponent implements OnInit {
+export class ProjectDetailComponent implements OnInit, OnDestroy {
   projectId!: number;
 
   // Signals for reactive state
   project = signal<ProjectResponse | null>(null);
-  reviews = signal<ReviewResponse[]>([]);
+  reviews = signal<ReviewSummary[]>([]);
+  reviewsCursor = signal<string | null>(null);
+  reviewsLoading = signal(false);
   guidelines = signal<GuidelineResponse[]>([]);
   loading = signal(false);
   reviewLoading = signal(false);
@@ -65,6 +68,10 @@ export class ProjectDetailComponent implements OnInit {
   // Guidelines
   newGuideline = signal('');
 
+  // Review waiting for its reply, cancelled when the page is left
+  private pendingReview: Subscription | null = null;
+  private pendingReviewRequestId: string | null = null;
+
   constructor(
     private route: ActivatedRoute,
     private router: Router,
@@ -81,6 +88,23 @@ export class ProjectDetailComponent implements OnInit {
     });
   }
 
+  ngOnDestroy(): void {
+    this.cancelPendingReview();
+  }
+
+  /**
+   * Stop the review still being generated when the user navigates away or closes the tab
+   */
+  @HostListener('window:pagehide')
+  cancelPendingReview(): void {
+    if (this.pendingReviewRequestId) {
+      this.codezenService.cancelRequest(this.pendingReviewRequestId);
+      this.pendingReview?.unsubscribe();
+      this.pendingReview = null;
+      this.pendingReviewRequestId = null;
+    }
+  }
+
   /**
    * Load all project data
    */
@@ -104,15 +128,41 @@ export class ProjectDetailComponent implements OnInit {
   }
 
   /**
-   * Load reviews for this project
+   * Load the first page of reviews for this project
    */
   loadReviews(): void {
+    this.reviewsLoading.set(true);
     this.codezenService.getReviews(this.projectId).subscribe({
-      next: (reviews) => {
-        this.reviews.set(reviews);
+      next: (page) => {
+        this.reviews.set(page.reviews);
+        this.reviewsCursor.set(page.nextCursor);
+        this.reviewsLoading.set(false);
+      },
+      error: (error) => {
+        console.error('Error loading reviews:', error);
+        this.reviewsLoading.set(false);
+      }
+    });
+  }
+
+  /**
+   * Load the next page of reviews
+   */
+  loadMoreReviews(): void {
+    const cursor = this.reviewsCursor();
+    if (!cursor || this.reviewsLoading()) {
+      return;
+    }
+    this.reviewsLoading.set(true);
+    this.codezenService.getReviews(this.projectId, cursor).subscribe({
+      next: (page) => {
+        this.reviews.update(reviews => [...reviews, ...page.reviews]);
+        this.reviewsCursor.set(page.nextCursor);
+        this.reviewsLoading.set(false);
       },
       error: (error) => {
         console.error('Error loading reviews:', error);
+        this.reviewsLoading.set(false);
       }
     });
   }
@@ -141,14 +191,20 @@ export class ProjectDetailComponent implements OnInit {
     }
 
     this.reviewLoading.set(true);
-    this.codezenService.createReview(this.projectId, { code: this.code() }).subscribe({
+    const requestId = this.codezenService.newRequestId();
+    this.pendingReviewRequestId = requestId;
+    this.pendingReview = this.codezenService.createReview(this.projectId, { code: this.code(), requestId }).subscribe({
       next: (review) => {
+        this.pendingReviewRequestId = null;
         this.message.success(this.translate.instant('codezen.projectDetail.reviewSuccess'));
-        this.reviews.update(reviews => [review, ...reviews]);
+        // Keep only what the list shows, not the code and response of the new review
+        const summary: ReviewSummary = { id: review.id, timestamp: review.timestamp, effortEstimation: review.effortEstimation };
+        this.reviews.update(reviews => [summary, ...reviews]);
         this.selectedTabIndex.set(1); // Switch to reviews tab
         this.reviewLoading.set(false);
       },
       error: (error) => {
+        this.pendingReviewRequestId = null;
         console.error('Error creating review:', error);
         this.message.error(this.translate.instant('codezen.projectDetail.reviewFailed'));
         this.reviewLoading.set(false);
@@ -208,7 +264,7 @@ export class ProjectDetailComponent implements OnInit {
   /**
    * View review details
    */
-  viewReview(review: ReviewResponse): void {
+  viewReview(review: ReviewSummary): void {
     this.router.navigate(['/codezen/project', this.projectId, 'review', review.id]);
   }
 
@@ -1,5 +1,6 @@
-import { Component, OnInit, signal } from '@angular/core';
+import { Component, HostListener, OnDestroy, OnInit, signal } from '@angular/core';
 import { ActivatedRoute, Router } from '@angular/router';
+import { Subscription } from 'rxjs';
 import { CommonModule } from '@angular/common';
 import { FormsModule } from '@angular/forms';
 import { TranslateModule, TranslateService } from '@ngx-translate/core';
@@ -45,7 +46,7 @@ import { CommentResponse } from '../../models/comment-response';
   templateUrl: './review-detail.component.html',
   styleUrls: ['./review-detail.component.scss']
 })
-export class ReviewDetailComponent implements OnInit {
+export class ReviewDetailComponent implements OnInit, OnDestroy {
   projectId!: number;
   reviewId!: number;
 
@@ -60,6 +61,10 @@ export class ReviewDetailComponent implements OnInit {
   sendingQuestion = signal(false);
   loadingComments = signal(false);
 
+  // Question waiting for its answer, cancelled when the page is left
+  private pendingQuestion: Subscription | null = null;
+  private pendingQuestionRequestId: string | null = null;
+
   constructor(
     private route: ActivatedRoute,
     private router: Router,
@@ -77,6 +82,23 @@ export class ReviewDetailComponent implements OnInit {
     });
   }
 
+  ngOnDestroy(): void {
+    this.cancelPendingQuestion();
+  }
+
+  /**
+   * Stop the answer still being generated when the user navigates away or closes the tab
+   */
+  @HostListener('window:pagehide')
+  cancelPendingQuestion(): void {
+    if (this.pendingQuestionRequestId) {
+      this.codezenService.cancelRequest(this.pendingQuestionRequestId);
+      this.pendingQuestion?.unsubscribe();
+      this.pendingQuestion = null;
+      this.pendingQuestionRequestId = null;
+    }
+  }
+
   /**
    * Load review details
    */
@@ -198,14 +220,18 @@ export class ReviewDetailComponent implements OnInit {
       userId: 0
     }]);
 
-    this.codezenService.postComment(this.projectId, this.reviewId, { message: question }).subscribe({
+    const requestId = this.codezenService.newRequestId();
+    this.pendingQuestionRequestId = requestId;
+    this.pendingQuestion = this.codezenService.postComment(this.projectId, this.reviewId, { message: question, requestId }).subscribe({
       next: (aiResponse) => {
+        this.pendingQuestionRequestId = null;
         // Replace temporary user comment with actual response from server
         this.loadComments();
         this.userQuestion = '';
         this.sendingQuestion.set(false);
       },
       error: (error) => {
+        this.pendingQuestionRequestId = null;
         console.error('Error asking question:', error);
         this.message.error(this.translate.instant('codezen.reviewDetail.questionFailed'));
         // Remove temporary user comment on error
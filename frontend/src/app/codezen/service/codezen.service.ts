@@ -5,6 +5,7 @@ import { ProjectRequest } from '../../models/project-request';
 import { ProjectResponse } from '../../models/project-response';
 import { ReviewRequest } from '../../models/review-request';
 import { ReviewResponse } from '../../models/review-response';
+import { ReviewPage } from '../../models/review-summary';
 import { GuidelineRequest } from '../../models/guideline-request';
 import { GuidelineResponse } from '../../models/guideline-response';
 import { CommentRequest } from '../../models/comment-request';
@@ -87,12 +88,39 @@ export class CodezenService {
   }
 
   /**
-   * Get all reviews for a project
+   * New id for a review or question request, so it can be cancelled before its reply arrives
    */
-  getReviews(projectId: number): Observable<ReviewResponse[]> {
-    return this.http.get<ReviewResponse[]>(
+  newRequestId(): string {
+    return crypto.randomUUID();
+  }
+
+  /**
+   * Cancel a pending review or question, stopping its generation on the server.
+   * Sent with keepalive so it still goes out while the page is being closed.
+   */
+  cancelRequest(requestId: string): void {
+    const token = StorageService.getToken();
+    fetch(`${this.baseUrl}/queue/${requestId}/cancel`, {
+      method: 'POST',
+      keepalive: true,
+      headers: token ? { 'Authorization': `Bearer ${token}` } : {}
+    }).catch(() => {
+      // Nothing to cancel when the reply is already on its way
+    });
+  }
+
+  /**
+   * Get a page of a project's reviews, newest first, with only the fields the list shows.
+   * Pass the nextCursor of the previous page to get the next one.
+   */
+  getReviews(projectId: number, cursor?: string | null): Observable<ReviewPage> {
+    const params: Record<string, string> = { fields: 'id,timestamp,effortEstimation,summary' };
+    if (cursor) {
+      params['cursor'] = cursor;
+    }
+    return this.http.get<ReviewPage>(
       `${this.baseUrl}/${projectId}/reviews`,
-      { headers: this.getAuthHeaders() }
+      { headers: this.getAuthHeaders(), params }
     );
   }
 
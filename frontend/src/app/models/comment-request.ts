@@ -1,4 +1,5 @@
 export interface CommentRequest {
   message: string;
+  requestId?: string;
 }
 
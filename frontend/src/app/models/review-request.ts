@@ -1,4 +1,5 @@
 export interface ReviewRequest {
   code: string;
+  requestId?: string;
 }
 
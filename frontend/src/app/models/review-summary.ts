@@ -0,0 +1,21 @@
+/**
+ * A review as listed on the project page: no code and no response.
+ * Only the fields asked for with `fields` are present.
+ */
+export interface ReviewSummary {
+  id: number;
+  timestamp?: string;
+  status?: string;
+  effortEstimation?: string | null;
+  summary?: string;
+  findingCount?: number;
+  findingsByType?: Record<string, number>;
+  fileName?: string;
+  batchId?: string;
+  baseReviewId?: number;
+}
+
+export interface ReviewPage {
+  reviews: ReviewSummary[];
+  nextCursor: string | null;
+}